@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.GraphStateException;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+
+/**
+ * Converts a LangGraph4j graph into a {@link LangGraph4jAgent}.
+ *
+ * <p>Build the graph with a serializer from {@link LangGraph4jStateSerializers} to have its
+ * checkpoints written by the configured serializer.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class LangGraph4jAdapter {
+
+    public static <S extends AgentState> LangGraph4jAgent convert(final StateGraph<S> graph) {
+
+        return convert(graph, CompileConfig.builder().build());
+    }
+
+    /**
+     * Compile a graph.
+     *
+     * @param graph  LangGraph4j graph
+     * @param config compile config, e.g. with a checkpoint saver
+     * @param <S>    graph state type
+     * @return {@link LangGraph4jAgent}
+     */
+    public static <S extends AgentState> LangGraph4jAgent convert(final StateGraph<S> graph, final CompileConfig config) {
+
+        try {
+            return new LangGraph4jAgent(graph.compile(config));
+        } catch (GraphStateException e) {
+            throw new AgentRuntimeException("Invalid LangGraph4j graph: " + e.getMessage(), e);
+        }
+    }
+
+}
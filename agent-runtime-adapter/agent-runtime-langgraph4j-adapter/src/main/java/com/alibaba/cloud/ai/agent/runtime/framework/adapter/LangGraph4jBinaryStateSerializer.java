@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateCodec;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.AgentStateFactory;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+
+/**
+ * LangGraph4j state serializer backed by an {@link AgentStateCodec}.
+ *
+ * <p>Checkpoints are written on every step when persistence is enabled, this serializer keeps
+ * them small and avoids Java serialization for the types the codec knows.
+ *
+ * @param <S> graph state type
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public class LangGraph4jBinaryStateSerializer<S extends AgentState> extends StateSerializer<S> {
+
+    private final AgentStateCodec codec;
+
+    public LangGraph4jBinaryStateSerializer(final AgentStateFactory<S> stateFactory, final AgentStateCodec codec) {
+
+        super(stateFactory);
+        this.codec = codec;
+    }
+
+    public AgentStateCodec getCodec() {
+
+        return codec;
+    }
+
+    @Override
+    public void write(final Map<String, Object> object, final ObjectOutput out) throws IOException {
+
+        codec.write(object, out);
+    }
+
+    @Override
+    public Map<String, Object> read(final ObjectInput in) throws IOException {
+
+        return codec.read(in);
+    }
+
+}
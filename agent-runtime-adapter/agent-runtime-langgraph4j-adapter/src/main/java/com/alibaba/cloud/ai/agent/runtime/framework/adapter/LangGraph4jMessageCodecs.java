@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateCodec;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateValueCodec;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * State value codecs of the LangChain4j chat messages, the values of a {@code MessagesState<ChatMessage>}.
+ *
+ * <p>The messages are not {@link java.io.Serializable}, without these codecs a graph that keeps
+ * them in its state fails on its first checkpoint. Tags {@value #SYSTEM_MESSAGE} to
+ * {@value #TOOL_EXECUTION_RESULT_MESSAGE} are taken, user codecs register other tags. User
+ * messages are written as text only, multimodal ones need the {@code lc4j} serializer.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class LangGraph4jMessageCodecs {
+
+    public static final int SYSTEM_MESSAGE = 1;
+
+    public static final int USER_MESSAGE = 2;
+
+    public static final int AI_MESSAGE = 3;
+
+    public static final int TOOL_EXECUTION_RESULT_MESSAGE = 4;
+
+    private LangGraph4jMessageCodecs() {
+    }
+
+    /**
+     * Register the chat message codecs.
+     *
+     * @param builder codec builder
+     * @return the builder
+     */
+    public static AgentStateCodec.Builder register(final AgentStateCodec.Builder builder) {
+
+        return builder.register(SYSTEM_MESSAGE, SystemMessage.class, new SystemMessageCodec())
+                .register(USER_MESSAGE, UserMessage.class, new UserMessageCodec())
+                .register(AI_MESSAGE, AiMessage.class, new AiMessageCodec())
+                .register(TOOL_EXECUTION_RESULT_MESSAGE, ToolExecutionResultMessage.class, new ToolExecutionResultMessageCodec());
+    }
+
+    static void writeString(final DataOutput out, final String value) throws IOException {
+
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(final DataInput in) throws IOException {
+
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class SystemMessageCodec implements AgentStateValueCodec<SystemMessage> {
+
+        @Override
+        public void write(final SystemMessage value, final DataOutput out) throws IOException {
+
+            writeString(out, value.text());
+        }
+
+        @Override
+        public SystemMessage read(final DataInput in) throws IOException {
+
+            return SystemMessage.from(readString(in));
+        }
+
+    }
+
+    private static final class UserMessageCodec implements AgentStateValueCodec<UserMessage> {
+
+        @Override
+        public void write(final UserMessage value, final DataOutput out) throws IOException {
+
+            if (!value.hasSingleText()) {
+                throw new IOException("Only text user messages are written by the binary state serializer, use the lc4j serializer for multimodal messages");
+            }
+            writeString(out, value.name());
+            writeString(out, value.singleText());
+        }
+
+        @Override
+        public UserMessage read(final DataInput in) throws IOException {
+
+            String name = readString(in);
+            String text = readString(in);
+            return Objects.isNull(name) ? UserMessage.from(text) : UserMessage.from(name, text);
+        }
+
+    }
+
+    private static final class AiMessageCodec implements AgentStateValueCodec<AiMessage> {
+
+        @Override
+        public void write(final AiMessage value, final DataOutput out) throws IOException {
+
+            writeString(out, value.text());
+            writeString(out, value.thinking());
+            List<ToolExecutionRequest> requests = value.hasToolExecutionRequests() ? value.toolExecutionRequests() : List.of();
+            out.writeInt(requests.size());
+            for (ToolExecutionRequest request : requests) {
+                writeString(out, request.id());
+                writeString(out, request.name());
+                writeString(out, request.arguments());
+            }
+        }
+
+        @Override
+        public AiMessage read(final DataInput in) throws IOException {
+
+            String text = readString(in);
+            String thinking = readString(in);
+            int size = in.readInt();
+            List<ToolExecutionRequest> requests = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                requests.add(ToolExecutionRequest.builder()
+                        .id(readString(in))
+                        .name(readString(in))
+                        .arguments(readString(in))
+                        .build());
+            }
+            return AiMessage.builder().text(text).thinking(thinking).toolExecutionRequests(requests).build();
+        }
+
+    }
+
+    private static final class ToolExecutionResultMessageCodec implements AgentStateValueCodec<ToolExecutionResultMessage> {
+
+        @Override
+        public void write(final ToolExecutionResultMessage value, final DataOutput out) throws IOException {
+
+            writeString(out, value.id());
+            writeString(out, value.toolName());
+            writeString(out, value.text());
+        }
+
+        @Override
+        public ToolExecutionResultMessage read(final DataInput in) throws IOException {
+
+            return ToolExecutionResultMessage.from(readString(in), readString(in), readString(in));
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.enums.IEnum;
+
+import java.util.Arrays;
+
+/**
+ * State serializers available to LangGraph4j graphs, see {@link LangGraph4jStateSerializers}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public enum LangGraph4jSerializerType implements IEnum {
+
+    BINARY("binary", "Compact binary state with slot tagged keys, deduplicated strings and LangChain4j message codecs."),
+    LC4J("lc4j", "Java serialization of the state map with LangChain4j message support."),
+    OBJECT_STREAM("object-stream", "The LangGraph4j default, Java serialization of the state map, without LangChain4j messages.");
+
+    private final String name;
+
+    private final String desc;
+
+    LangGraph4jSerializerType(final String name, final String desc) {
+        this.name = name;
+        this.desc = desc;
+    }
+
+    /**
+     * The serializer type of the given name.
+     *
+     * @param name type name, case-insensitive
+     * @return {@link LangGraph4jSerializerType}, null if there is no such type
+     */
+    public static LangGraph4jSerializerType of(final String name) {
+
+        return Arrays.stream(values()).filter(type -> type.name.equalsIgnoreCase(name)).findFirst().orElse(null);
+    }
+
+    @Override
+    public String getName() {
+
+        return this.name;
+    }
+
+    @Override
+    public String getDesc() {
+
+        return this.desc;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentState;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateDelta;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+
+/**
+ * A LangGraph4j graph node that reads and writes state by slot, an alternative to a map based {@code NodeAction}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public interface LangGraph4jSlotNodeAction {
+
+    /**
+     * Resolve the slots of the keys this node uses.
+     *
+     * @param layout state layout of the graph
+     */
+    void bind(AgentStateLayout layout);
+
+    /**
+     * Run the node.
+     *
+     * @param state the graph state
+     * @return the update of this step
+     * @throws Exception if the node fails
+     */
+    AgentStateDelta apply(AgentState state) throws Exception;
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateCodec;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.AgentStateFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Creates the state serializer of a LangGraph4j graph.
+ *
+ * <p>The serializer is picked by {@code agent.runtime.langgraph4j.serializer}, {@code binary}
+ * by default, so a deployment can switch back to the LangGraph4j serializers without a code change.
+ * The binary codec should come from {@link #codecBuilder(AgentStateLayout)}, it knows the
+ * LangChain4j chat messages of a {@code MessagesState}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class LangGraph4jStateSerializers {
+
+    public static final String SERIALIZER_PROPERTY = "agent.runtime.langgraph4j.serializer";
+
+    private LangGraph4jStateSerializers() {
+    }
+
+    /**
+     * A binary codec builder with the LangChain4j chat message codecs registered.
+     *
+     * @param layout state layout of the graph
+     * @return {@link AgentStateCodec.Builder}
+     */
+    public static AgentStateCodec.Builder codecBuilder(final AgentStateLayout layout) {
+
+        return LangGraph4jMessageCodecs.register(AgentStateCodec.builder(layout));
+    }
+
+    /**
+     * The configured serializer, with the binary codec of {@link #codecBuilder(AgentStateLayout)}.
+     *
+     * @param stateFactory graph state factory
+     * @param layout       state layout of the graph
+     * @param <S>          graph state type
+     * @return {@link StateSerializer}
+     */
+    public static <S extends AgentState> StateSerializer<S> of(final AgentStateFactory<S> stateFactory, final AgentStateLayout layout) {
+
+        return of(stateFactory, codecBuilder(layout).build());
+    }
+
+    /**
+     * The configured serializer.
+     *
+     * @param stateFactory graph state factory
+     * @param codec        codec of the binary serializer
+     * @param <S>          graph state type
+     * @return {@link StateSerializer}
+     */
+    public static <S extends AgentState> StateSerializer<S> of(final AgentStateFactory<S> stateFactory, final AgentStateCodec codec) {
+
+        String name = System.getProperty(SERIALIZER_PROPERTY, LangGraph4jSerializerType.BINARY.getName());
+        LangGraph4jSerializerType type = LangGraph4jSerializerType.of(name);
+        if (Objects.isNull(type)) {
+            throw new AgentRuntimeException("Unknown LangGraph4j state serializer " + name + ", expected one of " + Arrays.toString(LangGraph4jSerializerType.values()));
+        }
+        return of(type, stateFactory, codec);
+    }
+
+    /**
+     * A serializer of the given type.
+     *
+     * @param type         serializer type
+     * @param stateFactory graph state factory
+     * @param codec        codec of the binary serializer
+     * @param <S>          graph state type
+     * @return {@link StateSerializer}
+     */
+    public static <S extends AgentState> StateSerializer<S> of(final LangGraph4jSerializerType type, final AgentStateFactory<S> stateFactory, final AgentStateCodec codec) {
+
+        return switch (type) {
+            case BINARY -> new LangGraph4jBinaryStateSerializer<>(stateFactory, codec);
+            case LC4J -> new LC4jStateSerializer<>(stateFactory);
+            case OBJECT_STREAM -> new ObjectStreamStateSerializer<>(stateFactory);
+        };
+    }
+
+}
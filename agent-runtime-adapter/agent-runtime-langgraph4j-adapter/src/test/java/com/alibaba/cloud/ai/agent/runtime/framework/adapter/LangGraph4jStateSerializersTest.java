@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class LangGraph4jStateSerializersTest {
+
+    private static final AgentStateLayout LAYOUT = AgentStateLayout.of(List.of("messages", "step"));
+
+    private static Map<String, Object> roundTrip(final StateSerializer<AgentState> serializer, final Map<String, Object> state) throws IOException, ClassNotFoundException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            serializer.write(state, out);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return serializer.read(in);
+        }
+    }
+
+    @Test
+    void testChatMessagesRoundTripThroughTheBinarySerializer() throws IOException, ClassNotFoundException {
+
+        List<ChatMessage> messages = List.of(
+                SystemMessage.from("You are a weather agent."),
+                UserMessage.from("alice", "Weather in Hangzhou?"),
+                AiMessage.builder().toolExecutionRequests(List.of(ToolExecutionRequest.builder().id("call-1").name("weather").arguments("{\"city\":\"Hangzhou\"}").build())).build(),
+                ToolExecutionResultMessage.from("call-1", "weather", "sunny"),
+                AiMessage.from("It is sunny in Hangzhou."));
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("messages", messages);
+        state.put("step", 5);
+
+        StateSerializer<AgentState> serializer = LangGraph4jStateSerializers.of(LangGraph4jSerializerType.BINARY, AgentState::new, LangGraph4jStateSerializers.codecBuilder(LAYOUT).build());
+
+        Assertions.assertEquals(state, roundTrip(serializer, state));
+    }
+
+    @Test
+    void testSerializerIsPickedByProperty() {
+
+        Assertions.assertInstanceOf(LangGraph4jBinaryStateSerializer.class, LangGraph4jStateSerializers.of(AgentState::new, LAYOUT));
+        try {
+            System.setProperty(LangGraph4jStateSerializers.SERIALIZER_PROPERTY, "lc4j");
+            Assertions.assertInstanceOf(LC4jStateSerializer.class, LangGraph4jStateSerializers.of(AgentState::new, LAYOUT));
+
+            System.setProperty(LangGraph4jStateSerializers.SERIALIZER_PROPERTY, "kryo");
+            Assertions.assertThrows(AgentRuntimeException.class, () -> LangGraph4jStateSerializers.of(AgentState::new, LAYOUT));
+        } finally {
+            System.clearProperty(LangGraph4jStateSerializers.SERIALIZER_PROPERTY);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentState;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateDelta;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import org.bsc.langgraph4j.action.NodeAction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class LangGraph4jStateTranslatorTest {
+
+    @Test
+    void testSlotNodeRunsAsNodeAction() throws Exception {
+
+        AgentStateLayout layout = AgentStateLayout.of(List.of("count", "label"));
+        NodeAction<org.bsc.langgraph4j.state.AgentState> action = LangGraph4jStateTranslator.toNodeAction(layout, new Increment());
+
+        Map<String, Object> update = action.apply(new org.bsc.langgraph4j.state.AgentState(Map.of("count", 1, "label", "steps")));
+
+        Assertions.assertEquals(Map.of("count", 2), update);
+    }
+
+    @Test
+    void testStateIsViewedBySlot() {
+
+        AgentStateLayout layout = AgentStateLayout.of(List.of("count", "label"));
+
+        AgentState state = LangGraph4jStateTranslator.toState(layout, new org.bsc.langgraph4j.state.AgentState(Map.of("label", "steps", "other", true)));
+
+        Assertions.assertEquals("steps", state.get(layout.require("label")));
+        Assertions.assertNull(state.get(layout.require("count")));
+    }
+
+    public static class Increment implements LangGraph4jSlotNodeAction {
+
+        private int count;
+
+        @Override
+        public void bind(final AgentStateLayout layout) {
+
+            this.count = layout.require("count");
+        }
+
+        @Override
+        public AgentStateDelta apply(final AgentState state) {
+
+            Integer current = state.get(count);
+            return new AgentStateDelta(state.getLayout(), 1).put(count, current + 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+
+import java.util.Set;
+
+/**
+ * A compiled graph, the nodes whose outgoing edges fan out into parallel branches and the results of its cacheable nodes.
+ *
+ * @param graph         {@link CompiledGraph}
+ * @param parallelNodes ids of the fan-out nodes, they take a branch executor at invocation
+ * @param layout        slot of every state key declared by the schema
+ * @param nodeCache     memoized results of the cacheable nodes
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+record SAACompiledGraph(CompiledGraph graph, Set<String> parallelNodes, AgentStateLayout layout, SAANodeCache nodeCache) {
+}
@@ -17,12 +17,24 @@
  * under the License.
  */
 
+
 package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
 
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.diff.AgentGraphSchemaFingerprint;
+
+import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
- * todo: add interface, poc impl.
+ * Converts a Spring AI Alibaba graph schema into a {@link SAAGraphAgent}.
+ *
+ * <p>Graphs are compiled by {@link SAAGraphCompiler} once per distinct schema and action class
+ * loader, see {@link SAAGraphCache}. Action classes are loaded from the thread context class loader.
  *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -30,9 +42,69 @@ import java.io.Reader;
 
 public class SAAGraphAdapter {
 
-    public static SAAGraphAgent convert(Reader agentRuntimeSchema) {
+    public static SAAGraphAgent convert(final Reader agentRuntimeSchema) {
+
+        StringBuilder content = new StringBuilder();
+        CharBuffer buf = CharBuffer.allocate(8192);
+        try (Reader reader = agentRuntimeSchema) {
+            while (reader.read(buf) != -1) {
+                buf.flip();
+                content.append(buf);
+                buf.clear();
+            }
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read graph schema", e);
+        }
+
+        return convert(StandardCharsets.UTF_8.encode(CharBuffer.wrap(content)));
+    }
+
+    /**
+     * Convert a graph schema.
+     *
+     * @param agentRuntimeSchema graph schema bytes, the buffer position is not changed
+     * @return {@link SAAGraphAgent}
+     */
+    public static SAAGraphAgent convert(final ByteBuffer agentRuntimeSchema) {
+
+        return convert(AgentGraphSchemaFingerprint.of(agentRuntimeSchema), agentRuntimeSchema);
+    }
+
+    /**
+     * Convert a graph schema whose {@link AgentGraphSchemaFingerprint} is already known.
+     *
+     * @param fingerprint        fingerprint of the graph schema
+     * @param agentRuntimeSchema graph schema bytes, the buffer position is not changed
+     * @return {@link SAAGraphAgent}
+     */
+    public static SAAGraphAgent convert(final String fingerprint, final ByteBuffer agentRuntimeSchema) {
+
+        final ClassLoader actionLoader = actionLoader();
+
+        return new SAAGraphAgent(
+                SAAGraphCache.getInstance().get(fingerprint, actionLoader, () -> SAAGraphCompiler.compile(agentRuntimeSchema, actionLoader)),
+                fingerprint
+        );
+    }
+
+    /**
+     * Convert a graph schema into an agent with a compiled graph of its own, bypassing the {@link SAAGraphCache}.
+     * The agent shares no node action instances and no {@link SAANodeCache} with other agents, e.g. for
+     * pooled instances of an agent whose nodes are not safe to share.
+     *
+     * @param fingerprint        fingerprint of the graph schema
+     * @param agentRuntimeSchema graph schema bytes, the buffer position is not changed
+     * @return {@link SAAGraphAgent}
+     */
+    public static SAAGraphAgent convertIsolated(final String fingerprint, final ByteBuffer agentRuntimeSchema) {
+
+        return new SAAGraphAgent(SAAGraphCompiler.compile(agentRuntimeSchema, actionLoader()), fingerprint);
+    }
+
+    private static ClassLoader actionLoader() {
 
-        return new SAAGraphAgent();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return Objects.isNull(classLoader) ? SAAGraphAdapter.class.getClassLoader() : classLoader;
     }
 
 }
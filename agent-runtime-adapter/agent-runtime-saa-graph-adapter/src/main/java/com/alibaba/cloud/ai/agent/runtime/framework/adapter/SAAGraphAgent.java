@@ -17,14 +17,164 @@
  * under the License.
  */
 
+
 package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
 
 import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentState;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * An agent backed by a Spring AI Alibaba {@link CompiledGraph}.
+ *
+ * <p>The compiled graph may be shared with other agents of the same graph schema, see {@link SAAGraphCache}.
+ * Parallel branches run on the executor of the agent, by default a shared pool of daemon threads
+ * sized by {@code agent.runtime.saa.branch-threads}, one thread per available processor if not set.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 
 public class SAAGraphAgent extends BaseAgent {
+
+    public static final String BRANCH_THREADS_PROPERTY = "agent.runtime.saa.branch-threads";
+
+    private final SAACompiledGraph compiledGraph;
+
+    private final String fingerprint;
+
+    private volatile Executor branchExecutor;
+
+    SAAGraphAgent(final SAACompiledGraph compiledGraph, final String fingerprint) {
+
+        this.compiledGraph = compiledGraph;
+        this.fingerprint = fingerprint;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+
+        return compiledGraph.graph();
+    }
+
+    /**
+     * Fingerprint of the graph schema the graph was compiled from.
+     *
+     * @return hex encoded SHA-256 of the canonical schema
+     */
+    public String getFingerprint() {
+
+        return fingerprint;
+    }
+
+    /**
+     * Nodes whose outgoing edges fan out into parallel branches.
+     *
+     * @return fan-out node ids
+     */
+    public Set<String> getParallelNodes() {
+
+        return compiledGraph.parallelNodes();
+    }
+
+    /**
+     * Run the parallel branches of this agent on the given executor.
+     *
+     * @param executor branch executor, null for the shared default
+     */
+    public void setBranchExecutor(final Executor executor) {
+
+        this.branchExecutor = executor;
+    }
+
+    /**
+     * A run config that hands the branch executor to every fan-out node.
+     *
+     * @return {@link RunnableConfig}
+     */
+    public RunnableConfig runnableConfig() {
+
+        Executor executor = Objects.isNull(branchExecutor) ? DefaultBranchExecutor.INSTANCE : branchExecutor;
+        RunnableConfig.Builder builder = RunnableConfig.builder();
+        compiledGraph.parallelNodes().forEach(node -> builder.addParallelNodeExecutor(node, executor));
+        return builder.build();
+    }
+
+    /**
+     * Slot of every state key declared by the graph schema.
+     *
+     * @return {@link AgentStateLayout}
+     */
+    public AgentStateLayout getStateLayout() {
+
+        return compiledGraph.layout();
+    }
+
+    /**
+     * Metrics of the memoized results of the cacheable nodes, shared by the agents of the compiled graph.
+     *
+     * @return {@link SAANodeCacheStats}
+     */
+    public SAANodeCacheStats getNodeCacheStats() {
+
+        return compiledGraph.nodeCache().getStats();
+    }
+
+    /**
+     * Run the graph to completion.
+     *
+     * @param inputs initial state
+     * @return the final state
+     * @throws GraphRunnerException if the graph run fails
+     */
+    public Optional<OverAllState> invoke(final Map<String, Object> inputs) throws GraphRunnerException {
+
+        return compiledGraph.graph().invoke(inputs, runnableConfig());
+    }
+
+    /**
+     * Run the graph to completion on slot indexed state.
+     *
+     * @param inputs initial state over {@link #getStateLayout()}
+     * @return the final state, empty if the graph produced none
+     * @throws GraphRunnerException if the graph run fails
+     */
+    public Optional<AgentState> invoke(final AgentState inputs) throws GraphRunnerException {
+
+        return invoke(inputs.toMap()).map(state -> SAAStateTranslator.toState(compiledGraph.layout(), state));
+    }
+
+    private static final class DefaultBranchExecutor {
+
+        private static final ExecutorService INSTANCE = newExecutor(Integer.getInteger(BRANCH_THREADS_PROPERTY, 0));
+
+        private static ExecutorService newExecutor(final int threads) {
+
+            AtomicInteger count = new AtomicInteger();
+            // bounded, a burst of fan-outs queues its branches instead of starting a thread per branch.
+            int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+            return Executors.newFixedThreadPool(size, runnable -> daemon(runnable, count));
+        }
+
+        private static Thread daemon(final Runnable runnable, final AtomicInteger count) {
+
+            Thread thread = new Thread(runnable, "agent-runtime-saa-branch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
 }
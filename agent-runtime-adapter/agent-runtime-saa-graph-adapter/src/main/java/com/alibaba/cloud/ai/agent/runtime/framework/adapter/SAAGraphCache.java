@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiled graphs by graph schema fingerprint and action class loader.
+ *
+ * <p>Agents and reloads with a structurally identical graph schema share one {@link CompiledGraph},
+ * concurrent requests for the same schema wait for a single compilation. A failed compilation
+ * is not cached. The cache holds at most {@code agent.runtime.saa.graph-cache.max-entries}
+ * graphs (default 256), the least recently used one is evicted beyond that.
+ *
+ * <p>Class loaders are held weakly by the keys. A compiled graph references its action classes,
+ * so the loader of a retired agent must be released by {@link #evict(ClassLoader)}; entries of
+ * collected loaders are purged on the next access. The cache is consulted once per agent build,
+ * a single lock guards it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class SAAGraphCache {
+
+    public static final String MAX_ENTRIES_PROPERTY = "agent.runtime.saa.graph-cache.max-entries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * Access ordered, guarded by itself.
+     */
+    private final Map<Key, CompletableFuture<SAACompiledGraph>> graphs = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReferenceQueue<ClassLoader> collected = new ReferenceQueue<>();
+
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder compilations = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    SAAGraphCache(final int maxEntries) {
+
+        this.maxEntries = maxEntries;
+    }
+
+    public static SAAGraphCache getInstance() {
+
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * The compiled graph of a schema, compiled on first request.
+     *
+     * @param fingerprint graph schema fingerprint
+     * @param classLoader class loader of the action classes
+     * @param compiler    compiles the schema on a miss
+     * @return {@link SAACompiledGraph}
+     */
+    SAACompiledGraph get(final String fingerprint, final ClassLoader classLoader, final GraphCompiler compiler) {
+
+        if (maxEntries == 0) {
+            compilations.increment();
+            return compiler.compile();
+        }
+
+        Key key = new Key(fingerprint, classLoader, collected);
+        CompletableFuture<SAACompiledGraph> mine = new CompletableFuture<>();
+        CompletableFuture<SAACompiledGraph> cached;
+        synchronized (graphs) {
+            purge();
+            cached = graphs.get(key);
+            if (Objects.isNull(cached)) {
+                graphs.put(key, mine);
+                trim();
+            }
+        }
+
+        if (Objects.isNull(cached)) {
+            return compile(key, mine, compiler);
+        }
+        hits.increment();
+        return await(cached);
+    }
+
+    /**
+     * Drop the graphs compiled for a class loader, e.g. the one of a retired agent.
+     *
+     * @param classLoader class loader of the action classes
+     */
+    public void evict(final ClassLoader classLoader) {
+
+        synchronized (graphs) {
+            Iterator<Key> keys = graphs.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().get() == classLoader) {
+                    keys.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of requests served by an already compiled or compiling graph.
+     *
+     * @return hit count
+     */
+    public long getHits() {
+
+        return hits.sum();
+    }
+
+    /**
+     * Number of graphs compiled.
+     *
+     * @return compilation count
+     */
+    public long getCompilations() {
+
+        return compilations.sum();
+    }
+
+    /**
+     * Number of graphs evicted, as least recently used or with their class loader.
+     *
+     * @return eviction count
+     */
+    public long getEvictions() {
+
+        return evictions.sum();
+    }
+
+    /**
+     * Number of cached graphs.
+     *
+     * @return cache size
+     */
+    public int size() {
+
+        synchronized (graphs) {
+            purge();
+            return graphs.size();
+        }
+    }
+
+    /**
+     * Drop all cached graphs, agents built from them keep their graph.
+     */
+    public void clear() {
+
+        synchronized (graphs) {
+            graphs.clear();
+        }
+    }
+
+    private SAACompiledGraph compile(final Key key, final CompletableFuture<SAACompiledGraph> future, final GraphCompiler compiler) {
+
+        compilations.increment();
+        try {
+            SAACompiledGraph graph = compiler.compile();
+            future.complete(graph);
+            return graph;
+        } finally {
+            if (!future.isDone()) {
+                // failures are not cached, waiters see the failure and a later request compiles again.
+                synchronized (graphs) {
+                    graphs.remove(key, future);
+                }
+                future.completeExceptionally(new AgentRuntimeException("Graph compilation failed, see the log of the compiling thread"));
+            }
+        }
+    }
+
+    /**
+     * Drop the entries of collected class loaders, caller holds the lock.
+     */
+    private void purge() {
+
+        Reference<? extends ClassLoader> reference;
+        while (Objects.nonNull(reference = collected.poll())) {
+            if (Objects.nonNull(graphs.remove(reference))) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Evict the least recently used entries beyond the bound, caller holds the lock.
+     */
+    private void trim() {
+
+        Iterator<Key> keys = graphs.keySet().iterator();
+        while (graphs.size() > maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static SAACompiledGraph await(final CompletableFuture<SAACompiledGraph> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentRuntimeException("Interrupted while waiting for graph compilation", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof AgentRuntimeException are ? are : new AgentRuntimeException(e.getCause());
+        }
+    }
+
+    private static int maxEntries() {
+
+        try {
+            return Math.max(0, Integer.parseInt(System.getProperty(MAX_ENTRIES_PROPERTY, String.valueOf(DEFAULT_MAX_ENTRIES))));
+        } catch (NumberFormatException e) {
+            return DEFAULT_MAX_ENTRIES;
+        }
+    }
+
+    @FunctionalInterface
+    interface GraphCompiler {
+
+        SAACompiledGraph compile();
+
+    }
+
+    /**
+     * Schema fingerprint and weakly held class loader, compared by loader identity. A key whose
+     * loader is collected is only equal to itself.
+     */
+    private static final class Key extends WeakReference<ClassLoader> {
+
+        private final String fingerprint;
+
+        private final int hash;
+
+        Key(final String fingerprint, final ClassLoader classLoader, final ReferenceQueue<ClassLoader> queue) {
+
+            super(classLoader, queue);
+            this.fingerprint = fingerprint;
+            this.hash = 31 * fingerprint.hashCode() + System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return Objects.nonNull(classLoader) && classLoader == other.get() && fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+
+    }
+
+    private static final class Holder {
+
+        private static final SAAGraphCache INSTANCE = new SAAGraphCache(maxEntries());
+
+    }
+
+}
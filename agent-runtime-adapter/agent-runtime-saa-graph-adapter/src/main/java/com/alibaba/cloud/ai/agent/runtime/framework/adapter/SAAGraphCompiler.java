@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.action.AsyncEdgeAction;
+import com.alibaba.cloud.ai.graph.action.AsyncNodeAction;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiles a declarative graph schema into a Spring AI Alibaba {@link CompiledGraph}.
+ *
+ * <pre>
+ * name: reverser                    # optional, the graph name
+ * state:                            # key strategies: replace, append or merge
+ *   id: replace
+ * nodes:
+ *   - id: set_id
+ *     action: com.example.SetIdNode # a NodeAction, a node without action passes the state through
+ *   - id: reverse_id
+ *     action: com.example.ReverseIdNode
+ * edges:                            # optional, without edges the nodes are wired by the execution mode
+ *   - from: START
+ *     to: set_id
+ *   - from: set_id
+ *     condition: com.example.Router # an EdgeAction, its result is looked up in routes
+ *     routes: { again: set_id, done: reverse_id }
+ *   - from: reverse_id
+ *     to: END
+ * </pre>
+ * Action classes need a public no-arg constructor and are loaded from the given class loader.
+ *
+ * <p>A schema without edges runs its nodes in declaration order. With {@code execution: parallel}
+ * nodes declare the state keys they {@code reads} and {@code writes}, and a node only waits for
+ * the earlier nodes it depends on: it reads what they write, writes what they read, or writes
+ * the same key without an {@code append} or {@code merge} strategy. Independent nodes become
+ * parallel branches between a fork and a join node, their updates are merged by the key
+ * strategies. A node that declares neither runs alone, after all earlier nodes. Explicit edges
+ * wire the graph themselves, a schema with edges is rejected when it also sets {@code execution: parallel};
+ * fan-out edges without a condition already run as parallel branches.
+ *
+ * <p>A node declared with {@code cache: true} is a pure function of the keys it {@code reads},
+ * its results are memoized by the {@link SAANodeCache} of the compiled graph.
+ *
+ * <p>Every key of {@code state} and of the node {@code reads} and {@code writes} gets a fixed slot
+ * of the graph {@link AgentStateLayout}. An action may implement {@link SAASlotNodeAction} instead
+ * of {@code NodeAction} to access state by slot.
+ * <pre>
+ * execution: parallel
+ * state: { docs: append }
+ * nodes:
+ *   - { id: retrieve, reads: [query], writes: [docs] }
+ *   - { id: search,   reads: [query], writes: [docs] }
+ *   - { id: classify, reads: [query], writes: [intent] }
+ *   - { id: answer,   reads: [docs, intent], writes: [answer] }
+ * </pre>
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class SAAGraphCompiler {
+
+    private static final String DEFAULT_NAME = "agent";
+
+    private static final Map<String, KeyStrategy> STRATEGIES = Map.of(
+            "replace", KeyStrategy.REPLACE,
+            "append", KeyStrategy.APPEND,
+            "merge", KeyStrategy.MERGE
+    );
+
+    private static final NodeAction PASS_THROUGH = state -> Map.of();
+
+    private static final String FORK = "__fork_%d__";
+
+    private static final String JOIN = "__join_%d__";
+
+    private SAAGraphCompiler() {
+    }
+
+    /**
+     * Parse and compile a graph schema.
+     *
+     * @param content     graph schema, YAML or JSON; the buffer position is not changed
+     * @param classLoader class loader of the action classes
+     * @return {@link SAACompiledGraph}
+     */
+    static SAACompiledGraph compile(final ByteBuffer content, final ClassLoader classLoader) {
+
+        Map<String, Object> schema = parse(content);
+        List<Map<String, Object>> nodes = list(schema, "nodes");
+        if (nodes.isEmpty()) {
+            throw new AgentRuntimeException("Graph schema declares no nodes");
+        }
+
+        try {
+            final Map<String, KeyStrategy> strategies = strategies(map(schema, "state"));
+            // parallel branches only merge declared keys, the keys nodes access default to replace.
+            for (Map<String, Object> node : nodes) {
+                keys(node, "reads").forEach(key -> strategies.putIfAbsent(key, KeyStrategy.REPLACE));
+                keys(node, "writes").forEach(key -> strategies.putIfAbsent(key, KeyStrategy.REPLACE));
+            }
+            StateGraph graph = new StateGraph(string(schema, "name", DEFAULT_NAME), () -> new HashMap<>(strategies));
+            final AgentStateLayout layout = AgentStateLayout.of(strategies.keySet().stream().sorted().toList());
+            final SAANodeCache nodeCache = SAANodeCache.create();
+            for (Map<String, Object> node : nodes) {
+                graph.addNode(required(node, "id"), AsyncNodeAction.node_async(nodeAction(node, layout, nodeCache, classLoader)));
+            }
+
+            List<Map<String, Object>> edges = list(schema, "edges");
+            SAAGraphExecution execution = execution(schema);
+            if (!edges.isEmpty() && execution == SAAGraphExecution.PARALLEL) {
+                throw new AgentRuntimeException("Graph schema declares edges and execution " + execution.getName()
+                        + ", the execution mode only wires a graph without edges");
+            }
+            Set<String> parallelNodes = new HashSet<>();
+            if (edges.isEmpty() && execution == SAAGraphExecution.PARALLEL) {
+                parallelNodes.addAll(wireLevels(graph, levels(nodes, strategies)));
+            } else if (edges.isEmpty()) {
+                chain(graph, nodes);
+            }
+            for (Map<String, Object> edge : edges) {
+                addEdge(graph, edge, classLoader);
+                if (Objects.isNull(edge.get("condition")) && edges.stream().filter(other -> Objects.equals(other.get("from"), edge.get("from"))).count() > 1) {
+                    parallelNodes.add(endpoint(required(edge, "from")));
+                }
+            }
+
+            return new SAACompiledGraph(graph.compile(), Set.copyOf(parallelNodes), layout, nodeCache);
+        } catch (GraphStateException e) {
+            throw new AgentRuntimeException("Invalid graph schema: " + e.getMessage(), e);
+        }
+    }
+
+    private static NodeAction nodeAction(final Map<String, Object> node, final AgentStateLayout layout, final SAANodeCache nodeCache, final ClassLoader classLoader) {
+
+        String action = string(node, "action", null);
+        if (Objects.isNull(action)) {
+            return PASS_THROUGH;
+        }
+
+        Object instance = instantiate(action, Object.class, classLoader);
+        NodeAction nodeAction;
+        if (instance instanceof SAASlotNodeAction slotAction) {
+            nodeAction = SAAStateTranslator.toNodeAction(layout, slotAction);
+        } else if (instance instanceof NodeAction mapAction) {
+            nodeAction = mapAction;
+        } else {
+            throw new AgentRuntimeException(action + " is neither a NodeAction nor a SAASlotNodeAction");
+        }
+
+        if (!Boolean.parseBoolean(string(node, "cache", "false"))) {
+            return nodeAction;
+        }
+        if (!node.containsKey("reads")) {
+            throw new AgentRuntimeException("Cacheable graph node " + node.get("id") + " must declare the state keys it reads");
+        }
+        return nodeCache.memoize(required(node, "id"), nodeAction, List.copyOf(new TreeSet<>(keys(node, "reads"))));
+    }
+
+    private static void chain(final StateGraph graph, final List<Map<String, Object>> nodes) throws GraphStateException {
+
+        String previous = StateGraph.START;
+        for (Map<String, Object> node : nodes) {
+            String id = required(node, "id");
+            graph.addEdge(previous, id);
+            previous = id;
+        }
+        graph.addEdge(previous, StateGraph.END);
+    }
+
+    /**
+     * Group the nodes into levels, a node is placed one level after the last earlier node it depends on.
+     */
+    private static List<List<String>> levels(final List<Map<String, Object>> nodes, final Map<String, KeyStrategy> strategies) {
+
+        List<List<String>> levels = new ArrayList<>();
+        List<Integer> placed = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            int level = 0;
+            for (int j = 0; j < i; j++) {
+                if (dependsOn(nodes.get(i), nodes.get(j), strategies)) {
+                    level = Math.max(level, placed.get(j) + 1);
+                }
+            }
+            placed.add(level);
+            if (level == levels.size()) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(required(nodes.get(i), "id"));
+        }
+        return levels;
+    }
+
+    private static boolean dependsOn(final Map<String, Object> node, final Map<String, Object> earlier, final Map<String, KeyStrategy> strategies) {
+
+        if (!declaresAccess(node) || !declaresAccess(earlier)) {
+            return true;
+        }
+
+        Set<String> reads = keys(node, "reads");
+        Set<String> writes = keys(node, "writes");
+        for (String key : keys(earlier, "writes")) {
+            if (reads.contains(key) || writes.contains(key) && !isMergeable(strategies.get(key))) {
+                return true;
+            }
+        }
+        return keys(earlier, "reads").stream().anyMatch(writes::contains);
+    }
+
+    private static boolean isMergeable(final KeyStrategy strategy) {
+
+        return strategy == KeyStrategy.APPEND || strategy == KeyStrategy.MERGE;
+    }
+
+    /**
+     * Wire the levels from start to end, a level of several nodes runs as parallel branches.
+     *
+     * @return ids of the fan-out nodes
+     */
+    private static List<String> wireLevels(final StateGraph graph, final List<List<String>> levels) throws GraphStateException {
+
+        List<String> parallelNodes = new ArrayList<>();
+        String previous = StateGraph.START;
+        for (int i = 0; i < levels.size(); i++) {
+            List<String> level = levels.get(i);
+            if (level.size() == 1) {
+                graph.addEdge(previous, level.get(0));
+                previous = level.get(0);
+                continue;
+            }
+
+            // branches fan out from and converge on a single node.
+            if (StateGraph.START.equals(previous)) {
+                String fork = String.format(FORK, i);
+                graph.addNode(fork, AsyncNodeAction.node_async(PASS_THROUGH));
+                graph.addEdge(previous, fork);
+                previous = fork;
+            }
+            String join = String.format(JOIN, i);
+            graph.addNode(join, AsyncNodeAction.node_async(PASS_THROUGH));
+            for (String node : level) {
+                graph.addEdge(previous, node);
+                graph.addEdge(node, join);
+            }
+            parallelNodes.add(previous);
+            previous = join;
+        }
+        graph.addEdge(previous, StateGraph.END);
+
+        return parallelNodes;
+    }
+
+    private static void addEdge(final StateGraph graph, final Map<String, Object> edge, final ClassLoader classLoader) throws GraphStateException {
+
+        String from = endpoint(required(edge, "from"));
+        String condition = string(edge, "condition", null);
+        if (Objects.isNull(condition)) {
+            graph.addEdge(from, endpoint(required(edge, "to")));
+            return;
+        }
+
+        Map<String, String> routes = new LinkedHashMap<>();
+        map(edge, "routes").forEach((route, target) -> routes.put(route, endpoint(String.valueOf(target))));
+        if (routes.isEmpty()) {
+            throw new AgentRuntimeException("Conditional edge from " + from + " declares no routes");
+        }
+        graph.addConditionalEdges(from, AsyncEdgeAction.edge_async(instantiate(condition, EdgeAction.class, classLoader)), routes);
+    }
+
+    private static String endpoint(final String name) {
+
+        return switch (name) {
+            case "START" -> StateGraph.START;
+            case "END" -> StateGraph.END;
+            default -> name;
+        };
+    }
+
+    private static Map<String, KeyStrategy> strategies(final Map<String, Object> state) {
+
+        Map<String, KeyStrategy> strategies = new HashMap<>();
+        state.forEach((key, name) -> {
+            KeyStrategy strategy = STRATEGIES.get(String.valueOf(name).toLowerCase());
+            if (Objects.isNull(strategy)) {
+                throw new AgentRuntimeException("Unknown key strategy " + name + " of state key " + key + ", expected one of " + STRATEGIES.keySet());
+            }
+            strategies.put(key, strategy);
+        });
+        return strategies;
+    }
+
+    private static SAAGraphExecution execution(final Map<String, Object> schema) {
+
+        String name = string(schema, "execution", SAAGraphExecution.SEQUENTIAL.getName());
+        SAAGraphExecution execution = SAAGraphExecution.of(name);
+        if (Objects.isNull(execution)) {
+            throw new AgentRuntimeException("Unknown graph execution " + name + ", expected one of " + Arrays.toString(SAAGraphExecution.values()));
+        }
+        return execution;
+    }
+
+    private static boolean declaresAccess(final Map<String, Object> node) {
+
+        return node.containsKey("reads") || node.containsKey("writes");
+    }
+
+    private static Set<String> keys(final Map<String, Object> node, final String key) {
+
+        Object value = node.get(key);
+        if (Objects.isNull(value)) {
+            return Set.of();
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new AgentRuntimeException("Graph node " + node.get("id") + " " + key + " must be a list of state keys");
+        }
+        Set<String> keys = new HashSet<>();
+        list.forEach(item -> keys.add(String.valueOf(item)));
+        return keys;
+    }
+
+    private static <T> T instantiate(final String className, final Class<T> type, final ClassLoader classLoader) {
+
+        try {
+            Class<?> actionClass = Class.forName(className, true, classLoader);
+            if (!type.isAssignableFrom(actionClass)) {
+                throw new AgentRuntimeException(className + " is not a " + type.getSimpleName());
+            }
+            return type.cast(actionClass.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            throw new AgentRuntimeException("Graph action class not found: " + className, e);
+        } catch (ReflectiveOperationException e) {
+            Throwable cause = e instanceof InvocationTargetException ite ? ite.getCause() : e;
+            throw new AgentRuntimeException("Failed to create graph action " + className, cause);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(final ByteBuffer content) {
+
+        try (Reader reader = new InputStreamReader(AgentRuntimeSchemaSource.openStream(content), StandardCharsets.UTF_8)) {
+            Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(reader);
+            if (document instanceof Map<?, ?> map) {
+                return (Map<String, Object>) map;
+            }
+            throw new AgentRuntimeException("Graph schema must be a mapping, got: " + (Objects.isNull(document) ? "empty document" : document.getClass().getSimpleName()));
+        } catch (YAMLException | IOException e) {
+            throw new AgentRuntimeException("Failed to parse graph schema", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(final Map<String, Object> node, final String key) {
+
+        Object value = node.get(key);
+        if (Objects.isNull(value)) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(Map.class::isInstance)) {
+            throw new AgentRuntimeException("Graph schema " + key + " must be a list of mappings");
+        }
+        return (List<Map<String, Object>>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(final Map<String, Object> node, final String key) {
+
+        Object value = node.get(key);
+        if (Objects.isNull(value)) {
+            return Map.of();
+        }
+        if (!(value instanceof Map<?, ?>)) {
+            throw new AgentRuntimeException("Graph schema " + key + " must be a mapping");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(final Map<String, Object> node, final String key, final String defaultValue) {
+
+        Object value = node.get(key);
+        return Objects.isNull(value) ? defaultValue : String.valueOf(value);
+    }
+
+    private static String required(final Map<String, Object> node, final String key) {
+
+        String value = string(node, key, null);
+        if (Objects.isNull(value) || value.isBlank()) {
+            throw new AgentRuntimeException("Graph schema entry " + node + " has no " + key);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.enums.IEnum;
+
+import java.util.Arrays;
+
+/**
+ * How the nodes of a graph schema without edges are wired.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public enum SAAGraphExecution implements IEnum {
+
+    SEQUENTIAL("sequential", "Run the nodes one after another in declaration order."),
+    PARALLEL("parallel", "Run nodes without a data dependency on each other concurrently, dependencies come from the declared reads and writes.");
+
+    private final String name;
+
+    private final String desc;
+
+    SAAGraphExecution(final String name, final String desc) {
+        this.name = name;
+        this.desc = desc;
+    }
+
+    /**
+     * The execution mode of the given schema name.
+     *
+     * @param name mode name, case-insensitive
+     * @return {@link SAAGraphExecution}, null if there is no such mode
+     */
+    public static SAAGraphExecution of(final String name) {
+
+        return Arrays.stream(values()).filter(mode -> mode.name.equalsIgnoreCase(name)).findFirst().orElse(null);
+    }
+
+    @Override
+    public String getName() {
+
+        return this.name;
+    }
+
+    @Override
+    public String getDesc() {
+
+        return this.desc;
+    }
+
+}
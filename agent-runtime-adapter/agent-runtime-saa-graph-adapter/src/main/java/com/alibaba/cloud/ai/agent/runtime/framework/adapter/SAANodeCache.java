@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoized results of the cacheable nodes of one compiled graph.
+ *
+ * <p>A node declared with {@code cache: true} is taken to be a pure function of the state keys it
+ * {@code reads}. Its result is stored under the node id and the values of those keys, so a
+ * retried or duplicated run over the same state slice is a hash lookup. The cache belongs to the
+ * compiled graph and goes with it, results never outlive the action classes that produced them.
+ *
+ * <p>The cache keeps about the {@code agent.runtime.saa.node-cache.max-entries} (default 10000)
+ * most recently used results, 0 disables it. Entries are spread over independently locked LRU
+ * segments so parallel branches do not serialize on one lock. Concurrent runs over the same
+ * state slice wait for a single run of the node, a failed run is not cached.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class SAANodeCache {
+
+    public static final String MAX_ENTRIES_PROPERTY = "agent.runtime.saa.node-cache.max-entries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Smaller caches take fewer segments, a single segment is an exact LRU.
+     */
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+
+    private final int maxEntries;
+
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    SAANodeCache(final int maxEntries) {
+
+        this.maxEntries = maxEntries;
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_ENTRIES));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((maxEntries + count - 1) / count, evictions);
+        }
+    }
+
+    /**
+     * A cache sized by {@value #MAX_ENTRIES_PROPERTY}.
+     *
+     * @return {@link SAANodeCache}
+     */
+    static SAANodeCache create() {
+
+        return new SAANodeCache(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Point-in-time metrics.
+     *
+     * @return {@link SAANodeCacheStats}
+     */
+    public SAANodeCacheStats getStats() {
+
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new SAANodeCacheStats(maxEntries, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Drop all memoized results.
+     */
+    public void clear() {
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Wrap a node action so that its results are memoized by the given state keys.
+     *
+     * @param node   node id
+     * @param action node action, a pure function of the read keys
+     * @param reads  state keys the action reads
+     * @return memoizing {@link NodeAction}
+     */
+    NodeAction memoize(final String node, final NodeAction action, final List<String> reads) {
+
+        if (maxEntries <= 0) {
+            return action;
+        }
+
+        return state -> {
+            Object[] slice = new Object[reads.size()];
+            for (int i = 0; i < slice.length; i++) {
+                slice[i] = snapshot(state.value(reads.get(i)).orElse(null));
+            }
+
+            Key key = new Key(node, Arrays.asList(slice));
+            Segment segment = segments[Math.floorMod(key.hashCode(), segments.length)];
+            CompletableFuture<Map<String, Object>> mine = new CompletableFuture<>();
+            CompletableFuture<Map<String, Object>> cached;
+            synchronized (segment) {
+                cached = segment.putIfAbsent(key, mine);
+            }
+            if (Objects.nonNull(cached)) {
+                hits.increment();
+                return await(cached);
+            }
+
+            misses.increment();
+            try {
+                Map<String, Object> result = Collections.unmodifiableMap(new HashMap<>(action.apply(state)));
+                mine.complete(result);
+                return result;
+            } finally {
+                if (!mine.isDone()) {
+                    // failures are not cached, waiters see the failure and a later run computes again.
+                    synchronized (segment) {
+                        segment.remove(key, mine);
+                    }
+                    mine.completeExceptionally(new IllegalStateException("Graph node " + node + " failed, see the log of the running thread"));
+                }
+            }
+        };
+    }
+
+    private static Map<String, Object> await(final CompletableFuture<Map<String, Object>> future) throws Exception {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Appended state values are collections that may change in place, the key keeps a copy.
+     */
+    private static Object snapshot(final Object value) {
+
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return new HashMap<>(map);
+        }
+        return value;
+    }
+
+    /**
+     * Results are keyed by node, the same action class may back several nodes with different reads.
+     */
+    private record Key(String node, List<Object> slice) {
+    }
+
+    /**
+     * An access ordered LRU segment, guarded by itself.
+     */
+    private static final class Segment extends LinkedHashMap<Key, CompletableFuture<Map<String, Object>>> {
+
+        private final int capacity;
+
+        private final LongAdder evictions;
+
+        Segment(final int capacity, final LongAdder evictions) {
+
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, CompletableFuture<Map<String, Object>>> eldest) {
+
+            boolean evict = size() > capacity;
+            if (evict) {
+                evictions.increment();
+            }
+            return evict;
+        }
+
+    }
+
+}
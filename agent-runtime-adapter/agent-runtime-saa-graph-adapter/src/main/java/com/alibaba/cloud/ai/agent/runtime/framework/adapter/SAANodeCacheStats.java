@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+/**
+ * Point-in-time metrics of the {@link SAANodeCache}.
+ *
+ * @param maxEntries maximum number of memoized results
+ * @param size       results currently memoized
+ * @param hits       node runs served from the cache
+ * @param misses     node runs that computed their result
+ * @param evictions  results dropped to stay within the bound
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public record SAANodeCacheStats(int maxEntries, int size, long hits, long misses, long evictions) {
+
+    /**
+     * Share of node runs served from the cache.
+     *
+     * @return hit rate between 0 and 1, 0 before the first run
+     */
+    public double hitRate() {
+
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentState;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+
+/**
+ * Translates Spring AI Alibaba graph state from and to {@link AgentState}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class SAAStateTranslator {
+
+    private SAAStateTranslator() {
+    }
+
+    static AgentState toState(final AgentStateLayout layout, final OverAllState state) {
+
+        return AgentState.of(layout, state.data());
+    }
+
+    /**
+     * Adapt a slot node to the graph, its update is handed over as a view of the delta, not a copy.
+     */
+    static NodeAction toNodeAction(final AgentStateLayout layout, final SAASlotNodeAction action) {
+
+        action.bind(layout);
+        return state -> action.apply(toState(layout, state)).asMap();
+    }
+
+}
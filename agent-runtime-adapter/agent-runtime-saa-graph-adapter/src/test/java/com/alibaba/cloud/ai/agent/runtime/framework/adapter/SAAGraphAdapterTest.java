@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class SAAGraphAdapterTest {
+
+    private static final String LOOP = """
+            name: loop
+            state:
+              messages: append
+            nodes:
+              - id: greet
+                action: %1$s$Greet
+              - id: done
+            edges:
+              - from: START
+                to: greet
+              - from: greet
+                condition: %1$s$Router
+                routes:
+                  again: greet
+                  done: done
+              - from: done
+                to: END
+            """.formatted(SAAGraphAdapterTest.class.getName());
+
+    private static final String FAN_OUT = """
+            execution: parallel
+            state:
+              docs: append
+            nodes:
+              - { id: retrieve, action: %1$s$Retrieve, reads: [query], writes: [docs] }
+              - { id: search, action: %1$s$Search, reads: [query], writes: [docs] }
+              - { id: classify, action: %1$s$Classify, reads: [query], writes: [intent] }
+              - { id: answer, action: %1$s$Answer, reads: [docs, intent], writes: [answer] }
+            """.formatted(SAAGraphAdapterTest.class.getName());
+
+    private static volatile CountDownLatch branches;
+
+    private static ByteBuffer bytes(final String content) {
+
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGraphIsExecuted() throws GraphRunnerException {
+
+        SAAGraphAgent agent = SAAGraphAdapter.convert(bytes(LOOP));
+        OverAllState state = agent.getCompiledGraph().invoke(Map.of()).orElseThrow();
+
+        Assertions.assertEquals(List.of("hello", "hello", "hello"), state.value("messages").orElseThrow());
+    }
+
+    @Test
+    void testIdenticalSchemasShareOneCompiledGraph() {
+
+        long compilations = SAAGraphCache.getInstance().getCompilations();
+
+        SAAGraphAgent first = SAAGraphAdapter.convert(bytes(LOOP));
+        // formatting and comments do not make a different graph.
+        SAAGraphAgent second = SAAGraphAdapter.convert(new StringReader("# reformatted\n" + LOOP.replace("  messages: append", "  messages:   append")));
+        SAAGraphAgent other = SAAGraphAdapter.convert(bytes("nodes:\n  - id: a\n  - id: b\n"));
+
+        Assertions.assertSame(first.getCompiledGraph(), second.getCompiledGraph());
+        Assertions.assertEquals(first.getFingerprint(), second.getFingerprint());
+        Assertions.assertNotSame(first.getCompiledGraph(), other.getCompiledGraph());
+        Assertions.assertTrue(SAAGraphCache.getInstance().getCompilations() - compilations <= 2);
+    }
+
+    @Test
+    void testIndependentNodesRunAsParallelBranches() throws GraphRunnerException {
+
+        branches = new CountDownLatch(3);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            SAAGraphAgent agent = SAAGraphAdapter.convert(bytes(FAN_OUT));
+            agent.setBranchExecutor(executor);
+            OverAllState state = agent.invoke(Map.of("query", "q")).orElseThrow();
+
+            Assertions.assertEquals(1, agent.getParallelNodes().size());
+            // every branch waits for the other two, so a sequential run would not get here.
+            Assertions.assertEquals(0, branches.getCount());
+            Assertions.assertEquals(Set.of("retrieved", "searched"), Set.copyOf(state.value("docs", List.class).orElseThrow()));
+            Assertions.assertEquals("2 docs for lookup", state.value("answer").orElseThrow());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidSchemaIsRejected() {
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes("nodes: []\n")));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes("nodes:\n  - id: a\n    action: com.example.Missing\n")));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes("state:\n  a: sum\nnodes:\n  - id: a\n")));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes("nodes:\n  - id: a\nedges:\n  - from: START\n    to: b\n")));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes("execution: eventually\nnodes:\n  - id: a\n")));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(bytes(LOOP.replace("name: loop", "execution: parallel"))));
+    }
+
+    private static Map<String, Object> branch(final String key, final Object value) {
+
+        branches.countDown();
+        try {
+            if (!branches.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Branches did not run concurrently");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return Map.of(key, value);
+    }
+
+    public static class Greet implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            return Map.of("messages", "hello");
+        }
+
+    }
+
+    public static class Router implements EdgeAction {
+
+        @Override
+        public String apply(final OverAllState state) {
+
+            return state.value("messages", List.class).map(List::size).orElse(0) < 3 ? "again" : "done";
+        }
+
+    }
+
+    public static class Retrieve implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            return branch("docs", "retrieved");
+        }
+
+    }
+
+    public static class Search implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            return branch("docs", "searched");
+        }
+
+    }
+
+    public static class Classify implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            return branch("intent", "lookup");
+        }
+
+    }
+
+    public static class Answer implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            return Map.of("answer", state.value("docs", List.class).orElseThrow().size() + " docs for " + state.value("intent").orElseThrow());
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+
+class SAAGraphCacheTest {
+
+    private static final SAACompiledGraph GRAPH = new SAACompiledGraph(null, Set.of(), null, null);
+
+    @Test
+    void testLeastRecentlyUsedGraphIsEvicted() {
+
+        SAAGraphCache cache = new SAAGraphCache(2);
+        ClassLoader loader = getClass().getClassLoader();
+
+        cache.get("a", loader, () -> GRAPH);
+        cache.get("b", loader, () -> GRAPH);
+        cache.get("a", loader, () -> GRAPH);
+        cache.get("c", loader, () -> GRAPH);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertEquals(1, cache.getHits());
+
+        cache.get("a", loader, () -> GRAPH);
+        Assertions.assertEquals(2, cache.getHits());
+        cache.get("b", loader, () -> GRAPH);
+        Assertions.assertEquals(4, cache.getCompilations());
+    }
+
+    @Test
+    void testGraphsOfRetiredClassLoaderAreEvicted() throws Exception {
+
+        SAAGraphCache cache = new SAAGraphCache(16);
+        try (URLClassLoader retired = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+            cache.get("a", retired, () -> GRAPH);
+            cache.get("b", retired, () -> GRAPH);
+            cache.get("a", getClass().getClassLoader(), () -> GRAPH);
+
+            cache.evict(retired);
+
+            Assertions.assertEquals(1, cache.size());
+            Assertions.assertEquals(2, cache.getEvictions());
+        }
+    }
+
+    @Test
+    void testZeroMaxEntriesCompilesEveryTime() {
+
+        SAAGraphCache cache = new SAAGraphCache(0);
+
+        cache.get("a", getClass().getClassLoader(), () -> GRAPH);
+        cache.get("a", getClass().getClassLoader(), () -> GRAPH);
+
+        Assertions.assertEquals(2, cache.getCompilations());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+}
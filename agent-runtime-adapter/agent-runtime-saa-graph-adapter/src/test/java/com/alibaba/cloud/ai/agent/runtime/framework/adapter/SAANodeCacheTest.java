@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SAANodeCacheTest {
+
+    private static final AtomicInteger REVERSALS = new AtomicInteger();
+
+    private static final String GRAPH = """
+            state:
+              id: replace
+              reversed: replace
+            nodes:
+              - id: reverse
+                action: %s$Reverse
+                cache: true
+                reads: [id]
+            """.formatted(SAANodeCacheTest.class.getName());
+
+    @Test
+    void testIdenticalStateSliceIsServedFromCache() throws GraphRunnerException {
+
+        SAAGraphAgent agent = SAAGraphAdapter.convert(ByteBuffer.wrap(GRAPH.getBytes(StandardCharsets.UTF_8)));
+        int reversals = REVERSALS.get();
+
+        Assertions.assertEquals("cba", agent.invoke(Map.of("id", "abc")).orElseThrow().value("reversed").orElseThrow());
+        Assertions.assertEquals("cba", agent.invoke(Map.of("id", "abc")).orElseThrow().value("reversed").orElseThrow());
+        Assertions.assertEquals("fed", agent.invoke(Map.of("id", "def")).orElseThrow().value("reversed").orElseThrow());
+
+        Assertions.assertEquals(2, REVERSALS.get() - reversals);
+        Assertions.assertEquals(1, agent.getNodeCacheStats().hits());
+    }
+
+    @Test
+    void testLeastRecentlyUsedResultIsEvicted() throws Exception {
+
+        SAANodeCache cache = new SAANodeCache(2);
+        AtomicInteger runs = new AtomicInteger();
+        NodeAction node = cache.memoize("node", state -> Map.of("n", runs.incrementAndGet()), List.of("id"));
+
+        node.apply(new OverAllState(Map.of("id", "a")));
+        node.apply(new OverAllState(Map.of("id", "b")));
+        node.apply(new OverAllState(Map.of("id", "a")));
+        node.apply(new OverAllState(Map.of("id", "c")));
+        // b was the least recently used.
+        node.apply(new OverAllState(Map.of("id", "a")));
+        node.apply(new OverAllState(Map.of("id", "b")));
+
+        SAANodeCacheStats stats = cache.getStats();
+        Assertions.assertEquals(4, runs.get());
+        Assertions.assertEquals(2, stats.size());
+        Assertions.assertEquals(2, stats.hits());
+        Assertions.assertEquals(4, stats.misses());
+        Assertions.assertEquals(2, stats.evictions());
+        Assertions.assertEquals(2.0 / 6, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentRunsOverTheSameSliceRunTheNodeOnce() throws Exception {
+
+        SAANodeCache cache = new SAANodeCache(16);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NodeAction node = cache.memoize("node", state -> {
+            runs.incrementAndGet();
+            running.countDown();
+            release.await();
+            return Map.of("n", 1);
+        }, List.of("id"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Map<String, Object>> first = executor.submit(() -> node.apply(new OverAllState(Map.of("id", "a"))));
+            running.await();
+            final Future<Map<String, Object>> second = executor.submit(() -> node.apply(new OverAllState(Map.of("id", "a"))));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.getStats().hits() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            Assertions.assertEquals(Map.of("n", 1), first.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(Map.of("n", 1), second.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCacheableNodeMustDeclareReads() {
+
+        String graph = "nodes:\n  - id: reverse\n    action: " + Reverse.class.getName() + "\n    cache: true\n";
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> SAAGraphAdapter.convert(ByteBuffer.wrap(graph.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    public static class Reverse implements NodeAction {
+
+        @Override
+        public Map<String, Object> apply(final OverAllState state) {
+
+            REVERSALS.incrementAndGet();
+            return Map.of("reversed", new StringBuilder(state.value("id", "")).reverse().toString());
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.framework.adapter;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentState;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateDelta;
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+class SAASlotNodeActionTest {
+
+    private static SAAGraphAgent convert(final String graph) {
+
+        return SAAGraphAdapter.convert(ByteBuffer.wrap(graph.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testSlotNodesRunOnSlotIndexedState() throws GraphRunnerException {
+
+        SAAGraphAgent agent = convert("""
+                state:
+                  count: replace
+                  label: replace
+                nodes:
+                  - { id: first, action: %1$s$Increment }
+                  - { id: second, action: %1$s$Increment }
+                  - { id: third, action: %1$s$Increment }
+                """.formatted(SAASlotNodeActionTest.class.getName()));
+
+        AgentStateLayout layout = agent.getStateLayout();
+        Assertions.assertEquals(List.of("count", "label"), layout.keys());
+
+        AgentState inputs = new AgentState(layout);
+        inputs.set(layout.require("count"), 1);
+        inputs.set(layout.require("label"), "steps");
+        AgentState result = agent.invoke(inputs).orElseThrow();
+
+        Assertions.assertEquals(4, (int) result.get(layout.require("count")));
+        Assertions.assertEquals("steps", result.get("label"));
+    }
+
+    @Test
+    void testUndeclaredKeyIsRejectedAtCompileTime() {
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> convert("nodes:\n  - { id: a, action: " + Increment.class.getName() + " }\n"));
+    }
+
+    @Test
+    void testDeltaIsViewedAsMap() {
+
+        AgentStateLayout layout = AgentStateLayout.of(List.of("a", "b", "c"));
+        AgentStateDelta delta = new AgentStateDelta(layout, 1).put(2, "z").put(0, "x").put(2, "y");
+
+        Assertions.assertEquals(2, delta.size());
+        Assertions.assertEquals(Map.of("a", "x", "c", "y"), delta.asMap());
+        Assertions.assertFalse(delta.asMap().containsKey("b"));
+
+        AgentState state = AgentState.of(layout, Map.of("b", "kept", "d", "ignored"));
+        state.apply(delta);
+        Assertions.assertEquals(Map.of("a", "x", "b", "kept", "c", "y"), state.toMap());
+    }
+
+    public static class Increment implements SAASlotNodeAction {
+
+        private int count;
+
+        @Override
+        public void bind(final AgentStateLayout layout) {
+
+            this.count = layout.require("count");
+        }
+
+        @Override
+        public AgentStateDelta apply(final AgentState state) {
+
+            Integer current = state.get(count);
+            return new AgentStateDelta(state.getLayout(), 1).put(count, current + 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.benchmark;
+
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.loader.AbstractAgentRuntimeLoader;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshotCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AbstractAgentRuntimeLoader#createLoader(String)} plus {@code load()} end to end for a
+ * YAML graph agent, started from the text config or from its precompiled snapshot.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentRuntimeLoaderBenchmark {
+
+    @Param({"yaml", "snapshot"})
+    private String format;
+
+    @Param({BenchmarkConfigs.SMALL, BenchmarkConfigs.LARGE})
+    private String size;
+
+    private Path dir;
+
+    private String configPath;
+
+    @Setup
+    public void setup() throws IOException {
+
+        dir = Files.createTempDirectory("agent-runtime-benchmark");
+
+        Path config = BenchmarkConfigs.write(dir, "yaml", size);
+        if (AgentRuntimeSnapshot.EXTENSION.equals(format)) {
+            config = AgentRuntimeSnapshotCompiler.compile(config, AgentRuntimeSnapshotCompiler.defaultOutput(config));
+        }
+        configPath = config.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public BaseAgent createAndLoad() {
+
+        return AbstractAgentRuntimeLoader.createLoader(configPath).load();
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.benchmark;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AbstractAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import com.alibaba.cloud.ai.agent.runtime.convertor.JSONAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.PropertiesAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.SnapshotAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.YamlAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshotCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runtime config parsing, per format and config size.
+ *
+ * <p>{@link #parse()} measures the convertor alone. {@link #convert()} goes through
+ * {@link AbstractAgentRuntimeSchemaConvertor#createConvertor(AgentRuntimeSchemaSource)} and the
+ * schema cache, which is what the loader pays for an unchanged config. The {@code snapshot}
+ * format is the precompiled binary form of the same config.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentRuntimeSchemaConvertorBenchmark {
+
+    @Param({"json", "yaml", "properties", "snapshot"})
+    private String format;
+
+    @Param({BenchmarkConfigs.SMALL, BenchmarkConfigs.LARGE})
+    private String size;
+
+    private Path dir;
+
+    private ByteBuffer content;
+
+    private AgentRuntimeSchemaSource source;
+
+    private Function<ByteBuffer, AgentRuntimeSchema> parser;
+
+    @Setup
+    public void setup() throws IOException {
+
+        dir = Files.createTempDirectory("agent-runtime-benchmark");
+
+        String name = "runtime.config." + format;
+        if (AgentRuntimeSnapshot.EXTENSION.equals(format)) {
+            content = ByteBuffer.wrap(AgentRuntimeSnapshotCompiler.compile(BenchmarkConfigs.write(dir, "yaml", size)));
+        } else {
+            content = ByteBuffer.wrap(Files.readAllBytes(BenchmarkConfigs.write(dir, format, size)));
+        }
+        source = AgentRuntimeSchemaSource.of(name, content);
+
+        parser = switch (format) {
+            case "json" -> new JSONAgentRuntimeSchemaConvertor(source)::doConvert;
+            case "yaml" -> new YamlAgentRuntimeSchemaConvertor(source)::doConvert;
+            case "properties" -> new PropertiesAgentRuntimeSchemaConvertor(source)::doConvert;
+            default -> new SnapshotAgentRuntimeSchemaConvertor(source)::doConvert;
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public AgentRuntimeSchema parse() {
+
+        return parser.apply(content.duplicate());
+    }
+
+    @Benchmark
+    public AgentRuntimeSchema convert() {
+
+        return AbstractAgentRuntimeSchemaConvertor.createConvertor(source).convert();
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.benchmark;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generated runtime configs and graph schemas shared by the benchmarks.
+ *
+ * <p>A {@code small} config mirrors the schema module templates, two envs and a short
+ * description. A {@code large} config carries {@value #LARGE_ENVS} envs and a description
+ * of a few kilobytes, close to what a real agent with model, tool and sandbox settings has.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class BenchmarkConfigs {
+
+    static final String SMALL = "small";
+
+    static final String LARGE = "large";
+
+    static final int LARGE_ENVS = 512;
+
+    static final String GRAPH_SCHEMA = """
+            name: bench-graph
+            state:
+              id: replace
+            nodes:
+              - id: set_id
+                type: set
+              - id: reverse_id
+                type: reverse
+            edges:
+              - from: __START__
+                to: set_id
+              - from: set_id
+                to: reverse_id
+              - from: reverse_id
+                to: __END__
+            """;
+
+    private BenchmarkConfigs() {
+    }
+
+    /**
+     * Render a runtime config.
+     *
+     * @param format      json, yaml or properties
+     * @param size        {@link #SMALL} or {@link #LARGE}
+     * @param graphSchema graph schema path referenced by the config
+     * @return config content
+     */
+    static String render(final String format, final String size, final String graphSchema) {
+
+        boolean large = LARGE.equals(size);
+        int envs = large ? LARGE_ENVS : 2;
+        String description = large ? "A benchmark agent. ".repeat(200) : "A benchmark agent.";
+
+        return switch (format) {
+            case "json" -> json(envs, description, graphSchema);
+            case "yaml" -> yaml(envs, description, graphSchema);
+            case "properties" -> properties(envs, description, graphSchema);
+            default -> throw new IllegalArgumentException("Unknown config format: " + format);
+        };
+    }
+
+    /**
+     * Write a config and its graph schema into the directory.
+     *
+     * @param dir    target directory
+     * @param format json, yaml or properties
+     * @param size   {@link #SMALL} or {@link #LARGE}
+     * @return the config file
+     */
+    static Path write(final Path dir, final String format, final String size) {
+
+        try {
+            Path graph = Files.writeString(dir.resolve("graph.yaml"), GRAPH_SCHEMA, StandardCharsets.UTF_8);
+            // the loader resolves the graph schema against the working directory, keep it absolute.
+            String content = render(format, size, graph.toAbsolutePath().toString());
+            return Files.writeString(dir.resolve("runtime.config." + format), content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to write benchmark config to: " + dir, e);
+        }
+    }
+
+    private static String json(final int envs, final String description, final String graphSchema) {
+
+        StringBuilder sb = new StringBuilder(64 * envs + description.length() + 256);
+        sb.append("{\n")
+                .append("  \"name\": \"bench-agent\",\n")
+                .append("  \"version\": \"1.0.0\",\n")
+                .append("  \"description\": \"").append(description).append("\",\n")
+                .append("  \"framework\": \"Spring AI Alibaba Graph\",\n")
+                .append("  \"types\": \"YAML\",\n")
+                .append("  \"schema\": \"").append(graphSchema.replace("\\", "\\\\")).append("\",\n")
+                .append("  \"envs\": [\n");
+        for (int i = 0; i < envs; i++) {
+            sb.append("    {\"").append(envName(i)).append("\": \"").append(envValue(i)).append("\"}")
+                    .append(i < envs - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ]\n}\n");
+
+        return sb.toString();
+    }
+
+    private static String yaml(final int envs, final String description, final String graphSchema) {
+
+        StringBuilder sb = new StringBuilder(48 * envs + description.length() + 256);
+        sb.append("name: bench-agent\n")
+                .append("version: \"1.0.0\"\n")
+                .append("description: \"").append(description).append("\"\n")
+                .append("framework: \"Spring AI Alibaba Graph\"\n")
+                .append("types: YAML\n")
+                .append("schema: \"").append(graphSchema.replace("\\", "\\\\")).append("\"\n")
+                .append("envs:\n");
+        for (int i = 0; i < envs; i++) {
+            sb.append("  - ").append(envName(i)).append(": \"").append(envValue(i)).append("\"\n");
+        }
+
+        return sb.toString();
+    }
+
+    private static String properties(final int envs, final String description, final String graphSchema) {
+
+        StringBuilder sb = new StringBuilder(48 * envs + description.length() + 256);
+        sb.append("name=bench-agent\n")
+                .append("version=1.0.0\n")
+                .append("description=").append(description).append('\n')
+                .append("framework=Spring AI Alibaba Graph\n")
+                .append("types=YAML\n")
+                .append("schema=").append(graphSchema.replace("\\", "\\\\")).append('\n');
+        for (int i = 0; i < envs; i++) {
+            sb.append("envs.").append(i).append('.').append(envName(i)).append('=').append(envValue(i)).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static String envName(final int i) {
+
+        return "AGENT_ENV_" + i;
+    }
+
+    private static String envValue(final int i) {
+
+        return "/opt/agent/value-" + i;
+    }
+
+}
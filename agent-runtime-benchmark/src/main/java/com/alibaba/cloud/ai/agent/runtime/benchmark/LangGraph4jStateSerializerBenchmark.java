@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.benchmark;
+
+import com.alibaba.cloud.ai.agent.runtime.common.state.AgentStateLayout;
+import com.alibaba.cloud.ai.agent.runtime.framework.adapter.LangGraph4jSerializerType;
+import com.alibaba.cloud.ai.agent.runtime.framework.adapter.LangGraph4jStateSerializers;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkpoint encode and decode time of the LangGraph4j state serializers.
+ *
+ * <p>The checkpoint is the {@code MessagesState<ChatMessage>} of a tool calling conversation of
+ * {@code messages} LangChain4j messages, compared with the LangChain4j aware Java serialization.
+ * Checkpoint sizes are logged once per trial, they do not vary between invocations.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LangGraph4jStateSerializerBenchmark {
+
+    private static final System.Logger LOGGER = System.getLogger(LangGraph4jStateSerializerBenchmark.class.getName());
+
+    private static final AgentStateLayout LAYOUT = AgentStateLayout.of(List.of("id", "messages", "step", "next"));
+
+    @Param({"lc4j", "binary"})
+    private String serializer;
+
+    @Param({"10", "100"})
+    private int messages;
+
+    private StateSerializer<AgentState> stateSerializer;
+
+    private Map<String, Object> checkpoint;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+
+        stateSerializer = LangGraph4jStateSerializers.of(LangGraph4jSerializerType.of(serializer), AgentState::new, LangGraph4jStateSerializers.codecBuilder(LAYOUT).build());
+        checkpoint = checkpoint(messages);
+        encoded = encode();
+        LOGGER.log(System.Logger.Level.INFO, "{0} checkpoint of {1} messages: {2} bytes", serializer, messages, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            stateSerializer.write(checkpoint, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Map<String, Object> decode() throws IOException, ClassNotFoundException {
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded))) {
+            return stateSerializer.read(in);
+        }
+    }
+
+    private static Map<String, Object> checkpoint(final int size) {
+
+        List<ChatMessage> history = new ArrayList<>(size);
+        history.add(SystemMessage.from("You are a benchmark agent, answer with the tool results."));
+        for (int i = 1; i < size; i++) {
+            history.add(message(i));
+        }
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("id", "benchmark-langgraph4j-id");
+        state.put("messages", history);
+        state.put("step", size);
+        state.put("next", "reverse_id");
+        return state;
+    }
+
+    private static ChatMessage message(final int i) {
+
+        String call = "call-" + i / 4;
+        return switch (i % 4) {
+            case 1 -> UserMessage.from("What is the status of order number " + i + "?");
+            case 2 -> AiMessage.builder()
+                    .toolExecutionRequests(List.of(ToolExecutionRequest.builder().id(call).name("order_status").arguments("{\"order\":" + i + "}").build()))
+                    .build();
+            case 3 -> ToolExecutionResultMessage.from(call, "order_status", "{\"order\":" + i + ",\"status\":\"shipped\"}");
+            default -> AiMessage.from("Order number " + i + " has been shipped.");
+        };
+    }
+
+}
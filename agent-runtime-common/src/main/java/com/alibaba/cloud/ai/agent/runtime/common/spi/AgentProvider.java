@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link IAgentProvider} implementation for the SPI loader.
+ *
+ * <p>{@link AgentProviderProcessor} records every annotated class in
+ * {@link AgentProviderIndex#LOCATION} at compile time, so the runtime selects a provider from the
+ * index and only loads the selected class.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface AgentProvider {
+
+    /**
+     * Provider name referenced by the runtime config {@code schema}, defaults to the class name.
+     *
+     * @return provider name
+     */
+    String name() default "";
+
+    /**
+     * Framework of the provided agent, e.g. {@code SPRING_AI_ALIBABA_GRAPH} or {@code Spring AI Alibaba Graph}.
+     *
+     * @return framework name
+     */
+    String framework();
+
+    /**
+     * Capabilities declared by the provided agent, e.g. {@code streaming}.
+     *
+     * @return capabilities
+     */
+    String[] capabilities() default {};
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.spi;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Compile-time index of the {@link AgentProvider agent providers} on a class path.
+ *
+ * <p>Every jar built with {@link AgentProviderProcessor} carries one {@link #LOCATION} entry, a
+ * UTF-8 text file with one provider per line:
+ * <pre>
+ * class name \t provider name \t framework \t capability,capability
+ * </pre>
+ * Lines starting with {@code #} are comments. Reading the index only opens these entries, no
+ * provider class is loaded until {@link Entry#instantiate(ClassLoader)} is called for it.
+ *
+ * <p>Finding the entries is still a {@link ClassLoader#getResources(String)} lookup, which asks every
+ * class path entry for {@link #LOCATION}, so it grows with the number of jars even when few of them
+ * carry an index. There is no build-time aggregation into a single resource, callers are expected to
+ * load the index once per class loader and keep it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentProviderIndex {
+
+    /**
+     * Resource path of the index inside a jar.
+     */
+    public static final String LOCATION = "META-INF/agent-runtime/agent-providers.idx";
+
+    private static final String HEADER = "# agent-runtime agent provider index, generated by " + AgentProviderProcessor.class.getName();
+
+    private static final char SEPARATOR = '\t';
+
+    private static final String CAPABILITY_SEPARATOR = ",";
+
+    private final Map<String, Entry> byName;
+
+    private AgentProviderIndex(final Map<String, Entry> byName) {
+
+        this.byName = byName;
+    }
+
+    /**
+     * Merge the indexes of every jar visible to the class loader. A provider name defined twice
+     * fails, the runtime config could not tell them apart. Costs one resource lookup per class path
+     * entry plus one read per index found, see the class comment.
+     *
+     * @param classLoader class loader to search
+     * @return {@link AgentProviderIndex}
+     */
+    public static AgentProviderIndex load(final ClassLoader classLoader) {
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                for (Entry entry : read(resource.openStream())) {
+                    Entry existing = entries.putIfAbsent(entry.name(), entry);
+                    if (Objects.nonNull(existing) && !existing.className().equals(entry.className())) {
+                        throw new AgentRuntimeException("Duplicate agent provider name: " + entry.name()
+                                + ", defined by " + existing.className() + " and " + entry.className());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read agent provider index: " + LOCATION, e);
+        }
+
+        return new AgentProviderIndex(Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Read one index file, the stream is closed before this method returns.
+     *
+     * @param stream index content
+     * @return the entries in file order
+     * @throws IOException if the stream can not be read
+     */
+    public static List<Entry> read(final InputStream stream) throws IOException {
+
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); Objects.nonNull(line); line = reader.readLine()) {
+                if (!line.isBlank() && line.charAt(0) != '#') {
+                    entries.add(parse(line));
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Write an index file.
+     *
+     * @param writer  target, not closed
+     * @param entries entries to write
+     * @throws IOException if the writer fails
+     */
+    public static void write(final Writer writer, final Collection<Entry> entries) throws IOException {
+
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Entry entry : entries) {
+            writer.write(entry.className());
+            writer.write(SEPARATOR);
+            writer.write(entry.name());
+            writer.write(SEPARATOR);
+            writer.write(entry.framework());
+            writer.write(SEPARATOR);
+            writer.write(String.join(CAPABILITY_SEPARATOR, entry.capabilities()));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Provider by name or class name.
+     *
+     * @param nameOrClass provider name or fully qualified class name
+     * @return the entry, empty if no such provider is indexed
+     */
+    public Optional<Entry> find(final String nameOrClass) {
+
+        Entry entry = byName.get(nameOrClass);
+        if (Objects.nonNull(entry)) {
+            return Optional.of(entry);
+        }
+        return byName.values().stream().filter(candidate -> candidate.className().equals(nameOrClass)).findFirst();
+    }
+
+    /**
+     * All indexed providers, in class path order.
+     *
+     * @return the entries
+     */
+    public Collection<Entry> entries() {
+
+        return byName.values();
+    }
+
+    private static Entry parse(final String line) {
+
+        String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length != 4) {
+            throw new AgentRuntimeException("Malformed agent provider index line: " + line);
+        }
+        List<String> capabilities = fields[3].isEmpty() ? List.of() : Arrays.asList(fields[3].split(CAPABILITY_SEPARATOR));
+
+        return new Entry(fields[0], fields[1], fields[2], List.copyOf(capabilities));
+    }
+
+    /**
+     * One indexed provider.
+     *
+     * @param className    provider class name
+     * @param name         provider name
+     * @param framework    framework of the provided agent
+     * @param capabilities capabilities declared by the provided agent
+     */
+    public record Entry(String className, String name, String framework, List<String> capabilities) {
+
+        /**
+         * Whether the provider declares a capability.
+         *
+         * @param capability capability name
+         * @return true if declared
+         */
+        public boolean hasCapability(final String capability) {
+
+            return capabilities.contains(capability);
+        }
+
+        /**
+         * Load and instantiate the provider class.
+         *
+         * @param classLoader class loader the provider is loaded from
+         * @return {@link IAgentProvider}
+         */
+        public IAgentProvider instantiate(final ClassLoader classLoader) {
+
+            try {
+                return Class.forName(className, true, classLoader).asSubclass(IAgentProvider.class).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                throw new AgentRuntimeException("Failed to instantiate agent provider: " + className, e);
+            }
+        }
+    }
+
+}
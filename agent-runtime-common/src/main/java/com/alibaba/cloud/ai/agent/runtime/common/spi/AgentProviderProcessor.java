@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.spi;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes {@link AgentProviderIndex#LOCATION} for the {@link AgentProvider} classes of a compilation.
+ *
+ * <p>The processor is registered through {@code META-INF/services}, any module compiled against
+ * agent-runtime-common picks it up. Providers are validated here, a provider that could not be
+ * instantiated at runtime fails the build instead.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+@SupportedAnnotationTypes("com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider")
+public class AgentProviderProcessor extends AbstractProcessor {
+
+    /**
+     * Providers by class name, sorted so the index is reproducible.
+     */
+    private final Map<String, AgentProviderIndex.Entry> providers = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(AgentProvider.class)) {
+            if (element.getKind() == ElementKind.CLASS && isValid((TypeElement) element)) {
+                AgentProviderIndex.Entry entry = toEntry((TypeElement) element);
+                if (Objects.nonNull(entry)) {
+                    providers.put(entry.className(), entry);
+                }
+            } else if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@AgentProvider is only allowed on classes");
+            }
+        }
+
+        if (roundEnv.processingOver() && !providers.isEmpty()) {
+            writeIndex();
+        }
+        return true;
+    }
+
+    private boolean isValid(final TypeElement type) {
+
+        TypeMirror provider = processingEnv.getElementUtils().getTypeElement(IAgentProvider.class.getName()).asType();
+        if (!processingEnv.getTypeUtils().isAssignable(type.asType(), provider)) {
+            error(type, "@AgentProvider class must implement " + IAgentProvider.class.getName());
+            return false;
+        }
+        if (!type.getModifiers().contains(Modifier.PUBLIC) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@AgentProvider class must be public and not abstract");
+            return false;
+        }
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "@AgentProvider nested class must be static");
+            return false;
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        boolean instantiable = constructors.stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC));
+        if (!instantiable) {
+            error(type, "@AgentProvider class needs a public no-arg constructor");
+        }
+        return instantiable;
+    }
+
+    private AgentProviderIndex.Entry toEntry(final TypeElement type) {
+
+        AgentProvider annotation = type.getAnnotation(AgentProvider.class);
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String name = annotation.name().isEmpty() ? className : annotation.name();
+        List<String> capabilities = List.of(annotation.capabilities());
+
+        if (annotation.framework().isBlank()) {
+            error(type, "@AgentProvider framework must not be blank");
+            return null;
+        }
+        if (!isIndexable(name) || !isIndexable(annotation.framework())
+                || capabilities.stream().anyMatch(capability -> capability.isEmpty() || !isIndexable(capability) || capability.contains(","))) {
+            error(type, "@AgentProvider name, framework and capabilities must not contain tabs or line breaks, capabilities no commas");
+            return null;
+        }
+
+        return new AgentProviderIndex.Entry(className, name, annotation.framework(), capabilities);
+    }
+
+    private void writeIndex() {
+
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", AgentProviderIndex.LOCATION);
+            try (Writer writer = index.openWriter()) {
+                AgentProviderIndex.write(writer, providers.values());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + AgentProviderIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private void error(final Element element, final String message) {
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static boolean isIndexable(final String value) {
+
+        return value.indexOf('\t') == -1 && value.indexOf('\n') == -1 && value.indexOf('\r') == -1;
+    }
+
+}
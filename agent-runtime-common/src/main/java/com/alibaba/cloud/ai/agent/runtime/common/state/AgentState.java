@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Graph state stored as one array slot per key of an {@link AgentStateLayout}.
+ *
+ * <p>Not thread-safe, a state belongs to one graph step at a time.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentState {
+
+    private final AgentStateLayout layout;
+
+    private final Object[] values;
+
+    public AgentState(final AgentStateLayout layout) {
+
+        this.layout = layout;
+        this.values = new Object[layout.size()];
+    }
+
+    /**
+     * A state filled from a key/value map, keys outside the layout are ignored.
+     *
+     * @param layout state layout
+     * @param values state values by key
+     * @return {@link AgentState}
+     */
+    public static AgentState of(final AgentStateLayout layout, final Map<String, ?> values) {
+
+        AgentState state = new AgentState(layout);
+        for (int i = 0; i < layout.size(); i++) {
+            state.values[i] = values.get(layout.key(i));
+        }
+        return state;
+    }
+
+    public AgentStateLayout getLayout() {
+
+        return layout;
+    }
+
+    /**
+     * The value of a slot.
+     *
+     * @param slot slot index
+     * @param <T>  value type
+     * @return the value, null if not set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final int slot) {
+
+        return (T) values[slot];
+    }
+
+    /**
+     * The value of a key, a map lookup, prefer {@link #get(int)} on hot paths.
+     *
+     * @param key state key
+     * @param <T> value type
+     * @return the value, null if not set or not declared
+     */
+    public <T> T get(final String key) {
+
+        int slot = layout.slot(key);
+        return slot < 0 ? null : get(slot);
+    }
+
+    /**
+     * Set the value of a slot.
+     *
+     * @param slot  slot index
+     * @param value the value, null to unset
+     */
+    public void set(final int slot, final Object value) {
+
+        values[slot] = value;
+    }
+
+    /**
+     * Apply an update, each updated slot is replaced.
+     *
+     * @param delta the update
+     */
+    public void apply(final AgentStateDelta delta) {
+
+        for (int i = 0; i < delta.size(); i++) {
+            values[delta.slot(i)] = delta.value(i);
+        }
+    }
+
+    /**
+     * The set values by key, for frameworks that take a map.
+     *
+     * @return a new map in slot order
+     */
+    public Map<String, Object> toMap() {
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (Objects.nonNull(values[i])) {
+                map.put(layout.key(i), values[i]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+
+        return toMap().toString();
+    }
+
+}
@@ -0,0 +1,614 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compact binary codec of graph state, meant for checkpoints written on every step.
+ *
+ * <p>Keys declared by the {@link AgentStateLayout} are written as their slot tag instead of
+ * their name, each distinct string is written once and referenced by index afterwards, and
+ * values are dispatched on a type tag. Built-in types are null, booleans, int, long, float,
+ * double, strings, byte arrays, lists, sets and maps; other types are written by the
+ * {@link AgentStateValueCodec} registered for their exact class. Only values of any other
+ * {@link Serializable} type fall back to Java serialization, their classes are resolved through the
+ * class loader given to the builder, or else the thread context class loader of the reader. Checkpoints
+ * may come from outside the process, so such a value is only read back when every class in its object
+ * graph is allowed: {@code java.lang}, {@code java.math}, {@code java.time} and {@code java.util}, plus
+ * the patterns given to {@link Builder#allowSerialized(String...)}. Any other class is rejected.
+ *
+ * <p>Layout, all counts and lengths are unsigned varints:
+ * <pre>
+ * magic    byte  0xA5
+ * version  byte
+ * layout   i32   hash of the layout keys, a reader with another layout rejects the state
+ * count    entries
+ * entry    field tag (slot + 1, or 0 followed by the key as a string value), value
+ * value    type tag byte, payload
+ * </pre>
+ * Thread-safe, a codec is immutable once built.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStateCodec {
+
+    static final byte MAGIC = (byte) 0xA5;
+
+    static final byte VERSION = 1;
+
+    private static final int NULL = 0;
+
+    private static final int TRUE = 1;
+
+    private static final int FALSE = 2;
+
+    private static final int INT = 3;
+
+    private static final int LONG = 4;
+
+    private static final int FLOAT = 5;
+
+    private static final int DOUBLE = 6;
+
+    private static final int STRING = 7;
+
+    private static final int STRING_REF = 8;
+
+    private static final int BYTES = 9;
+
+    private static final int LIST = 10;
+
+    private static final int SET = 11;
+
+    private static final int MAP = 12;
+
+    private static final int CUSTOM = 13;
+
+    private static final int SERIALIZED = 14;
+
+    private static final int VARINT_BITS = 7;
+
+    private static final int VARINT_MASK = 0x7F;
+
+    private static final int VARINT_MORE = 0x80;
+
+    private static final List<String> DEFAULT_SERIALIZED_CLASSES = List.of("java.lang.*", "java.math.*", "java.time.*", "java.util.*");
+
+    private final AgentStateLayout layout;
+
+    private final int layoutHash;
+
+    private final Map<Class<?>, Registration<?>> byType;
+
+    private final Map<Integer, Registration<?>> byTag;
+
+    private final ClassLoader classLoader;
+
+    private final ObjectInputFilter serializedFilter;
+
+    private AgentStateCodec(final Builder builder) {
+
+        this.layout = builder.layout;
+        this.layoutHash = builder.layout.keys().hashCode();
+        this.byType = Map.copyOf(builder.byType);
+        this.byTag = Map.copyOf(builder.byTag);
+        this.classLoader = builder.classLoader;
+        // allowlist, every class not matched by a pattern is rejected.
+        this.serializedFilter = ObjectInputFilter.Config.createFilter(
+                builder.serializedClasses.stream().collect(Collectors.joining(";", "", ";!*")));
+    }
+
+    public static Builder builder(final AgentStateLayout layout) {
+
+        return new Builder(layout);
+    }
+
+    public AgentStateLayout getLayout() {
+
+        return layout;
+    }
+
+    /**
+     * Encode a state.
+     *
+     * @param state state values by key
+     * @return state bytes
+     */
+    public byte[] encode(final Map<String, ?> state) {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + state.size() * 16);
+        try {
+            write(state, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to encode agent state", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a state.
+     *
+     * @param bytes state bytes
+     * @return state values by key, in written order
+     */
+    public Map<String, Object> decode(final byte[] bytes) {
+
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to decode agent state", e);
+        }
+    }
+
+    /**
+     * Write a state.
+     *
+     * @param state state values by key
+     * @param out   output
+     * @throws IOException if the output fails
+     */
+    public void write(final Map<String, ?> state, final DataOutput out) throws IOException {
+
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(layoutHash);
+        writeVarint(out, state.size());
+
+        Writer writer = new Writer(out);
+        for (Map.Entry<String, ?> entry : state.entrySet()) {
+            int slot = layout.slot(entry.getKey());
+            writeVarint(out, slot + 1);
+            if (slot < 0) {
+                writer.value(entry.getKey());
+            }
+            writer.value(entry.getValue());
+        }
+    }
+
+    /**
+     * Read a state written by {@link #write(Map, DataOutput)}.
+     *
+     * @param in input
+     * @return state values by key, in written order
+     * @throws IOException if the input fails or is malformed
+     */
+    public Map<String, Object> read(final DataInput in) throws IOException {
+
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Not an agent state");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported agent state version: " + version + ", expected: " + VERSION);
+        }
+        if (in.readInt() != layoutHash) {
+            throw new IOException("Agent state was written with another state layout than " + layout);
+        }
+
+        int count = readVarint(in);
+        Map<String, Object> state = new LinkedHashMap<>(count * 2);
+        Reader reader = new Reader(in);
+        for (int i = 0; i < count; i++) {
+            int tag = readVarint(in);
+            String key = tag == 0 ? (String) reader.value() : layout.key(tag - 1);
+            state.put(key, reader.value());
+        }
+        return state;
+    }
+
+    static void writeVarint(final DataOutput out, final int value) throws IOException {
+
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            out.writeByte(remaining & VARINT_MASK | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.writeByte(remaining);
+    }
+
+    static int readVarint(final DataInput in) throws IOException {
+
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += VARINT_BITS) {
+            int b = in.readUnsignedByte();
+            value |= (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static void writeVarlong(final DataOutput out, final long value) throws IOException {
+
+        long remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            out.writeByte((int) (remaining & VARINT_MASK) | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static long readVarlong(final DataInput in) throws IOException {
+
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += VARINT_BITS) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Writes the values of one state, strings are deduplicated within the state.
+     */
+    private final class Writer {
+
+        private final DataOutput out;
+
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(final DataOutput out) {
+
+            this.out = out;
+        }
+
+        void value(final Object value) throws IOException {
+
+            if (Objects.isNull(value)) {
+                out.writeByte(NULL);
+            } else if (value instanceof String string) {
+                string(string);
+            } else if (value instanceof Boolean bool) {
+                out.writeByte(bool ? TRUE : FALSE);
+            } else if (value instanceof Integer number) {
+                out.writeByte(INT);
+                // zigzag, small negative numbers stay short.
+                writeVarint(out, number << 1 ^ number >> (Integer.SIZE - 1));
+            } else if (value instanceof Long number) {
+                out.writeByte(LONG);
+                writeVarlong(out, number << 1 ^ number >> (Long.SIZE - 1));
+            } else if (value instanceof Double number) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            } else if (value instanceof Float number) {
+                out.writeByte(FLOAT);
+                out.writeFloat(number);
+            } else if (value instanceof byte[] bytes) {
+                out.writeByte(BYTES);
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            } else {
+                object(value);
+            }
+        }
+
+        private void object(final Object value) throws IOException {
+
+            Registration<?> registration = byType.get(value.getClass());
+            if (Objects.nonNull(registration)) {
+                out.writeByte(CUSTOM);
+                writeVarint(out, registration.tag());
+                registration.write(value, out);
+            } else if (value instanceof List<?> list) {
+                out.writeByte(LIST);
+                elements(list);
+            } else if (value instanceof Set<?> set) {
+                out.writeByte(SET);
+                elements(set);
+            } else if (value instanceof Map<?, ?> map) {
+                out.writeByte(MAP);
+                writeVarint(out, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    value(entry.getKey());
+                    value(entry.getValue());
+                }
+            } else if (value instanceof Serializable) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(value);
+                }
+                out.writeByte(SERIALIZED);
+                writeVarint(out, bytes.size());
+                out.write(bytes.toByteArray());
+            } else {
+                throw new IOException("No codec registered for state value type " + value.getClass().getName());
+            }
+        }
+
+        private void elements(final Collection<?> elements) throws IOException {
+
+            writeVarint(out, elements.size());
+            for (Object element : elements) {
+                value(element);
+            }
+        }
+
+        private void string(final String value) throws IOException {
+
+            Integer ref = strings.putIfAbsent(value, strings.size());
+            if (Objects.nonNull(ref)) {
+                out.writeByte(STRING_REF);
+                writeVarint(out, ref);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+    }
+
+    /**
+     * Reads the values of one state.
+     */
+    private final class Reader {
+
+        private final DataInput in;
+
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(final DataInput in) {
+
+            this.in = in;
+        }
+
+        Object value() throws IOException {
+
+            int type = in.readUnsignedByte();
+            return switch (type) {
+                case NULL -> null;
+                case TRUE -> Boolean.TRUE;
+                case FALSE -> Boolean.FALSE;
+                case INT -> {
+                    int zigzag = readVarint(in);
+                    yield zigzag >>> 1 ^ -(zigzag & 1);
+                }
+                case LONG -> {
+                    long zigzag = readVarlong(in);
+                    yield zigzag >>> 1 ^ -(zigzag & 1);
+                }
+                case DOUBLE -> in.readDouble();
+                case FLOAT -> in.readFloat();
+                case STRING -> {
+                    String string = new String(bytes(), StandardCharsets.UTF_8);
+                    strings.add(string);
+                    yield string;
+                }
+                case STRING_REF -> stringRef();
+                case BYTES -> bytes();
+                case LIST -> elements(new ArrayList<>());
+                case SET -> elements(new LinkedHashSet<>());
+                case MAP -> map();
+                case CUSTOM -> custom();
+                case SERIALIZED -> deserialize(bytes());
+                default -> throw new IOException("Unknown state value type tag: " + type);
+            };
+        }
+
+        private String stringRef() throws IOException {
+
+            int ref = readVarint(in);
+            if (ref >= strings.size()) {
+                throw new IOException("Unknown string reference: " + ref);
+            }
+            return strings.get(ref);
+        }
+
+        private byte[] bytes() throws IOException {
+
+            byte[] bytes = new byte[readVarint(in)];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private <C extends Collection<Object>> C elements(final C elements) throws IOException {
+
+            int size = readVarint(in);
+            for (int i = 0; i < size; i++) {
+                elements.add(value());
+            }
+            return elements;
+        }
+
+        private Map<Object, Object> map() throws IOException {
+
+            int size = readVarint(in);
+            Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                map.put(value(), value());
+            }
+            return map;
+        }
+
+        private Object custom() throws IOException {
+
+            int tag = readVarint(in);
+            Registration<?> registration = byTag.get(tag);
+            if (Objects.isNull(registration)) {
+                throw new IOException("No codec registered for state value tag " + tag);
+            }
+            return registration.codec().read(in);
+        }
+
+        private Object deserialize(final byte[] bytes) throws IOException {
+
+            try (ObjectInputStream ois = new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes), classLoader())) {
+                ois.setObjectInputFilter(serializedFilter);
+                return ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("State value class not found", e);
+            }
+        }
+
+        private ClassLoader classLoader() {
+
+            if (Objects.nonNull(classLoader)) {
+                return classLoader;
+            }
+            ClassLoader context = Thread.currentThread().getContextClassLoader();
+            return Objects.nonNull(context) ? context : AgentStateCodec.class.getClassLoader();
+        }
+
+    }
+
+    /**
+     * Resolves serialized classes through the given class loader, e.g. the one of the agent the state belongs to.
+     */
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream(final ByteArrayInputStream in, final ClassLoader classLoader) throws IOException {
+
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                // primitive types are not loadable by name.
+                return super.resolveClass(desc);
+            }
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final AgentStateLayout layout;
+
+        private final Map<Class<?>, Registration<?>> byType = new HashMap<>();
+
+        private final Map<Integer, Registration<?>> byTag = new HashMap<>();
+
+        private final List<String> serializedClasses = new ArrayList<>(DEFAULT_SERIALIZED_CLASSES);
+
+        private ClassLoader classLoader;
+
+        private Builder(final AgentStateLayout layout) {
+
+            this.layout = layout;
+        }
+
+        /**
+         * Register the codec of a value type, matched by exact class.
+         *
+         * @param tag   stable type tag written before the value, unique per codec
+         * @param type  value class
+         * @param codec value codec
+         * @param <T>   value type
+         * @return this builder
+         */
+        public <T> Builder register(final int tag, final Class<T> type, final AgentStateValueCodec<T> codec) {
+
+            if (tag < 0 || byTag.containsKey(tag) || byType.containsKey(type)) {
+                throw new AgentRuntimeException("State value codec tag " + tag + " or type " + type.getName() + " is already registered");
+            }
+            Registration<T> registration = new Registration<>(tag, type, codec);
+            byType.put(type, registration);
+            byTag.put(tag, registration);
+            return this;
+        }
+
+        /**
+         * The class loader serialized values are resolved through, the thread context class loader of the reader by default.
+         *
+         * @param classLoader class loader, e.g. the agent class loader
+         * @return this builder
+         */
+        public Builder classLoader(final ClassLoader classLoader) {
+
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        /**
+         * Allow more classes to be read back from Java serialization, in addition to {@code java.lang},
+         * {@code java.math}, {@code java.time} and {@code java.util}.
+         *
+         * @param patterns class name patterns in {@link ObjectInputFilter.Config#createFilter(String)} syntax,
+         *                 e.g. {@code com.example.state.Order} or {@code com.example.state.*}
+         * @return this builder
+         */
+        public Builder allowSerialized(final String... patterns) {
+
+            for (String pattern : patterns) {
+                if (Objects.isNull(pattern) || pattern.isBlank() || pattern.contains(";") || pattern.contains("=") || pattern.startsWith("!")) {
+                    throw new AgentRuntimeException("Invalid serialized class pattern: " + pattern);
+                }
+                serializedClasses.add(pattern.strip());
+            }
+            return this;
+        }
+
+        public AgentStateCodec build() {
+
+            return new AgentStateCodec(this);
+        }
+
+    }
+
+    private record Registration<T>(int tag, Class<T> type, AgentStateValueCodec<T> codec) {
+
+        void write(final Object value, final DataOutput out) throws IOException {
+
+            codec.write(type.cast(value), out);
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The update of a graph step, as slot/value pairs of an {@link AgentStateLayout}.
+ *
+ * <p>{@link #asMap()} hands the update to a framework that takes a map without copying it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStateDelta {
+
+    private final AgentStateLayout layout;
+
+    private int[] slots;
+
+    private Object[] values;
+
+    private int size;
+
+    public AgentStateDelta(final AgentStateLayout layout) {
+
+        this(layout, 2);
+    }
+
+    public AgentStateDelta(final AgentStateLayout layout, final int capacity) {
+
+        this.layout = layout;
+        this.slots = new int[Math.max(1, capacity)];
+        this.values = new Object[slots.length];
+    }
+
+    /**
+     * An update from a key/value map, keys outside the layout are ignored.
+     *
+     * @param layout state layout
+     * @param update updated values by key
+     * @return {@link AgentStateDelta}
+     */
+    public static AgentStateDelta of(final AgentStateLayout layout, final Map<String, ?> update) {
+
+        AgentStateDelta delta = new AgentStateDelta(layout, update.size());
+        update.forEach((key, value) -> {
+            int slot = layout.slot(key);
+            if (slot >= 0) {
+                delta.put(slot, value);
+            }
+        });
+        return delta;
+    }
+
+    /**
+     * Update a slot, a second update of the same slot replaces the first.
+     *
+     * @param slot  slot index
+     * @param value the value
+     * @return this delta
+     */
+    public AgentStateDelta put(final int slot, final Object value) {
+
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                values[i] = value;
+                return this;
+            }
+        }
+
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        slots[size] = slot;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * Number of updated slots.
+     *
+     * @return update count
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * The slot of the i-th update.
+     *
+     * @param i update index
+     * @return slot index
+     */
+    public int slot(final int i) {
+
+        return slots[i];
+    }
+
+    /**
+     * The value of the i-th update.
+     *
+     * @param i update index
+     * @return the value
+     */
+    public Object value(final int i) {
+
+        return values[i];
+    }
+
+    /**
+     * A read-only map view of the update, keyed by state key.
+     *
+     * @return map view
+     */
+    public Map<String, Object> asMap() {
+
+        return new MapView();
+    }
+
+    @Override
+    public String toString() {
+
+        return asMap().toString();
+    }
+
+    private int indexOf(final Object key) {
+
+        int slot = key instanceof String name ? layout.slot(name) : -1;
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class MapView extends AbstractMap<String, Object> {
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+
+                    return size;
+                }
+
+            };
+        }
+
+        @Override
+        public Object get(final Object key) {
+
+            int i = indexOf(key);
+            return i < 0 ? null : values[i];
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+
+            return indexOf(key) >= 0;
+        }
+
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            int i = next++;
+            return new AbstractMap.SimpleImmutableEntry<>(layout.key(slots[i]), values[i]);
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fixed slot index per declared state key of a graph, resolved once when the graph is compiled.
+ *
+ * <p>Adapters translate framework state from and to an {@link AgentState} over this layout, so
+ * nodes read and write state by array index and return their updates as an {@link AgentStateDelta}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStateLayout {
+
+    private final String[] keys;
+
+    private final Map<String, Integer> slots;
+
+    private AgentStateLayout(final String[] keys) {
+
+        this.keys = keys;
+        this.slots = new HashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            slots.put(keys[i], i);
+        }
+    }
+
+    /**
+     * A layout with one slot per distinct key, in iteration order.
+     *
+     * @param keys state keys
+     * @return {@link AgentStateLayout}
+     */
+    public static AgentStateLayout of(final Collection<String> keys) {
+
+        return new AgentStateLayout(new LinkedHashSet<>(keys).toArray(new String[0]));
+    }
+
+    /**
+     * Number of slots.
+     *
+     * @return slot count
+     */
+    public int size() {
+
+        return keys.length;
+    }
+
+    /**
+     * The key of a slot.
+     *
+     * @param slot slot index
+     * @return state key
+     */
+    public String key(final int slot) {
+
+        return keys[slot];
+    }
+
+    /**
+     * The slot of a key.
+     *
+     * @param key state key
+     * @return slot index, -1 if the key is not declared
+     */
+    public int slot(final String key) {
+
+        Integer slot = slots.get(key);
+        return Objects.isNull(slot) ? -1 : slot;
+    }
+
+    /**
+     * The slot of a key that must be declared, meant to be resolved once when a node is bound.
+     *
+     * @param key state key
+     * @return slot index
+     */
+    public int require(final String key) {
+
+        int slot = slot(key);
+        if (slot < 0) {
+            throw new AgentRuntimeException("State key " + key + " is not declared, declared keys: " + keys());
+        }
+        return slot;
+    }
+
+    /**
+     * The declared keys in slot order.
+     *
+     * @return state keys
+     */
+    public List<String> keys() {
+
+        return List.of(keys);
+    }
+
+    @Override
+    public String toString() {
+
+        return keys().toString();
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary form of a state value type registered with an {@link AgentStateCodec}.
+ *
+ * @param <T> value type
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public interface AgentStateValueCodec<T> {
+
+    /**
+     * Write a value.
+     *
+     * @param value the value, never null
+     * @param out   output
+     * @throws IOException if the output fails
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * Read a value written by {@link #write(Object, DataOutput)}.
+     *
+     * @param in input
+     * @return the value
+     * @throws IOException if the input fails or is malformed
+     */
+    T read(DataInput in) throws IOException;
+
+}
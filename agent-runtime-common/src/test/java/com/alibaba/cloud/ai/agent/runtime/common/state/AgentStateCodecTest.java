@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.common.state;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+class AgentStateCodecTest {
+
+    private static final AgentStateLayout LAYOUT = AgentStateLayout.of(List.of("id", "messages", "step"));
+
+    private static Map<String, Object> checkpoint() {
+
+        List<Object> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("role", i % 2 == 0 ? "user" : "assistant");
+            message.put("text", "message " + i);
+            message.put("tokens", i * 7L);
+            messages.add(message);
+        }
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("id", "agent-42");
+        state.put("messages", messages);
+        state.put("step", -3);
+        state.put("score", 0.75);
+        state.put("done", false);
+        state.put("tags", new LinkedHashSet<>(List.of("a", "b")));
+        state.put("payload", null);
+        state.put("amount", new BigDecimal("12.50"));
+        return state;
+    }
+
+    @Test
+    void testStateRoundTrips() {
+
+        AgentStateCodec codec = AgentStateCodec.builder(LAYOUT).build();
+        Map<String, Object> state = checkpoint();
+
+        Map<String, Object> decoded = codec.decode(codec.encode(state));
+
+        Assertions.assertEquals(state, decoded);
+        Assertions.assertEquals(List.copyOf(state.keySet()), List.copyOf(decoded.keySet()));
+        Assertions.assertArrayEquals(new byte[] {1, 2}, (byte[]) codec.decode(codec.encode(Map.of("raw", new byte[] {1, 2}))).get("raw"));
+    }
+
+    @Test
+    void testStateIsSmallerThanJavaSerialization() throws IOException {
+
+        Map<String, Object> state = checkpoint();
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(java)) {
+            out.writeObject(state);
+        }
+
+        byte[] binary = AgentStateCodec.builder(LAYOUT).build().encode(state);
+
+        // declared keys are slot tags and repeated strings are references.
+        Assertions.assertTrue(binary.length * 2 < java.size(), binary.length + " vs " + java.size());
+    }
+
+    @Test
+    void testRegisteredTypeUsesItsCodec() {
+
+        AgentStateCodec codec = AgentStateCodec.builder(LAYOUT).register(1, Point.class, new AgentStateValueCodec<>() {
+
+            @Override
+            public void write(final Point value, final DataOutput out) throws IOException {
+
+                out.writeInt(value.x());
+                out.writeInt(value.y());
+            }
+
+            @Override
+            public Point read(final DataInput in) throws IOException {
+
+                return new Point(in.readInt(), in.readInt());
+            }
+
+        }).build();
+
+        Assertions.assertEquals(Map.of("at", new Point(3, 4)), codec.decode(codec.encode(Map.of("at", new Point(3, 4)))));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentStateCodec.builder(LAYOUT).build().encode(Map.of("at", new Point(3, 4))));
+    }
+
+    @Test
+    void testOtherLayoutIsRejected() {
+
+        byte[] bytes = AgentStateCodec.builder(LAYOUT).build().encode(Map.of("id", "x"));
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentStateCodec.builder(AgentStateLayout.of(List.of("id"))).build().decode(bytes));
+    }
+
+    @Test
+    void testSerializedValueIsResolvedThroughTheCodecClassLoader() {
+
+        List<String> resolved = new ArrayList<>();
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+
+            @Override
+            protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+
+                resolved.add(name);
+                return super.loadClass(name, resolve);
+            }
+
+        };
+        AgentStateCodec codec = AgentStateCodec.builder(LAYOUT).classLoader(loader).build();
+
+        Assertions.assertEquals(Map.of("amount", new BigDecimal("1.5")), codec.decode(codec.encode(Map.of("amount", new BigDecimal("1.5")))));
+        Assertions.assertTrue(resolved.contains(BigDecimal.class.getName()), resolved.toString());
+    }
+
+    @Test
+    void testSerializedValueOutsideTheAllowlistIsRejected() {
+
+        byte[] bytes = AgentStateCodec.builder(LAYOUT).build().encode(Map.of("balance", new Balance(1250)));
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentStateCodec.builder(LAYOUT).build().decode(bytes));
+        Assertions.assertEquals(Map.of("balance", new Balance(1250)),
+                AgentStateCodec.builder(LAYOUT).allowSerialized(Balance.class.getName()).build().decode(bytes));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentStateCodec.builder(LAYOUT).allowSerialized("!*"));
+    }
+
+    private record Point(int x, int y) {
+    }
+
+    private record Balance(long cents) implements Serializable {
+    }
+
+}
@@ -19,56 +19,656 @@
 
 package com.alibaba.cloud.ai.agent.runtime.loader;
 
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchemaCheckMode;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchemaChecker;
 import com.alibaba.cloud.ai.agent.runtime.IAgentRuntimeLoader;
+import com.alibaba.cloud.ai.agent.runtime.IAgentRuntimeSchemaChecker;
 import com.alibaba.cloud.ai.agent.runtime.LoaderType;
 import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
 import com.alibaba.cloud.ai.agent.runtime.convertor.AbstractAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
 import com.alibaba.cloud.ai.agent.runtime.convertor.IAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.diff.AgentGraphSchemaFingerprint;
+import com.alibaba.cloud.ai.agent.runtime.diff.AgentRuntimeSchemaDiff;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.AgentBundle;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupMetrics;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupPhase;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupRecorder;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupReport;
+import com.alibaba.cloud.ai.agent.runtime.placeholder.InterpolatedAgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.placeholder.PlaceholderResolver;
+import com.alibaba.cloud.ai.agent.runtime.registry.AgentRuntimeSchemaRegistry;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Abstract loader for agent runtime schema.
  * Provides common functionality for loading and managing agent runtime configurations.
  *
+ * <p>After {@link #start()} the runtime config, its snapshot and the referenced graph schema are
+ * watched. Once a burst of writes has settled for {@link #HOT_RELOAD_DEBOUNCE_PROPERTY} millis the
+ * config is diffed against the one in use: env and metadata changes are applied in place, graph, name
+ * and framework changes build a new agent on the watcher thread which is then swapped in through
+ * {@link #acquire()}. Invocations already holding a lease finish on the previous agent. A renamed
+ * agent is moved to its new name in the {@link AgentRuntimeSchemaRegistry} and its {@link AgentRegistry}.
+ *
+ * <p>The config path may also name an {@link AgentBundle}, the config, graph schema and jars are
+ * then read from the memory-mapped bundle and its {@code schema} is an entry of the bundle.
+ *
+ * <p>Every build is timed per {@link AgentStartupPhase}, config discovery and conversion included
+ * when they preceded the build. The report is logged, kept as {@link #getStartupReport()} and added
+ * to {@link AgentStartupMetrics}.
+ *
+ * <p>Agents that must not serve concurrent invocations from one instance set the
+ * {@link AgentPoolPolicy} envs in their runtime config: {@link #acquire()} then checks out an
+ * instance of a bounded {@link AgentInstancePool} instead of leasing the shared agent returned by
+ * {@link #load()}. The pool settings are read whenever the agent is built, a rebuild retires the
+ * pooled instances of the previous build.
+ *
  * @author yuluo
  * @version 1.0
  */
 public abstract class AbstractAgentRuntimeLoader implements IAgentRuntimeLoader {
 
-    private static AgentRuntimeSchema agentRuntimeSchema;
+    /**
+     * System property with the hot reload debounce delay in millis.
+     */
+    public static final String HOT_RELOAD_DEBOUNCE_PROPERTY = "agent.runtime.loader.hot-reload.debounce-millis";
+
+    private static final String SNAPSHOT_FILE = AgentRuntimeSnapshot.FILE_NAME;
+
+    private static final IAgentRuntimeSchemaChecker SCHEMA_CHECKER = new AgentRuntimeSchemaChecker();
+
+    private static final Duration HOT_RELOAD_DEBOUNCE = Duration.ofMillis(Long.getLong(HOT_RELOAD_DEBOUNCE_PROPERTY, 300L));
+
+    private static final System.Logger LOGGER = System.getLogger(AbstractAgentRuntimeLoader.class.getName());
+
+    /**
+     * Resource registered by {@link #closeOnRetire(AutoCloseable)} during the build on this thread.
+     */
+    private static final ThreadLocal<AutoCloseable> RETIRE_RESOURCE = new ThreadLocal<>();
+
+    /**
+     * Recorder of the build on this thread, see {@link #startupPhase(AgentStartupPhase)}.
+     */
+    private static final ThreadLocal<AgentStartupRecorder> STARTUP = new ThreadLocal<>();
+
+    /**
+     * Set while an instance of the {@link AgentInstancePool} is built on this thread, see {@link #isPooledBuild()}.
+     */
+    private static final ThreadLocal<Boolean> POOLED_BUILD = new ThreadLocal<>();
+
+    /**
+     * Runtime config of the build on this thread, it is only published as {@link #runtimeConfig} once the built agent is live.
+     */
+    private static final ThreadLocal<RuntimeConfig> BUILD_CONFIG = new ThreadLocal<>();
 
-    public static IAgentRuntimeLoader createLoader(String configPath) {
+    private volatile RuntimeConfig runtimeConfig;
 
-        agentRuntimeSchema = loadAgentRuntimeConfig(configPath);
-        LoaderType type = agentRuntimeSchema.getTypes();
+    /**
+     * Fingerprint of the graph schema the agent was built from, set once the graph schema has been read.
+     */
+    private volatile String graphFingerprint;
+
+    private final AgentReference agent = new AgentReference();
+
+    /**
+     * Serializes building and swapping in the shared agent between {@link #load()} and the hot reload.
+     */
+    private final Object swapLock = new Object();
+
+    private AgentRuntimeFileWatcher watcher;
+
+    private volatile AgentRuntimeException lastReloadError;
+
+    private final AtomicLong reloadCount = new AtomicLong();
+
+    /**
+     * Recorder holding the config phases of the runtime config in use until the next build picks it up.
+     */
+    private final AtomicReference<AgentStartupRecorder> pendingStartup = new AtomicReference<>();
+
+    private volatile AgentStartupReport startupReport;
+
+    private volatile AgentInstancePool pool;
+
+    /**
+     * Moves the agent in the {@link AgentRegistry} it is registered with when a reload renames it.
+     */
+    private volatile BiConsumer<String, String> renameListener;
+
+    /**
+     * Create a loader for the given runtime config. Every loader owns its config, loaders for
+     * different agents can be created and used concurrently.
+     *
+     * @param configPath runtime config path, the current directory is searched if empty
+     * @return {@link IAgentRuntimeLoader}
+     */
+    public static IAgentRuntimeLoader createLoader(final String configPath) {
 
-        return switch (type) {
+        AbstractAgentRuntimeLoader loader = create(configPath);
+        loader.publishSchema();
+        return loader;
+    }
+
+    /**
+     * Create a loader without publishing its schema to the {@link AgentRuntimeSchemaRegistry}, the caller
+     * publishes it with {@link #publishSchema()} once the agent is accepted, e.g. registered under its name.
+     */
+    static AbstractAgentRuntimeLoader create(final String configPath) {
+
+        AgentStartupRecorder recorder = new AgentStartupRecorder();
+        RuntimeConfig config = loadAgentRuntimeConfig(configPath, recorder);
+        LoaderType type = config.schema().getTypes();
+
+        AbstractAgentRuntimeLoader loader = switch (type) {
             case SPI -> new SPIAgentLoader();
             case CLASSPATH -> new ClassPathAgentLoader();
             case YAML -> new YamlAgentLoader();
             default -> throw new AgentRuntimeException("Unknown agent type: " + type);
         };
+        loader.runtimeConfig = config;
+        loader.pendingStartup.set(recorder);
+
+        return loader;
+    }
+
+    /**
+     * Publish the runtime config in use as the active revision of the agent in the {@link AgentRuntimeSchemaRegistry}.
+     */
+    void publishSchema() {
+
+        AgentRuntimeSchemaRegistry.getInstance().publish(runtimeConfig.schema());
     }
 
     @Override
     public BaseAgent load() {
 
+        synchronized (swapLock) {
+            return buildAndSwap(runtimeConfig);
+        }
+    }
+
+    /**
+     * Metrics of the instance pool.
+     *
+     * @return {@link AgentPoolStats}, empty if the agent is not pooled
+     */
+    public Optional<AgentPoolStats> getPoolStats() {
+
+        return Optional.ofNullable(pool).map(AgentInstancePool::getStats);
+    }
+
+    /**
+     * Phase timings of the latest successful build.
+     *
+     * @return {@link AgentStartupReport}, empty until the agent has been built
+     */
+    public Optional<AgentStartupReport> getStartupReport() {
+
+        return Optional.ofNullable(startupReport);
+    }
+
+    /**
+     * Lease the live agent for one invocation, or check out a pooled instance if the agent is pooled.
+     * The lease pins the agent across a hot reload and must be closed.
+     *
+     * @return {@link AgentReference.Lease}
+     */
+    public AgentReference.Lease acquire() {
+
+        AgentReference.Lease lease = tryAcquire();
+        if (Objects.isNull(lease)) {
+            throw new AgentRuntimeException("No agent has been loaded yet");
+        }
+        return lease;
+    }
+
+    /**
+     * Lease the live agent if it has been loaded, see {@link #acquire()}.
+     *
+     * @return {@link AgentReference.Lease}, null if the agent is not loaded
+     */
+    AgentReference.Lease tryAcquire() {
+
+        AgentInstancePool current = pool;
+        if (Objects.isNull(current)) {
+            return agent.tryAcquire();
+        }
+        return isLoaded() ? current.acquire() : null;
+    }
+
+    /**
+     * Whether the agent is currently built.
+     *
+     * @return true after {@link #load()} and until {@link #unload()}
+     */
+    public boolean isLoaded() {
+
+        return Objects.nonNull(agent.get());
+    }
+
+    /**
+     * Release the agent, the config is kept and the agent can be loaded again. In-flight invocations finish on their leases.
+     *
+     * @return true if an agent was loaded
+     */
+    public boolean unload() {
+
+        AgentInstancePool current = pool;
+        if (Objects.nonNull(current)) {
+            current.reset();
+        }
+        return Objects.nonNull(agent.clear());
+    }
+
+    /**
+     * Start watching the runtime config and graph schema, the agent is loaded first if it has not been yet.
+     */
+    @Override
+    public synchronized void start() {
+
+        if (Objects.nonNull(watcher)) {
+            return;
+        }
+        if (Objects.isNull(agent.get())) {
+            load();
+        }
+
+        RuntimeConfig config = runtimeConfig;
+        watcher = new AgentRuntimeFileWatcher(config.schema().getName(), HOT_RELOAD_DEBOUNCE, this::reload);
+        watcher.watch(watchedFiles(config));
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        if (Objects.nonNull(watcher)) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    @Override
+    public synchronized Boolean hotReloading() {
+
+        return Objects.nonNull(watcher);
+    }
+
+    /**
+     * Failure of the most recent hot reload, cleared by the next successful one. The previous agent stays live on failure.
+     *
+     * @return the failure, empty if the last reload succeeded or none has run
+     */
+    public Optional<AgentRuntimeException> getLastReloadError() {
+
+        return Optional.ofNullable(lastReloadError);
+    }
+
+    /**
+     * Number of hot reloads run so far, failed ones included. A burst of writes within the debounce delay counts once.
+     *
+     * @return reload count
+     */
+    public long getReloadCount() {
+
+        return reloadCount.get();
+    }
+
+    /**
+     * Listen for a hot reload renaming the agent, see {@link AgentRegistry}. The listener is called with
+     * the previous and the new name before the renamed agent is built, throwing rejects the reload. If the
+     * reload fails afterwards it is called again with the names swapped.
+     *
+     * @param listener rename listener, null to remove it
+     */
+    void onRename(final BiConsumer<String, String> listener) {
+
+        this.renameListener = listener;
+    }
+
+    /**
+     * Apply changed files, runs on the watcher thread only.
+     */
+    private void reload() {
+
+        RuntimeConfig previous = runtimeConfig;
+        String previousFingerprint = graphFingerprint;
+        String previousName = previous.schema().getName();
+        String renamedTo = null;
+        reloadCount.incrementAndGet();
+        try {
+            // parsed once, the same config is diffed and, if needed, built from.
+            AgentStartupRecorder recorder = new AgentStartupRecorder();
+            RuntimeConfig next = loadAgentRuntimeConfig(previous.configFile().toString(), recorder);
+            boolean filesChanged = refreshFileValues(previous);
+            AgentRuntimeSchemaDiff diff = applyUpdate(next);
+            boolean rebuild = requiresRebuild(diff);
+            if (rebuild || filesChanged) {
+                if (next.schema().getTypes() != getLoaderType()) {
+                    throw new AgentRuntimeException("Agent loader type changed from " + getLoaderType() + " to "
+                            + next.schema().getTypes() + ", the loader has to be recreated");
+                }
+                if (!previousName.equals(next.schema().getName())) {
+                    rename(previousName, next.schema().getName());
+                    renamedTo = next.schema().getName();
+                }
+                pendingStartup.set(recorder);
+                synchronized (swapLock) {
+                    // an unloaded agent is built from the new config on its next load.
+                    if (isLoaded()) {
+                        buildAndSwap(next);
+                    } else {
+                        runtimeConfig = next;
+                    }
+                }
+                if (Objects.nonNull(renamedTo)) {
+                    AgentRuntimeSchemaRegistry.getInstance().rename(previousName, next.schema());
+                } else if (rebuild) {
+                    // an in-place update was published by applyUpdate already.
+                    AgentRuntimeSchemaRegistry.getInstance().publish(next.schema());
+                }
+            }
+            lastReloadError = null;
+        } catch (RuntimeException e) {
+            if (Objects.nonNull(renamedTo)) {
+                renameBack(renamedTo, previousName);
+            }
+            runtimeConfig = previous;
+            graphFingerprint = previousFingerprint;
+            lastReloadError = e instanceof AgentRuntimeException are ? are
+                    : new AgentRuntimeException("Failed to reload agent from: " + previous.configFile(), e);
+            LOGGER.log(System.Logger.Level.WARNING, "Hot reload failed, keeping the current agent: " + previous.configFile(), e);
+        }
+
+        synchronized (this) {
+            if (Objects.nonNull(watcher)) {
+                // the graph schema reference may have moved.
+                watcher.watch(watchedFiles(runtimeConfig));
+            }
+        }
+    }
+
+    private void rename(final String from, final String to) {
+
+        BiConsumer<String, String> listener = renameListener;
+        if (Objects.nonNull(listener)) {
+            listener.accept(from, to);
+        }
+    }
+
+    /**
+     * Undo the rename of a failed reload, the previous name may have been taken in the meantime.
+     */
+    private void renameBack(final String from, final String to) {
+
         try {
-            return loadAgentBasedOnType(agentRuntimeSchema);
+            rename(from, to);
+        } catch (AgentRuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to move agent " + from + " back to its previous name " + to, e);
+        }
+    }
+
+    /**
+     * Build the agent from the given runtime config, set up its pool and only then swap it in and publish
+     * the config, so that a failure leaves the previous agent and config live. Runs under {@link #swapLock}.
+     */
+    private BaseAgent buildAndSwap(final RuntimeConfig config) {
+
+        AgentPoolPolicy poolPolicy = poolPolicy(config);
+        Built built = build(config, false);
+        try {
+            usePool(config, poolPolicy);
+        } catch (RuntimeException e) {
+            closeQuietly(built.resource());
+            throw e;
+        }
+        agent.swap(built.agent(), built.resource());
+        runtimeConfig = config;
+        return built.agent();
+    }
+
+    private Built build(final RuntimeConfig config, final boolean pooled) {
+
+        if (Objects.isNull(config)) {
+            throw new AgentRuntimeException("Loader has no runtime config, loaders are created with createLoader(configPath)");
+        }
+
+        AgentStartupRecorder pending = pendingStartup.getAndSet(null);
+        final AgentStartupRecorder recorder = Objects.isNull(pending) ? new AgentStartupRecorder() : pending;
+        final AutoCloseable outer = RETIRE_RESOURCE.get();
+        final AgentStartupRecorder outerRecorder = STARTUP.get();
+        final Boolean outerPooled = POOLED_BUILD.get();
+        final RuntimeConfig outerConfig = BUILD_CONFIG.get();
+        RETIRE_RESOURCE.remove();
+        STARTUP.set(recorder);
+        POOLED_BUILD.set(pooled);
+        BUILD_CONFIG.set(config);
+        try {
+            Built built = new Built(loader(), RETIRE_RESOURCE.get());
+            recordStartup(recorder.report(config.schema().getName()));
+            return built;
         } catch (FileNotFoundException e) {
+            closeQuietly(RETIRE_RESOURCE.get());
             throw new AgentRuntimeException("Failed to load agent schema: " + e.getMessage() + ", loader type: " + getLoaderType(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(RETIRE_RESOURCE.get());
+            throw e;
+        } finally {
+            RETIRE_RESOURCE.set(outer);
+            STARTUP.set(outerRecorder);
+            POOLED_BUILD.set(outerPooled);
+            BUILD_CONFIG.set(outerConfig);
+        }
+    }
+
+    /**
+     * Pool settings of the runtime config to build, read before building so that invalid settings fail the build.
+     */
+    private static AgentPoolPolicy poolPolicy(final RuntimeConfig config) {
+
+        InterpolatedAgentRuntimeSchema interpolated = config.interpolated();
+        return AgentPoolPolicy.fromEnvs(interpolated::getEnv).orElse(null);
+    }
+
+    /**
+     * Pool the freshly built agent: the instances of the previous build are retired and the warm minimum is built.
+     * Instances are built from the given runtime config. A new pool is warmed before it replaces the previous
+     * one, if that fails the previous pool stays in use; a kept pool goes back to the previous config.
+     */
+    private void usePool(final RuntimeConfig config, final AgentPoolPolicy poolPolicy) {
+
+        AgentInstancePool previous = pool;
+        Supplier<AgentInstancePool.Instance> factory = () -> newInstance(config);
+        if (Objects.nonNull(previous) && previous.getPolicy().equals(poolPolicy)) {
+            // same settings, the pool is kept and its next generation is built from the given config.
+            Supplier<AgentInstancePool.Instance> previousFactory = previous.getFactory();
+            previous.reset(factory);
+            try {
+                previous.prewarm();
+            } catch (RuntimeException e) {
+                previous.reset(previousFactory);
+                throw e;
+            }
+            return;
+        }
+
+        AgentInstancePool next = null;
+        if (Objects.nonNull(poolPolicy)) {
+            next = new AgentInstancePool(config.schema().getName(), poolPolicy, factory);
+            try {
+                next.prewarm();
+            } catch (RuntimeException e) {
+                next.reset();
+                throw e;
+            }
         }
+        pool = next;
+        if (Objects.nonNull(previous)) {
+            previous.reset();
+        }
+    }
+
+    private AgentInstancePool.Instance newInstance(final RuntimeConfig config) {
+
+        Built built = build(config, true);
+        return new AgentInstancePool.Instance(built.agent(), built.resource());
     }
 
-    private static AgentRuntimeSchema loadAgentRuntimeConfig(String configPath) {
+    private void recordStartup(final AgentStartupReport report) {
+
+        startupReport = report;
+        AgentStartupMetrics.getInstance().record(report);
+        LOGGER.log(System.Logger.Level.INFO, report.toLogLine());
+    }
+
+    private static void closeQuietly(final AutoCloseable resource) {
+
+        if (Objects.isNull(resource)) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to close resource of a failed agent build: " + resource, e);
+        }
+    }
+
+    /**
+     * The config file, its snapshot and the graph schema file, also when the graph schema is embedded
+     * in the snapshot: a change of it makes the snapshot stale. Also the files of {@code ${file:...}}
+     * placeholders, every value is resolved here so that its files are known.
+     */
+    private static List<Path> watchedFiles(final RuntimeConfig config) {
+
+        List<Path> files = new ArrayList<>(3);
+        files.add(config.configFile());
+        files.add(config.configFile().resolveSibling(SNAPSHOT_FILE));
+        files.addAll(placeholderFiles(config));
+
+        String graph = config.interpolated().getSchema();
+        if (Objects.nonNull(config.graphFile())) {
+            files.add(config.graphFile());
+        } else if (config.schema().getTypes() == LoaderType.YAML && Objects.isNull(config.graphSchema())
+                && Objects.nonNull(graph) && !graph.isEmpty()) {
+            files.add(Paths.get(graph));
+        }
+        return files;
+    }
+
+    private static List<Path> placeholderFiles(final RuntimeConfig config) {
+
+        InterpolatedAgentRuntimeSchema interpolated = config.interpolated();
+        AgentEnvTable envs = interpolated.getRaw().getEnvs();
+        for (int i = 0; Objects.nonNull(envs) && i < envs.size(); i++) {
+            try {
+                interpolated.getEnv(envs.key(i));
+            } catch (AgentRuntimeException e) {
+                // reported where the value is used, there is no file to watch for it.
+            }
+        }
+
+        // relative to the config directory, like the resolver reads them.
+        Path configDir = config.configFile().getParent();
+        return interpolated.getDependencies(PlaceholderResolver.FILE).stream()
+                .map(configDir::resolve)
+                .filter(file -> Files.isDirectory(file.toAbsolutePath().getParent()))
+                .toList();
+    }
+
+    /**
+     * Drop the values resolved from {@code ${file:...}} placeholders, their files may have changed.
+     *
+     * @return true if a value the agent was built from changed: the schema, or the envs of a loader that {@link #buildsFromEnvs()}
+     */
+    private boolean refreshFileValues(final RuntimeConfig config) {
+
+        InterpolatedAgentRuntimeSchema interpolated = config.interpolated();
+        if (interpolated.getDependencies(PlaceholderResolver.FILE).isEmpty()) {
+            return false;
+        }
+
+        String schema = interpolated.getSchema();
+        AgentEnvTable envs = buildsFromEnvs() ? interpolated.getEnvs() : null;
+        interpolated.invalidate(PlaceholderResolver.FILE);
+        return !Objects.equals(schema, interpolated.getSchema()) || Objects.nonNull(envs) && !envs.equals(interpolated.getEnvs());
+    }
+
+    /**
+     * Diff the config file of this loader, after it was edited, against the one in use and apply it
+     * in place when no reload is needed, e.g. for env and metadata changes. For graph topology, name
+     * and framework changes, pool setting changes and env changes of a loader that {@link #buildsFromEnvs()}
+     * nothing is applied, the agent has to be rebuilt. An applied
+     * update is published to the {@link AgentRuntimeSchemaRegistry} as a new revision of the agent.
+     *
+     * @param configPath runtime config path, must be the config file of this loader, see {@link #getConfigFile()}
+     * @return the applied or pending {@link AgentRuntimeSchemaDiff}
+     */
+    public AgentRuntimeSchemaDiff applyUpdate(final String configPath) {
+
+        // the config of another agent must never be applied to this one.
+        Path configFile = runtimeConfig.configFile();
+        if (Objects.isNull(configPath) || configPath.isEmpty()
+                || !Paths.get(configPath).toAbsolutePath().normalize().equals(configFile.normalize())) {
+            throw new AgentRuntimeException("Config " + configPath + " is not the config file of agent "
+                    + runtimeConfig.schema().getName() + ": " + configFile);
+        }
+        return applyUpdate(loadAgentRuntimeConfig(configFile.toString(), null));
+    }
+
+    private AgentRuntimeSchemaDiff applyUpdate(final RuntimeConfig next) {
+
+        RuntimeConfig current = runtimeConfig;
+        String nextFingerprint = Objects.isNull(graphFingerprint) ? null : readGraphFingerprint(next);
+
+        AgentRuntimeSchemaDiff diff = AgentRuntimeSchemaDiff.between(current.schema(), graphFingerprint, next.schema(), nextFingerprint);
+        if (!requiresRebuild(diff) && !diff.isEmpty()) {
+            runtimeConfig = next;
+            AgentRuntimeSchemaRegistry.getInstance().publish(next.schema());
+        }
+        return diff;
+    }
+
+    /**
+     * Whether the diff can only be applied by building a new agent: a reload kind of change, an env change the
+     * agent was built from, or a change of the pool settings, which are only read when the agent is built.
+     */
+    private boolean requiresRebuild(final AgentRuntimeSchemaDiff diff) {
+
+        if (diff.requiresReload()) {
+            return true;
+        }
+        Set<String> envChanges = diff.getEnvChanges().keySet();
+        return !envChanges.isEmpty() && (buildsFromEnvs() || envChanges.stream().anyMatch(AgentPoolPolicy::isPoolEnv));
+    }
+
+    /**
+     * Load and check the runtime config, discovery and conversion are timed on the given recorder if any.
+     */
+    private static RuntimeConfig loadAgentRuntimeConfig(String configPath, final AgentStartupRecorder recorder) {
 
         List<String> supportedFiles = List.of(
                 "runtime.config.json",
@@ -78,12 +678,82 @@ public abstract class AbstractAgentRuntimeLoader implements IAgentRuntimeLoader
         );
 
         String configFilePath = configPath;
-        if (configPath == null || configPath.isEmpty()) {
-            configFilePath = findConfigFileInCurrentDirectory(supportedFiles);
+        Path configFile;
+        AgentRuntimeSnapshot snapshot = null;
+        AgentBundle bundle = null;
+        try (AgentStartupRecorder.Phase discovery = AgentStartupRecorder.phase(recorder, AgentStartupPhase.DISCOVERY)) {
+            if (configPath == null || configPath.isEmpty()) {
+                configFilePath = findConfigFileInCurrentDirectory(supportedFiles);
+            }
+            configFile = Paths.get(configFilePath).toAbsolutePath();
+            if (AgentBundle.isBundle(configFile)) {
+                bundle = AgentBundle.open(configFile);
+            } else {
+                snapshot = AgentRuntimeSnapshot.resolve(configFile).orElse(null);
+            }
+        }
+
+        final PlaceholderResolver resolver = PlaceholderResolver.defaults(configFile.getParent());
+        try (AgentStartupRecorder.Phase conversion = AgentStartupRecorder.phase(recorder, AgentStartupPhase.CONVERSION)) {
+            AgentRuntimeSchema schema;
+            ByteBuffer graphSchema = null;
+            Path graphFile = null;
+            if (Objects.nonNull(bundle)) {
+                schema = AbstractAgentRuntimeSchemaConvertor.createConvertor(bundle.getRuntimeConfig()).convert();
+                graphSchema = readBundledGraphSchema(bundle, schema, resolver);
+            } else if (Objects.nonNull(snapshot)) {
+                graphSchema = snapshot.getGraphSchema().orElse(null);
+                graphFile = snapshot.getGraphSource(configFile.getParent()).orElse(null);
+                schema = snapshot.getSchema();
+            } else {
+                IAgentRuntimeSchemaConvertor convertor = AbstractAgentRuntimeSchemaConvertor.createConvertor(configFilePath);
+                schema = convertor.convert();
+            }
+
+            // reject a broken config before any class loading or graph compilation.
+            SCHEMA_CHECKER.check(schema, AgentRuntimeSchemaCheckMode.FAIL_FAST).throwIfInvalid();
+
+            // shared with request threads and the schema registry from here on.
+            schema.freeze();
+            return new RuntimeConfig(configFile, schema, graphSchema, graphFile, new InterpolatedAgentRuntimeSchema(schema, resolver), bundle);
+        }
+    }
+
+    /**
+     * The graph schema entry of a bundled YAML agent, null for the other loader types. Like snapshot
+     * compilation, placeholders in the reference are resolved right away.
+     */
+    private static ByteBuffer readBundledGraphSchema(final AgentBundle bundle, final AgentRuntimeSchema schema, final PlaceholderResolver resolver) {
+
+        if (schema.getTypes() != LoaderType.YAML || Objects.isNull(schema.getSchema()) || schema.getSchema().isEmpty()) {
+            return null;
+        }
+        String entry = resolver.resolve(schema.getSchema());
+        return bundle.read(entry)
+                .orElseThrow(() -> new AgentRuntimeException("Graph schema " + entry + " not found in agent bundle: " + bundle));
+    }
+
+    /**
+     * Fingerprint of the graph schema referenced by the config, null if the config references none or it can not be read.
+     */
+    private static String readGraphFingerprint(final RuntimeConfig config) {
+
+        if (config.schema().getTypes() != LoaderType.YAML) {
+            return null;
+        }
+        try {
+            return AgentGraphSchemaFingerprint.of(readGraphSchema(config));
+        } catch (IOException e) {
+            return null;
         }
+    }
+
+    private static ByteBuffer readGraphSchema(final RuntimeConfig config) throws IOException {
 
-        IAgentRuntimeSchemaConvertor convertor = AbstractAgentRuntimeSchemaConvertor.createConvertor(configFilePath);
-        return convertor.convert();
+        if (Objects.nonNull(config.graphSchema())) {
+            return config.graphSchema();
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(Paths.get(config.interpolated().getSchema())));
     }
 
     private static String findConfigFileInCurrentDirectory(List<String> supportedFiles) {
@@ -98,6 +768,10 @@ public abstract class AbstractAgentRuntimeLoader implements IAgentRuntimeLoader
             }
         }
 
+        // a snapshot alone is a valid deployment, next to a text config it is resolved later.
+        if (foundConfigs.isEmpty() && Files.isRegularFile(currentDir.resolve(SNAPSHOT_FILE))) {
+            return currentDir.resolve(SNAPSHOT_FILE).toString();
+        }
         if (foundConfigs.isEmpty()) {
             throw new IllegalStateException("No runtime config file found in the current directory.");
         }
@@ -108,23 +782,99 @@ public abstract class AbstractAgentRuntimeLoader implements IAgentRuntimeLoader
         return foundConfigs.get(0);
     }
 
-    private static BaseAgent loadAgentBasedOnType(AgentRuntimeSchema schema) throws FileNotFoundException {
+    /**
+     * The runtime config of the build running on this thread, the one in use otherwise.
+     */
+    private RuntimeConfig current() {
+
+        RuntimeConfig building = BUILD_CONFIG.get();
+        return Objects.isNull(building) ? runtimeConfig : building;
+    }
+
+    /**
+     * The runtime config in use, frozen. Older revisions are kept in the {@link AgentRuntimeSchemaRegistry}.
+     * Within {@link #loader()} it is the config the agent is being built from, which a hot reload only
+     * puts in use once the agent is live.
+     *
+     * @return {@link AgentRuntimeSchema}
+     */
+    public AgentRuntimeSchema getRuntimeConfig() {
+
+        return current().schema();
+    }
+
+    /**
+     * Absolute path of the config file this loader was created from.
+     *
+     * @return config file path
+     */
+    public Path getConfigFile() {
+
+        return current().configFile();
+    }
 
-        if (schema == null) {
-            throw new AgentRuntimeException("AgentRuntimeSchema is null");
+    /**
+     * The bundle the agent was loaded from, e.g. to read its prompts.
+     *
+     * @return {@link AgentBundle}, empty if the agent was not loaded from a bundle
+     */
+    public Optional<AgentBundle> getBundle() {
+
+        return Optional.ofNullable(current().bundle());
+    }
+
+    /**
+     * The runtime config with {@code ${...}} placeholders resolved lazily.
+     *
+     * @return {@link InterpolatedAgentRuntimeSchema}
+     */
+    public InterpolatedAgentRuntimeSchema getInterpolatedRuntimeConfig() {
+
+        return current().interpolated();
+    }
+
+    /**
+     * Open the graph schema of the runtime config, served from the snapshot when it was embedded there.
+     *
+     * @return graph schema reader
+     * @throws FileNotFoundException if the graph schema file is not found
+     */
+    protected Reader openAgentSchema() throws FileNotFoundException {
+
+        return new InputStreamReader(AgentRuntimeSchemaSource.openStream(readAgentSchema()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the graph schema of the runtime config, served from the snapshot when it was embedded there.
+     *
+     * @return graph schema bytes, see {@link #getGraphFingerprint()} for its fingerprint
+     * @throws FileNotFoundException if the graph schema file is not found
+     */
+    protected ByteBuffer readAgentSchema() throws FileNotFoundException {
+
+        RuntimeConfig config = current();
+        ByteBuffer content;
+        try {
+            content = readGraphSchema(config);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(e.getFile());
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read agent schema: " + config.interpolated().getSchema(), e);
         }
 
-        return switch (schema.getTypes()) {
-            case YAML -> new YamlAgentLoader().loader();
-            case CLASSPATH -> new ClassPathAgentLoader().loader();
-            case SPI -> new SPIAgentLoader().loader();
-            default -> throw new AgentRuntimeException("Unsupported loader type: " + schema.getTypes());
-        };
+        // remembered so that a later update can tell whether the graph really changed.
+        graphFingerprint = AgentGraphSchemaFingerprint.of(content);
+        return content;
     }
 
-    public AgentRuntimeSchema getRuntimeConfig() {
+    /**
+     * Fingerprint of the graph schema last read by {@link #readAgentSchema()}.
+     *
+     * @return {@link AgentGraphSchemaFingerprint}, null if no graph schema was read
+     */
+    protected String getGraphFingerprint() {
 
-        return agentRuntimeSchema;
+        return graphFingerprint;
     }
 
     /**
@@ -135,4 +885,80 @@ public abstract class AbstractAgentRuntimeLoader implements IAgentRuntimeLoader
      */
     protected abstract BaseAgent loader() throws FileNotFoundException;
 
+    /**
+     * Whether the agents of this loader take the envs when they are built, e.g. handed to an agent
+     * provider. An env change then rebuilds the agent instead of being applied in place.
+     *
+     * @return false unless overridden
+     */
+    protected boolean buildsFromEnvs() {
+
+        return false;
+    }
+
+    /**
+     * Open a startup phase of the agent being built by {@link #loader()}, a no-op outside a build.
+     *
+     * @param phase phase
+     * @return {@link AgentStartupRecorder.Phase}, to be closed when the phase ends
+     */
+    protected final AgentStartupRecorder.Phase startupPhase(final AgentStartupPhase phase) {
+
+        return AgentStartupRecorder.phase(STARTUP.get(), phase);
+    }
+
+    /**
+     * Whether the agent being built by {@link #loader()} is an instance of the {@link AgentInstancePool}.
+     * Pooled instances exist because the agent can not be shared, so such a build must not share mutable
+     * state, e.g. a cached compiled graph, with the other instances.
+     *
+     * @return true while a pooled instance is built
+     */
+    protected final boolean isPooledBuild() {
+
+        return Boolean.TRUE.equals(POOLED_BUILD.get());
+    }
+
+    /**
+     * Tie a resource to the agent being built by {@link #loader()}, e.g. its class loader. The
+     * resource is closed once the agent is retired, or right away if the build fails.
+     *
+     * @param resource resource of the agent being built
+     */
+    protected final void closeOnRetire(final AutoCloseable resource) {
+
+        AutoCloseable previous = RETIRE_RESOURCE.get();
+        RETIRE_RESOURCE.set(Objects.isNull(previous) ? resource : () -> {
+            try {
+                resource.close();
+            } finally {
+                previous.close();
+            }
+        });
+    }
+
+    /**
+     * A built agent and the resource to close once it is retired.
+     *
+     * @param agent    the agent
+     * @param resource resource registered through {@link #closeOnRetire(AutoCloseable)}, may be null
+     */
+    private record Built(BaseAgent agent, AutoCloseable resource) {
+    }
+
+    /**
+     * A loaded runtime config.
+     *
+     * @param configFile   absolute path of the config file the schema was loaded from
+     * @param schema       the parsed schema
+     * @param graphSchema  graph schema embedded in the runtime snapshot or bundle, null when loaded from a text config
+     * @param graphFile    graph schema file the snapshot embedded graph schema was compiled from, null otherwise
+     * @param interpolated the schema with placeholders resolved on first access, relative {@code ${file:...}}
+     *                     paths are resolved against the config directory
+     * @param bundle       the bundle the config was read from, null for a config file
+     */
+    private record RuntimeConfig(Path configFile, AgentRuntimeSchema schema, ByteBuffer graphSchema, Path graphFile,
+                                 InterpolatedAgentRuntimeSchema interpolated, AgentBundle bundle) {
+    }
+
 }
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight registry entry of one agent: the parsed config is always held, the agent itself is
+ * built on demand.
+ *
+ * <p>Building is single-flight: concurrent first invocations and a background prewarm share one
+ * build, its failure is reported to every waiter and the next invocation tries again.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentHandle {
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final AbstractAgentRuntimeLoader loader;
+
+    private final AtomicReference<CompletableFuture<Void>> building = new AtomicReference<>();
+
+    private final LongAdder invocations = new LongAdder();
+
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    /**
+     * Decaying invocation count, only touched by the registry maintenance run.
+     */
+    private double score;
+
+    AgentHandle(final AbstractAgentRuntimeLoader loader) {
+
+        this.loader = loader;
+    }
+
+    public String getName() {
+
+        return loader.getRuntimeConfig().getName();
+    }
+
+    public AbstractAgentRuntimeLoader getLoader() {
+
+        return loader;
+    }
+
+    /**
+     * Lease the agent for one invocation, building it on the calling thread if needed.
+     *
+     * @return {@link AgentReference.Lease}
+     */
+    public AgentReference.Lease acquire() {
+
+        invocations.increment();
+        lastAccessNanos = System.nanoTime();
+        while (true) {
+            AgentReference.Lease lease = loader.tryAcquire();
+            if (Objects.nonNull(lease)) {
+                return lease;
+            }
+            // evicted again between build and lease, build once more.
+            await(materialize(Runnable::run));
+        }
+    }
+
+    /**
+     * Metrics of the instance pool.
+     *
+     * @return {@link AgentPoolStats}, empty if the agent is not pooled
+     */
+    public Optional<AgentPoolStats> getPoolStats() {
+
+        return loader.getPoolStats();
+    }
+
+    /**
+     * Whether the agent is currently built.
+     *
+     * @return true if an invocation would not have to build it
+     */
+    public boolean isMaterialized() {
+
+        return loader.isLoaded();
+    }
+
+    /**
+     * Build the agent unless it is built or being built.
+     *
+     * @param executor executor the build runs on if this call starts it
+     * @return future completed once the agent is built, failed if the executor rejects the build
+     */
+    public CompletableFuture<Void> materialize(final Executor executor) {
+
+        while (true) {
+            if (loader.isLoaded()) {
+                return DONE;
+            }
+            CompletableFuture<Void> current = building.get();
+            if (Objects.nonNull(current)) {
+                return current;
+            }
+            CompletableFuture<Void> build = new CompletableFuture<>();
+            if (building.compareAndSet(null, build)) {
+                try {
+                    executor.execute(() -> build(build));
+                } catch (RejectedExecutionException e) {
+                    // the build never runs, let the next call start another one.
+                    building.compareAndSet(build, null);
+                    build.completeExceptionally(new AgentRuntimeException("Build of agent " + getName() + " was rejected", e));
+                }
+                return build;
+            }
+        }
+    }
+
+    /**
+     * Release the agent, the config is kept.
+     *
+     * @return true if the agent was built
+     */
+    public boolean evict() {
+
+        return loader.unload();
+    }
+
+    /**
+     * Whether the agent is built but has not been invoked within the timeout.
+     *
+     * @param now         current {@link System#nanoTime()}
+     * @param idleTimeout idle timeout
+     * @return true if the agent can be evicted
+     */
+    boolean isIdle(final long now, final Duration idleTimeout) {
+
+        return loader.isLoaded() && Objects.isNull(building.get()) && now - lastAccessNanos > idleTimeout.toNanos();
+    }
+
+    /**
+     * Fold the invocations since the last call into the decaying score.
+     *
+     * @return the new score
+     */
+    double decay() {
+
+        score = score / 2 + invocations.sumThenReset();
+        return score;
+    }
+
+    double score() {
+
+        return score;
+    }
+
+    private void build(final CompletableFuture<Void> future) {
+
+        try {
+            if (!loader.isLoaded()) {
+                loader.load();
+            }
+            // a prewarmed agent counts as just used, it must not be evicted right away.
+            lastAccessNanos = System.nanoTime();
+            future.complete(null);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            building.compareAndSet(future, null);
+            // an error escaped the build, waiters must not hang on it.
+            if (!future.isDone()) {
+                future.completeExceptionally(new AgentRuntimeException("Failed to build agent: " + getName()));
+            }
+        }
+    }
+
+    private static void await(final CompletableFuture<Void> future) {
+
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AgentRuntimeException are) {
+                throw are;
+            }
+            throw new AgentRuntimeException("Failed to build agent", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+
+import java.util.Objects;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of instances of one agent, each instance serves one invocation at a time.
+ *
+ * <p>Idle instances sit in a lock-free stack, so the most recently used instance is checked out
+ * first and stays warm; the number of checked out instances is bounded by
+ * a non-fair semaphore whose uncontended acquire and release are a single CAS, a checkout only
+ * blocks when every instance is in use, and at most for the acquire timeout. Instances are built
+ * on demand up to the max size, {@link #prewarm()} builds the warm minimum ahead of time.
+ *
+ * <p>{@link #reset()} starts a new generation, e.g. after a hot reload: idle instances of older
+ * generations are closed right away, checked out ones when they are returned.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class AgentInstancePool {
+
+    private static final System.Logger LOGGER = System.getLogger(AgentInstancePool.class.getName());
+
+    private final String name;
+
+    private final AgentPoolPolicy policy;
+
+    private volatile Supplier<Instance> factory;
+
+    private final Deque<Pooled> idle = new ConcurrentLinkedDeque<>();
+
+    private final Semaphore permits;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder checkouts = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Pool of the given agent.
+     *
+     * @param name    agent name
+     * @param policy  pool settings
+     * @param factory builds a new instance of the agent, on the calling thread
+     */
+    AgentInstancePool(final String name, final AgentPoolPolicy policy, final Supplier<Instance> factory) {
+
+        this.name = name;
+        this.policy = policy;
+        this.factory = factory;
+        this.permits = new Semaphore(policy.getMaxSize());
+    }
+
+    AgentPoolPolicy getPolicy() {
+
+        return policy;
+    }
+
+    Supplier<Instance> getFactory() {
+
+        return factory;
+    }
+
+    /**
+     * Check out an instance, building one if none is idle. Waits up to the acquire timeout when all instances are in use.
+     *
+     * @return {@link AgentReference.Lease}, closing it returns the instance
+     */
+    AgentReference.Lease acquire() {
+
+        if (!permits.tryAcquire()) {
+            await();
+        }
+
+        final long current = generation.get();
+        Pooled pooled = idle.pollFirst();
+        while (Objects.nonNull(pooled) && pooled.generation() != current) {
+            discard(pooled);
+            pooled = idle.pollFirst();
+        }
+        if (Objects.isNull(pooled)) {
+            try {
+                pooled = create(current);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        checkouts.increment();
+        final Pooled checkedOut = pooled;
+        return AgentReference.lease(checkedOut.instance().agent(), () -> release(checkedOut));
+    }
+
+    /**
+     * Build idle instances up to the warm minimum.
+     */
+    void prewarm() {
+
+        final long current = generation.get();
+        while (size.get() < policy.getMinIdle() && permits.tryAcquire()) {
+            try {
+                idle.offerFirst(create(current));
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Retire every instance built so far and build the next ones with the given factory, e.g. from a reloaded config.
+     *
+     * @param nextFactory builds the instances of the next generation
+     */
+    void reset(final Supplier<Instance> nextFactory) {
+
+        // set before the generation moves on, a checkout of the new generation never uses the previous factory.
+        this.factory = nextFactory;
+        reset();
+    }
+
+    /**
+     * Retire every instance built so far, the next checkout builds a new one.
+     */
+    void reset() {
+
+        generation.incrementAndGet();
+        Pooled pooled = idle.pollFirst();
+        while (Objects.nonNull(pooled)) {
+            discard(pooled);
+            pooled = idle.pollFirst();
+        }
+    }
+
+    AgentPoolStats getStats() {
+
+        return new AgentPoolStats(policy.getMaxSize(), size.get(), idle.size(), policy.getMaxSize() - permits.availablePermits(),
+                checkouts.sum(), timeouts.sum(), waitNanos.sum());
+    }
+
+    private void await() {
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(policy.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentRuntimeException("Interrupted while waiting for an instance of agent " + name, e);
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+        }
+
+        if (!acquired) {
+            timeouts.increment();
+            throw new AgentRuntimeException("Timed out after " + policy.getAcquireTimeout().toMillis() + "ms waiting for an instance of agent "
+                    + name + ", all " + policy.getMaxSize() + " instances are in use");
+        }
+    }
+
+    private Pooled create(final long current) {
+
+        Instance instance = factory.get();
+        size.incrementAndGet();
+        return new Pooled(instance, current);
+    }
+
+    private void release(final Pooled pooled) {
+
+        try {
+            if (pooled.generation() == generation.get()) {
+                idle.offerFirst(pooled);
+            } else {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(final Pooled pooled) {
+
+        size.decrementAndGet();
+        if (pooled.instance().agent() instanceof AutoCloseable closeable) {
+            close(closeable);
+        }
+        if (Objects.nonNull(pooled.instance().resource())) {
+            close(pooled.instance().resource());
+        }
+    }
+
+    private void close(final AutoCloseable closeable) {
+
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to close retired instance of agent " + name + ": " + closeable, e);
+        }
+    }
+
+    /**
+     * A built agent instance.
+     *
+     * @param agent    the agent
+     * @param resource resource closed together with the instance, may be null
+     */
+    record Instance(BaseAgent agent, AutoCloseable resource) {
+    }
+
+    private record Pooled(Instance instance, long generation) {
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Settings of an {@link AgentInstancePool}, for agents that must not serve concurrent invocations
+ * from one instance.
+ *
+ * <p>Pooling is enabled per agent through the runtime config envs: {@link #MAX_SIZE_ENV} turns it
+ * on, {@link #MIN_IDLE_ENV} and {@link #ACQUIRE_TIMEOUT_ENV} are optional. Without them the agent is
+ * a single instance shared by all invocations.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentPoolPolicy {
+
+    /**
+     * Runtime config env with the maximum number of agent instances.
+     */
+    public static final String MAX_SIZE_ENV = "AGENT_POOL_MAX_SIZE";
+
+    /**
+     * Runtime config env with the number of instances built when the agent is loaded.
+     */
+    public static final String MIN_IDLE_ENV = "AGENT_POOL_MIN_IDLE";
+
+    /**
+     * Runtime config env with the time in millis an invocation waits for a free instance.
+     */
+    public static final String ACQUIRE_TIMEOUT_ENV = "AGENT_POOL_ACQUIRE_TIMEOUT_MILLIS";
+
+    /**
+     * Default time an invocation waits for a free instance.
+     */
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int maxSize;
+
+    private final int minIdle;
+
+    private final Duration acquireTimeout;
+
+    private AgentPoolPolicy(final Builder builder) {
+
+        this.maxSize = builder.maxSize;
+        this.minIdle = builder.minIdle;
+        this.acquireTimeout = builder.acquireTimeout;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Whether the env is one of the pool settings.
+     *
+     * @param name env name
+     * @return true for {@link #MAX_SIZE_ENV}, {@link #MIN_IDLE_ENV} and {@link #ACQUIRE_TIMEOUT_ENV}
+     */
+    static boolean isPoolEnv(final String name) {
+
+        return MAX_SIZE_ENV.equals(name) || MIN_IDLE_ENV.equals(name) || ACQUIRE_TIMEOUT_ENV.equals(name);
+    }
+
+    /**
+     * Read the policy from runtime config envs.
+     *
+     * @param envs env lookup, returns null for an undefined env
+     * @return the policy, empty if {@link #MAX_SIZE_ENV} is not set
+     */
+    public static Optional<AgentPoolPolicy> fromEnvs(final UnaryOperator<String> envs) {
+
+        String maxSize = envs.apply(MAX_SIZE_ENV);
+        if (Objects.isNull(maxSize) || maxSize.isBlank()) {
+            return Optional.empty();
+        }
+
+        Builder builder = builder().maxSize(parse(MAX_SIZE_ENV, maxSize));
+        String minIdle = envs.apply(MIN_IDLE_ENV);
+        if (Objects.nonNull(minIdle) && !minIdle.isBlank()) {
+            builder.minIdle(parse(MIN_IDLE_ENV, minIdle));
+        }
+        String acquireTimeout = envs.apply(ACQUIRE_TIMEOUT_ENV);
+        if (Objects.nonNull(acquireTimeout) && !acquireTimeout.isBlank()) {
+            builder.acquireTimeout(Duration.ofMillis(parse(ACQUIRE_TIMEOUT_ENV, acquireTimeout)));
+        }
+
+        try {
+            return Optional.of(builder.build());
+        } catch (IllegalArgumentException e) {
+            throw new AgentRuntimeException("Invalid agent pool settings: " + e.getMessage(), e);
+        }
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * Number of instances built ahead of the first invocation.
+     *
+     * @return warm minimum
+     */
+    public int getMinIdle() {
+
+        return minIdle;
+    }
+
+    public Duration getAcquireTimeout() {
+
+        return acquireTimeout;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AgentPoolPolicy that)) {
+            return false;
+        }
+        return maxSize == that.maxSize && minIdle == that.minIdle && acquireTimeout.equals(that.acquireTimeout);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(maxSize, minIdle, acquireTimeout);
+    }
+
+    @Override
+    public String toString() {
+
+        return "AgentPoolPolicy{maxSize=" + maxSize
+                + ", minIdle=" + minIdle
+                + ", acquireTimeout=" + acquireTimeout
+                + '}';
+    }
+
+    private static int parse(final String env, final String value) {
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new AgentRuntimeException("Invalid value of " + env + ": " + value, e);
+        }
+    }
+
+    public static final class Builder {
+
+        private int maxSize;
+
+        private int minIdle;
+
+        private Duration acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+
+        public Builder maxSize(final int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder minIdle(final int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public Builder acquireTimeout(final Duration acquireTimeout) {
+            this.acquireTimeout = Objects.requireNonNull(acquireTimeout, "acquireTimeout");
+            return this;
+        }
+
+        public AgentPoolPolicy build() {
+
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Pool max size must be positive: " + maxSize);
+            }
+            if (minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException("Pool min idle must be between 0 and the max size " + maxSize + ": " + minIdle);
+            }
+            if (acquireTimeout.isNegative()) {
+                throw new IllegalArgumentException("Acquire timeout must not be negative: " + acquireTimeout);
+            }
+            return new AgentPoolPolicy(this);
+        }
+    }
+
+}
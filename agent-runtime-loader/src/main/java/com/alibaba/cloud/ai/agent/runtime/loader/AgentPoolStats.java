@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+/**
+ * Point-in-time metrics of an {@link AgentInstancePool}.
+ *
+ * @param maxSize   maximum number of instances
+ * @param size      instances currently built, idle or checked out
+ * @param idle      instances ready for checkout
+ * @param inUse     instances checked out
+ * @param checkouts successful checkouts so far
+ * @param timeouts  checkouts that gave up waiting for a free instance
+ * @param waitNanos total time checkouts spent waiting for a free instance
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public record AgentPoolStats(int maxSize, int size, int idle, int inUse, long checkouts, long timeouts, long waitNanos) {
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.enums.IEnum;
+
+/**
+ * When the agents of an {@link AgentRegistry} are built.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public enum AgentPrewarmMode implements IEnum {
+
+    EAGER("Eager", "Build every agent when it is registered."),
+    ON_FIRST_USE("OnFirstUse", "Build an agent on its first invocation."),
+    TOP_N("TopN", "Build on first use and keep the N agents with the most recent traffic built in the background.");
+
+    private final String name;
+
+    private final String desc;
+
+    AgentPrewarmMode(final String name, final String desc) {
+        this.name = name;
+        this.desc = desc;
+    }
+
+    @Override
+    public String getName() {
+
+        return this.name;
+    }
+
+    @Override
+    public String getDesc() {
+
+        return this.desc;
+    }
+
+}
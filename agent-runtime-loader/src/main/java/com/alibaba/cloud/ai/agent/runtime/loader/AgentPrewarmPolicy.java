@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Prewarm and eviction settings of an {@link AgentRegistry}.
+ *
+ * <p>Recent traffic, used by {@link AgentPrewarmMode#TOP_N}, is an exponentially decaying count of
+ * invocations: every maintenance run halves the score of an agent and adds the invocations since
+ * the previous run. With an idle timeout, agents that have not been invoked for that long are
+ * released again and rebuilt on their next invocation; agents kept warm by the top-N rule are exempt.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentPrewarmPolicy {
+
+    /**
+     * Default interval of the registry maintenance run. Declared first, {@link #EAGER} is built with it.
+     */
+    public static final Duration DEFAULT_MAINTENANCE_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * Build every agent at registration and never evict, the behaviour without a policy.
+     */
+    public static final AgentPrewarmPolicy EAGER = builder().mode(AgentPrewarmMode.EAGER).build();
+
+    private final AgentPrewarmMode mode;
+
+    private final int topN;
+
+    private final Duration idleTimeout;
+
+    private final Duration maintenanceInterval;
+
+    private AgentPrewarmPolicy(final Builder builder) {
+
+        this.mode = builder.mode;
+        this.topN = builder.topN;
+        this.idleTimeout = builder.idleTimeout;
+        this.maintenanceInterval = builder.maintenanceInterval;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    public AgentPrewarmMode getMode() {
+
+        return mode;
+    }
+
+    /**
+     * Number of agents kept warm, only used by {@link AgentPrewarmMode#TOP_N}.
+     *
+     * @return the number of agents
+     */
+    public int getTopN() {
+
+        return topN;
+    }
+
+    /**
+     * Time after which an agent without invocations is released.
+     *
+     * @return the idle timeout, null if agents are never evicted
+     */
+    public Duration getIdleTimeout() {
+
+        return idleTimeout;
+    }
+
+    public Duration getMaintenanceInterval() {
+
+        return maintenanceInterval;
+    }
+
+    /**
+     * Whether the registry has to run periodic maintenance for this policy.
+     *
+     * @return true for top-N prewarming or idle eviction
+     */
+    public boolean requiresMaintenance() {
+
+        return mode == AgentPrewarmMode.TOP_N || Objects.nonNull(idleTimeout);
+    }
+
+    @Override
+    public String toString() {
+
+        return "AgentPrewarmPolicy{mode=" + mode
+                + ", topN=" + topN
+                + ", idleTimeout=" + idleTimeout
+                + ", maintenanceInterval=" + maintenanceInterval
+                + '}';
+    }
+
+    public static final class Builder {
+
+        private AgentPrewarmMode mode = AgentPrewarmMode.EAGER;
+
+        private int topN;
+
+        private Duration idleTimeout;
+
+        private Duration maintenanceInterval = DEFAULT_MAINTENANCE_INTERVAL;
+
+        public Builder mode(final AgentPrewarmMode mode) {
+            this.mode = Objects.requireNonNull(mode, "mode");
+            return this;
+        }
+
+        public Builder topN(final int topN) {
+            this.topN = topN;
+            return this;
+        }
+
+        public Builder idleTimeout(final Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder maintenanceInterval(final Duration maintenanceInterval) {
+            this.maintenanceInterval = Objects.requireNonNull(maintenanceInterval, "maintenanceInterval");
+            return this;
+        }
+
+        public AgentPrewarmPolicy build() {
+
+            if (mode == AgentPrewarmMode.TOP_N && topN <= 0) {
+                throw new IllegalArgumentException("Top-N prewarming needs a positive topN: " + topN);
+            }
+            if (Objects.nonNull(idleTimeout) && (idleTimeout.isNegative() || idleTimeout.isZero())) {
+                throw new IllegalArgumentException("Idle timeout must be positive: " + idleTimeout);
+            }
+            if (maintenanceInterval.isNegative() || maintenanceInterval.isZero()) {
+                throw new IllegalArgumentException("Maintenance interval must be positive: " + maintenanceInterval);
+            }
+            return new AgentPrewarmPolicy(this);
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Atomically swappable reference to the live agent instance.
+ *
+ * <p>Invocations {@link #acquire()} a {@link Lease} and run against the agent it holds, a swap
+ * never changes the agent under a running invocation. A replaced instance is retired once the
+ * last lease on it is closed; if it is {@link AutoCloseable} it is closed at that point, and so
+ * is the resource it was swapped in with, e.g. its class loader.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentReference {
+
+    private static final System.Logger LOGGER = System.getLogger(AgentReference.class.getName());
+
+    private final AtomicReference<Generation> current = new AtomicReference<>();
+
+    /**
+     * Lease the live agent for one invocation, the lease must be closed when the invocation completes.
+     *
+     * @return {@link Lease}
+     */
+    public Lease acquire() {
+
+        Lease lease = tryAcquire();
+        if (Objects.isNull(lease)) {
+            throw new AgentRuntimeException("No agent has been loaded yet");
+        }
+        return lease;
+    }
+
+    /**
+     * Lease the live agent if there is one.
+     *
+     * @return {@link Lease}, null if no agent is loaded
+     */
+    public Lease tryAcquire() {
+
+        while (true) {
+            Generation generation = current.get();
+            if (Objects.isNull(generation)) {
+                return null;
+            }
+            // fails only if the generation was swapped out and drained meanwhile.
+            if (generation.retain()) {
+                return new Lease(generation.agent, generation::release);
+            }
+        }
+    }
+
+    /**
+     * The live agent, for callers that do not need to pin it.
+     *
+     * @return the agent, null if none has been loaded yet
+     */
+    public BaseAgent get() {
+
+        Generation generation = current.get();
+        return Objects.isNull(generation) ? null : generation.agent;
+    }
+
+    /**
+     * Make the given agent the live one, the previous one is retired once its leases are closed.
+     *
+     * @param agent the new agent
+     * @return the previous agent, null if there was none
+     */
+    public BaseAgent swap(final BaseAgent agent) {
+
+        return swap(agent, null);
+    }
+
+    /**
+     * Make the given agent the live one, the resource is closed together with the agent once it is retired.
+     *
+     * @param agent    the new agent
+     * @param resource resource the agent depends on, may be null
+     * @return the previous agent, null if there was none
+     */
+    public BaseAgent swap(final BaseAgent agent, final AutoCloseable resource) {
+
+        Generation previous = current.getAndSet(new Generation(agent, resource));
+        if (Objects.isNull(previous)) {
+            return null;
+        }
+        previous.release();
+        return previous.agent;
+    }
+
+    /**
+     * Drop the live agent, it is retired once its leases are closed.
+     *
+     * @return the dropped agent, null if there was none
+     */
+    public BaseAgent clear() {
+
+        Generation previous = current.getAndSet(null);
+        if (Objects.isNull(previous)) {
+            return null;
+        }
+        previous.release();
+        return previous.agent;
+    }
+
+    /**
+     * Lease an agent that is not held by a reference, e.g. a pooled instance.
+     *
+     * @param agent   the agent
+     * @param release run once when the lease is closed
+     * @return {@link Lease}
+     */
+    static Lease lease(final BaseAgent agent, final Runnable release) {
+
+        return new Lease(agent, release);
+    }
+
+    /**
+     * An agent pinned for one invocation.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final BaseAgent agent;
+
+        private final Runnable release;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(final BaseAgent agent, final Runnable release) {
+
+            this.agent = agent;
+            this.release = release;
+        }
+
+        /**
+         * The leased agent.
+         *
+         * @return {@link BaseAgent}
+         */
+        public BaseAgent agent() {
+
+            return agent;
+        }
+
+        @Override
+        public void close() {
+
+            if (closed.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * One agent instance and its lease count. The reference itself holds one count until the instance is swapped out.
+     */
+    private static final class Generation {
+
+        private final BaseAgent agent;
+
+        private final AutoCloseable resource;
+
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        Generation(final BaseAgent agent, final AutoCloseable resource) {
+
+            this.agent = agent;
+            this.resource = resource;
+        }
+
+        boolean retain() {
+
+            int count = refs.get();
+            while (count > 0) {
+                if (refs.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+                count = refs.get();
+            }
+            return false;
+        }
+
+        void release() {
+
+            if (refs.decrementAndGet() != 0) {
+                return;
+            }
+            if (agent instanceof AutoCloseable closeable) {
+                close(closeable);
+            }
+            if (Objects.nonNull(resource)) {
+                close(resource);
+            }
+        }
+
+        private void close(final AutoCloseable closeable) {
+
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to close retired agent " + agent + ": " + closeable, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe registry of the agents hosted by this JVM, keyed by agent name.
+ *
+ * <p>Each agent has its own loader, see {@link AbstractAgentRuntimeLoader#createLoader(String)},
+ * wrapped in an {@link AgentHandle}. {@link #registerAll(Collection)} registers many agents
+ * concurrently on a bounded executor, by default one thread per available processor, so the
+ * number of agents does not translate into threads. Agent names are unique, a second agent with
+ * a name already taken is rejected. An agent renamed by a hot reload is moved to its new name, the
+ * reload is rejected if that name is taken.
+ *
+ * <p>The {@link AgentPrewarmPolicy} decides when agents are built. With
+ * {@link AgentPrewarmMode#EAGER}, the default, registration builds the agent. Otherwise only the
+ * config is parsed and checked, the agent is built by its first invocation, and a maintenance
+ * run prewarms the most used agents in the background and evicts idle ones.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRegistry implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(AgentRegistry.class.getName());
+
+    private final ConcurrentMap<String, AgentHandle> agents = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final boolean ownsExecutor;
+
+    private final AgentPrewarmPolicy policy;
+
+    private final ScheduledExecutorService maintenance;
+
+    public AgentRegistry() {
+
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public AgentRegistry(final int parallelism) {
+
+        this(parallelism, AgentPrewarmPolicy.EAGER);
+    }
+
+    /**
+     * Registry loading agents on its own pool of the given size.
+     *
+     * @param parallelism number of agents built concurrently
+     * @param policy      prewarm and eviction policy
+     */
+    public AgentRegistry(final int parallelism, final AgentPrewarmPolicy policy) {
+
+        this(newExecutor(parallelism), true, policy);
+    }
+
+    /**
+     * Registry loading agents on the given executor, the executor is not shut down by {@link #close()}.
+     *
+     * @param executor executor agents are loaded on
+     */
+    public AgentRegistry(final ExecutorService executor) {
+
+        this(executor, AgentPrewarmPolicy.EAGER);
+    }
+
+    /**
+     * Registry loading agents on the given executor, the executor is not shut down by {@link #close()}.
+     *
+     * @param executor executor agents are loaded on
+     * @param policy   prewarm and eviction policy
+     */
+    public AgentRegistry(final ExecutorService executor, final AgentPrewarmPolicy policy) {
+
+        this(Objects.requireNonNull(executor, "executor"), false, policy);
+    }
+
+    private AgentRegistry(final ExecutorService executor, final boolean ownsExecutor, final AgentPrewarmPolicy policy) {
+
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.maintenance = policy.requiresMaintenance() ? startMaintenance(policy) : null;
+    }
+
+    /**
+     * Register one agent on the calling thread, built right away with {@link AgentPrewarmMode#EAGER}.
+     *
+     * @param configPath runtime config path
+     * @return the loader of the registered agent
+     */
+    public AbstractAgentRuntimeLoader register(final String configPath) {
+
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(configPath);
+        String name = loader.getRuntimeConfig().getName();
+
+        // fail before building an agent that can not be registered.
+        AgentHandle existing = agents.get(name);
+        if (Objects.nonNull(existing)) {
+            throw duplicate(name, existing);
+        }
+
+        AgentHandle handle = new AgentHandle(loader);
+        loader.onRename((previous, next) -> move(previous, next, handle));
+        if (policy.getMode() == AgentPrewarmMode.EAGER) {
+            loader.load();
+        }
+        existing = agents.putIfAbsent(name, handle);
+        if (Objects.nonNull(existing)) {
+            loader.onRename(null);
+            loader.unload();
+            throw duplicate(name, existing);
+        }
+        // only a registered agent may become the active schema revision of its name.
+        loader.publishSchema();
+        return loader;
+    }
+
+    /**
+     * Register agents concurrently. A failing config does not stop the others.
+     *
+     * @param configPaths runtime config paths
+     * @return {@link Result}
+     */
+    public Result registerAll(final Collection<String> configPaths) {
+
+        List<String> paths = List.copyOf(configPaths);
+        List<Future<AbstractAgentRuntimeLoader>> futures = new ArrayList<>(paths.size());
+        for (String configPath : paths) {
+            futures.add(executor.submit(() -> register(configPath)));
+        }
+
+        Map<String, AbstractAgentRuntimeLoader> loaded = new LinkedHashMap<>(futures.size() * 2);
+        Map<String, AgentRuntimeException> errors = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            String configPath = paths.get(i);
+            try {
+                AbstractAgentRuntimeLoader loader = futures.get(i).get();
+                loaded.put(loader.getRuntimeConfig().getName(), loader);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new AgentRuntimeException("Interrupted while registering agents", e);
+            } catch (ExecutionException e) {
+                errors.put(configPath, e.getCause() instanceof AgentRuntimeException are ? are
+                        : new AgentRuntimeException("Failed to register agent: " + configPath, e.getCause()));
+            }
+        }
+
+        return new Result(Collections.unmodifiableMap(loaded), Collections.unmodifiableMap(errors));
+    }
+
+    /**
+     * Loader of a registered agent.
+     *
+     * @param name agent name
+     * @return the loader, empty if no such agent is registered
+     */
+    public Optional<AbstractAgentRuntimeLoader> get(final String name) {
+
+        return getHandle(name).map(AgentHandle::getLoader);
+    }
+
+    /**
+     * Handle of a registered agent.
+     *
+     * @param name agent name
+     * @return {@link AgentHandle}, empty if no such agent is registered
+     */
+    public Optional<AgentHandle> getHandle(final String name) {
+
+        return Optional.ofNullable(agents.get(name));
+    }
+
+    /**
+     * Lease a registered agent for one invocation, building it first if it is not built.
+     *
+     * @param name agent name
+     * @return {@link AgentReference.Lease}
+     */
+    public AgentReference.Lease acquire(final String name) {
+
+        AgentHandle handle = agents.get(name);
+        if (Objects.isNull(handle)) {
+            throw new AgentRuntimeException("Agent is not registered: " + name);
+        }
+        return handle.acquire();
+    }
+
+    /**
+     * Remove an agent and stop its loader. In-flight invocations finish on their leases.
+     *
+     * @param name agent name
+     * @return true if the agent was registered
+     */
+    public boolean unregister(final String name) {
+
+        AgentHandle handle = agents.remove(name);
+        if (Objects.isNull(handle)) {
+            return false;
+        }
+        handle.getLoader().stop();
+        handle.getLoader().onRename(null);
+        handle.evict();
+        return true;
+    }
+
+    /**
+     * Names of the registered agents, a weakly consistent view.
+     *
+     * @return agent names
+     */
+    public Set<String> names() {
+
+        return Collections.unmodifiableSet(agents.keySet());
+    }
+
+    /**
+     * Number of registered agents.
+     *
+     * @return agent count
+     */
+    public int size() {
+
+        return agents.size();
+    }
+
+    public AgentPrewarmPolicy getPolicy() {
+
+        return policy;
+    }
+
+    /**
+     * Unregister every agent and release the executors the registry created.
+     */
+    @Override
+    public void close() {
+
+        if (Objects.nonNull(maintenance)) {
+            maintenance.shutdownNow();
+        }
+        for (String name : List.copyOf(agents.keySet())) {
+            unregister(name);
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Prewarm the top-N agents by recent traffic and evict idle ones, runs on the maintenance thread.
+     */
+    void maintain() {
+
+        List<AgentHandle> handles = List.copyOf(agents.values());
+        for (AgentHandle handle : handles) {
+            handle.decay();
+        }
+
+        Set<AgentHandle> warm = new HashSet<>();
+        if (policy.getMode() == AgentPrewarmMode.TOP_N) {
+            handles.stream()
+                    .filter(handle -> handle.score() > 0)
+                    .sorted(Comparator.comparingDouble(AgentHandle::score).reversed())
+                    .limit(policy.getTopN())
+                    .forEach(warm::add);
+            for (AgentHandle handle : warm) {
+                handle.materialize(executor).whenComplete((ignored, e) -> {
+                    if (Objects.nonNull(e)) {
+                        LOGGER.log(System.Logger.Level.WARNING, "Failed to prewarm agent " + handle.getName(), unwrap(e));
+                    }
+                });
+            }
+        }
+
+        if (Objects.nonNull(policy.getIdleTimeout())) {
+            long now = System.nanoTime();
+            for (AgentHandle handle : handles) {
+                if (!warm.contains(handle) && handle.isIdle(now, policy.getIdleTimeout())) {
+                    handle.evict();
+                }
+            }
+        }
+    }
+
+    private ScheduledExecutorService startMaintenance(final AgentPrewarmPolicy prewarmPolicy) {
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "agent-runtime-registry-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = prewarmPolicy.getMaintenanceInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            // an exception would cancel the periodic run.
+            try {
+                maintain();
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Agent registry maintenance failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+
+        return scheduler;
+    }
+
+    private static ExecutorService newExecutor(final int parallelism) {
+
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Registry parallelism must be positive: " + parallelism);
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "agent-runtime-loader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Move an agent renamed by a hot reload of its loader, the reload fails if the new name is taken.
+     */
+    private void move(final String previous, final String next, final AgentHandle handle) {
+
+        AgentHandle existing = agents.putIfAbsent(next, handle);
+        if (Objects.nonNull(existing) && existing != handle) {
+            throw duplicate(next, existing);
+        }
+        agents.remove(previous, handle);
+    }
+
+    private static Throwable unwrap(final Throwable e) {
+
+        return e instanceof CompletionException && Objects.nonNull(e.getCause()) ? e.getCause() : e;
+    }
+
+    private static AgentRuntimeException duplicate(final String name, final AgentHandle existing) {
+
+        return new AgentRuntimeException("Duplicate agent name: " + name + ", already registered from: "
+                + existing.getLoader().getConfigFile());
+    }
+
+    /**
+     * Bulk registration result.
+     *
+     * @param loaded loaders by agent name, in config order
+     * @param errors failures by config path
+     */
+    public record Result(Map<String, AbstractAgentRuntimeLoader> loaded, Map<String, AgentRuntimeException> errors) {
+
+        /**
+         * Whether every agent was registered.
+         *
+         * @return true if there are no errors
+         */
+        public boolean isSuccessful() {
+
+            return errors.isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches a set of files with a {@link WatchService} and runs a callback once they settle.
+ *
+ * <p>The service watches the parent directories and filters events by file name, so files that
+ * are replaced by a rename, as most editors and config management tools do, are followed too.
+ * Every relevant event pushes the callback back by the debounce delay, a burst of writes results
+ * in one callback. Callbacks run one at a time on a dedicated daemon thread, never on the caller.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class AgentRuntimeFileWatcher implements Closeable {
+
+    private final WatchService watchService;
+
+    private final Duration debounce;
+
+    private final Runnable onChange;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Thread poller;
+
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+
+    private volatile Set<Path> files = Set.of();
+
+    private ScheduledFuture<?> pending;
+
+    AgentRuntimeFileWatcher(final String name, final Duration debounce, final Runnable onChange) {
+
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to create watch service for: " + name, e);
+        }
+        this.debounce = debounce;
+        this.onChange = onChange;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "agent-runtime-reload-" + name));
+        this.poller = daemon(this::poll, "agent-runtime-watcher-" + name);
+        this.poller.start();
+    }
+
+    /**
+     * Replace the watched files, directories that no longer hold a watched file are released.
+     *
+     * @param targets files to watch, they do not need to exist yet but their directories do
+     */
+    synchronized void watch(final Collection<Path> targets) {
+
+        Set<Path> next = targets.stream().map(path -> path.toAbsolutePath().normalize()).collect(Collectors.toUnmodifiableSet());
+        Set<Path> dirs = next.stream().map(Path::getParent).collect(Collectors.toSet());
+
+        directories.entrySet().removeIf(entry -> {
+            if (dirs.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().cancel();
+            return true;
+        });
+        for (Path dir : dirs) {
+            if (!directories.containsKey(dir)) {
+                directories.put(dir, register(dir));
+            }
+        }
+        files = next;
+    }
+
+    /**
+     * Currently watched files.
+     *
+     * @return absolute, normalized file paths
+     */
+    Set<Path> files() {
+
+        return files;
+    }
+
+    @Override
+    public synchronized void close() {
+
+        poller.interrupt();
+        scheduler.shutdownNow();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to close watch service", e);
+        }
+    }
+
+    private WatchKey register(final Path dir) {
+
+        try {
+            return dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to watch directory: " + dir, e);
+        }
+    }
+
+    private void poll() {
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                if (isRelevant(key)) {
+                    schedule();
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed, nothing left to watch.
+        }
+    }
+
+    private boolean isRelevant(final WatchKey key) {
+
+        boolean relevant = false;
+        Path dir = (Path) key.watchable();
+        Set<Path> watched = files;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // events were lost, the watched files may have changed.
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (event.context() instanceof Path name && watched.contains(dir.resolve(name))) {
+                relevant = true;
+            }
+        }
+        return relevant;
+    }
+
+    private synchronized void schedule() {
+
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        if (Objects.nonNull(pending)) {
+            pending.cancel(false);
+        }
+        pending = scheduler.schedule(onChange, debounce.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Thread daemon(final Runnable runnable, final String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
@@ -19,24 +19,88 @@
 
 package com.alibaba.cloud.ai.agent.runtime.loader;
 
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
 import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+import com.alibaba.cloud.ai.agent.runtime.framework.adapter.SAAGraphCache;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.AgentBundle;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.MappedZipArchive;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoader;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoaderLayers;
+import com.alibaba.cloud.ai.agent.runtime.loader.scan.AgentClassScanner;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupPhase;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupRecorder;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Load agent configurations from the classpath.
  *
+ * <p>The runtime config {@code schema} lists the jars and class directories of the agent, separated
+ * by the platform path separator or commas, relative entries are resolved against the config
+ * directory. They are scanned for {@link com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider agent providers}
+ * by {@link AgentClassScanner} without loading classes. The provider of the configured framework is
+ * used; when there are several, the one named like the agent.
+ *
+ * <p>The agent classes are loaded by an {@link AgentClassLoader} on top of the shared framework
+ * layer of the {@link #FRAMEWORK_VERSION_ENV} framework version, the class loader is closed with
+ * the retired agent and the graphs compiled for it are evicted from the {@link SAAGraphCache}.
+ *
+ * <p>For an agent loaded from an {@link AgentBundle} the classpath entries are jars inside the
+ * bundle, or bundle directories whose jars are all used; the jars are read in place.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 
 public class ClassPathAgentLoader extends AbstractAgentRuntimeLoader {
 
+    /**
+     * Runtime config env selecting the framework layer version.
+     */
+    public static final String FRAMEWORK_VERSION_ENV = "AGENT_FRAMEWORK_VERSION";
+
+    /**
+     * Framework layer version used when the runtime config does not set one.
+     */
+    public static final String DEFAULT_FRAMEWORK_VERSION = "default";
+
     private static final LoaderType CLASSPATH_LOADER = LoaderType.CLASSPATH;
 
+    private static final Pattern CLASSPATH_SEPARATOR = Pattern.compile("[," + Pattern.quote(File.pathSeparator) + "]");
+
     @Override
     protected BaseAgent loader() {
 
-        return null;
+        AgentRuntimeSchema runtimeConfig = getRuntimeConfig();
+        List<String> entries = classpath(getInterpolatedRuntimeConfig().getSchema());
+        Optional<AgentBundle> bundle = getBundle();
+        List<Path> roots = bundle.isPresent() ? List.of() : resolve(entries);
+        List<MappedZipArchive> archives = bundle.isPresent() ? bundle.get().jars(entries) : List.of();
+        AgentProviderIndex.Entry provider;
+        try (AgentStartupRecorder.Phase adaptation = startupPhase(AgentStartupPhase.ADAPTATION)) {
+            AgentClassScanner scanner = AgentClassScanner.getInstance();
+            provider = select(runtimeConfig, (bundle.isPresent() ? scanner.scanArchives(archives) : scanner.scan(roots)).providers());
+        }
+
+        try (AgentStartupRecorder.Phase instantiation = startupPhase(AgentStartupPhase.INSTANTIATION)) {
+            String frameworkVersion = getInterpolatedRuntimeConfig().getEnv(FRAMEWORK_VERSION_ENV);
+            AgentClassLoader classLoader = AgentClassLoaderLayers.getInstance().newAgentClassLoader(runtimeConfig.getName(), runtimeConfig.getFramework(),
+                    Objects.isNull(frameworkVersion) || frameworkVersion.isBlank() ? DEFAULT_FRAMEWORK_VERSION : frameworkVersion, roots, archives);
+            closeOnRetire(classLoader);
+            closeOnRetire(() -> SAAGraphCache.getInstance().evict(classLoader));
+
+            return SPIAgentLoader.provide(getInterpolatedRuntimeConfig(), provider, classLoader);
+        }
     }
 
     @Override
@@ -45,4 +109,58 @@ public class ClassPathAgentLoader extends AbstractAgentRuntimeLoader {
         return CLASSPATH_LOADER;
     }
 
+    /**
+     * Providers receive the resolved envs, and the framework version env selects the framework class loader layer.
+     */
+    @Override
+    protected boolean buildsFromEnvs() {
+
+        return true;
+    }
+
+    private static List<String> classpath(final String schema) {
+
+        List<String> entries = new ArrayList<>();
+        for (String entry : CLASSPATH_SEPARATOR.split(schema)) {
+            if (!entry.isBlank()) {
+                entries.add(entry.trim());
+            }
+        }
+        if (entries.isEmpty()) {
+            throw new AgentRuntimeException("Agent classpath is empty");
+        }
+        return entries;
+    }
+
+    private List<Path> resolve(final List<String> entries) {
+
+        Path dir = getConfigFile().getParent();
+        return entries.stream().map(entry -> dir.resolve(entry).normalize()).toList();
+    }
+
+    private static AgentProviderIndex.Entry select(final AgentRuntimeSchema runtimeConfig, final List<AgentProviderIndex.Entry> providers) {
+
+        List<AgentProviderIndex.Entry> candidates = providers.stream()
+                .filter(provider -> provides(provider, runtimeConfig.getFramework()))
+                .toList();
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        return candidates.stream()
+                .filter(provider -> provider.name().equals(runtimeConfig.getName()))
+                .findFirst()
+                .orElseThrow(() -> new AgentRuntimeException((candidates.isEmpty() ? "No" : "Ambiguous") + " "
+                        + runtimeConfig.getFramework().getName() + " agent provider on the agent classpath: " + candidates));
+    }
+
+    private static boolean provides(final AgentProviderIndex.Entry provider, final AgentFramework framework) {
+
+        try {
+            return AgentFramework.of(provider.framework()) == framework;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
 }
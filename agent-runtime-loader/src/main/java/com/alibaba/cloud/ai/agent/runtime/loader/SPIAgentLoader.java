@@ -19,10 +19,30 @@
 
 package com.alibaba.cloud.ai.agent.runtime.loader;
 
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
 import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupPhase;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupRecorder;
+import com.alibaba.cloud.ai.agent.runtime.placeholder.InterpolatedAgentRuntimeSchema;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 /**
+ * Load agents from {@link com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider agent providers}.
+ *
+ * <p>The runtime config {@code schema} names the provider, by provider name or class name. Providers
+ * are looked up in the {@link AgentProviderIndex} generated at compile time instead of a
+ * {@link java.util.ServiceLoader} scan, only the selected provider class is loaded. Finding the index
+ * entries still probes every jar of the class path, that lookup is done once per class loader and
+ * counted in the {@link AgentStartupPhase#ADAPTATION} phase of the first agent built from it.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
@@ -31,10 +51,22 @@ public class SPIAgentLoader extends AbstractAgentRuntimeLoader {
 
     private static final LoaderType SPI_LOADER = LoaderType.SPI;
 
+    private static final Map<ClassLoader, AgentProviderIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
     @Override
     protected BaseAgent loader() {
 
-        return null;
+        AgentRuntimeSchema runtimeConfig = getRuntimeConfig();
+        ClassLoader classLoader = classLoader();
+        AgentProviderIndex.Entry provider;
+        try (AgentStartupRecorder.Phase adaptation = startupPhase(AgentStartupPhase.ADAPTATION)) {
+            provider = index(classLoader).find(runtimeConfig.getSchema())
+                    .orElseThrow(() -> new AgentRuntimeException("No agent provider indexed for: " + runtimeConfig.getSchema()));
+        }
+
+        try (AgentStartupRecorder.Phase instantiation = startupPhase(AgentStartupPhase.INSTANTIATION)) {
+            return provide(getInterpolatedRuntimeConfig(), provider, classLoader);
+        }
     }
 
     @Override
@@ -42,4 +74,54 @@ public class SPIAgentLoader extends AbstractAgentRuntimeLoader {
 
         return SPI_LOADER;
     }
+
+    /**
+     * Providers receive the resolved envs when they build the agent.
+     */
+    @Override
+    protected boolean buildsFromEnvs() {
+
+        return true;
+    }
+
+    /**
+     * The provider index of a class loader, read on first use and kept as long as the class loader is reachable.
+     *
+     * @param classLoader class loader to search
+     * @return {@link AgentProviderIndex}
+     */
+    static AgentProviderIndex index(final ClassLoader classLoader) {
+
+        return INDEXES.computeIfAbsent(classLoader, AgentProviderIndex::load);
+    }
+
+    /**
+     * Instantiate a provider and build its agent with the resolved envs, the provider must provide the framework the runtime config requires.
+     *
+     * @param runtimeConfig runtime config, placeholders are resolved on access
+     * @param provider      selected provider
+     * @param classLoader   class loader the provider is loaded from
+     * @return {@link BaseAgent}
+     */
+    static BaseAgent provide(final InterpolatedAgentRuntimeSchema runtimeConfig, final AgentProviderIndex.Entry provider, final ClassLoader classLoader) {
+
+        AgentFramework framework = runtimeConfig.getRaw().getFramework();
+        if (AgentFramework.of(provider.framework()) != framework) {
+            throw new AgentRuntimeException("Agent provider " + provider.name() + " provides a " + provider.framework()
+                    + " agent, the runtime config requires " + framework.getName());
+        }
+
+        BaseAgent agent = provider.instantiate(classLoader).provide(runtimeConfig.getEnvs().asMap());
+        if (Objects.isNull(agent)) {
+            throw new AgentRuntimeException("Agent provider " + provider.name() + " returned no agent");
+        }
+        return agent;
+    }
+
+    static ClassLoader classLoader() {
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return Objects.nonNull(contextClassLoader) ? contextClassLoader : SPIAgentLoader.class.getClassLoader();
+    }
+
 }
@@ -24,9 +24,11 @@ import com.alibaba.cloud.ai.agent.runtime.LoaderType;
 import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
 import com.alibaba.cloud.ai.agent.runtime.framework.adapter.SAAGraphAdapter;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupPhase;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupRecorder;
 
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.nio.ByteBuffer;
 
 /**
  * @author yuluo
@@ -54,7 +56,13 @@ public class YamlAgentLoader extends AbstractAgentRuntimeLoader {
                     throw new AgentRuntimeException("Agent schema is empty");
                 }
 
-                baseAgent = SAAGraphAdapter.convert(new FileReader(runtimeConfig.getSchema()));
+                try (AgentStartupRecorder.Phase adaptation = startupPhase(AgentStartupPhase.ADAPTATION)) {
+                    ByteBuffer graphSchema = readAgentSchema();
+                    // a pooled instance gets a graph of its own, node actions and node cache included.
+                    baseAgent = isPooledBuild()
+                            ? SAAGraphAdapter.convertIsolated(getGraphFingerprint(), graphSchema)
+                            : SAAGraphAdapter.convert(getGraphFingerprint(), graphSchema);
+                }
             }
             case ADK_JAVA -> throw new AgentRuntimeException("not support ADK-Java yet.");
             case LANGGRAPH4J -> throw new AgentRuntimeException("not support LangGraph4J yet.");
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.bundle;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Self-contained agent bundle: a ZIP file holding the runtime config, the graph schema, prompts
+ * and jars of one agent revision.
+ *
+ * <p>Layout: exactly one {@code runtime.config.json|yaml|yml|properties} at the root; every other
+ * path, e.g. the config {@code schema}, is an entry name relative to the root. Jars have to be
+ * stored uncompressed ({@code jar -0}, {@code zip -0}) so that their classes can be read in place.
+ *
+ * <p>The bundle is memory-mapped once and entries are read on demand, nothing is extracted to
+ * disk. The channel is closed right after mapping; the mapping lives as long as the bundle is
+ * reachable, so a new bundle revision has to replace the file atomically instead of overwriting it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentBundle {
+
+    /**
+     * Bundle file extension.
+     */
+    public static final String EXTENSION = "agent";
+
+    private static final List<String> CONFIG_FILES = List.of(
+            "runtime.config.json",
+            "runtime.config.yaml",
+            "runtime.config.yml",
+            "runtime.config.properties"
+    );
+
+    private static final String JAR_SUFFIX = ".jar";
+
+    private final Path path;
+
+    private final MappedZipArchive archive;
+
+    private AgentBundle(final Path path, final MappedZipArchive archive) {
+
+        this.path = path;
+        this.archive = archive;
+    }
+
+    /**
+     * Whether a path names a bundle, by extension.
+     *
+     * @param path file path
+     * @return true for {@code *.agent} files
+     */
+    public static boolean isBundle(final Path path) {
+
+        Path fileName = path.getFileName();
+        return Objects.nonNull(fileName) && fileName.toString().endsWith("." + EXTENSION);
+    }
+
+    /**
+     * Memory-map a bundle and read its directory.
+     *
+     * @param path bundle file
+     * @return {@link AgentBundle}
+     */
+    public static AgentBundle open(final Path path) {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new AgentBundle(path, MappedZipArchive.open(path.toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to open agent bundle: " + path, e);
+        }
+    }
+
+    public Path getPath() {
+
+        return path;
+    }
+
+    public MappedZipArchive getArchive() {
+
+        return archive;
+    }
+
+    /**
+     * The runtime config at the bundle root.
+     *
+     * @return {@link AgentRuntimeSchemaSource} over the mapped entry
+     */
+    public AgentRuntimeSchemaSource getRuntimeConfig() {
+
+        List<String> found = CONFIG_FILES.stream().filter(archive::contains).toList();
+        if (found.isEmpty()) {
+            throw new AgentRuntimeException("No runtime config found in agent bundle: " + path);
+        }
+        if (found.size() > 1) {
+            throw new AgentRuntimeException("Multiple runtime config files found in agent bundle " + path + ": " + found);
+        }
+        return AgentRuntimeSchemaSource.of(found.get(0), archive.read(found.get(0)).orElseThrow());
+    }
+
+    /**
+     * Read an entry, e.g. a prompt.
+     *
+     * @param entry entry path relative to the bundle root
+     * @return read-only content, empty if there is no such entry
+     */
+    public Optional<ByteBuffer> read(final String entry) {
+
+        return archive.read(normalize(entry));
+    }
+
+    /**
+     * Open the jars of the bundle classpath.
+     *
+     * @param entries jar entries, or directories whose jars are all used
+     * @return the jars as nested archives, in classpath order
+     */
+    public List<MappedZipArchive> jars(final Collection<String> entries) {
+
+        List<MappedZipArchive> jars = new ArrayList<>();
+        for (String entry : entries) {
+            String name = normalize(entry);
+            if (archive.contains(name)) {
+                jars.add(archive.nested(name).orElseThrow());
+                continue;
+            }
+
+            String dir = name.endsWith("/") ? name : name + "/";
+            List<String> dirJars = archive.names().stream()
+                    .filter(jar -> jar.startsWith(dir) && jar.endsWith(JAR_SUFFIX) && jar.indexOf('/', dir.length()) < 0)
+                    .sorted()
+                    .toList();
+            if (dirJars.isEmpty()) {
+                throw new AgentRuntimeException("Classpath entry " + entry + " not found in agent bundle: " + path);
+            }
+            for (String jar : dirJars) {
+                jars.add(archive.nested(jar).orElseThrow());
+            }
+        }
+        return jars;
+    }
+
+    @Override
+    public String toString() {
+
+        return path.toString();
+    }
+
+    private static String normalize(final String entry) {
+
+        String name = entry.trim();
+        while (name.startsWith("./") || name.startsWith("/")) {
+            name = name.substring(name.indexOf('/') + 1);
+        }
+        return name;
+    }
+
+}
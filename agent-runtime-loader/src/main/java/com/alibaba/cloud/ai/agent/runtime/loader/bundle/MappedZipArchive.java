@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.bundle;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only ZIP archive over a byte buffer, typically a memory-mapped file.
+ *
+ * <p>Only the central directory is parsed up front. Entry content is read when it is asked for:
+ * stored entries are returned as views of the buffer without copying, deflated entries are
+ * inflated into a new buffer on every read. A stored entry that is itself a ZIP, e.g. a jar, can
+ * be opened as a {@link #nested(String) nested archive} over the same memory. Zip64 and
+ * encrypted archives are not supported.
+ *
+ * <p>Instances are immutable and safe for concurrent reads.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class MappedZipArchive {
+
+    private static final int EOCD_SIGNATURE = 0x06054B50;
+
+    private static final int CEN_SIGNATURE = 0x02014B50;
+
+    private static final int LOC_SIGNATURE = 0x04034B50;
+
+    private static final int EOCD_MIN_LENGTH = 22;
+
+    private static final int CEN_HEADER_LENGTH = 46;
+
+    private static final int LOC_HEADER_LENGTH = 30;
+
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    private static final int FLAG_ENCRYPTED = 0x1;
+
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+    private final String name;
+
+    private final ByteBuffer content;
+
+    private final Map<String, Entry> entries;
+
+    private MappedZipArchive(final String name, final ByteBuffer content, final Map<String, Entry> entries) {
+
+        this.name = name;
+        this.content = content;
+        this.entries = entries;
+    }
+
+    /**
+     * Parse the central directory of a ZIP archive.
+     *
+     * @param name    archive name, used in error messages and resource URLs
+     * @param content archive bytes, from position to limit; the buffer is not modified
+     * @return {@link MappedZipArchive}
+     */
+    public static MappedZipArchive open(final String name, final ByteBuffer content) {
+
+        ByteBuffer buf = content.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int eocd = findEndOfCentralDirectory(name, buf);
+            int count = Short.toUnsignedInt(buf.getShort(eocd + 10));
+            long cdSize = Integer.toUnsignedLong(buf.getInt(eocd + 12));
+            long cdOffset = Integer.toUnsignedLong(buf.getInt(eocd + 16));
+            if (count == 0xFFFF || cdOffset == ZIP64_MARKER || cdOffset + cdSize > eocd) {
+                throw new AgentRuntimeException("Unsupported or corrupted ZIP archive: " + name);
+            }
+
+            Map<String, Entry> entries = new LinkedHashMap<>(count * 2);
+            int pos = (int) cdOffset;
+            for (int i = 0; i < count; i++) {
+                if (buf.getInt(pos) != CEN_SIGNATURE) {
+                    throw new AgentRuntimeException("Corrupted ZIP central directory: " + name);
+                }
+                final int flags = Short.toUnsignedInt(buf.getShort(pos + 8));
+                final int method = Short.toUnsignedInt(buf.getShort(pos + 10));
+                final long compressedSize = Integer.toUnsignedLong(buf.getInt(pos + 20));
+                final long size = Integer.toUnsignedLong(buf.getInt(pos + 24));
+                final int nameLength = Short.toUnsignedInt(buf.getShort(pos + 28));
+                final int extraLength = Short.toUnsignedInt(buf.getShort(pos + 30));
+                final int commentLength = Short.toUnsignedInt(buf.getShort(pos + 32));
+                final long localOffset = Integer.toUnsignedLong(buf.getInt(pos + 42));
+                final String entryName = utf8(buf, pos + CEN_HEADER_LENGTH, nameLength);
+                pos += CEN_HEADER_LENGTH + nameLength + extraLength + commentLength;
+
+                if (entryName.endsWith("/")) {
+                    continue;
+                }
+                if ((flags & FLAG_ENCRYPTED) != 0 || compressedSize == ZIP64_MARKER || size == ZIP64_MARKER || localOffset == ZIP64_MARKER) {
+                    throw new AgentRuntimeException("Unsupported ZIP entry " + entryName + " in: " + name);
+                }
+                entries.put(entryName, new Entry(method, compressedSize, size, localOffset));
+            }
+
+            return new MappedZipArchive(name, buf, Collections.unmodifiableMap(entries));
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new AgentRuntimeException("Corrupted ZIP archive: " + name, e);
+        }
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Names of the file entries, in central directory order.
+     *
+     * @return entry names
+     */
+    public Set<String> names() {
+
+        return entries.keySet();
+    }
+
+    public boolean contains(final String entry) {
+
+        return entries.containsKey(entry);
+    }
+
+    /**
+     * Read an entry.
+     *
+     * @param entry entry name
+     * @return read-only content, a view of the archive for stored entries; empty if there is no such entry
+     */
+    public Optional<ByteBuffer> read(final String entry) {
+
+        Entry found = entries.get(entry);
+        if (Objects.isNull(found)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer data = data(entry, found);
+        if (found.method() == STORED) {
+            return Optional.of(data.asReadOnlyBuffer());
+        }
+        if (found.method() == DEFLATED) {
+            return Optional.of(inflate(entry, data, found.size()).asReadOnlyBuffer());
+        }
+        throw new AgentRuntimeException("Unsupported compression method " + found.method() + " of " + entry + " in: " + name);
+    }
+
+    /**
+     * Open a stored ZIP entry, e.g. a jar, as an archive over the same memory.
+     *
+     * @param entry entry name
+     * @return the nested archive, empty if there is no such entry
+     */
+    public Optional<MappedZipArchive> nested(final String entry) {
+
+        Entry found = entries.get(entry);
+        if (Objects.isNull(found)) {
+            return Optional.empty();
+        }
+        if (found.method() != STORED) {
+            throw new AgentRuntimeException("Nested archive " + entry + " in " + name + " is compressed, it has to be stored uncompressed");
+        }
+        return Optional.of(open(name + "!/" + entry, data(entry, found)));
+    }
+
+    @Override
+    public String toString() {
+
+        return name;
+    }
+
+    private ByteBuffer data(final String entry, final Entry found) {
+
+        int local = (int) found.localOffset();
+        if (content.getInt(local) != LOC_SIGNATURE) {
+            throw new AgentRuntimeException("Corrupted ZIP entry " + entry + " in: " + name);
+        }
+        int nameLength = Short.toUnsignedInt(content.getShort(local + 26));
+        int extraLength = Short.toUnsignedInt(content.getShort(local + 28));
+        return content.slice(local + LOC_HEADER_LENGTH + nameLength + extraLength, (int) found.compressedSize());
+    }
+
+    private ByteBuffer inflate(final String entry, final ByteBuffer data, final long size) {
+
+        if (size > Integer.MAX_VALUE) {
+            throw new AgentRuntimeException("ZIP entry " + entry + " in " + name + " is too large: " + size);
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            ByteBuffer out = ByteBuffer.allocate((int) size);
+            while (out.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new AgentRuntimeException("Truncated ZIP entry " + entry + " in: " + name);
+                }
+            }
+            return out.flip();
+        } catch (DataFormatException e) {
+            throw new AgentRuntimeException("Corrupted ZIP entry " + entry + " in: " + name, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int findEndOfCentralDirectory(final String name, final ByteBuffer buf) {
+
+        int min = Math.max(0, buf.limit() - EOCD_MIN_LENGTH - 0xFFFF);
+        for (int i = buf.limit() - EOCD_MIN_LENGTH; i >= min; i--) {
+            if (buf.getInt(i) == EOCD_SIGNATURE) {
+                return i;
+            }
+        }
+        throw new AgentRuntimeException("Not a ZIP archive: " + name);
+    }
+
+    private static String utf8(final ByteBuffer buf, final int offset, final int length) {
+
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Central directory entry.
+     */
+    private record Entry(int method, long compressedSize, long size, long localOffset) {
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.cds;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Application class-data sharing archive of the agent runtime.
+ *
+ * <p>{@link #train(String, List)} launches a training JVM with {@code -XX:ArchiveClassesAtExit},
+ * which runs {@link AgentCdsTraining} over the configured agents and dumps every class it loaded
+ * into a dynamic archive on exit. Later launches add {@link #jvmOptions(String)} to map the archive
+ * instead of loading and verifying those classes again.
+ *
+ * <p>An archive is only valid for the JDK and the class path it was dumped with, both are part of
+ * the archive file name so a changed deployment trains a new archive instead of mapping a stale one.
+ * Archives live in {@link #ARCHIVE_DIR_PROPERTY}, {@code ~/.agent-runtime/cds} by default.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentCdsArchive {
+
+    /**
+     * System property with the archive directory.
+     */
+    public static final String ARCHIVE_DIR_PROPERTY = "agent.runtime.cds.dir";
+
+    private static final String ARCHIVE_PREFIX = "agent-runtime-";
+
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+
+    private AgentCdsArchive() {
+    }
+
+    /**
+     * Archive file for the running JDK and the given class path, it may not exist yet.
+     *
+     * @param classpath class path of the agent runtime process
+     * @return archive path
+     */
+    public static Path archiveFor(final String classpath) {
+
+        CRC32C crc = new CRC32C();
+        crc.update(System.getProperty("java.home").getBytes(StandardCharsets.UTF_8));
+        crc.update(System.getProperty("java.vm.version").getBytes(StandardCharsets.UTF_8));
+        crc.update(classpath.getBytes(StandardCharsets.UTF_8));
+
+        return archiveDir().resolve(ARCHIVE_PREFIX + Runtime.version().feature() + "-" + Long.toHexString(crc.getValue()) + ARCHIVE_SUFFIX);
+    }
+
+    /**
+     * JVM options mapping the archive of the class path, empty until an archive has been trained.
+     *
+     * @param classpath class path of the agent runtime process
+     * @return JVM options
+     */
+    public static List<String> jvmOptions(final String classpath) {
+
+        Path archive = archiveFor(classpath);
+        if (!Files.isRegularFile(archive)) {
+            return List.of();
+        }
+        // auto: a JVM that can not map the archive still starts, only without sharing.
+        return List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto");
+    }
+
+    /**
+     * Run a training JVM over the given agents and dump its archive, replacing an existing one.
+     * The class path must consist of jars, the JVM does not archive classes from directories.
+     *
+     * @param classpath   class path of the agent runtime process
+     * @param configPaths runtime configs of the agents to train with
+     * @return the archive path
+     */
+    public static Path train(final String classpath, final List<String> configPaths) {
+
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (Files.isDirectory(Paths.get(entry))) {
+                throw new AgentRuntimeException("CDS archives classes from jars only, class path directory: " + entry);
+            }
+        }
+
+        Path archive = archiveFor(classpath);
+        try {
+            Files.createDirectories(archive.getParent());
+            Path tmp = Files.createTempFile(archive.getParent(), archive.getFileName().toString(), ".tmp");
+            // the JVM refuses to dump into an existing file.
+            Files.delete(tmp);
+
+            Process process = new ProcessBuilder(trainingCommand(classpath, tmp, configPaths)).inheritIO().start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || !Files.isRegularFile(tmp)) {
+                Files.deleteIfExists(tmp);
+                throw new AgentRuntimeException("CDS training run failed with exit code " + exitCode);
+            }
+            return Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to train CDS archive: " + archive, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentRuntimeException("Interrupted while training CDS archive: " + archive, e);
+        }
+    }
+
+    static List<String> trainingCommand(final String classpath, final Path archive, final List<String> configPaths) {
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:ArchiveClassesAtExit=" + archive);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(AgentCdsTraining.class.getName());
+        command.addAll(configPaths);
+        return command;
+    }
+
+    private static Path archiveDir() {
+
+        String configured = System.getProperty(ARCHIVE_DIR_PROPERTY);
+        return Objects.nonNull(configured) ? Paths.get(configured) : Paths.get(System.getProperty("user.home"), ".agent-runtime", "cds");
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.cds;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.loader.AgentReference;
+import com.alibaba.cloud.ai.agent.runtime.loader.AgentRegistry;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Training run of the agent runtime, the classes it loads end up in the {@link AgentCdsArchive}.
+ *
+ * <p>Usage: {@code AgentCdsTraining --dump <runtime.config.*>...} launches the training JVM and
+ * logs the archive path, {@code AgentCdsTraining <runtime.config.*>...} is the training run
+ * itself: every agent is registered, built and leased once, which loads the config parsers, the
+ * loader and the framework adapter classes an agent process needs.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentCdsTraining {
+
+    private static final System.Logger LOGGER = System.getLogger(AgentCdsTraining.class.getName());
+
+    private static final String DUMP = "--dump";
+
+    private AgentCdsTraining() {
+    }
+
+    public static void main(final String[] args) {
+
+        if (args.length == 0 || DUMP.equals(args[0]) && args.length == 1) {
+            throw new IllegalArgumentException("Usage: AgentCdsTraining [--dump] <runtime.config.*>...");
+        }
+
+        if (DUMP.equals(args[0])) {
+            Path archive = AgentCdsArchive.train(System.getProperty("java.class.path"), Arrays.asList(args).subList(1, args.length));
+            LOGGER.log(System.Logger.Level.INFO, "CDS archive written: " + archive);
+            return;
+        }
+        run(Arrays.asList(args));
+    }
+
+    /**
+     * Register, build and lease every agent once.
+     *
+     * @param configPaths runtime config paths
+     * @return number of trained agents
+     */
+    public static int run(final List<String> configPaths) {
+
+        try (AgentRegistry registry = new AgentRegistry()) {
+            AgentRegistry.Result result = registry.registerAll(configPaths);
+            if (!result.isSuccessful()) {
+                // an archive of a partial run would miss the classes of the failed agents.
+                throw new AgentRuntimeException("CDS training failed for: " + result.errors());
+            }
+
+            for (String name : result.loaded().keySet()) {
+                try (AgentReference.Lease lease = registry.acquire(name)) {
+                    Objects.requireNonNull(lease.agent(), name);
+                }
+            }
+            return result.loaded().size();
+        }
+    }
+
+}
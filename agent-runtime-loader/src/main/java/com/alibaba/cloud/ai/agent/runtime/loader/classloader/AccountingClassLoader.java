@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.classloader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarFile;
+
+/**
+ * URL class loader that accounts for the classes it defines.
+ *
+ * <p>The JVM does not expose metaspace per class loader, the class file size of the defined classes
+ * is used as an estimate: metaspace grows with it roughly linearly.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+abstract class AccountingClassLoader extends URLClassLoader {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String JAR_PROTOCOL = "jar";
+
+    private static final String JAR_SEPARATOR = "!/";
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final LongAdder classes = new LongAdder();
+
+    private final LongAdder classBytes = new LongAdder();
+
+    /**
+     * Jar files opened to read class files, cached JVM-wide until closed with this loader.
+     */
+    private final Set<JarFile> jarFiles = ConcurrentHashMap.newKeySet();
+
+    AccountingClassLoader(final String name, final URL[] urls, final ClassLoader parent) {
+
+        super(name, urls, parent);
+    }
+
+    /**
+     * Define a class from its class file, looked up and read once; the defined bytes are what is
+     * accounted for. The stream is closed right after reading, jar files opened for it are owned
+     * by this loader and closed with it.
+     */
+    @Override
+    protected Class<?> findClass(final String className) throws ClassNotFoundException {
+
+        String path = className.replace('.', '/') + CLASS_SUFFIX;
+        URL resource = findResource(path);
+        if (Objects.isNull(resource)) {
+            throw new ClassNotFoundException(className);
+        }
+
+        byte[] bytes;
+        try {
+            URLConnection connection = resource.openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                bytes = in.readAllBytes();
+            }
+            if (connection instanceof JarURLConnection jar) {
+                jarFiles.add(jar.getJarFile());
+            }
+        } catch (IOException e) {
+            throw new ClassNotFoundException(className, e);
+        }
+
+        definePackageOf(className);
+        Class<?> type = defineClass(className, bytes, 0, bytes.length, new CodeSource(codeBase(resource, path), (CodeSigner[]) null));
+        defined(bytes.length);
+        return type;
+    }
+
+    /**
+     * Define the package of a class if it is not defined yet.
+     *
+     * @param className class name
+     */
+    final void definePackageOf(final String className) {
+
+        int idx = className.lastIndexOf('.');
+        if (idx < 0) {
+            return;
+        }
+        String packageName = className.substring(0, idx);
+        if (Objects.isNull(getDefinedPackage(packageName))) {
+            try {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            } catch (IllegalArgumentException e) {
+                // defined concurrently by another thread.
+            }
+        }
+    }
+
+    /**
+     * Account for a class defined by this loader outside of {@link #findClass(String)}.
+     *
+     * @param bytes class file size
+     */
+    final void defined(final long bytes) {
+
+        classes.increment();
+        classBytes.add(bytes);
+    }
+
+    /**
+     * The jar or class directory a class file was found in, {@code jar:file:/a.jar!/p/C.class} is {@code file:/a.jar}.
+     */
+    private static URL codeBase(final URL resource, final String path) {
+
+        String url = resource.toString();
+        int idx = url.indexOf(JAR_SEPARATOR);
+        String base = JAR_PROTOCOL.equals(resource.getProtocol()) && idx > 0
+                ? url.substring(JAR_PROTOCOL.length() + 1, idx)
+                : url.substring(0, url.length() - path.length());
+        try {
+            return new URL(base);
+        } catch (MalformedURLException e) {
+            return resource;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        try {
+            super.close();
+        } finally {
+            for (JarFile jarFile : jarFiles) {
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    // best effort, the loader is closed regardless.
+                }
+            }
+            jarFiles.clear();
+        }
+    }
+
+    /**
+     * Classes defined by this loader, not by its parents.
+     *
+     * @return {@link AgentClassLoaderStats}
+     */
+    public AgentClassLoaderStats getStats() {
+
+        return new AgentClassLoaderStats(getName(), classes.sum(), classBytes.sum());
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.loader.classloader;
+
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.MappedZipArchive;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-agent class loader for the agent's own code, its parent is the shared
+ * {@link AgentFrameworkLayer} of the agent framework.
+ *
+ * <p>Besides jars and class directories on disk the loader reads jars held in memory as
+ * {@link MappedZipArchive archives}, e.g. the stored jars of an agent bundle: classes are defined
+ * straight from the mapped bytes and resources are served through {@code agent-archive:} URLs.
+ *
+ * <p>Closing the loader releases the layer, it must be closed once the agent is retired.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentClassLoader extends AccountingClassLoader {
+
+    private static final String ARCHIVE_PROTOCOL = "agent-archive";
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final List<MappedZipArchive> archives;
+
+    private final AgentClassLoaderLayers layers;
+
+    private final AgentFrameworkLayer layer;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    AgentClassLoader(final String agentName, final URL[] urls, final List<MappedZipArchive> archives, final AgentClassLoaderLayers layers,
+                     final AgentFrameworkLayer layer) {
+
+        super(agentName, urls, layer.getClassLoader());
+        this.archives = List.copyOf(archives);
+        this.layers = layers;
+        this.layer = layer;
+    }
+
+    /**
+     * The framework layer this loader sits on.
+     *
+     * @return {@link AgentFrameworkLayer}
+     */
+    public AgentFrameworkLayer getLayer() {
+
+        return layer;
+    }
+
+    /**
+     * Classes of in-memory archives are defined straight from the mapped bytes, other classes are
+     * read from the class path.
+     */
+    @Override
+    protected Class<?> findClass(final String className) throws ClassNotFoundException {
+
+        if (!archives.isEmpty()) {
+            String entry = className.replace('.', '/') + ".class";
+            for (MappedZipArchive archive : archives) {
+                Optional<ByteBuffer> bytes = archive.read(entry);
+                if (bytes.isPresent()) {
+                    definePackageOf(className);
+                    int size = bytes.get().remaining();
+                    Class<?> type = defineClass(className, bytes.get(), (ProtectionDomain) null);
+                    defined(size);
+                    return type;
+                }
+            }
+        }
+        return super.findClass(className);
+    }
+
+    @Override
+    public URL findResource(final String name) {
+
+        URL resource = super.findResource(name);
+        if (Objects.nonNull(resource)) {
+            return resource;
+        }
+        for (MappedZipArchive archive : archives) {
+            if (archive.contains(name)) {
+                return archiveUrl(archive, name);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(final String name) throws IOException {
+
+        if (archives.isEmpty()) {
+            return super.findResources(name);
+        }
+        List<URL> resources = Collections.list(super.findResources(name));
+        for (MappedZipArchive archive : archives) {
+            if (archive.contains(name)) {
+                resources.add(archiveUrl(archive, name));
+            }
+        }
+        return Collections.enumeration(resources);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed.compareAndSet(false, true)) {
+            try {
+                super.close();
+            } finally {
+                layers.release(this);
+            }
+        }
+    }
+
+    private static URL archiveUrl(final MappedZipArchive archive, final String name) {
+
+        try {
+            return new URL(ARCHIVE_PROTOCOL, null, -1, "/" + archive.getName() + "!/" + name, new ArchiveUrlHandler(archive, name));
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid archive resource: " + archive + "!/" + name, e);
+        }
+    }
+
+    /**
+     * Serves one archive entry, URLs carry their handler so no protocol has to be registered.
+     */
+    private static final class ArchiveUrlHandler extends URLStreamHandler {
+
+        private final MappedZipArchive archive;
+
+        private final String name;
+
+        ArchiveUrlHandler(final MappedZipArchive archive, final String name) {
+
+            this.archive = archive;
+            this.name = name;
+        }
+
+        @Override
+        protected URLConnection openConnection(final URL url) {
+
+            return new URLConnection(url) {
+
+                @Override
+                public void connect() {
+
+                    connected = true;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+
+                    ByteBuffer content = archive.read(name).orElseThrow(() -> new FileNotFoundException(url.toString()));
+                    return AgentRuntimeSchemaSource.openStream(content);
+                }
+
+                @Override
+                public long getContentLengthLong() {
+
+                    return archive.read(name).map(ByteBuffer::remaining).orElse(-1);
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.classloader;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.MappedZipArchive;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Layered class loaders of the agents co-hosted in this JVM.
+ *
+ * <pre>
+ * runtime class loader
+ *   └─ framework layer, one per {@link AgentFramework} and version, shared and read-only
+ *        └─ agent class loader, one per agent, only the agent's own jars
+ * </pre>
+ * The jars of a framework layer are the jars in {@code <framework home>/<FRAMEWORK>/<version>/},
+ * see {@link #FRAMEWORK_HOME_PROPERTY}. Without a framework home, or for a version that has no
+ * directory there, the layer is empty and framework classes come from the runtime class path,
+ * which is shared as well.
+ *
+ * <p>Layers are reference counted by the agent class loaders on top of them and closed with the
+ * last one. {@link #layerStats()} and {@link #agentStats()} report the classes each loader defined.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentClassLoaderLayers {
+
+    /**
+     * System property with the framework home directory.
+     */
+    public static final String FRAMEWORK_HOME_PROPERTY = "agent.runtime.loader.framework-home";
+
+    private static final String METASPACE_POOL = "Metaspace";
+
+    private final Path frameworkHome;
+
+    private final ClassLoader parent;
+
+    private final Map<String, AgentFrameworkLayer> layers = new HashMap<>();
+
+    private final Set<AgentClassLoader> agents = new LinkedHashSet<>();
+
+    /**
+     * Layers below the given parent.
+     *
+     * @param frameworkHome framework home directory, null for empty layers
+     * @param parent        parent of every layer, must see the agent runtime API
+     */
+    public AgentClassLoaderLayers(final Path frameworkHome, final ClassLoader parent) {
+
+        this.frameworkHome = frameworkHome;
+        this.parent = Objects.requireNonNull(parent, "parent");
+    }
+
+    /**
+     * The layers shared by the loaders of this JVM, see {@link #FRAMEWORK_HOME_PROPERTY}.
+     *
+     * @return {@link AgentClassLoaderLayers}
+     */
+    public static AgentClassLoaderLayers getInstance() {
+
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Create the class loader of one agent, the framework layer is created on first use.
+     *
+     * @param agentName        agent name, used as class loader name
+     * @param framework        agent framework
+     * @param frameworkVersion framework version, selects the layer directory
+     * @param classpath        the agent's own jars and class directories
+     * @return {@link AgentClassLoader}, to be closed once the agent is retired
+     */
+    public AgentClassLoader newAgentClassLoader(final String agentName, final AgentFramework framework,
+                                                final String frameworkVersion, final List<Path> classpath) {
+
+        return newAgentClassLoader(agentName, framework, frameworkVersion, classpath, List.of());
+    }
+
+    /**
+     * Create the class loader of one agent whose jars are, at least partly, held in memory, e.g. in an agent bundle.
+     *
+     * @param agentName        agent name, used as class loader name
+     * @param framework        agent framework
+     * @param frameworkVersion framework version, selects the layer directory
+     * @param classpath        the agent's own jars and class directories on disk
+     * @param archives         the agent's own jars in memory, searched after the class path
+     * @return {@link AgentClassLoader}, to be closed once the agent is retired
+     */
+    public synchronized AgentClassLoader newAgentClassLoader(final String agentName, final AgentFramework framework, final String frameworkVersion,
+                                                             final List<Path> classpath, final List<MappedZipArchive> archives) {
+
+        String key = AgentFrameworkLayer.key(framework, frameworkVersion);
+        AgentFrameworkLayer layer = layers.get(key);
+        if (Objects.isNull(layer)) {
+            layer = new AgentFrameworkLayer(framework, frameworkVersion, toUrls(frameworkJars(framework, frameworkVersion)), parent);
+            layers.put(key, layer);
+        }
+
+        AgentClassLoader loader = new AgentClassLoader(agentName, toUrls(classpath), archives, this, layer);
+        layer.retain();
+        agents.add(loader);
+        return loader;
+    }
+
+    /**
+     * Live framework layers.
+     *
+     * @return the layers
+     */
+    public synchronized List<AgentFrameworkLayer> layers() {
+
+        return List.copyOf(layers.values());
+    }
+
+    /**
+     * Classes defined by each live framework layer.
+     *
+     * @return per-layer stats
+     */
+    public synchronized List<AgentClassLoaderStats> layerStats() {
+
+        return layers.values().stream().map(AgentFrameworkLayer::getStats).toList();
+    }
+
+    /**
+     * Classes defined by each open agent class loader, framework classes are accounted to the layer.
+     *
+     * @return per-agent stats
+     */
+    public synchronized List<AgentClassLoaderStats> agentStats() {
+
+        List<AgentClassLoaderStats> stats = new ArrayList<>(agents.size());
+        for (AgentClassLoader agent : agents) {
+            stats.add(agent.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Metaspace used by the whole JVM, the reference the per-loader estimates relate to.
+     *
+     * @return used metaspace bytes, -1 if the JVM has no metaspace pool
+     */
+    public static long metaspaceUsed() {
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (METASPACE_POOL.equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+
+    synchronized void release(final AgentClassLoader loader) {
+
+        if (!agents.remove(loader)) {
+            return;
+        }
+        AgentFrameworkLayer layer = loader.getLayer();
+        if (layer.release()) {
+            layers.remove(AgentFrameworkLayer.key(layer.getFramework(), layer.getVersion()));
+        }
+    }
+
+    private List<Path> frameworkJars(final AgentFramework framework, final String version) {
+
+        if (Objects.isNull(frameworkHome)) {
+            return List.of();
+        }
+        Path dir = frameworkHome.resolve(framework.name()).resolve(version);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar")).sorted().toList();
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to list framework jars: " + dir, e);
+        }
+    }
+
+    private static URL[] toUrls(final List<Path> paths) {
+
+        URL[] urls = new URL[paths.size()];
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = paths.get(i).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new AgentRuntimeException("Invalid class path entry: " + paths.get(i), e);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Lazily created shared layers.
+     */
+    private static final class Holder {
+
+        private static final AgentClassLoaderLayers INSTANCE = new AgentClassLoaderLayers(
+                Objects.isNull(System.getProperty(FRAMEWORK_HOME_PROPERTY)) ? null : Paths.get(System.getProperty(FRAMEWORK_HOME_PROPERTY)),
+                AgentClassLoaderLayers.class.getClassLoader());
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.classloader;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Shared, read-only class loader layer of one {@link AgentFramework} version.
+ *
+ * <p>The layer holds the framework jars, every agent of that framework version loads its own code
+ * in a thin {@link AgentClassLoader} on top of it, so framework classes are defined once per JVM.
+ * Layers are reference counted by {@link AgentClassLoaderLayers}: once the last agent class loader
+ * is closed, the layer is closed and its classes can be unloaded.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentFrameworkLayer {
+
+    private final AgentFramework framework;
+
+    private final String version;
+
+    private final LayerClassLoader classLoader;
+
+    /**
+     * Agent class loaders on top of this layer, guarded by the owning {@link AgentClassLoaderLayers}.
+     */
+    private int references;
+
+    AgentFrameworkLayer(final AgentFramework framework, final String version, final URL[] urls, final ClassLoader parent) {
+
+        this.framework = framework;
+        this.version = version;
+        this.classLoader = new LayerClassLoader(key(framework, version), urls, parent);
+    }
+
+    public AgentFramework getFramework() {
+
+        return framework;
+    }
+
+    public String getVersion() {
+
+        return version;
+    }
+
+    /**
+     * Class loader of the framework jars, parent of the agent class loaders.
+     *
+     * @return the layer class loader
+     */
+    public ClassLoader getClassLoader() {
+
+        return classLoader;
+    }
+
+    /**
+     * Number of open agent class loaders on top of this layer.
+     *
+     * @return reference count
+     */
+    public int getReferenceCount() {
+
+        return references;
+    }
+
+    /**
+     * Classes defined by the layer itself.
+     *
+     * @return {@link AgentClassLoaderStats}
+     */
+    public AgentClassLoaderStats getStats() {
+
+        return classLoader.getStats();
+    }
+
+    @Override
+    public String toString() {
+
+        return classLoader.getName();
+    }
+
+    static String key(final AgentFramework framework, final String version) {
+
+        return framework.name() + "@" + version;
+    }
+
+    void retain() {
+
+        references++;
+    }
+
+    /**
+     * Drop one reference.
+     *
+     * @return true if this was the last one and the layer was closed
+     */
+    boolean release() {
+
+        if (--references > 0) {
+            return false;
+        }
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            System.getLogger(AgentFrameworkLayer.class.getName()).log(System.Logger.Level.WARNING, "Failed to close framework layer " + this, e);
+        }
+        return true;
+    }
+
+    /**
+     * The layer loader, no URL can be added after creation.
+     */
+    private static final class LayerClassLoader extends AccountingClassLoader {
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        LayerClassLoader(final String name, final URL[] urls, final ClassLoader parent) {
+
+            super(name, urls, parent);
+        }
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.scan;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import com.alibaba.cloud.ai.agent.runtime.loader.bundle.MappedZipArchive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Discovers {@link com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider agent providers} in
+ * jars and class directories without loading any class.
+ *
+ * <p>Jars are scanned in parallel, and so are the class entries of a single jar. A jar that carries
+ * an {@link AgentProviderIndex} is not scanned at all. Otherwise every class file is read with
+ * {@link ClassFileAnnotationReader}. Jar results are persisted in a cache file keyed by path, size
+ * and a checksum of the jar central directory, which holds the CRC-32 of every entry, so restarts
+ * with unchanged jars only read the jar tail. Class directories and in-memory jars, see
+ * {@link #scanArchives(Collection)}, are always scanned.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentClassScanner {
+
+    /**
+     * System property with the scan cache file, {@code ~/.agent-runtime/classpath-scan.cache} by default.
+     * An empty value disables the cache.
+     */
+    public static final String CACHE_PROPERTY = "agent.runtime.loader.scan-cache";
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * End of central directory record: signature, then the central directory size at 12 and offset at 16.
+     */
+    private static final int EOCD_SIGNATURE = 0x06054B50;
+
+    private static final int EOCD_MIN_LENGTH = 22;
+
+    private static final int EOCD_MAX_LENGTH = EOCD_MIN_LENGTH + 0xFFFF;
+
+    private final AgentScanCache cache;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Scanner with its own cache.
+     *
+     * @param cacheFile cache file, null to keep results in memory only
+     * @param pool      pool jars are scanned on
+     */
+    public AgentClassScanner(final Path cacheFile, final ForkJoinPool pool) {
+
+        this.cache = AgentScanCache.open(cacheFile);
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * The scanner shared by the loaders of this JVM, see {@link #CACHE_PROPERTY}.
+     *
+     * @return {@link AgentClassScanner}
+     */
+    public static AgentClassScanner getInstance() {
+
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Scan jars and class directories for agent providers.
+     *
+     * @param roots jar files and class directories
+     * @return {@link Result}
+     */
+    public Result scan(final Collection<Path> roots) {
+
+        AtomicInteger cached = new AtomicInteger();
+        List<AgentProviderIndex.Entry> providers = run(roots, () -> roots.parallelStream()
+                .flatMap(root -> scanRoot(root.toAbsolutePath().normalize(), cached).stream())
+                .toList());
+        cache.save();
+
+        return new Result(providers, roots.size() - cached.get(), cached.get());
+    }
+
+    /**
+     * Scan jars held in memory, e.g. the jars of an agent bundle. Archives are not cached, they are
+     * read in place and carry no file to key a cache entry on.
+     *
+     * @param archives jar archives
+     * @return {@link Result}
+     */
+    public Result scanArchives(final Collection<MappedZipArchive> archives) {
+
+        List<AgentProviderIndex.Entry> providers = run(archives, () -> archives.parallelStream()
+                .flatMap(archive -> scanArchive(archive).stream())
+                .toList());
+
+        return new Result(providers, archives.size(), 0);
+    }
+
+    private List<AgentProviderIndex.Entry> run(final Collection<?> roots, final Callable<List<AgentProviderIndex.Entry>> scan) {
+
+        try {
+            return pool.submit(scan).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentRuntimeException("Interrupted while scanning classpath: " + roots, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AgentRuntimeException are) {
+                throw are;
+            }
+            throw new AgentRuntimeException("Failed to scan classpath: " + roots, e.getCause());
+        }
+    }
+
+    private List<AgentProviderIndex.Entry> scanRoot(final Path root, final AtomicInteger cached) {
+
+        if (Files.isDirectory(root)) {
+            return scanDirectory(root);
+        }
+
+        try {
+            long size = Files.size(root);
+            long checksum = checksum(root, size);
+            List<AgentProviderIndex.Entry> providers = cache.get(root, size, checksum);
+            if (Objects.nonNull(providers)) {
+                cached.incrementAndGet();
+                return providers;
+            }
+
+            providers = scanJar(root);
+            cache.put(root, size, checksum, providers);
+            return providers;
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to scan jar: " + root, e);
+        }
+    }
+
+    private static List<AgentProviderIndex.Entry> scanJar(final Path jar) throws IOException {
+
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            ZipEntry index = zip.getEntry(AgentProviderIndex.LOCATION);
+            if (Objects.nonNull(index)) {
+                return List.copyOf(AgentProviderIndex.read(zip.getInputStream(index)));
+            }
+
+            return zip.stream()
+                    .filter(entry -> isClassFile(entry.getName()))
+                    .toList()
+                    .parallelStream()
+                    .map(entry -> readClass(jar + "!/" + entry.getName(), () -> zip.getInputStream(entry)))
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+    }
+
+    private static List<AgentProviderIndex.Entry> scanArchive(final MappedZipArchive archive) {
+
+        Optional<ByteBuffer> index = archive.read(AgentProviderIndex.LOCATION);
+        if (index.isPresent()) {
+            try {
+                return List.copyOf(AgentProviderIndex.read(AgentRuntimeSchemaSource.openStream(index.get())));
+            } catch (IOException e) {
+                throw new AgentRuntimeException("Failed to read agent provider index: " + archive, e);
+            }
+        }
+
+        return archive.names().stream()
+                .filter(AgentClassScanner::isClassFile)
+                .toList()
+                .parallelStream()
+                .map(name -> readClass(archive + "!/" + name, () -> AgentRuntimeSchemaSource.openStream(archive.read(name).orElseThrow())))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static List<AgentProviderIndex.Entry> scanDirectory(final Path dir) {
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(file -> isClassFile(file.getFileName().toString()) && Files.isRegularFile(file))
+                    .toList()
+                    .parallelStream()
+                    .map(file -> readClass(file.toString(), () -> Files.newInputStream(file)))
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to scan class directory: " + dir, e);
+        }
+    }
+
+    private static AgentProviderIndex.Entry readClass(final String location, final ClassFileSource source) {
+
+        try (InputStream in = source.open()) {
+            return ClassFileAnnotationReader.read(in.readAllBytes());
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read class file: " + location, e);
+        } catch (IllegalArgumentException e) {
+            // not every .class entry of a fat jar is a valid class, e.g. test fixtures or shaded leftovers.
+            return null;
+        }
+    }
+
+    private static boolean isClassFile(final String name) {
+
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
+    }
+
+    /**
+     * CRC32C of the jar central directory. The central directory is small and lists the CRC-32 and
+     * sizes of every entry, a changed class always changes it. Zip64 jars fall back to the whole file.
+     */
+    static long checksum(final Path jar, final long size) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            int tailLength = (int) Math.min(size, EOCD_MAX_LENGTH);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (tail.hasRemaining() && read >= 0) {
+                read = channel.read(tail, size - tailLength + tail.position());
+            }
+            tail.flip();
+
+            CRC32C crc = new CRC32C();
+            for (int i = tailLength - EOCD_MIN_LENGTH; i >= 0; i--) {
+                if (tail.getInt(i) != EOCD_SIGNATURE) {
+                    continue;
+                }
+                long cdSize = Integer.toUnsignedLong(tail.getInt(i + 12));
+                long cdOffset = Integer.toUnsignedLong(tail.getInt(i + 16));
+                if (cdOffset + cdSize <= size && cdOffset != 0xFFFFFFFFL) {
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, cdOffset, cdSize));
+                    return crc.getValue();
+                }
+                break;
+            }
+
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            return crc.getValue();
+        }
+    }
+
+    private static Path defaultCacheFile() {
+
+        String configured = System.getProperty(CACHE_PROPERTY);
+        if (Objects.isNull(configured)) {
+            return Paths.get(System.getProperty("user.home"), ".agent-runtime", "classpath-scan.cache");
+        }
+        return configured.isEmpty() ? null : Paths.get(configured);
+    }
+
+    /**
+     * Lazily created shared scanner.
+     */
+    private static final class Holder {
+
+        private static final AgentClassScanner INSTANCE = new AgentClassScanner(defaultCacheFile(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Opens the bytes of one class file.
+     */
+    @FunctionalInterface
+    private interface ClassFileSource {
+
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Scan result.
+     *
+     * @param providers providers found, in root order
+     * @param scanned   number of roots that were scanned
+     * @param cached    number of jars served from the cache
+     */
+    public record Result(List<AgentProviderIndex.Entry> providers, int scanned, int cached) {
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.scan;
+
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of jar scan results, keyed by jar path, size and checksum.
+ *
+ * <p>Layout, big-endian: magic "ARSC", u16 format version, i32 jar count, then per jar its path,
+ * size, checksum and providers. A missing, corrupted or outdated cache file is treated as empty,
+ * it is rewritten atomically after a scan that changed it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class AgentScanCache {
+
+    private static final System.Logger LOGGER = System.getLogger(AgentScanCache.class.getName());
+
+    private static final int MAGIC = 0x41525343;
+
+    private static final short FORMAT_VERSION = 1;
+
+    private final Path file;
+
+    private final Map<String, JarScan> jars;
+
+    private volatile boolean dirty;
+
+    private AgentScanCache(final Path file, final Map<String, JarScan> jars) {
+
+        this.file = file;
+        this.jars = jars;
+    }
+
+    /**
+     * Read the cache file.
+     *
+     * @param file cache file, null for an in-memory cache
+     * @return {@link AgentScanCache}
+     */
+    static AgentScanCache open(final Path file) {
+
+        Map<String, JarScan> jars = new ConcurrentHashMap<>();
+        if (Objects.isNull(file)) {
+            return new AgentScanCache(null, jars);
+        }
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                return new AgentScanCache(file, jars);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                jars.put(path, new JarScan(in.readLong(), in.readLong(), readProviders(in)));
+            }
+        } catch (NoSuchFileException e) {
+            // first start, nothing cached yet.
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Ignoring unreadable classpath scan cache: " + file, e);
+            jars.clear();
+        }
+
+        return new AgentScanCache(file, jars);
+    }
+
+    /**
+     * Cached providers of a jar.
+     *
+     * @param jar      absolute jar path
+     * @param size     jar size
+     * @param checksum jar checksum
+     * @return the providers, null if the jar is not cached or has changed
+     */
+    List<AgentProviderIndex.Entry> get(final Path jar, final long size, final long checksum) {
+
+        JarScan scan = jars.get(jar.toString());
+        return Objects.nonNull(scan) && scan.size() == size && scan.checksum() == checksum ? scan.providers() : null;
+    }
+
+    void put(final Path jar, final long size, final long checksum, final List<AgentProviderIndex.Entry> providers) {
+
+        jars.put(jar.toString(), new JarScan(size, checksum, List.copyOf(providers)));
+        dirty = true;
+    }
+
+    /**
+     * Write the cache back if it changed, entries of deleted jars are dropped.
+     */
+    synchronized void save() {
+
+        if (!dirty || Objects.isNull(file)) {
+            return;
+        }
+        jars.keySet().removeIf(path -> !Files.exists(Path.of(path)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            List<Map.Entry<String, JarScan>> entries = new ArrayList<>(jars.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<String, JarScan> entry : entries) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size());
+                out.writeLong(entry.getValue().checksum());
+                writeProviders(out, entry.getValue().providers());
+            }
+        } catch (IOException e) {
+            // in-memory stream, not reachable.
+            throw new IllegalStateException(e);
+        }
+
+        try {
+            Path dir = Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            // the cache is an optimization, a read-only home directory must not fail the load.
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to write classpath scan cache: " + file, e);
+        }
+    }
+
+    private static List<AgentProviderIndex.Entry> readProviders(final DataInputStream in) throws IOException {
+
+        int count = in.readInt();
+        List<AgentProviderIndex.Entry> providers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String className = in.readUTF();
+            String name = in.readUTF();
+            String framework = in.readUTF();
+            int capabilityCount = in.readInt();
+            List<String> capabilities = new ArrayList<>(capabilityCount);
+            for (int j = 0; j < capabilityCount; j++) {
+                capabilities.add(in.readUTF());
+            }
+            providers.add(new AgentProviderIndex.Entry(className, name, framework, List.copyOf(capabilities)));
+        }
+        return List.copyOf(providers);
+    }
+
+    private static void writeProviders(final DataOutputStream out, final List<AgentProviderIndex.Entry> providers) throws IOException {
+
+        out.writeInt(providers.size());
+        for (AgentProviderIndex.Entry provider : providers) {
+            out.writeUTF(provider.className());
+            out.writeUTF(provider.name());
+            out.writeUTF(provider.framework());
+            out.writeInt(provider.capabilities().size());
+            for (String capability : provider.capabilities()) {
+                out.writeUTF(capability);
+            }
+        }
+    }
+
+    private record JarScan(long size, long checksum, List<AgentProviderIndex.Entry> providers) {
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.scan;
+
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads the {@link AgentProvider} annotation straight from class file bytes, the class is never
+ * loaded.
+ *
+ * <p>Only the constant pool is parsed for classes that do not reference the annotation, which is
+ * the vast majority of a fat jar. Fields and methods are skipped without decoding their attributes.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class ClassFileAnnotationReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final byte[] ANNOTATION_DESCRIPTOR = ("L" + AgentProvider.class.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+
+    private static final String INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    private static final String VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final int ACC_PUBLIC = 0x0001;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private ClassFileAnnotationReader() {
+    }
+
+    /**
+     * Read the provider declared by a class file.
+     *
+     * @param classFile class file bytes
+     * @return the provider, null if the class is not an instantiable {@link AgentProvider}
+     * @throws IllegalArgumentException if the class file is malformed
+     */
+    static AgentProviderIndex.Entry read(final byte[] classFile) {
+
+        ByteBuffer buf = ByteBuffer.wrap(classFile);
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file");
+            }
+            // minor and major version.
+            buf.position(buf.position() + 4);
+
+            int[] offsets = readConstantPool(buf);
+            int descriptor = findUtf8(classFile, offsets, ANNOTATION_DESCRIPTOR);
+            if (descriptor == 0) {
+                return null;
+            }
+
+            final int access = buf.getShort() & 0xFFFF;
+            final int thisClass = buf.getShort() & 0xFFFF;
+            // super class, then the interfaces.
+            buf.getShort();
+            final int interfaces = buf.getShort() & 0xFFFF;
+            buf.position(buf.position() + 2 * interfaces);
+            skipMembers(buf);
+            skipMembers(buf);
+
+            if ((access & ACC_PUBLIC) == 0 || (access & (ACC_INTERFACE | ACC_ABSTRACT)) != 0) {
+                return null;
+            }
+            String className = utf8(classFile, offsets, buf.getShort(offsets[thisClass]) & 0xFFFF).replace('/', '.');
+
+            int attributes = buf.getShort() & 0xFFFF;
+            for (int i = 0; i < attributes; i++) {
+                String name = utf8(classFile, offsets, buf.getShort() & 0xFFFF);
+                int length = buf.getInt();
+                int end = buf.position() + length;
+                if (INVISIBLE_ANNOTATIONS.equals(name) || VISIBLE_ANNOTATIONS.equals(name)) {
+                    AgentProviderIndex.Entry entry = readAnnotations(buf, classFile, offsets, descriptor, className);
+                    if (Objects.nonNull(entry)) {
+                        return entry;
+                    }
+                }
+                buf.position(end);
+            }
+            return null;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated class file", e);
+        }
+    }
+
+    /**
+     * Offsets of the constant pool entries, an UTF-8 entry offset points at its length.
+     */
+    private static int[] readConstantPool(final ByteBuffer buf) {
+
+        int count = buf.getShort() & 0xFFFF;
+        int[] offsets = new int[count];
+        int i = 1;
+        while (i < count) {
+            int tag = buf.get();
+            offsets[i] = buf.position();
+            switch (tag) {
+                case 1 -> buf.position(buf.position() + 2 + (buf.getShort(buf.position()) & 0xFFFF));
+                case 7, 8, 16, 19, 20 -> buf.position(buf.position() + 2);
+                case 15 -> buf.position(buf.position() + 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> buf.position(buf.position() + 4);
+                case 5, 6 -> {
+                    // long and double take two slots.
+                    buf.position(buf.position() + 8);
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+            }
+            i++;
+        }
+        return offsets;
+    }
+
+    private static int findUtf8(final byte[] classFile, final int[] offsets, final byte[] value) {
+
+        for (int i = 1; i < offsets.length; i++) {
+            int offset = offsets[i];
+            if (offset > 0 && classFile[offset - 1] == 1 && utf8Equals(classFile, offset, value)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean utf8Equals(final byte[] classFile, final int offset, final byte[] value) {
+
+        int length = ((classFile[offset] & 0xFF) << 8) | (classFile[offset + 1] & 0xFF);
+        return length == value.length && Arrays.equals(classFile, offset + 2, offset + 2 + length, value, 0, length);
+    }
+
+    private static void skipMembers(final ByteBuffer buf) {
+
+        int count = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            // access flags, name and descriptor.
+            buf.position(buf.position() + 6);
+            skipAttributes(buf);
+        }
+    }
+
+    private static void skipAttributes(final ByteBuffer buf) {
+
+        int count = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            buf.getShort();
+            int length = buf.getInt();
+            buf.position(buf.position() + length);
+        }
+    }
+
+    private static AgentProviderIndex.Entry readAnnotations(final ByteBuffer buf, final byte[] classFile, final int[] offsets,
+                                                            final int descriptor, final String className) {
+
+        int count = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            int type = buf.getShort() & 0xFFFF;
+            if (type != descriptor) {
+                skipElementValuePairs(buf);
+                continue;
+            }
+
+            String name = className;
+            String framework = null;
+            List<String> capabilities = new ArrayList<>();
+            int pairs = buf.getShort() & 0xFFFF;
+            for (int j = 0; j < pairs; j++) {
+                String element = utf8(classFile, offsets, buf.getShort() & 0xFFFF);
+                switch (element) {
+                    case "name" -> name = readString(buf, classFile, offsets);
+                    case "framework" -> framework = readString(buf, classFile, offsets);
+                    case "capabilities" -> {
+                        if (buf.get() != '[') {
+                            throw new IllegalArgumentException("Malformed capabilities of " + className);
+                        }
+                        int values = buf.getShort() & 0xFFFF;
+                        for (int k = 0; k < values; k++) {
+                            capabilities.add(readString(buf, classFile, offsets));
+                        }
+                    }
+                    default -> skipElementValue(buf);
+                }
+            }
+            if (Objects.isNull(framework)) {
+                return null;
+            }
+            return new AgentProviderIndex.Entry(className, name.isEmpty() ? className : name, framework, List.copyOf(capabilities));
+        }
+        return null;
+    }
+
+    private static String readString(final ByteBuffer buf, final byte[] classFile, final int[] offsets) {
+
+        if (buf.get() != 's') {
+            throw new IllegalArgumentException("Expected a string element value");
+        }
+        return utf8(classFile, offsets, buf.getShort() & 0xFFFF);
+    }
+
+    private static void skipElementValuePairs(final ByteBuffer buf) {
+
+        int pairs = buf.getShort() & 0xFFFF;
+        for (int i = 0; i < pairs; i++) {
+            buf.getShort();
+            skipElementValue(buf);
+        }
+    }
+
+    private static void skipElementValue(final ByteBuffer buf) {
+
+        int tag = buf.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> buf.getShort();
+            case 'e' -> buf.position(buf.position() + 4);
+            case '@' -> {
+                buf.getShort();
+                skipElementValuePairs(buf);
+            }
+            case '[' -> {
+                int values = buf.getShort() & 0xFFFF;
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(buf);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown element value tag: " + (char) tag);
+        }
+    }
+
+    /**
+     * Decode an UTF-8 constant. Class files use modified UTF-8, which only differs from UTF-8 for
+     * NUL and supplementary characters, neither appear in names and annotation strings we read.
+     */
+    private static String utf8(final byte[] classFile, final int[] offsets, final int index) {
+
+        int offset = offsets[index];
+        int length = ((classFile[offset] & 0xFF) << 8) | (classFile[offset + 1] & 0xFF);
+        return new String(classFile, offset + 2, length, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide startup metrics: per-phase totals over every recorded startup, and the latest
+ * {@link AgentStartupReport} of each agent.
+ *
+ * <p>The metrics are exposed through JMX as {@link #OBJECT_NAME} once the first startup has been
+ * recorded, so a process that never loads an agent does not initialize JMX.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStartupMetrics implements AgentStartupMetricsMXBean {
+
+    /**
+     * JMX object name.
+     */
+    public static final String OBJECT_NAME = "com.alibaba.cloud.ai.agent.runtime:type=AgentStartup";
+
+    private static final AgentStartupMetrics INSTANCE = new AgentStartupMetrics();
+
+    private final LongAdder startups = new LongAdder();
+
+    private final Map<AgentStartupPhase, Totals> totals = new EnumMap<>(AgentStartupPhase.class);
+
+    private final Map<String, AgentStartupReport> lastReports = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean registered = new AtomicBoolean();
+
+    private AgentStartupMetrics() {
+
+        for (AgentStartupPhase phase : AgentStartupPhase.values()) {
+            totals.put(phase, new Totals());
+        }
+    }
+
+    public static AgentStartupMetrics getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Add a startup.
+     *
+     * @param report startup report
+     */
+    public void record(final AgentStartupReport report) {
+
+        startups.increment();
+        for (AgentStartupReport.PhaseTiming timing : report.getPhases()) {
+            Totals phaseTotals = totals.get(timing.phase());
+            phaseTotals.wallNanos.add(timing.wallNanos());
+            if (timing.cpuNanos() >= 0) {
+                phaseTotals.cpuNanos.add(timing.cpuNanos());
+            }
+            if (timing.allocatedBytes() >= 0) {
+                phaseTotals.allocatedBytes.add(timing.allocatedBytes());
+            }
+        }
+        lastReports.put(report.getAgentName(), report);
+        register();
+    }
+
+    /**
+     * Latest startup report of an agent.
+     *
+     * @param agentName agent name
+     * @return the report, empty if the agent has not started
+     */
+    public Optional<AgentStartupReport> getLastReport(final String agentName) {
+
+        return Optional.ofNullable(lastReports.get(agentName));
+    }
+
+    @Override
+    public long getStartups() {
+
+        return startups.sum();
+    }
+
+    @Override
+    public Map<String, Long> getWallNanosByPhase() {
+
+        return byPhase(phaseTotals -> phaseTotals.wallNanos.sum());
+    }
+
+    @Override
+    public Map<String, Long> getCpuNanosByPhase() {
+
+        return byPhase(phaseTotals -> phaseTotals.cpuNanos.sum());
+    }
+
+    @Override
+    public Map<String, Long> getAllocatedBytesByPhase() {
+
+        return byPhase(phaseTotals -> phaseTotals.allocatedBytes.sum());
+    }
+
+    @Override
+    public Map<String, String> getLastReports() {
+
+        Map<String, String> reports = new LinkedHashMap<>();
+        lastReports.forEach((name, report) -> reports.put(name, report.toLogLine()));
+        return reports;
+    }
+
+    private Map<String, Long> byPhase(final ToLongFunction<Totals> metric) {
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        totals.forEach((phase, phaseTotals) -> values.put(phase.getName(), metric.applyAsLong(phaseTotals)));
+        return values;
+    }
+
+    private void register() {
+
+        if (registered.get() || !registered.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.getLogger(AgentStartupMetrics.class.getName()).log(System.Logger.Level.WARNING, "Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Totals of one phase.
+     */
+    private static final class Totals {
+
+        private final LongAdder wallNanos = new LongAdder();
+
+        private final LongAdder cpuNanos = new LongAdder();
+
+        private final LongAdder allocatedBytes = new LongAdder();
+    }
+
+}
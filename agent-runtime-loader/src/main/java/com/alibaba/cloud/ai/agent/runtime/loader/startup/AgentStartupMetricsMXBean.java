@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.startup;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link AgentStartupMetrics}, registered as {@link AgentStartupMetrics#OBJECT_NAME}.
+ * Maps are keyed by {@link AgentStartupPhase#getName()}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public interface AgentStartupMetricsMXBean {
+
+    /**
+     * Number of recorded agent startups.
+     *
+     * @return startup count
+     */
+    long getStartups();
+
+    /**
+     * Total wall time per phase.
+     *
+     * @return nanos by phase
+     */
+    Map<String, Long> getWallNanosByPhase();
+
+    /**
+     * Total CPU time per phase, measured startups only.
+     *
+     * @return nanos by phase
+     */
+    Map<String, Long> getCpuNanosByPhase();
+
+    /**
+     * Total allocated bytes per phase, measured startups only.
+     *
+     * @return bytes by phase
+     */
+    Map<String, Long> getAllocatedBytesByPhase();
+
+    /**
+     * Latest startup report of every agent, as log lines.
+     *
+     * @return log line by agent name
+     */
+    Map<String, String> getLastReports();
+
+}
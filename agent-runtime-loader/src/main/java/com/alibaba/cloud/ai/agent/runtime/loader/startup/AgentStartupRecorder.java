@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.startup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records the {@link AgentStartupPhase phases} of one agent startup.
+ *
+ * <p>Every phase measures wall time, CPU time and the bytes allocated by the current thread, a
+ * phase has to be closed on the thread that opened it. CPU time and allocation need the HotSpot
+ * thread MX bean; they are reported as {@code -1} when it is unavailable, or when measuring is
+ * disabled through {@link #DETAILED_PROPERTY}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStartupRecorder {
+
+    /**
+     * System property, false to record wall time only. Measuring CPU time and allocation initializes JMX.
+     */
+    public static final String DETAILED_PROPERTY = "agent.runtime.loader.startup.detailed";
+
+    private static final Phase NONE = new Phase(null, null, 0, -1, -1);
+
+    private final List<AgentStartupReport.PhaseTiming> timings = new ArrayList<>(AgentStartupPhase.values().length);
+
+    /**
+     * Open a phase of a recorder that may be absent.
+     *
+     * @param recorder recorder, null to measure nothing
+     * @param phase    phase
+     * @return {@link Phase}, to be closed when the phase ends
+     */
+    public static Phase phase(final AgentStartupRecorder recorder, final AgentStartupPhase phase) {
+
+        return Objects.isNull(recorder) ? NONE : recorder.phase(phase);
+    }
+
+    /**
+     * Open a phase.
+     *
+     * @param phase phase
+     * @return {@link Phase}, to be closed when the phase ends
+     */
+    public Phase phase(final AgentStartupPhase phase) {
+
+        return new Phase(this, phase, System.nanoTime(), Threads.cpuTime(), Threads.allocatedBytes());
+    }
+
+    /**
+     * Report of the phases closed so far.
+     *
+     * @param agentName agent name
+     * @return {@link AgentStartupReport}
+     */
+    public synchronized AgentStartupReport report(final String agentName) {
+
+        return AgentStartupReport.of(agentName, timings);
+    }
+
+    private synchronized void record(final AgentStartupReport.PhaseTiming timing) {
+
+        timings.add(timing);
+    }
+
+    /**
+     * One open phase.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final AgentStartupRecorder recorder;
+
+        private final AgentStartupPhase phase;
+
+        private final long startNanos;
+
+        private final long startCpuNanos;
+
+        private final long startAllocatedBytes;
+
+        private boolean closed;
+
+        private Phase(final AgentStartupRecorder recorder, final AgentStartupPhase phase, final long startNanos,
+                      final long startCpuNanos, final long startAllocatedBytes) {
+
+            this.recorder = recorder;
+            this.phase = phase;
+            this.startNanos = startNanos;
+            this.startCpuNanos = startCpuNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        @Override
+        public void close() {
+
+            if (Objects.isNull(recorder) || closed) {
+                return;
+            }
+            closed = true;
+            long wall = System.nanoTime() - startNanos;
+            long cpu = startCpuNanos < 0 ? -1 : Threads.cpuTime() - startCpuNanos;
+            long allocated = startAllocatedBytes < 0 ? -1 : Threads.allocatedBytes() - startAllocatedBytes;
+            recorder.record(new AgentStartupReport.PhaseTiming(phase, wall, cpu, allocated));
+        }
+    }
+
+    /**
+     * Current thread measurements, the MX bean is looked up on first use.
+     */
+    private static final class Threads {
+
+        private static final ThreadMXBean THREADS = Boolean.parseBoolean(System.getProperty(DETAILED_PROPERTY, "true"))
+                ? ManagementFactory.getThreadMXBean() : null;
+
+        private static final boolean CPU_TIME = Objects.nonNull(THREADS) && THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+        private static final com.sun.management.ThreadMXBean ALLOCATION = THREADS instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled() ? hotspot : null;
+
+        static long cpuTime() {
+
+            return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+        }
+
+        static long allocatedBytes() {
+
+            return Objects.nonNull(ALLOCATION) ? ALLOCATION.getCurrentThreadAllocatedBytes() : -1;
+        }
+    }
+
+}
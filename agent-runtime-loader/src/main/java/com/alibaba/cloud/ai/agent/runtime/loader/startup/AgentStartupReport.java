@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.startup;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Where the startup of one agent spent its time and memory, phase by phase.
+ *
+ * <p>A phase that ran several times, e.g. adaptation of a nested graph, is reported once with the
+ * sums. CPU time and allocated bytes are {@code -1} when they were not measured.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentStartupReport {
+
+    private final String agentName;
+
+    private final List<PhaseTiming> phases;
+
+    private AgentStartupReport(final String agentName, final List<PhaseTiming> phases) {
+
+        this.agentName = agentName;
+        this.phases = phases;
+    }
+
+    static AgentStartupReport of(final String agentName, final List<PhaseTiming> timings) {
+
+        Map<AgentStartupPhase, PhaseTiming> merged = new EnumMap<>(AgentStartupPhase.class);
+        for (PhaseTiming timing : timings) {
+            merged.merge(timing.phase(), timing, PhaseTiming::plus);
+        }
+        return new AgentStartupReport(agentName, List.copyOf(merged.values()));
+    }
+
+    public String getAgentName() {
+
+        return agentName;
+    }
+
+    /**
+     * Recorded phases in execution order.
+     *
+     * @return phase timings
+     */
+    public List<PhaseTiming> getPhases() {
+
+        return phases;
+    }
+
+    /**
+     * Timing of one phase.
+     *
+     * @param phase phase
+     * @return the timing, empty if the phase was not recorded
+     */
+    public Optional<PhaseTiming> getPhase(final AgentStartupPhase phase) {
+
+        return phases.stream().filter(timing -> timing.phase() == phase).findFirst();
+    }
+
+    /**
+     * Sum of all phases.
+     *
+     * @return wall time in nanos
+     */
+    public long getWallNanos() {
+
+        return phases.stream().mapToLong(PhaseTiming::wallNanos).sum();
+    }
+
+    /**
+     * Sum of all phases.
+     *
+     * @return CPU time in nanos, -1 if not measured
+     */
+    public long getCpuNanos() {
+
+        return sum(PhaseTiming::cpuNanos);
+    }
+
+    /**
+     * Sum of all phases.
+     *
+     * @return allocated bytes, -1 if not measured
+     */
+    public long getAllocatedBytes() {
+
+        return sum(PhaseTiming::allocatedBytes);
+    }
+
+    /**
+     * Single line summary, e.g. {@code agent demo started in 12.4 ms, cpu 9.8 ms, alloc 3.1 MiB
+     * [discovery 0.1 ms / 0.1 ms / 12 KiB, ...]}.
+     *
+     * @return log line
+     */
+    public String toLogLine() {
+
+        List<String> parts = new ArrayList<>(phases.size());
+        for (PhaseTiming timing : phases) {
+            parts.add(timing.phase().getName() + " " + millis(timing.wallNanos()) + " / " + millis(timing.cpuNanos()) + " / " + bytes(timing.allocatedBytes()));
+        }
+        return "agent " + agentName + " started in " + millis(getWallNanos())
+                + ", cpu " + millis(getCpuNanos())
+                + ", alloc " + bytes(getAllocatedBytes())
+                + " " + parts;
+    }
+
+    @Override
+    public String toString() {
+
+        return toLogLine();
+    }
+
+    private long sum(final ToLongFunction<PhaseTiming> metric) {
+
+        long sum = 0;
+        for (PhaseTiming timing : phases) {
+            long value = metric.applyAsLong(timing);
+            if (value < 0) {
+                return -1;
+            }
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static String millis(final long nanos) {
+
+        return nanos < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+    }
+
+    private static String bytes(final long bytes) {
+
+        if (bytes < 0) {
+            return "n/a";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Measurements of one phase.
+     *
+     * @param phase          phase
+     * @param wallNanos      wall time
+     * @param cpuNanos       CPU time of the recording thread, -1 if not measured
+     * @param allocatedBytes bytes allocated by the recording thread, -1 if not measured
+     */
+    public record PhaseTiming(AgentStartupPhase phase, long wallNanos, long cpuNanos, long allocatedBytes) {
+
+        PhaseTiming plus(final PhaseTiming other) {
+
+            return new PhaseTiming(phase, wallNanos + other.wallNanos,
+                    cpuNanos < 0 || other.cpuNanos < 0 ? -1 : cpuNanos + other.cpuNanos,
+                    allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes);
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.framework.adapter.SAAGraphAgent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AgentInstancePoolTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static AgentInstancePool pool(final int maxSize, final int minIdle, final AtomicInteger built) {
+
+        AgentPoolPolicy policy = AgentPoolPolicy.builder().maxSize(maxSize).minIdle(minIdle).acquireTimeout(Duration.ofMillis(50)).build();
+        return new AgentInstancePool("pooled", policy, () -> {
+            built.incrementAndGet();
+            return new AgentInstancePool.Instance(new ClosableAgent(), null);
+        });
+    }
+
+    @Test
+    void testInstancesAreBoundedAndReused() {
+
+        AtomicInteger built = new AtomicInteger();
+        AgentInstancePool pool = pool(2, 1, built);
+        pool.prewarm();
+        Assertions.assertEquals(1, built.get());
+
+        BaseAgent first;
+        try (AgentReference.Lease a = pool.acquire(); AgentReference.Lease b = pool.acquire()) {
+            first = a.agent();
+            Assertions.assertNotSame(a.agent(), b.agent());
+            Assertions.assertThrows(AgentRuntimeException.class, pool::acquire);
+            Assertions.assertEquals(new AgentPoolStats(2, 2, 0, 2, 2, 1, pool.getStats().waitNanos()), pool.getStats());
+        }
+
+        try (AgentReference.Lease lease = pool.acquire()) {
+            Assertions.assertSame(first, lease.agent());
+        }
+        Assertions.assertEquals(2, built.get());
+        Assertions.assertEquals(0, pool.getStats().inUse());
+        Assertions.assertTrue(pool.getStats().waitNanos() > 0);
+    }
+
+    @Test
+    void testResetRetiresInstancesWhenReturned() {
+
+        AgentInstancePool pool = pool(2, 1, new AtomicInteger());
+        pool.prewarm();
+
+        AgentReference.Lease lease = pool.acquire();
+        ClosableAgent checkedOut = (ClosableAgent) lease.agent();
+        pool.reset();
+        Assertions.assertFalse(checkedOut.closed);
+
+        lease.close();
+        Assertions.assertTrue(checkedOut.closed);
+        Assertions.assertEquals(0, pool.getStats().size());
+        try (AgentReference.Lease next = pool.acquire()) {
+            Assertions.assertNotSame(checkedOut, next.agent());
+        }
+    }
+
+    @Test
+    void testPoolIsConfiguredByRuntimeConfigEnvs() throws IOException {
+
+        Path graph = Files.writeString(tempDir.resolve("graph.yaml"), "nodes:\n  - id: pooled\n");
+        String config = Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: pooled-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"" + graph.toAbsolutePath() + "\"\n"
+                + "envs:\n"
+                + "  AGENT_POOL_MAX_SIZE: \"2\"\n"
+                + "  AGENT_POOL_MIN_IDLE: \"2\"\n"
+                + "  AGENT_POOL_ACQUIRE_TIMEOUT_MILLIS: \"10\"\n").toString();
+
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(config);
+        Assertions.assertTrue(loader.getPoolStats().isEmpty());
+        BaseAgent shared = loader.load();
+        Assertions.assertEquals(2, loader.getPoolStats().orElseThrow().idle());
+
+        try (AgentReference.Lease a = loader.acquire(); AgentReference.Lease b = loader.acquire()) {
+            Assertions.assertNotSame(a.agent(), b.agent());
+            Assertions.assertNotSame(shared, a.agent());
+            // instances share no compiled graph, node actions and node cache are per instance.
+            Assertions.assertNotSame(((SAAGraphAgent) a.agent()).getCompiledGraph(), ((SAAGraphAgent) b.agent()).getCompiledGraph());
+            Assertions.assertNotSame(((SAAGraphAgent) shared).getCompiledGraph(), ((SAAGraphAgent) a.agent()).getCompiledGraph());
+            Assertions.assertThrows(AgentRuntimeException.class, loader::acquire);
+        }
+
+        loader.unload();
+        Assertions.assertEquals(0, loader.getPoolStats().orElseThrow().size());
+        Assertions.assertThrows(AgentRuntimeException.class, loader::acquire);
+    }
+
+    @Test
+    void testPoolSettingChangeRebuildsThePool() throws Exception {
+
+        Path graph = Files.writeString(tempDir.resolve("graph.yaml"), "nodes:\n  - id: pooled\n");
+        Path config = Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: resized-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"" + graph.toAbsolutePath() + "\"\n"
+                + "envs:\n"
+                + "  AGENT_POOL_MAX_SIZE: \"2\"\n");
+
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(config.toString());
+        loader.start();
+        try {
+            Assertions.assertEquals(2, loader.getPoolStats().orElseThrow().maxSize());
+
+            Files.writeString(config, Files.readString(config).replace("AGENT_POOL_MAX_SIZE: \"2\"", "AGENT_POOL_MAX_SIZE: \"3\""));
+            long deadline = System.currentTimeMillis() + 10_000L;
+            // the config is put in use last, after the pool.
+            while (!"3".equals(loader.getRuntimeConfig().getEnvs().get(AgentPoolPolicy.MAX_SIZE_ENV))) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Pool settings were not applied");
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(3, loader.getPoolStats().orElseThrow().maxSize());
+        } finally {
+            loader.stop();
+        }
+    }
+
+    @Test
+    void testInvalidPoolSettingsAreRejected() {
+
+        Assertions.assertTrue(AgentPoolPolicy.fromEnvs(key -> null).isEmpty());
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentPoolPolicy.fromEnvs(key -> "0"));
+        Assertions.assertThrows(AgentRuntimeException.class,
+                () -> AgentPoolPolicy.fromEnvs(key -> AgentPoolPolicy.MAX_SIZE_ENV.equals(key) ? "2" : AgentPoolPolicy.MIN_IDLE_ENV.equals(key) ? "3" : null));
+    }
+
+    static final class ClosableAgent extends BaseAgent implements AutoCloseable {
+
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+
+            closed = true;
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.registry.AgentRuntimeSchemaRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+class AgentRegistryTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private String writeConfig(final String dir, final String name) throws IOException {
+
+        Path agentDir = Files.createDirectories(tempDir.resolve(dir));
+        Path graph = Files.writeString(agentDir.resolve("graph.yaml"), "nodes:\n  - id: " + name + "\n");
+        return Files.writeString(agentDir.resolve("runtime.config.yaml"), "name: " + name + "\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"" + graph.toAbsolutePath() + "\"\n").toString();
+    }
+
+    @Test
+    void testLoadersOwnTheirConfig() throws IOException {
+
+        AbstractAgentRuntimeLoader first = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(writeConfig("a", "agent-a"));
+        AbstractAgentRuntimeLoader second = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(writeConfig("b", "agent-b"));
+
+        Assertions.assertEquals("agent-a", first.getRuntimeConfig().getName());
+        Assertions.assertEquals("agent-b", second.getRuntimeConfig().getName());
+        Assertions.assertNotSame(first.load(), second.load());
+    }
+
+    @Test
+    void testAgentsAreRegisteredConcurrently() throws IOException {
+
+        List<String> configs = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            configs.add(writeConfig("agent-" + i, "agent-" + i));
+        }
+
+        try (AgentRegistry registry = new AgentRegistry(4)) {
+            AgentRegistry.Result result = registry.registerAll(configs);
+
+            Assertions.assertTrue(result.isSuccessful(), () -> result.errors().toString());
+            Assertions.assertEquals(32, registry.size());
+            for (int i = 0; i < 32; i++) {
+                String name = "agent-" + i;
+                Assertions.assertEquals(name, registry.get(name).orElseThrow().getRuntimeConfig().getName());
+                try (AgentReference.Lease lease = registry.acquire(name)) {
+                    Assertions.assertNotNull(lease.agent());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFailuresAreReportedPerConfig() throws IOException {
+
+        String first = writeConfig("a", "agent-a");
+        String duplicate = writeConfig("b", "agent-a");
+        String broken = Files.writeString(Files.createDirectories(tempDir.resolve("c")).resolve("runtime.config.yaml"), "name: agent-c\n").toString();
+
+        try (AgentRegistry registry = new AgentRegistry(2)) {
+            AgentRegistry.Result result = registry.registerAll(List.of(first, duplicate, broken));
+
+            Assertions.assertEquals(1, result.loaded().size());
+            Assertions.assertEquals(2, result.errors().size());
+            Assertions.assertTrue(result.errors().containsKey(broken));
+            Assertions.assertEquals(1, registry.size());
+            // the rejected duplicate did not replace the schema of the registered agent.
+            Assertions.assertEquals(registry.get("agent-a").orElseThrow().getRuntimeConfig().getSchema(),
+                    AgentRuntimeSchemaRegistry.getInstance().get("agent-a").orElseThrow().getSchema());
+
+            Assertions.assertTrue(registry.unregister("agent-a"));
+            Assertions.assertFalse(registry.unregister("agent-a"));
+            Assertions.assertThrows(AgentRuntimeException.class, () -> registry.acquire("agent-a"));
+        }
+    }
+
+    @Test
+    void testLazyAgentIsBuiltOnceOnFirstUse() throws Exception {
+
+        AgentPrewarmPolicy policy = AgentPrewarmPolicy.builder().mode(AgentPrewarmMode.ON_FIRST_USE).build();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try (AgentRegistry registry = new AgentRegistry(2, policy)) {
+            registry.register(writeConfig("a", "agent-a"));
+            AgentHandle handle = registry.getHandle("agent-a").orElseThrow();
+            Assertions.assertFalse(handle.isMaterialized());
+
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(callers.submit(() -> {
+                    try (AgentReference.Lease lease = registry.acquire("agent-a")) {
+                        return lease.agent();
+                    }
+                }));
+            }
+            Set<Object> agents = new HashSet<>();
+            for (Future<Object> future : futures) {
+                agents.add(future.get());
+            }
+
+            Assertions.assertEquals(1, agents.size());
+            Assertions.assertTrue(handle.isMaterialized());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRejectedBuildDoesNotBlockTheNextOne() throws Exception {
+
+        AgentPrewarmPolicy policy = AgentPrewarmPolicy.builder().mode(AgentPrewarmMode.ON_FIRST_USE).build();
+        try (AgentRegistry registry = new AgentRegistry(1, policy)) {
+            registry.register(writeConfig("a", "agent-a"));
+            AgentHandle handle = registry.getHandle("agent-a").orElseThrow();
+
+            CompletionException rejected = Assertions.assertThrows(CompletionException.class, () -> handle.materialize(command -> {
+                throw new RejectedExecutionException("shut down");
+            }).join());
+            Assertions.assertInstanceOf(AgentRuntimeException.class, rejected.getCause());
+
+            try (AgentReference.Lease lease = registry.acquire("agent-a")) {
+                Assertions.assertNotNull(lease.agent());
+            }
+            Assertions.assertTrue(handle.isMaterialized());
+        }
+    }
+
+    @Test
+    void testIdleAgentsAreEvictedAndHotAgentsKeptWarm() throws Exception {
+
+        AgentPrewarmPolicy policy = AgentPrewarmPolicy.builder()
+                .mode(AgentPrewarmMode.TOP_N)
+                .topN(1)
+                .idleTimeout(Duration.ofMillis(1))
+                .maintenanceInterval(Duration.ofHours(1))
+                .build();
+        try (AgentRegistry registry = new AgentRegistry(1, policy)) {
+            registry.register(writeConfig("hot", "agent-hot"));
+            registry.register(writeConfig("cold", "agent-cold"));
+            registry.acquire("agent-hot").close();
+            registry.acquire("agent-hot").close();
+            registry.acquire("agent-cold").close();
+
+            final AgentHandle hot = registry.getHandle("agent-hot").orElseThrow();
+            final AgentHandle cold = registry.getHandle("agent-cold").orElseThrow();
+            Thread.sleep(10);
+            registry.maintain();
+
+            Assertions.assertTrue(hot.isMaterialized());
+            Assertions.assertFalse(cold.isMaterialized());
+
+            // an evicted agent is rebuilt by its next invocation.
+            try (AgentReference.Lease lease = registry.acquire("agent-cold")) {
+                Assertions.assertNotNull(lease.agent());
+            }
+            Assertions.assertTrue(cold.isMaterialized());
+        }
+    }
+
+    @Test
+    void testHotReloadRenameMovesTheAgent() throws Exception {
+
+        String config = writeConfig("a", "agent-a");
+        try (AgentRegistry registry = new AgentRegistry(1)) {
+            AbstractAgentRuntimeLoader loader = registry.register(config);
+            registry.register(writeConfig("taken", "agent-taken"));
+            loader.start();
+
+            Files.writeString(Path.of(config), Files.readString(Path.of(config)).replace("name: agent-a", "name: agent-b"));
+            // the schema registry is updated last.
+            awaitCondition(() -> AgentRuntimeSchemaRegistry.getInstance().get("agent-b").isPresent());
+
+            Assertions.assertSame(loader, registry.get("agent-b").orElseThrow());
+            Assertions.assertTrue(registry.get("agent-a").isEmpty());
+            Assertions.assertEquals("agent-b", AgentRuntimeSchemaRegistry.getInstance().get("agent-b").orElseThrow().getName());
+            Assertions.assertTrue(AgentRuntimeSchemaRegistry.getInstance().get("agent-a").isEmpty());
+
+            // a name taken by another agent rejects the reload, the agent stays where it is.
+            Files.writeString(Path.of(config), Files.readString(Path.of(config)).replace("name: agent-b", "name: agent-taken"));
+            awaitCondition(() -> loader.getLastReloadError().isPresent());
+
+            Assertions.assertSame(loader, registry.get("agent-b").orElseThrow());
+            Assertions.assertEquals("agent-b", loader.getRuntimeConfig().getName());
+            Assertions.assertEquals("agent-taken", registry.get("agent-taken").orElseThrow().getRuntimeConfig().getName());
+        }
+    }
+
+    private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("Condition not met within 10000 ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.diff.AgentGraphSchemaFingerprint;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshotCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+class AgentRuntimeHotReloadTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000L;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path writeConfig(final String version, final String mode) throws IOException {
+
+        Path graph = tempDir.resolve("graph.yaml");
+        return Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: MyAgent\n"
+                + "version: \"" + version + "\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"" + graph.toAbsolutePath() + "\"\n"
+                + "envs:\n"
+                + "  - AGENT_MODE: \"" + mode + "\"\n");
+    }
+
+    private void writeGraph(final String node) throws IOException {
+
+        Files.writeString(tempDir.resolve("graph.yaml"), "nodes:\n  - id: " + node + "\n");
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("Condition not met within " + TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void testGraphChangeSwapsAgentAndKeepsLeases() throws Exception {
+
+        writeGraph("set_id");
+        Path config = writeConfig("1.0.0", "test");
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(config.toString());
+        loader.start();
+        try {
+            Assertions.assertTrue(loader.hotReloading());
+
+            AgentReference.Lease inFlight = loader.acquire();
+            BaseAgent first = inFlight.agent();
+
+            // a burst of writes results in a single reload that builds from the last write.
+            writeGraph("reverse_id");
+            writeGraph("reverse_id_v2");
+            String last = AgentGraphSchemaFingerprint.of(ByteBuffer.wrap(Files.readAllBytes(tempDir.resolve("graph.yaml"))));
+            await(() -> acquireAgent(loader) != first && last.equals(loader.getGraphFingerprint()));
+
+            Assertions.assertEquals(1, loader.getReloadCount());
+            Assertions.assertSame(first, inFlight.agent());
+            inFlight.close();
+            Assertions.assertTrue(loader.getLastReloadError().isEmpty());
+        } finally {
+            loader.stop();
+        }
+        Assertions.assertFalse(loader.hotReloading());
+    }
+
+    @Test
+    void testEmbeddedGraphChangeMakesSnapshotStale() throws Exception {
+
+        writeGraph("set_id");
+        Path config = writeConfig("1.0.0", "test");
+        AgentRuntimeSnapshotCompiler.compile(config, AgentRuntimeSnapshotCompiler.defaultOutput(config));
+        Assertions.assertTrue(AgentRuntimeSnapshot.resolve(config).isPresent());
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(config.toString());
+        loader.start();
+        try {
+            BaseAgent first = acquireAgent(loader);
+
+            writeGraph("reverse_id");
+            await(() -> acquireAgent(loader) != first);
+
+            Assertions.assertTrue(AgentRuntimeSnapshot.resolve(config).isEmpty());
+            Assertions.assertTrue(loader.getLastReloadError().isEmpty());
+        } finally {
+            loader.stop();
+        }
+    }
+
+    @Test
+    void testEnvChangeIsAppliedInPlace() throws Exception {
+
+        writeGraph("set_id");
+        Path config = writeConfig("1.0.0", "test");
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(config.toString());
+        loader.start();
+        try {
+            BaseAgent first = acquireAgent(loader);
+
+            writeConfig("1.0.0", "prod");
+            await(() -> "prod".equals(loader.getRuntimeConfig().getEnvs().get("AGENT_MODE")));
+
+            Assertions.assertSame(first, acquireAgent(loader));
+        } finally {
+            loader.stop();
+        }
+    }
+
+    @Test
+    void testUpdateFromAnotherConfigIsRejected() throws Exception {
+
+        writeGraph("set_id");
+        Path config = writeConfig("1.0.0", "test");
+        Path other = Files.writeString(Files.createDirectories(tempDir.resolve("other")).resolve("runtime.config.yaml"),
+                Files.readString(config).replace("\"test\"", "\"prod\""));
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(config.toString());
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> loader.applyUpdate(other.toString()));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> loader.applyUpdate(""));
+        Assertions.assertEquals("test", loader.getRuntimeConfig().getEnvs().get("AGENT_MODE"));
+
+        writeConfig("1.0.0", "prod");
+        Assertions.assertTrue(loader.applyUpdate(tempDir.resolve(".").resolve("runtime.config.yaml").toString()).getEnvChanges().containsKey("AGENT_MODE"));
+        Assertions.assertEquals("prod", loader.getRuntimeConfig().getEnvs().get("AGENT_MODE"));
+    }
+
+    @Test
+    void testBrokenConfigKeepsCurrentAgent() throws Exception {
+
+        writeGraph("set_id");
+        Path config = writeConfig("1.0.0", "test");
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(config.toString());
+        loader.start();
+        try {
+            BaseAgent first = acquireAgent(loader);
+
+            Files.writeString(config, "name: MyAgent\nframework: \"Spring AI Alibaba Graph\"\ntypes: YAML\n");
+            await(() -> loader.getLastReloadError().isPresent());
+
+            Assertions.assertSame(first, acquireAgent(loader));
+            Assertions.assertEquals("1.0.0", loader.getRuntimeConfig().getVersion());
+
+            writeConfig("1.0.1", "test");
+            await(() -> loader.getLastReloadError().isEmpty());
+            Assertions.assertEquals("1.0.1", loader.getRuntimeConfig().getVersion());
+        } finally {
+            loader.stop();
+        }
+    }
+
+    private static BaseAgent acquireAgent(final AbstractAgentRuntimeLoader loader) {
+
+        try (AgentReference.Lease lease = loader.acquire()) {
+            return lease.agent();
+        }
+    }
+
+}
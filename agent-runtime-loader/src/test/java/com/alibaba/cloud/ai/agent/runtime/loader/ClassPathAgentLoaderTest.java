@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.IAgentRuntimeLoader;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoaderLayers;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoaderStats;
+import com.alibaba.cloud.ai.agent.runtime.loader.scan.AgentClassScanner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class ClassPathAgentLoaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeAll
+    static void disableScanCache() {
+
+        System.setProperty(AgentClassScanner.CACHE_PROPERTY, "");
+    }
+
+    private void writeJar(final Class<?>... classes) throws IOException {
+
+        try (OutputStream out = Files.newOutputStream(tempDir.resolve("agent.jar")); JarOutputStream jar = new JarOutputStream(out)) {
+            for (Class<?> type : classes) {
+                String entry = type.getName().replace('.', '/') + ".class";
+                jar.putNextEntry(new JarEntry(entry));
+                try (InputStream in = type.getResourceAsStream("/" + entry)) {
+                    in.transferTo(jar);
+                }
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private String writeConfig(final String framework) throws IOException {
+
+        return Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: classpath-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"" + framework + "\"\n"
+                + "types: CLASSPATH\n"
+                + "schema: \"agent.jar\"\n").toString();
+    }
+
+    @Test
+    void testProviderIsDiscoveredOnTheAgentClasspath() throws IOException {
+
+        writeJar(SPIAgentLoaderTest.TestAgentProvider.class, SPIAgentLoaderTest.UnusedAgentProvider.class, AgentRegistryTest.class);
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(writeConfig("SPRING_AI_ALIBABA_GRAPH"));
+
+        Assertions.assertInstanceOf(SPIAgentLoaderTest.TestAgent.class, loader.load());
+        Assertions.assertTrue(agentClassLoaders().contains("classpath-agent"));
+
+        // the agent class loader is closed with the retired agent.
+        loader.unload();
+        Assertions.assertFalse(agentClassLoaders().contains("classpath-agent"));
+    }
+
+    @Test
+    void testProviderIsDiscoveredInAgentBundle() throws IOException {
+
+        writeJar(SPIAgentLoaderTest.TestAgentProvider.class, SPIAgentLoaderTest.UnusedAgentProvider.class);
+        Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: bundled-classpath-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: SPRING_AI_ALIBABA_GRAPH\n"
+                + "types: CLASSPATH\n"
+                + "schema: \"lib\"\n");
+
+        Path bundle = tempDir.resolve("classpath.agent");
+        try (OutputStream out = Files.newOutputStream(bundle); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("runtime.config.yaml"));
+            zip.write(Files.readAllBytes(tempDir.resolve("runtime.config.yaml")));
+            zip.closeEntry();
+
+            // jars are stored, they are read in place.
+            byte[] jar = Files.readAllBytes(tempDir.resolve("agent.jar"));
+            CRC32 crc = new CRC32();
+            crc.update(jar);
+            ZipEntry entry = new ZipEntry("lib/agent.jar");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(jar.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(jar);
+            zip.closeEntry();
+        }
+        Files.delete(tempDir.resolve("agent.jar"));
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(bundle.toString());
+
+        Assertions.assertInstanceOf(SPIAgentLoaderTest.TestAgent.class, loader.load());
+        Assertions.assertTrue(agentClassLoaders().contains("bundled-classpath-agent"));
+        loader.unload();
+    }
+
+    private static List<String> agentClassLoaders() {
+
+        return AgentClassLoaderLayers.getInstance().agentStats().stream().map(AgentClassLoaderStats::name).toList();
+    }
+
+    @Test
+    void testMissingProviderFails() throws IOException {
+
+        writeJar(AgentRegistryTest.class);
+
+        IAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.createLoader(writeConfig("SPRING_AI_ALIBABA_GRAPH"));
+
+        Assertions.assertThrows(AgentRuntimeException.class, loader::load);
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader;
+
+import com.alibaba.cloud.ai.agent.runtime.IAgentRuntimeLoader;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.IAgentProvider;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupMetrics;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupPhase;
+import com.alibaba.cloud.ai.agent.runtime.loader.startup.AgentStartupReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class SPIAgentLoaderTest {
+
+    private static final AtomicBoolean UNUSED_INITIALIZED = new AtomicBoolean();
+
+    @TempDir
+    private Path tempDir;
+
+    private String writeConfig(final String provider, final String framework) throws IOException {
+
+        return Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: spi-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"" + framework + "\"\n"
+                + "types: SPI\n"
+                + "schema: \"" + provider + "\"\n"
+                + "envs:\n"
+                + "  MODEL: \"${SPI_AGENT_LOADER_TEST_MODEL:-qwen}\"\n").toString();
+    }
+
+    @Test
+    void testIndexIsGeneratedAtCompileTime() {
+
+        AgentProviderIndex index = SPIAgentLoader.index(getClass().getClassLoader());
+
+        AgentProviderIndex.Entry entry = index.find("test-provider").orElseThrow();
+        Assertions.assertEquals(TestAgentProvider.class.getName(), entry.className());
+        Assertions.assertEquals("SPRING_AI_ALIBABA_GRAPH", entry.framework());
+        Assertions.assertEquals(List.of("streaming", "tools"), entry.capabilities());
+        Assertions.assertEquals(entry, index.find(TestAgentProvider.class.getName()).orElseThrow());
+        Assertions.assertTrue(index.find(UnusedAgentProvider.class.getName()).isPresent());
+    }
+
+    @Test
+    void testOnlyTheSelectedProviderIsLoaded() throws IOException {
+
+        IAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.createLoader(writeConfig("test-provider", "Spring AI Alibaba Graph"));
+
+        Assertions.assertInstanceOf(TestAgent.class, loader.load());
+        Assertions.assertEquals(Map.of("MODEL", "qwen"), ((TestAgent) loader.load()).envs);
+        Assertions.assertFalse(UNUSED_INITIALIZED.get());
+    }
+
+    @Test
+    void testUnknownOrMismatchedProviderFails() throws IOException {
+
+        IAgentRuntimeLoader unknown = AbstractAgentRuntimeLoader.createLoader(writeConfig("missing-provider", "SPRING_AI_ALIBABA_GRAPH"));
+        Assertions.assertThrows(AgentRuntimeException.class, unknown::load);
+
+        IAgentRuntimeLoader mismatched = AbstractAgentRuntimeLoader.createLoader(writeConfig("test-provider", "LANGGRAPH4J"));
+        Assertions.assertThrows(AgentRuntimeException.class, mismatched::load);
+    }
+
+    @Test
+    void testStartupIsReportedPerPhase() throws IOException {
+
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(writeConfig("test-provider", "SPRING_AI_ALIBABA_GRAPH"));
+        Assertions.assertTrue(loader.getStartupReport().isEmpty());
+        final long startups = AgentStartupMetrics.getInstance().getStartups();
+
+        loader.load();
+
+        AgentStartupReport report = loader.getStartupReport().orElseThrow();
+        Assertions.assertEquals("spi-agent", report.getAgentName());
+        Assertions.assertEquals(List.of(AgentStartupPhase.DISCOVERY, AgentStartupPhase.CONVERSION, AgentStartupPhase.ADAPTATION, AgentStartupPhase.INSTANTIATION),
+                report.getPhases().stream().map(AgentStartupReport.PhaseTiming::phase).toList());
+        Assertions.assertTrue(report.getWallNanos() > 0);
+        Assertions.assertTrue(report.toLogLine().contains("instantiation"), report::toLogLine);
+        Assertions.assertTrue(AgentStartupMetrics.getInstance().getStartups() > startups);
+        Assertions.assertSame(report, AgentStartupMetrics.getInstance().getLastReport("spi-agent").orElseThrow());
+
+        // a rebuild from the same config has no config phases.
+        loader.load();
+        Assertions.assertTrue(loader.getStartupReport().orElseThrow().getPhase(AgentStartupPhase.CONVERSION).isEmpty());
+    }
+
+    @Test
+    void testEnvChangeRebuildsTheProvidedAgent() throws Exception {
+
+        Path config = Path.of(writeConfig("test-provider", "SPRING_AI_ALIBABA_GRAPH"));
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(config.toString());
+        loader.load();
+        Files.writeString(config, Files.readString(config).replace("${SPI_AGENT_LOADER_TEST_MODEL:-qwen}", "glm"));
+
+        // the provider got the envs when it built the agent, they are not swapped in place.
+        Assertions.assertEquals("glm", loader.applyUpdate(config.toString()).getEnvChanges().get("MODEL"));
+        Assertions.assertEquals(Map.of("MODEL", "qwen"), envsOf(loader));
+
+        loader.start();
+        try {
+            Files.writeString(config, Files.readString(config).replace("glm", "deepseek"));
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (!Map.of("MODEL", "deepseek").equals(envsOf(loader))) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Agent was not rebuilt with the changed env");
+                Thread.sleep(20);
+            }
+            Assertions.assertTrue(loader.getLastReloadError().isEmpty());
+        } finally {
+            loader.stop();
+        }
+    }
+
+    @Test
+    void testFilePlaceholderChangeRebuildsTheProvidedAgent() throws Exception {
+
+        Path model = Files.writeString(tempDir.resolve("model.txt"), "qwen\n");
+        Path config = Path.of(writeConfig("test-provider", "SPRING_AI_ALIBABA_GRAPH"));
+        Files.writeString(config, Files.readString(config).replace("${SPI_AGENT_LOADER_TEST_MODEL:-qwen}", "${file:model.txt}"));
+        AbstractAgentRuntimeLoader loader = AbstractAgentRuntimeLoader.create(config.toString());
+
+        loader.start();
+        try {
+            Assertions.assertEquals(Map.of("MODEL", "qwen"), envsOf(loader));
+
+            // the config file itself is unchanged, only the file the env is read from.
+            Files.writeString(model, "glm\n");
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (!Map.of("MODEL", "glm").equals(envsOf(loader))) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Agent was not rebuilt with the changed file");
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals("glm", loader.getInterpolatedRuntimeConfig().getEnv("MODEL"));
+            Assertions.assertTrue(loader.getLastReloadError().isEmpty());
+        } finally {
+            loader.stop();
+        }
+    }
+
+    private static Map<String, String> envsOf(final AbstractAgentRuntimeLoader loader) {
+
+        try (AgentReference.Lease lease = loader.acquire()) {
+            return ((TestAgent) lease.agent()).envs;
+        }
+    }
+
+    static final class TestAgent extends BaseAgent {
+
+        private final Map<String, String> envs;
+
+        TestAgent(final Map<String, String> envs) {
+            this.envs = envs;
+        }
+    }
+
+    @AgentProvider(name = "test-provider", framework = "SPRING_AI_ALIBABA_GRAPH", capabilities = {"streaming", "tools"})
+    public static class TestAgentProvider implements IAgentProvider {
+
+        @Override
+        public BaseAgent provide(final Map<String, String> envs) {
+
+            return new TestAgent(envs);
+        }
+    }
+
+    @AgentProvider(framework = "LANGGRAPH4J")
+    public static class UnusedAgentProvider implements IAgentProvider {
+
+        static {
+            UNUSED_INITIALIZED.set(true);
+        }
+
+        @Override
+        public BaseAgent provide(final Map<String, String> envs) {
+
+            return new BaseAgent();
+        }
+    }
+
+}
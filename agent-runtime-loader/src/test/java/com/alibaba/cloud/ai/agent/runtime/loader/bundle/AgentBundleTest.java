@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.bundle;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.loader.AbstractAgentRuntimeLoader;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoader;
+import com.alibaba.cloud.ai.agent.runtime.loader.classloader.AgentClassLoaderLayers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class AgentBundleTest {
+
+    private static final String GREETING_CLASS = Greeting.class.getName().replace('.', '/') + ".class";
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] zip(final Map<String, byte[]> entries, final boolean stored) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                if (stored || entry.getKey().endsWith(".jar")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(entry.getValue());
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(entry.getValue().length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] classFile(final String entry) throws IOException {
+
+        try (InputStream in = AgentBundleTest.class.getResourceAsStream("/" + entry)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private Path writeBundle(final Map<String, byte[]> entries) throws IOException {
+
+        return Files.write(tempDir.resolve("greeting.agent"), zip(entries, false));
+    }
+
+    @Test
+    void testEntriesAreReadInPlace() throws IOException {
+
+        byte[] prompt = "You are a helpful agent.".repeat(16).getBytes(StandardCharsets.UTF_8);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("prompts/system.txt", prompt);
+        entries.put("lib/greeting.jar", zip(Map.of(GREETING_CLASS, classFile(GREETING_CLASS)), false));
+
+        AgentBundle deflated = AgentBundle.open(writeBundle(entries));
+        Assertions.assertEquals(ByteBuffer.wrap(prompt), deflated.read("./prompts/system.txt").orElseThrow());
+        Assertions.assertTrue(deflated.read("prompts/missing.txt").isEmpty());
+        Assertions.assertEquals(List.of("prompts/system.txt", "lib/greeting.jar"), List.copyOf(deflated.getArchive().names()));
+
+        MappedZipArchive jar = deflated.jars(List.of("lib")).get(0);
+        Assertions.assertEquals(ByteBuffer.wrap(classFile(GREETING_CLASS)), jar.read(GREETING_CLASS).orElseThrow());
+
+        MappedZipArchive stored = MappedZipArchive.open("stored", ByteBuffer.wrap(zip(Map.of("a.txt", prompt), true)));
+        Assertions.assertTrue(stored.read("a.txt").orElseThrow().isReadOnly());
+        Assertions.assertThrows(AgentRuntimeException.class, () -> deflated.getArchive().nested("prompts/system.txt"));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> MappedZipArchive.open("broken", ByteBuffer.wrap(prompt)));
+    }
+
+    @Test
+    void testClassesAreDefinedFromBundledJars() throws Exception {
+
+        AgentBundle bundle = AgentBundle.open(writeBundle(Map.of("lib/greeting.jar", zip(Map.of(GREETING_CLASS, classFile(GREETING_CLASS)), false))));
+
+        // a parent that does not see the test classes, so the class has to come from the bundle.
+        AgentClassLoaderLayers layers = new AgentClassLoaderLayers(null, ClassLoader.getPlatformClassLoader());
+        try (AgentClassLoader loader = layers.newAgentClassLoader("greeting", AgentFramework.SPRING_AI_ALIBABA_GRAPH, "default", List.of(),
+                bundle.jars(List.of("lib/greeting.jar")))) {
+            Class<?> type = loader.loadClass(Greeting.class.getName());
+            Assertions.assertSame(loader, type.getClassLoader());
+            Assertions.assertEquals("hello", type.getMethod("greet").invoke(type.getDeclaredConstructor().newInstance()));
+            Assertions.assertEquals(1, loader.getStats().classes());
+
+            URL resource = loader.getResource(GREETING_CLASS);
+            try (InputStream in = resource.openStream()) {
+                Assertions.assertArrayEquals(classFile(GREETING_CLASS), in.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void testYamlAgentIsLoadedFromBundle() throws IOException {
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("runtime.config.yaml", ("name: bundled-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"graph/graph.yaml\"\n").getBytes(StandardCharsets.UTF_8));
+        entries.put("graph/graph.yaml", "nodes:\n  - id: bundled\n".getBytes(StandardCharsets.UTF_8));
+        entries.put("prompts/system.txt", "Be brief.".getBytes(StandardCharsets.UTF_8));
+        Path bundle = writeBundle(entries);
+
+        AbstractAgentRuntimeLoader loader = (AbstractAgentRuntimeLoader) AbstractAgentRuntimeLoader.createLoader(bundle.toString());
+
+        Assertions.assertEquals("bundled-agent", loader.getRuntimeConfig().getName());
+        Assertions.assertNotNull(loader.load());
+        Assertions.assertEquals(ByteBuffer.wrap("Be brief.".getBytes(StandardCharsets.UTF_8)),
+                loader.getBundle().orElseThrow().read("prompts/system.txt").orElseThrow());
+
+        entries.remove("graph/graph.yaml");
+        try (OutputStream out = Files.newOutputStream(tempDir.resolve("broken.agent"))) {
+            out.write(zip(entries, false));
+        }
+        Assertions.assertThrows(AgentRuntimeException.class,
+                () -> AbstractAgentRuntimeLoader.createLoader(tempDir.resolve("broken.agent").toString()));
+    }
+
+    public static final class Greeting {
+
+        public String greet() {
+
+            return "hello";
+        }
+    }
+
+}
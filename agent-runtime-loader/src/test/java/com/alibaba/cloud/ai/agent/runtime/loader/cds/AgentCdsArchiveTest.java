@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.cds;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+class AgentCdsArchiveTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private String writeConfig() throws IOException {
+
+        Path graph = Files.writeString(tempDir.resolve("graph.yaml"), "nodes:\n  - id: start\n");
+        return Files.writeString(tempDir.resolve("runtime.config.yaml"), "name: cds-agent\n"
+                + "version: \"1.0.0\"\n"
+                + "framework: \"Spring AI Alibaba Graph\"\n"
+                + "types: YAML\n"
+                + "schema: \"" + graph.toAbsolutePath() + "\"\n").toString();
+    }
+
+    /**
+     * The test class path with every class directory packed into a jar.
+     */
+    private String jarClasspath() throws IOException {
+
+        List<String> entries = new ArrayList<>();
+        int index = 0;
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            if (!Files.isDirectory(path)) {
+                entries.add(entry);
+                continue;
+            }
+            Path jar = tempDir.resolve("classpath-" + index++ + ".jar");
+            try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out); Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    jarOut.putNextEntry(new JarEntry(path.relativize(file).toString().replace(File.separatorChar, '/')));
+                    Files.copy(file, jarOut);
+                    jarOut.closeEntry();
+                }
+            }
+            entries.add(jar.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    @BeforeEach
+    void setUp() {
+
+        System.setProperty(AgentCdsArchive.ARCHIVE_DIR_PROPERTY, tempDir.resolve("cds").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        System.clearProperty(AgentCdsArchive.ARCHIVE_DIR_PROPERTY);
+    }
+
+    @Test
+    void testArchiveIsKeyedByClasspath() {
+
+        Assertions.assertEquals(AgentCdsArchive.archiveFor("a.jar"), AgentCdsArchive.archiveFor("a.jar"));
+        Assertions.assertNotEquals(AgentCdsArchive.archiveFor("a.jar"), AgentCdsArchive.archiveFor("b.jar"));
+        Assertions.assertEquals(List.of(), AgentCdsArchive.jvmOptions("a.jar"));
+    }
+
+    @Test
+    void testTrainingRunLoadsEveryAgent() throws IOException {
+
+        Assertions.assertEquals(1, AgentCdsTraining.run(List.of(writeConfig())));
+    }
+
+    @Test
+    void testClassDirectoriesAreRejected() throws IOException {
+
+        String classpath = tempDir.toString();
+        List<String> configs = List.of(writeConfig());
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentCdsArchive.train(classpath, configs));
+    }
+
+    @Test
+    void testTrainedArchiveIsPickedUp() throws IOException {
+
+        String classpath = jarClasspath();
+        Path archive = AgentCdsArchive.train(classpath, List.of(writeConfig()));
+
+        Assertions.assertTrue(Files.size(archive) > 0);
+        Assertions.assertEquals(List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto"), AgentCdsArchive.jvmOptions(classpath));
+    }
+
+}
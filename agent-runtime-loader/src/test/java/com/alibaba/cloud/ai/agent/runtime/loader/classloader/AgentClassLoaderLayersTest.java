@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.classloader;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+class AgentClassLoaderLayersTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static Path writeJar(final Path jar, final Class<?> type) throws IOException {
+
+        Files.createDirectories(jar.getParent());
+        String entry = type.getName().replace('.', '/') + ".class";
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry(entry));
+            try (InputStream in = type.getResourceAsStream("/" + entry)) {
+                in.transferTo(jarOut);
+            }
+            jarOut.closeEntry();
+        }
+        return jar;
+    }
+
+    @Test
+    void testAgentsShareTheFrameworkLayer() throws Exception {
+
+        writeJar(tempDir.resolve("frameworks").resolve("LANGGRAPH4J").resolve("1.6").resolve("framework.jar"), FrameworkType.class);
+        Path agentJar = writeJar(tempDir.resolve("agent").resolve("agent.jar"), AgentType.class);
+        // the platform loader does not see the test classes, so the layers have to define them.
+        AgentClassLoaderLayers layers = new AgentClassLoaderLayers(tempDir.resolve("frameworks"), ClassLoader.getPlatformClassLoader());
+
+        AgentClassLoader first = layers.newAgentClassLoader("agent-a", AgentFramework.LANGGRAPH4J, "1.6", List.of(agentJar));
+        AgentClassLoader second = layers.newAgentClassLoader("agent-b", AgentFramework.LANGGRAPH4J, "1.6", List.of(agentJar));
+        AgentClassLoader other = layers.newAgentClassLoader("agent-c", AgentFramework.ADK_JAVA, "1.0", List.of());
+
+        Assertions.assertSame(first.getLayer(), second.getLayer());
+        Assertions.assertNotSame(first.getLayer(), other.getLayer());
+        Assertions.assertEquals(2, layers.layers().size());
+        Assertions.assertEquals(2, first.getLayer().getReferenceCount());
+
+        Class<?> firstAgent = first.loadClass(AgentType.class.getName());
+        Class<?> secondAgent = second.loadClass(AgentType.class.getName());
+        Assertions.assertNotSame(firstAgent, secondAgent);
+        Assertions.assertSame(firstAgent.getSuperclass(), secondAgent.getSuperclass());
+        Assertions.assertSame(first.getLayer().getClassLoader(), firstAgent.getSuperclass().getClassLoader());
+
+        AgentClassLoaderStats layerStats = first.getLayer().getStats();
+        Assertions.assertEquals(1, layerStats.classes());
+        Assertions.assertTrue(layerStats.classBytes() > 0);
+        Assertions.assertEquals(List.of(1L, 1L, 0L), layers.agentStats().stream().map(AgentClassLoaderStats::classes).toList());
+
+        first.close();
+        first.close();
+        Assertions.assertEquals(1, second.getLayer().getReferenceCount());
+        second.close();
+        other.close();
+        Assertions.assertTrue(layers.layers().isEmpty());
+        Assertions.assertTrue(layers.agentStats().isEmpty());
+    }
+
+    public static class FrameworkType {
+    }
+
+    public static class AgentType extends FrameworkType {
+    }
+
+}
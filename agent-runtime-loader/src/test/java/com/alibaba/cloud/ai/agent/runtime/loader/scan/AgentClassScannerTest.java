@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.loader.scan;
+
+import com.alibaba.cloud.ai.agent.runtime.common.model.BaseAgent;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProvider;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.AgentProviderIndex;
+import com.alibaba.cloud.ai.agent.runtime.common.spi.IAgentProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+class AgentClassScannerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] classBytes(final Class<?> type) throws IOException {
+
+        try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    private Path writeJar(final String name, final Class<?>... classes) throws IOException {
+
+        Path jar = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (Class<?> type : classes) {
+                jarOut.putNextEntry(new JarEntry(type.getName().replace('.', '/') + ".class"));
+                jarOut.write(classBytes(type));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    void testProviderIsReadFromBytecode() throws IOException {
+
+        AgentProviderIndex.Entry entry = ClassFileAnnotationReader.read(classBytes(ScannedAgentProvider.class));
+
+        Assertions.assertEquals(ScannedAgentProvider.class.getName(), entry.className());
+        Assertions.assertEquals("scanned-provider", entry.name());
+        Assertions.assertEquals("LANGGRAPH4J", entry.framework());
+        Assertions.assertEquals(List.of("streaming"), entry.capabilities());
+        Assertions.assertNull(ClassFileAnnotationReader.read(classBytes(AgentClassScannerTest.class)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClassFileAnnotationReader.read(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void testUnchangedJarsAreServedFromTheCache() throws IOException {
+
+        Path cacheFile = tempDir.resolve("cache").resolve("scan.cache");
+        Path jar = writeJar("agent.jar", ScannedAgentProvider.class, OtherAgentProvider.class, AgentClassScannerTest.class);
+
+        AgentClassScanner.Result first = new AgentClassScanner(cacheFile, ForkJoinPool.commonPool()).scan(List.of(jar));
+        Assertions.assertEquals(2, first.providers().size());
+        Assertions.assertEquals(1, first.scanned());
+        Assertions.assertTrue(Files.exists(cacheFile));
+
+        // a restart reads the cache file.
+        AgentClassScanner.Result second = new AgentClassScanner(cacheFile, ForkJoinPool.commonPool()).scan(List.of(jar));
+        Assertions.assertEquals(first.providers(), second.providers());
+        Assertions.assertEquals(1, second.cached());
+
+        writeJar("agent.jar", ScannedAgentProvider.class);
+        AgentClassScanner.Result third = new AgentClassScanner(cacheFile, ForkJoinPool.commonPool()).scan(List.of(jar));
+        Assertions.assertEquals(0, third.cached());
+        Assertions.assertEquals(List.of("scanned-provider"), third.providers().stream().map(AgentProviderIndex.Entry::name).toList());
+    }
+
+    @Test
+    void testCorruptedCacheIsIgnored() throws IOException {
+
+        Path cacheFile = Files.writeString(tempDir.resolve("scan.cache"), "not a cache");
+        Path jar = writeJar("agent.jar", ScannedAgentProvider.class);
+
+        AgentClassScanner.Result result = new AgentClassScanner(cacheFile, ForkJoinPool.commonPool()).scan(List.of(jar));
+
+        Assertions.assertEquals(1, result.providers().size());
+        Assertions.assertEquals(1, new AgentClassScanner(cacheFile, ForkJoinPool.commonPool()).scan(List.of(jar)).cached());
+    }
+
+    @AgentProvider(name = "scanned-provider", framework = "LANGGRAPH4J", capabilities = "streaming")
+    public static class ScannedAgentProvider implements IAgentProvider {
+
+        @Override
+        public BaseAgent provide(final Map<String, String> envs) {
+
+            return new BaseAgent();
+        }
+    }
+
+    @AgentProvider(name = "other-provider", framework = "ADK_JAVA")
+    public static class OtherAgentProvider implements IAgentProvider {
+
+        @Override
+        public BaseAgent provide(final Map<String, String> envs) {
+
+            return new BaseAgent();
+        }
+    }
+
+}
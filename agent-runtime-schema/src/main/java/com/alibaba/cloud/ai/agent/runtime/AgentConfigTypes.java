@@ -31,7 +31,8 @@ public enum AgentConfigTypes implements IEnum {
     YAML("Yaml", "runtime.config.yaml types"),
     YML("Yml", "runtime.config.yml types"),
     JSON("JSON", "runtime.config.json types."),
-    PROPERTIES("Properties", "runtime.config.properties types.");
+    PROPERTIES("Properties", "runtime.config.properties types."),
+    SNAPSHOT("Snapshot", "runtime.config.snapshot types, precompiled binary config.");
 
     private final String name;
 
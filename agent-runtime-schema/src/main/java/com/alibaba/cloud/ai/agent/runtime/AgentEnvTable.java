@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable environment variables of an agent.
+ *
+ * <p>Keys and values live in two parallel arrays in declaration order, keys are interned since
+ * the same names repeat across every agent of a node. Lookups go through an open-addressing
+ * index of slot numbers, so the table costs three arrays instead of one map entry per variable.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentEnvTable implements Serializable {
+
+    /**
+     * The empty table.
+     */
+    public static final AgentEnvTable EMPTY = new AgentEnvTable(new String[0], new String[0]);
+
+    @Serial
+    private static final long serialVersionUID = -4303719208846573640L;
+
+    private final String[] keys;
+
+    private final String[] values;
+
+    /**
+     * Slot number plus one per bucket, zero marks an empty bucket.
+     */
+    private final int[] index;
+
+    private AgentEnvTable(final String[] keys, final String[] values) {
+
+        this.keys = keys;
+        this.values = values;
+        this.index = new int[tableSize(keys.length)];
+        for (int i = 0; i < keys.length; i++) {
+            int bucket = find(keys[i]);
+            if (index[bucket] != 0) {
+                throw new IllegalArgumentException("Environment variable is defined more than once: " + keys[i]);
+            }
+            index[bucket] = i + 1;
+        }
+    }
+
+    /**
+     * Table holding the entries of the given map, in its iteration order.
+     *
+     * @param env environment variables
+     * @return {@link AgentEnvTable}
+     */
+    public static AgentEnvTable of(final Map<String, String> env) {
+
+        if (env.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(env.size());
+        env.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+
+        return new Builder(8);
+    }
+
+    public int size() {
+
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+
+        return keys.length == 0;
+    }
+
+    /**
+     * Name of the variable at the given slot.
+     *
+     * @param slot slot in declaration order
+     * @return variable name
+     */
+    public String key(final int slot) {
+
+        return keys[slot];
+    }
+
+    /**
+     * Value of the variable at the given slot.
+     *
+     * @param slot slot in declaration order
+     * @return variable value
+     */
+    public String value(final int slot) {
+
+        return values[slot];
+    }
+
+    /**
+     * Value of the given variable.
+     *
+     * @param key variable name
+     * @return the value, null if the variable is not defined
+     */
+    public String get(final Object key) {
+
+        int slot = indexOf(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    public boolean containsKey(final Object key) {
+
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Slot of the given variable.
+     *
+     * @param key variable name
+     * @return the slot, -1 if the variable is not defined
+     */
+    public int indexOf(final Object key) {
+
+        if (!(key instanceof String name) || keys.length == 0) {
+            return -1;
+        }
+        return index[find(name)] - 1;
+    }
+
+    public void forEach(final BiConsumer<String, String> action) {
+
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Read-only map view, backed by this table without copying.
+     *
+     * @return unmodifiable map of the variables
+     */
+    public Map<String, String> asMap() {
+
+        return new MapView();
+    }
+
+    /**
+     * Add the variables to a process environment, overriding inherited values.
+     *
+     * @param processBuilder the process to configure
+     * @return the given process builder
+     */
+    public ProcessBuilder applyTo(final ProcessBuilder processBuilder) {
+
+        Map<String, String> environment = processBuilder.environment();
+        for (int i = 0; i < keys.length; i++) {
+            environment.put(keys[i], values[i]);
+        }
+        return processBuilder;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AgentEnvTable that)) {
+            return false;
+        }
+        return Arrays.equals(keys, that.keys) && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(keys[i]).append('=').append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Deserialized keys are not interned, rebuild the table through the builder.
+     */
+    @Serial
+    private Object readResolve() {
+
+        Builder builder = new Builder(Math.max(1, keys.length));
+        for (int i = 0; i < keys.length; i++) {
+            builder.put(keys[i], values[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Bucket holding the given key, or the empty bucket where it would be inserted.
+     */
+    private int find(final String key) {
+
+        int mask = index.length - 1;
+        int h = key.hashCode();
+        int bucket = (h ^ h >>> 16) & mask;
+        while (index[bucket] != 0) {
+            String candidate = keys[index[bucket] - 1];
+            if (candidate == key || candidate.equals(key)) {
+                return bucket;
+            }
+            bucket = bucket + 1 & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Power of two holding the entries at a load factor of at most one half.
+     */
+    private static int tableSize(final int entries) {
+
+        return Math.max(2, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+    }
+
+    /**
+     * Builder of {@link AgentEnvTable}, a variable may only be defined once.
+     */
+    public static final class Builder {
+
+        private String[] keys;
+
+        private String[] values;
+
+        private int size;
+
+        private Builder(final int capacity) {
+
+            this.keys = new String[capacity];
+            this.values = new String[capacity];
+        }
+
+        /**
+         * Add a variable, the name is interned.
+         *
+         * @param key   variable name
+         * @param value variable value
+         * @return this builder
+         */
+        public Builder put(final String key, final String value) {
+
+            if (Objects.isNull(key) || Objects.isNull(value)) {
+                throw new IllegalArgumentException("Environment variable name and value must not be null: " + key);
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key.intern();
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public AgentEnvTable build() {
+
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new AgentEnvTable(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+        }
+    }
+
+    private final class MapView extends AbstractMap<String, String> {
+
+        @Override
+        public int size() {
+
+            return keys.length;
+        }
+
+        @Override
+        public String get(final Object key) {
+
+            return AgentEnvTable.this.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+
+            return AgentEnvTable.this.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+
+            return new AbstractSet<>() {
+
+                @Override
+                public int size() {
+
+                    return keys.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+
+                    return new EntryIterator();
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+
+            return next < keys.length;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            int slot = next++;
+            return new AbstractMap.SimpleImmutableEntry<>(keys[slot], values[slot]);
+        }
+    }
+
+}
@@ -52,4 +52,21 @@ public enum AgentFramework implements IEnum {
         return desc;
     }
 
+    /**
+     * Resolve a framework from either its constant name or its display name, ignoring case.
+     *
+     * @param name e.g. {@code SPRING_AI_ALIBABA_GRAPH} or {@code Spring AI Alibaba Graph}
+     * @return {@link AgentFramework}
+     */
+    public static AgentFramework of(final String name) {
+
+        for (AgentFramework framework : values()) {
+            if (framework.name().equalsIgnoreCase(name) || framework.name.equalsIgnoreCase(name)) {
+                return framework;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported agent framework: " + name);
+    }
+
 }
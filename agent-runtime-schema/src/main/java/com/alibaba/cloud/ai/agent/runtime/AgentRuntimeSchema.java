@@ -21,8 +21,6 @@ package com.alibaba.cloud.ai.agent.runtime;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Define the Agent Runtime Config Schema.
@@ -69,13 +67,19 @@ public final class AgentRuntimeSchema implements Serializable {
     /**
      * Agent Environment.
      */
-    private List<Map<String, String>> envs;
+    private AgentEnvTable envs;
 
-    public List<Map<String, String>> getEnvs() {
+    /**
+     * Frozen schemas reject every setter, not carried over by {@link #copy()} or serialization.
+     */
+    private transient boolean frozen;
+
+    public AgentEnvTable getEnvs() {
         return envs;
     }
 
-    public void setEnvs(final List<Map<String, String>> envs) {
+    public void setEnvs(final AgentEnvTable envs) {
+        checkNotFrozen();
         this.envs = envs;
     }
 
@@ -84,6 +88,7 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setName(final String name) {
+        checkNotFrozen();
         this.name = name;
     }
 
@@ -92,6 +97,7 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setVersion(final String version) {
+        checkNotFrozen();
         this.version = version;
     }
 
@@ -100,6 +106,7 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setDescription(final String description) {
+        checkNotFrozen();
         this.description = description;
     }
 
@@ -108,6 +115,7 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setTypes(final LoaderType types) {
+        checkNotFrozen();
         this.types = types;
     }
 
@@ -116,6 +124,7 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setSchema(final String schema) {
+        checkNotFrozen();
         this.schema = schema;
     }
 
@@ -124,9 +133,57 @@ public final class AgentRuntimeSchema implements Serializable {
     }
 
     public void setFramework(final AgentFramework framework) {
+        checkNotFrozen();
         this.framework = framework;
     }
 
+    /**
+     * Copy this schema, the copy is not frozen and can be modified independently. The env table is immutable and shared.
+     *
+     * @return a copy of this schema
+     */
+    public AgentRuntimeSchema copy() {
+
+        AgentRuntimeSchema copy = new AgentRuntimeSchema();
+        copy.setName(name);
+        copy.setVersion(version);
+        copy.setDescription(description);
+        copy.setFramework(framework);
+        copy.setTypes(types);
+        copy.setSchema(schema);
+        copy.setEnvs(envs);
+
+        return copy;
+    }
+
+    /**
+     * Make this schema read-only, e.g. before it is shared between threads. Freezing is one-way.
+     *
+     * @return this schema
+     */
+    public AgentRuntimeSchema freeze() {
+
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Whether this schema has been frozen.
+     *
+     * @return true if the setters reject changes
+     */
+    public boolean isFrozen() {
+
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+
+        if (frozen) {
+            throw new IllegalStateException("AgentRuntimeSchema " + name + " is frozen, modify a copy instead");
+        }
+    }
+
     @Override
     public String toString() {
 
@@ -173,7 +230,17 @@ public final class AgentRuntimeSchema implements Serializable {
             return this;
         }
 
-        public Builder envs(final List<Map<String, String>> envs) {
+        public Builder types(final LoaderType types) {
+            this.agentRuntimeSchema.setTypes(types);
+            return this;
+        }
+
+        public Builder schema(final String schema) {
+            this.agentRuntimeSchema.setSchema(schema);
+            return this;
+        }
+
+        public Builder envs(final AgentEnvTable envs) {
             this.agentRuntimeSchema.setEnvs(envs);
             return this;
         }
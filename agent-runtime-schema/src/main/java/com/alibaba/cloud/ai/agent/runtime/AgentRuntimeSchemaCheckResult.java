@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of checking an agent runtime schema.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaCheckResult {
+
+    private static final AgentRuntimeSchemaCheckResult VALID = new AgentRuntimeSchemaCheckResult(List.of());
+
+    private final List<AgentRuntimeSchemaDiagnostic> diagnostics;
+
+    private AgentRuntimeSchemaCheckResult(final List<AgentRuntimeSchemaDiagnostic> diagnostics) {
+
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * The shared result of a valid schema.
+     *
+     * @return {@link AgentRuntimeSchemaCheckResult}
+     */
+    public static AgentRuntimeSchemaCheckResult valid() {
+
+        return VALID;
+    }
+
+    /**
+     * Result carrying the given diagnostics.
+     *
+     * @param diagnostics violated rules, in rule order
+     * @return {@link AgentRuntimeSchemaCheckResult}
+     */
+    public static AgentRuntimeSchemaCheckResult of(final List<AgentRuntimeSchemaDiagnostic> diagnostics) {
+
+        return diagnostics.isEmpty() ? VALID : new AgentRuntimeSchemaCheckResult(List.copyOf(diagnostics));
+    }
+
+    public boolean isValid() {
+
+        return diagnostics.isEmpty();
+    }
+
+    public List<AgentRuntimeSchemaDiagnostic> getDiagnostics() {
+
+        return diagnostics;
+    }
+
+    /**
+     * Throw if any rule was violated.
+     *
+     * @throws AgentRuntimeException listing all diagnostics
+     */
+    public void throwIfInvalid() {
+
+        if (!isValid()) {
+            throw new AgentRuntimeException("Invalid agent runtime schema: "
+                    + diagnostics.stream().map(AgentRuntimeSchemaDiagnostic::toString).collect(Collectors.joining("; ")));
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        return isValid() ? "valid" : diagnostics.toString();
+    }
+
+}
@@ -19,16 +19,172 @@
 
 package com.alibaba.cloud.ai.agent.runtime;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Agent Runtime Schema Checker.
  *
+ * <p>The rule set is fixed at construction and kept as a plain array, a check is a loop over
+ * direct field reads without reflection. A valid schema is checked without allocating, so the
+ * checker is cheap enough to run on every config at admission time. Instances are immutable
+ * and thread-safe.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 public class AgentRuntimeSchemaChecker implements IAgentRuntimeSchemaChecker {
 
+    /**
+     * Max length of an agent name.
+     */
+    public static final int MAX_NAME_LENGTH = 128;
+
+    private static final AgentRuntimeSchemaDiagnostic SCHEMA_REQUIRED = new AgentRuntimeSchemaDiagnostic("", "schema.null", "agent runtime schema is null");
+
+    private final IAgentRuntimeSchemaRule[] rules;
+
+    public AgentRuntimeSchemaChecker() {
+
+        this(defaultRules());
+    }
+
+    public AgentRuntimeSchemaChecker(final List<IAgentRuntimeSchemaRule> rules) {
+
+        this.rules = rules.toArray(new IAgentRuntimeSchemaRule[0]);
+        for (IAgentRuntimeSchemaRule rule : this.rules) {
+            Objects.requireNonNull(rule, "rule");
+        }
+    }
+
+    /**
+     * The built-in rules, in evaluation order.
+     *
+     * @return the default rule set
+     */
+    public static List<IAgentRuntimeSchemaRule> defaultRules() {
+
+        return List.of(
+                AgentRuntimeSchemaChecker::checkName,
+                schema -> isBlank(schema.getVersion()) ? new AgentRuntimeSchemaDiagnostic("version", "version.required", "version is required") : null,
+                schema -> Objects.isNull(schema.getFramework()) ? new AgentRuntimeSchemaDiagnostic("framework", "framework.required", "framework is required") : null,
+                schema -> Objects.isNull(schema.getTypes()) ? new AgentRuntimeSchemaDiagnostic("types", "types.required", "loader type is required") : null,
+                schema -> isBlank(schema.getSchema()) ? new AgentRuntimeSchemaDiagnostic("schema", "schema.required", "agent schema, class or classpath is required") : null,
+                AgentRuntimeSchemaChecker::checkEnvs
+        );
+    }
+
     @Override
     public Boolean check(final AgentRuntimeSchema agentRuntimeSchema) {
+
+        if (Objects.isNull(agentRuntimeSchema)) {
+            return false;
+        }
+        for (IAgentRuntimeSchemaRule rule : rules) {
+            if (Objects.nonNull(rule.check(agentRuntimeSchema))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public AgentRuntimeSchemaCheckResult check(final AgentRuntimeSchema agentRuntimeSchema, final AgentRuntimeSchemaCheckMode mode) {
+
+        if (Objects.isNull(agentRuntimeSchema)) {
+            return AgentRuntimeSchemaCheckResult.of(List.of(SCHEMA_REQUIRED));
+        }
+
+        List<AgentRuntimeSchemaDiagnostic> diagnostics = null;
+        for (IAgentRuntimeSchemaRule rule : rules) {
+            AgentRuntimeSchemaDiagnostic diagnostic = rule.check(agentRuntimeSchema);
+            if (Objects.isNull(diagnostic)) {
+                continue;
+            }
+            if (mode == AgentRuntimeSchemaCheckMode.FAIL_FAST) {
+                return AgentRuntimeSchemaCheckResult.of(List.of(diagnostic));
+            }
+            if (Objects.isNull(diagnostics)) {
+                diagnostics = new ArrayList<>(rules.length);
+            }
+            diagnostics.add(diagnostic);
+        }
+
+        return Objects.isNull(diagnostics) ? AgentRuntimeSchemaCheckResult.valid() : AgentRuntimeSchemaCheckResult.of(diagnostics);
+    }
+
+    private static AgentRuntimeSchemaDiagnostic checkName(final AgentRuntimeSchema schema) {
+
+        String name = schema.getName();
+        if (isBlank(name)) {
+            return new AgentRuntimeSchemaDiagnostic("name", "name.required", "name is required");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return new AgentRuntimeSchemaDiagnostic("name", "name.too-long", "name must not be longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        if (!isLetterOrDigit(name.charAt(0))) {
+            return new AgentRuntimeSchemaDiagnostic("name", "name.invalid", "name must start with a letter or digit: " + name);
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isLetterOrDigit(c) && c != '-' && c != '_' && c != '.') {
+                return new AgentRuntimeSchemaDiagnostic("name", "name.invalid", "name may only contain letters, digits, '-', '_' and '.': " + name);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Env keys must be POSIX environment variable names, uniqueness is enforced by {@link AgentEnvTable}.
+     */
+    private static AgentRuntimeSchemaDiagnostic checkEnvs(final AgentRuntimeSchema schema) {
+
+        AgentEnvTable envs = schema.getEnvs();
+        if (Objects.isNull(envs)) {
+            return null;
+        }
+
+        for (int i = 0; i < envs.size(); i++) {
+            String key = envs.key(i);
+            if (!isEnvName(key)) {
+                return new AgentRuntimeSchemaDiagnostic("envs." + key, "envs.key.invalid", "invalid environment variable name: " + key);
+            }
+        }
+
         return null;
     }
+
+    private static boolean isEnvName(final String key) {
+
+        if (Objects.isNull(key) || key.isEmpty() || isDigit(key.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!isLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isLetterOrDigit(final char c) {
+
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || isDigit(c);
+    }
+
+    private static boolean isDigit(final char c) {
+
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isBlank(final String value) {
+
+        return Objects.isNull(value) || value.isBlank();
+    }
+
 }
@@ -27,6 +27,21 @@ package com.alibaba.cloud.ai.agent.runtime;
  */
 public interface IAgentRuntimeSchemaChecker {
 
+    /**
+     * Fail-fast check of the schema.
+     *
+     * @param agentRuntimeSchema the schema to check
+     * @return true if the schema satisfies every rule
+     */
     Boolean check(AgentRuntimeSchema agentRuntimeSchema);
 
+    /**
+     * Check the schema and report the violated rules.
+     *
+     * @param agentRuntimeSchema the schema to check
+     * @param mode               stop at the first violation or collect all of them
+     * @return {@link AgentRuntimeSchemaCheckResult}
+     */
+    AgentRuntimeSchemaCheckResult check(AgentRuntimeSchema agentRuntimeSchema, AgentRuntimeSchemaCheckMode mode);
+
 }
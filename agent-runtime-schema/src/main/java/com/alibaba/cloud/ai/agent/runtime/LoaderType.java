@@ -58,4 +58,21 @@ public enum LoaderType implements IEnum {
         return this.desc;
     }
 
+    /**
+     * Resolve a loader type from its name, ignoring case.
+     *
+     * @param name e.g. {@code YAML}
+     * @return {@link LoaderType}
+     */
+    public static LoaderType of(final String name) {
+
+        for (LoaderType type : values()) {
+            if (type.name.equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported loader type: " + name);
+    }
+
 }
@@ -1,15 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
 package com.alibaba.cloud.ai.agent.runtime.convertor;
 
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
-import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Objects;
 
-import static com.alibaba.cloud.ai.agent.runtime.AgentConfigTypes.*;
-
 /**
  * Abstract base class for Agent Runtime Schema Convertors.
  * Provides common behaviors for all convertors.
@@ -19,55 +36,83 @@ import static com.alibaba.cloud.ai.agent.runtime.AgentConfigTypes.*;
 public abstract class AbstractAgentRuntimeSchemaConvertor implements IAgentRuntimeSchemaConvertor {
 
     /**
-     * Common resource path, can be used by subclasses.
+     * Source converted by {@link #convert()}.
      */
-    protected String resourcePath;
+    private final AgentRuntimeSchemaSource source;
 
-    /**
-     * Common file reader, can be used by subclasses.
-     */
-    protected Reader fileReader;
+    public AbstractAgentRuntimeSchemaConvertor(final String resourcePath) {
 
-    public AbstractAgentRuntimeSchemaConvertor(String resourcePath) {
+        this(AgentRuntimeSchemaSource.of(Paths.get(requireResourcePath(resourcePath))));
+    }
 
-        assert Objects.nonNull(resourcePath) && !resourcePath.isEmpty() : "Resource path must not be null or empty";
-        this.resourcePath = resourcePath;
+    public AbstractAgentRuntimeSchemaConvertor(final AgentRuntimeSchemaSource source) {
 
-        try {
-            this.fileReader = new FileReader(this.resourcePath);
-        } catch (FileNotFoundException e) {
-            throw new AgentRuntimeException(e);
-        }
+        this.source = Objects.requireNonNull(source, "Source must not be null");
     }
 
-    public static AbstractAgentRuntimeSchemaConvertor createConvertor(String resourcePath) {
+    public static AbstractAgentRuntimeSchemaConvertor createConvertor(final String resourcePath) {
 
-        String ext = null;
-        if (resourcePath.lastIndexOf('.') != -1) {
-            ext = resourcePath.substring(resourcePath.lastIndexOf('.') + 1).toLowerCase();
+        Path path = Paths.get(requireResourcePath(resourcePath));
+        if (resourcePath.endsWith("." + AgentRuntimeSnapshot.EXTENSION)) {
+            return new SnapshotAgentRuntimeSchemaConvertor(AgentRuntimeSchemaSource.mapped(path));
         }
-        if (Objects.isNull(ext) || ext.isEmpty()) {
-            throw new IllegalArgumentException("Resource path must have a valid file extension: " + resourcePath);
+
+        return createConvertor(AgentRuntimeSchemaSource.of(path));
+    }
+
+    public static AbstractAgentRuntimeSchemaConvertor createConvertor(final AgentRuntimeSchemaSource source) {
+
+        String ext = source.getExtension();
+        if (ext.isEmpty()) {
+            throw new IllegalArgumentException("Resource path must have a valid file extension: " + source);
         }
 
         return switch (ext) {
-            case "json" -> new JSONAgentRuntimeSchemaConvertor(resourcePath);
-            case "yaml", "yml" -> new YamlAgentRuntimeSchemaConvertor(resourcePath);
-            case "properties" -> new PropertiesAgentRuntimeSchemaConvertor(resourcePath);
-            default -> throw new IllegalArgumentException("Unsupported resource type: " + resourcePath);
+            case "json" -> new JSONAgentRuntimeSchemaConvertor(source);
+            case "yaml", "yml" -> new YamlAgentRuntimeSchemaConvertor(source);
+            case "properties" -> new PropertiesAgentRuntimeSchemaConvertor(source);
+            case AgentRuntimeSnapshot.EXTENSION -> new SnapshotAgentRuntimeSchemaConvertor(source);
+            default -> throw new IllegalArgumentException("Unsupported resource type: " + source);
         };
     }
 
+    /**
+     * Convert the source given at construction.
+     *
+     * @return {@link AgentRuntimeSchema}
+     */
     @Override
     public AgentRuntimeSchema convert() {
 
-        AbstractAgentRuntimeSchemaConvertor convertor = createConvertor(resourcePath);
-        return convertor.doConvert();
+        return convert(source);
+    }
+
+    /**
+     * Convert the given source with this convertor's format, unchanged sources are served from {@link AgentRuntimeSchemaCache}.
+     *
+     * @param agentRuntimeSchemaSource config source
+     * @return {@link AgentRuntimeSchema}
+     */
+    @Override
+    public AgentRuntimeSchema convert(final AgentRuntimeSchemaSource agentRuntimeSchemaSource) {
+
+        return AgentRuntimeSchemaCache.getInstance().get(agentRuntimeSchemaSource, this::doConvert);
     }
 
     /**
      * Actual convert logic to be implemented by subclasses.
+     *
+     * @param content UTF-8 encoded config content
+     * @return {@link AgentRuntimeSchema}
      */
-    protected abstract AgentRuntimeSchema doConvert();
+    protected abstract AgentRuntimeSchema doConvert(ByteBuffer content);
+
+    private static String requireResourcePath(final String resourcePath) {
+
+        if (Objects.isNull(resourcePath) || resourcePath.isEmpty()) {
+            throw new IllegalArgumentException("Resource path must not be null or empty");
+        }
+        return resourcePath;
+    }
 
 }
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts every agent runtime config below a directory tree in parallel.
+ *
+ * <p>Each directory holds at most one agent: exactly one {@code runtime.config.json|yaml|yml|properties},
+ * or a {@code runtime.config.snapshot} alone. Next to a text config, the snapshot is picked the way
+ * the loader picks it, see {@link AgentRuntimeSnapshot#resolve(Path)}. Configs are parsed on a {@link ForkJoinPool} and merged in path order, so the result
+ * does not depend on scheduling. A broken config is reported in {@link Result#errors()} and does
+ * not stop the others.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaBulkConvertor {
+
+    private static final String CONFIG_PREFIX = "runtime.config.";
+
+    private static final List<String> TEXT_EXTENSIONS = List.of("json", "yaml", "yml", "properties");
+
+    private AgentRuntimeSchemaBulkConvertor() {
+    }
+
+    /**
+     * Convert all agent configs below the root on the common fork-join pool.
+     *
+     * @param root fleet root directory
+     * @return {@link Result}
+     */
+    public static Result convertAll(final Path root) {
+
+        return convertAll(root, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Convert all agent configs below the root on the given pool.
+     *
+     * @param root fleet root directory
+     * @param pool pool the configs are parsed on
+     * @return {@link Result}
+     */
+    public static Result convertAll(final Path root, final ForkJoinPool pool) {
+
+        Map<Path, AgentRuntimeException> errors = new TreeMap<>();
+        List<Path> configs = scan(root, errors);
+
+        List<Outcome> outcomes;
+        try {
+            outcomes = pool.submit(() -> configs.parallelStream().map(AgentRuntimeSchemaBulkConvertor::convert).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgentRuntimeException("Interrupted while converting agent configs under: " + root, e);
+        } catch (ExecutionException e) {
+            throw new AgentRuntimeException("Failed to convert agent configs under: " + root, e.getCause());
+        }
+
+        Map<String, AgentRuntimeSchema> schemas = new LinkedHashMap<>(outcomes.size() * 2);
+        Map<String, Path> owners = new LinkedHashMap<>(outcomes.size() * 2);
+        for (Outcome outcome : outcomes) {
+            if (Objects.nonNull(outcome.error())) {
+                errors.put(outcome.path(), outcome.error());
+                continue;
+            }
+
+            String name = outcome.schema().getName();
+            Path owner = owners.putIfAbsent(name, outcome.path());
+            if (Objects.nonNull(owner)) {
+                errors.put(outcome.path(), new AgentRuntimeException("Duplicate agent name: " + name + ", already defined in: " + owner));
+                continue;
+            }
+            schemas.put(name, outcome.schema());
+        }
+
+        return new Result(Collections.unmodifiableMap(schemas), Collections.unmodifiableMap(errors));
+    }
+
+    /**
+     * Pick one config per directory, sorted by path. Directory-level problems go straight to the errors.
+     */
+    private static List<Path> scan(final Path root, final Map<Path, AgentRuntimeException> errors) {
+
+        Map<Path, List<Path>> byDirectory;
+        try (Stream<Path> files = Files.walk(root)) {
+            byDirectory = files.filter(AgentRuntimeSchemaBulkConvertor::isConfigFile)
+                    .collect(Collectors.groupingBy(Path::getParent, TreeMap::new, Collectors.toList()));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to scan agent configs under: " + root, e);
+        }
+
+        List<Path> configs = new ArrayList<>(byDirectory.size());
+        byDirectory.forEach((dir, candidates) -> {
+            try {
+                configs.add(select(candidates));
+            } catch (AgentRuntimeException e) {
+                errors.put(dir, e);
+            }
+        });
+
+        return configs;
+    }
+
+    /**
+     * The text config, or a snapshot deployed alone. A snapshot next to a text config is resolved on conversion.
+     */
+    private static Path select(final List<Path> candidates) {
+
+        Path snapshot = null;
+        List<Path> texts = new ArrayList<>(1);
+        for (Path candidate : candidates) {
+            if (candidate.getFileName().toString().endsWith("." + AgentRuntimeSnapshot.EXTENSION)) {
+                snapshot = candidate;
+            } else {
+                texts.add(candidate);
+            }
+        }
+
+        if (texts.size() > 1) {
+            Collections.sort(texts);
+            throw new AgentRuntimeException("Multiple runtime config files found: " + texts);
+        }
+
+        return texts.isEmpty() ? snapshot : texts.get(0);
+    }
+
+    private static boolean isConfigFile(final Path path) {
+
+        Path fileName = path.getFileName();
+        if (Objects.isNull(fileName) || !fileName.toString().startsWith(CONFIG_PREFIX) || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        String extension = fileName.toString().substring(CONFIG_PREFIX.length()).toLowerCase();
+        return TEXT_EXTENSIONS.contains(extension) || AgentRuntimeSnapshot.EXTENSION.equals(extension);
+    }
+
+    private static Outcome convert(final Path config) {
+
+        try {
+            AgentRuntimeSchema schema = AgentRuntimeSnapshot.resolve(config)
+                    .map(AgentRuntimeSnapshot::getSchema)
+                    .orElseGet(() -> AbstractAgentRuntimeSchemaConvertor.createConvertor(config.toString()).convert());
+            return new Outcome(config, schema, null);
+        } catch (AgentRuntimeException e) {
+            return new Outcome(config, null, e);
+        } catch (RuntimeException e) {
+            return new Outcome(config, null, new AgentRuntimeException("Failed to convert agent config: " + config, e));
+        }
+    }
+
+    private record Outcome(Path path, AgentRuntimeSchema schema, AgentRuntimeException error) {
+    }
+
+    /**
+     * Bulk conversion result.
+     *
+     * @param schemas converted schemas by agent name, in config path order
+     * @param errors  failures by config file, or by directory when no config could be selected
+     */
+    public record Result(Map<String, AgentRuntimeSchema> schemas, Map<Path, AgentRuntimeException> errors) {
+
+        /**
+         * Whether every config was converted.
+         *
+         * @return true if there are no errors
+         */
+        public boolean isSuccessful() {
+
+            return errors.isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Process-wide cache of parsed {@link AgentRuntimeSchema} objects.
+ *
+ * <p>File sources are keyed by the normalized config path and validated against the file
+ * size, last modified time and a SHA-256 digest of its content. An unchanged file is
+ * answered from the file attributes alone; a touched but identical file is answered
+ * after re-hashing, without parsing. In-memory sources are keyed by their name and
+ * content digest. The cache is bounded and evicts the least recently
+ * used entry once {@code maxEntries} is exceeded.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaCache {
+
+    /**
+     * Default cache capacity, can be overridden by the system property below.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * System property to override the capacity of the shared cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "agent.runtime.schema.cache.max-entries";
+
+    /**
+     * Files modified within this window of the time they were cached are re-hashed
+     * on every lookup, coarse file system timestamps can hide a rewrite otherwise.
+     */
+    private static final long RACY_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    private static final AgentRuntimeSchemaCache INSTANCE = new AgentRuntimeSchemaCache(
+            Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+
+    private final int maxEntries;
+
+    private final Map<Object, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public AgentRuntimeSchemaCache(final int maxEntries) {
+
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache max entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+
+                boolean evict = size() > AgentRuntimeSchemaCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Get the shared cache instance.
+     *
+     * @return the process-wide cache
+     */
+    public static AgentRuntimeSchemaCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Get the schema parsed from the given source, parsing it only if it changed since it was cached.
+     * The returned schema is a private copy, callers may modify it freely.
+     *
+     * @param source config source
+     * @param parser parser invoked with the source content on a cache miss
+     * @return the parsed schema
+     */
+    public AgentRuntimeSchema get(final AgentRuntimeSchemaSource source, final Function<ByteBuffer, AgentRuntimeSchema> parser) {
+
+        Optional<Path> path = source.getPath();
+        if (path.isEmpty()) {
+            ByteBuffer content = source.read();
+            byte[] digest = digest(content);
+            String key = source.getName() + '@' + HexFormat.of().formatHex(digest);
+            Entry cached = lookup(key);
+            if (Objects.nonNull(cached)) {
+                hits.increment();
+                return cached.schema().copy();
+            }
+            return parse(key, content, digest, -1L, -1L, parser);
+        }
+
+        Path key = path.get().toAbsolutePath().normalize();
+        BasicFileAttributes attrs = readAttributes(key);
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+
+        Entry cached = lookup(key);
+        if (Objects.nonNull(cached) && cached.matches(size, modified)) {
+            hits.increment();
+            return cached.schema().copy();
+        }
+
+        ByteBuffer content = source.read();
+        byte[] digest = digest(content);
+        if (Objects.nonNull(cached) && Arrays.equals(cached.digest(), digest)) {
+            hits.increment();
+            store(key, new Entry(cached.schema(), digest, size, modified, System.currentTimeMillis()));
+            return cached.schema().copy();
+        }
+
+        return parse(key, content, digest, size, modified, parser);
+    }
+
+    private AgentRuntimeSchema parse(final Object key, final ByteBuffer content, final byte[] digest, final long size,
+                                     final long modified, final Function<ByteBuffer, AgentRuntimeSchema> parser) {
+
+        misses.increment();
+        AgentRuntimeSchema schema = parser.apply(content);
+        store(key, new Entry(schema, digest, size, modified, System.currentTimeMillis()));
+
+        return schema.copy();
+    }
+
+    /**
+     * Drop the cached schema of the given file.
+     *
+     * @param path config file path
+     */
+    public synchronized void invalidate(final Path path) {
+
+        entries.remove(path.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Drop every cached schema, counters are kept.
+     */
+    public synchronized void clear() {
+
+        entries.clear();
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @return {@link Stats}
+     */
+    public Stats stats() {
+
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, maxEntries);
+    }
+
+    private synchronized Entry lookup(final Object key) {
+
+        return entries.get(key);
+    }
+
+    private synchronized void store(final Object key, final Entry entry) {
+
+        entries.put(key, entry);
+    }
+
+    private static BasicFileAttributes readAttributes(final Path path) {
+
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read attributes of config file: " + path, e);
+        }
+    }
+
+    private static byte[] digest(final ByteBuffer content) {
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(content.duplicate());
+            return md.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AgentRuntimeException(e);
+        }
+    }
+
+    /**
+     * Cached schema together with the file state it was parsed from.
+     */
+    private record Entry(AgentRuntimeSchema schema, byte[] digest, long size, long modified, long cachedAt) {
+
+        boolean matches(final long fileSize, final long fileModified) {
+
+            // a file modified right before it was cached may be rewritten within the same timestamp tick.
+            return size == fileSize && modified == fileModified && cachedAt - modified > RACY_WINDOW_MILLIS;
+        }
+    }
+
+    /**
+     * Cache counters.
+     *
+     * @param hits       lookups answered without parsing
+     * @param misses     lookups that parsed the config file
+     * @param evictions  entries dropped by the LRU policy
+     * @param size       current number of entries
+     * @param maxEntries capacity of the cache
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxEntries) {
+
+        /**
+         * Ratio of hits to all lookups.
+         *
+         * @return hit rate in [0, 1]
+         */
+        public double hitRate() {
+
+            long total = hits + misses;
+            return total == 0 ? 0D : (double) hits / total;
+        }
+    }
+
+}
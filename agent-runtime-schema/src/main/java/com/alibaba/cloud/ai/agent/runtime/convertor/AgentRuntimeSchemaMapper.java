@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps the generic tree produced by the JSON, YAML and properties parsers to an
+ * {@link AgentRuntimeSchema}, without reflection, so every format follows the same rules.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+final class AgentRuntimeSchemaMapper {
+
+    private AgentRuntimeSchemaMapper() {
+    }
+
+    static AgentRuntimeSchema toSchema(final Map<?, ?> values) {
+
+        if (Objects.isNull(values)) {
+            throw new IllegalArgumentException("Agent runtime config is empty");
+        }
+
+        AgentRuntimeSchema schema = new AgentRuntimeSchema();
+        schema.setName(string(values.get("name")));
+        schema.setVersion(string(values.get("version")));
+        schema.setDescription(string(values.get("description")));
+        schema.setSchema(string(values.get("schema")));
+
+        String framework = string(values.get("framework"));
+        if (Objects.nonNull(framework)) {
+            schema.setFramework(AgentFramework.of(framework));
+        }
+        String types = string(values.get("types"));
+        if (Objects.nonNull(types)) {
+            schema.setTypes(LoaderType.of(types));
+        }
+        schema.setEnvs(envs(values.get("envs")));
+
+        return schema;
+    }
+
+    /**
+     * Envs are declared either as a list of key value maps or as one map, both are flattened
+     * in declaration order. Convertors that build the table themselves pass it through.
+     */
+    private static AgentEnvTable envs(final Object value) {
+
+        if (Objects.isNull(value) || value instanceof AgentEnvTable) {
+            return (AgentEnvTable) value;
+        }
+
+        AgentEnvTable.Builder envs = AgentEnvTable.builder();
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> envs.put(String.valueOf(k), String.valueOf(v)));
+        } else if (value instanceof List<?> list) {
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?> entry)) {
+                    throw new IllegalArgumentException("Env entry must be a key value map: " + item);
+                }
+                entry.forEach((k, v) -> envs.put(String.valueOf(k), String.valueOf(v)));
+            }
+        } else {
+            throw new IllegalArgumentException("Envs must be a list or a map: " + value);
+        }
+
+        return envs.build();
+    }
+
+    private static String string(final Object value) {
+
+        return Objects.isNull(value) ? null : String.valueOf(value);
+    }
+
+}
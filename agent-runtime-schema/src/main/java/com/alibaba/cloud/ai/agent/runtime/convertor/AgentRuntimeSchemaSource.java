@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Byte source of an agent runtime config.
+ *
+ * <p>A source is backed by a file, a memory-mapped file or bytes already held in memory
+ * (e.g. a jar entry or a config pushed through the API). Content is always exposed as a
+ * {@link ByteBuffer} and decoded as UTF-8 by the convertors. File handles are
+ * never kept open, they are closed as soon as the content has been read or mapped.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaSource {
+
+    private final String name;
+
+    private final Path path;
+
+    private final boolean mapped;
+
+    private final ByteBuffer buffer;
+
+    private AgentRuntimeSchemaSource(final String name, final Path path, final boolean mapped, final ByteBuffer buffer) {
+
+        if (Objects.isNull(name) || name.isEmpty()) {
+            throw new IllegalArgumentException("Source name must not be null or empty");
+        }
+        this.name = name;
+        this.path = path;
+        this.mapped = mapped;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Source read from the file system, the file is read on every {@link #read()}.
+     *
+     * @param path config file path
+     * @return {@link AgentRuntimeSchemaSource}
+     */
+    public static AgentRuntimeSchemaSource of(final Path path) {
+
+        return new AgentRuntimeSchemaSource(fileName(path), path, false, null);
+    }
+
+    /**
+     * Source over bytes already in memory. The name carries the config format, e.g. {@code runtime.config.yaml}.
+     *
+     * @param name    logical resource name
+     * @param content config content
+     * @return {@link AgentRuntimeSchemaSource}
+     */
+    public static AgentRuntimeSchemaSource of(final String name, final ByteBuffer content) {
+
+        return new AgentRuntimeSchemaSource(name, null, false, content.asReadOnlyBuffer().slice());
+    }
+
+    /**
+     * Source over a stream, the stream is fully read and closed before this method returns.
+     *
+     * @param name   logical resource name
+     * @param stream config content stream
+     * @return {@link AgentRuntimeSchemaSource}
+     */
+    public static AgentRuntimeSchemaSource of(final String name, final InputStream stream) {
+
+        try (InputStream in = stream) {
+            return of(name, ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read config stream: " + name, e);
+        }
+    }
+
+    /**
+     * Source mapped into memory on every {@link #read()}, the channel is closed right after mapping.
+     *
+     * @param path config file path
+     * @return {@link AgentRuntimeSchemaSource}
+     */
+    public static AgentRuntimeSchemaSource mapped(final Path path) {
+
+        return new AgentRuntimeSchemaSource(fileName(path), path, true, null);
+    }
+
+    /**
+     * Resource name, used to detect the config format.
+     *
+     * @return the resource name
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * File backing this source, empty for in-memory sources.
+     *
+     * @return the config file path
+     */
+    public Optional<Path> getPath() {
+
+        return Optional.ofNullable(path);
+    }
+
+    /**
+     * Lower-cased file extension of the resource name.
+     *
+     * @return the extension, empty if the name has none
+     */
+    public String getExtension() {
+
+        int idx = name.lastIndexOf('.');
+        return idx == -1 ? "" : name.substring(idx + 1).toLowerCase();
+    }
+
+    /**
+     * Read the content, each call returns an independent buffer positioned at zero.
+     * Shared in-memory content and mapped files are exposed read-only.
+     *
+     * @return the config content
+     */
+    public ByteBuffer read() {
+
+        if (Objects.nonNull(buffer)) {
+            return buffer.duplicate();
+        }
+
+        try {
+            if (mapped) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            return ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read config file: " + path, e);
+        }
+    }
+
+    /**
+     * Open a stream over the content, the stream holds no system resources.
+     *
+     * @return the content stream
+     */
+    public InputStream openStream() {
+
+        return openStream(read());
+    }
+
+    /**
+     * Open a stream over the remaining bytes of a buffer, the buffer position is not changed.
+     *
+     * @param content the buffer
+     * @return the content stream
+     */
+    public static InputStream openStream(final ByteBuffer content) {
+
+        return new ByteBufferInputStream(content.duplicate());
+    }
+
+    @Override
+    public String toString() {
+
+        return Objects.nonNull(path) ? path.toString() : name;
+    }
+
+    private static String fileName(final Path path) {
+
+        Path fileName = path.getFileName();
+        if (Objects.isNull(fileName)) {
+            throw new IllegalArgumentException("Config path has no file name: " + path);
+        }
+        return fileName.toString();
+    }
+
+    /**
+     * Input stream over a byte buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) {
+
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+
+            return buffer.remaining();
+        }
+    }
+
+}
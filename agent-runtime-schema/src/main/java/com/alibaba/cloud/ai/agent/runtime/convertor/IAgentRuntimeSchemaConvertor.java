@@ -30,4 +30,12 @@ import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
 public interface IAgentRuntimeSchemaConvertor {
 
     AgentRuntimeSchema convert();
+
+    /**
+     * Convert the given config source.
+     *
+     * @param source config source
+     * @return {@link AgentRuntimeSchema}
+     */
+    AgentRuntimeSchema convert(AgentRuntimeSchemaSource source);
 }
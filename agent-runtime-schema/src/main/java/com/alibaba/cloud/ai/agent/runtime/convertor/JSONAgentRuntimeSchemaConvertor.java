@@ -20,8 +20,12 @@
 package com.alibaba.cloud.ai.agent.runtime.convertor;
 
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
+
 /**
  * Agent Runtime Schema Convertor for JSON format.
  *
@@ -30,20 +34,32 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public final class JSONAgentRuntimeSchemaConvertor extends AbstractAgentRuntimeSchemaConvertor {
 
-    public JSONAgentRuntimeSchemaConvertor(String resourcePath) {
+    /**
+     * ObjectMapper is thread-safe once configured, share it across conversions.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public JSONAgentRuntimeSchemaConvertor(final String resourcePath) {
         super(resourcePath);
     }
 
+    public JSONAgentRuntimeSchemaConvertor(final AgentRuntimeSchemaSource source) {
+        super(source);
+    }
+
     @Override
-    public AgentRuntimeSchema doConvert() {
+    public AgentRuntimeSchema doConvert(final ByteBuffer content) {
 
         try {
 
-            ObjectMapper mapper = new ObjectMapper();
+            // JSON is UTF-8 by spec, let jackson decode heap buffers in place.
+            Map<?, ?> values = content.hasArray()
+                    ? MAPPER.readValue(content.array(), content.arrayOffset() + content.position(), content.remaining(), Map.class)
+                    : MAPPER.readValue(AgentRuntimeSchemaSource.openStream(content), Map.class);
 
-            return mapper.readValue(this.fileReader, AgentRuntimeSchema.class);
+            return AgentRuntimeSchemaMapper.toSchema(values);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to convert JSON to AgentRuntimeSchema", e);
+            throw new AgentRuntimeException("Failed to convert JSON to AgentRuntimeSchema", e);
         }
     }
 
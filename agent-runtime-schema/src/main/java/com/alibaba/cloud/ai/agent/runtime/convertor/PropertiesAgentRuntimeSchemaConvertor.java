@@ -19,10 +19,20 @@
 
 package com.alibaba.cloud.ai.agent.runtime.convertor;
 
-import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 
-import java.util.*;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 /**
  * Agent Runtime Schema Convertor For Properties.
@@ -32,44 +42,62 @@ import java.util.*;
  */
 public final class PropertiesAgentRuntimeSchemaConvertor extends AbstractAgentRuntimeSchemaConvertor {
 
-    public PropertiesAgentRuntimeSchemaConvertor(String resourcePath) {
+    private static final String ENVS_PREFIX = "envs.";
+
+    public PropertiesAgentRuntimeSchemaConvertor(final String resourcePath) {
         super(resourcePath);
     }
-    
+
+    public PropertiesAgentRuntimeSchemaConvertor(final AgentRuntimeSchemaSource source) {
+        super(source);
+    }
+
     @Override
-    public AgentRuntimeSchema doConvert() {
+    public AgentRuntimeSchema doConvert(final ByteBuffer content) {
 
         Properties props = new Properties();
-        try  {
+        try (Reader reader = new InputStreamReader(AgentRuntimeSchemaSource.openStream(content), StandardCharsets.UTF_8)) {
 
-            props.load(this.fileReader);
-            AgentRuntimeSchema.Builder builder = AgentRuntimeSchema.builder();
-            builder.name(props.getProperty("name"));
-            builder.version(props.getProperty("version"));
-            builder.description(props.getProperty("description"));
-            builder.framework(AgentFramework.valueOf(props.getProperty("framework")));
+            props.load(reader);
 
-            List<Map<String, String>> envs = new ArrayList<>();
-            Map<Integer, Map<String, String>> envMap = new HashMap<>();
+            Map<String, Object> values = new HashMap<>();
+            List<EnvProperty> envs = new ArrayList<>();
             for (String key : props.stringPropertyNames()) {
-                if (key.startsWith("envs.")) {
-                    String[] parts = key.split("\\.");
-                    if (parts.length == 3) {
-                        int idx = Integer.parseInt(parts[1]);
-                        envMap.computeIfAbsent(idx, k -> new HashMap<>())
-                                .put(parts[2], props.getProperty(key));
+                if (key.startsWith(ENVS_PREFIX)) {
+                    // envs.<index>.<NAME>
+                    int dot = key.indexOf('.', ENVS_PREFIX.length());
+                    if (dot > ENVS_PREFIX.length() && dot < key.length() - 1) {
+                        int idx = Integer.parseInt(key, ENVS_PREFIX.length(), dot, 10);
+                        envs.add(new EnvProperty(idx, key.substring(dot + 1), props.getProperty(key)));
                     }
+                } else {
+                    values.put(key, props.getProperty(key));
                 }
             }
-            for (int i = 0; i < envMap.size(); i++) {
-                envs.add(envMap.get(i));
+            if (!envs.isEmpty()) {
+                values.put("envs", toEnvTable(envs));
             }
-            builder.envs(envs);
 
-            return builder.build();
+            return AgentRuntimeSchemaMapper.toSchema(values);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to convert Properties to AgentRuntimeSchema", e);
+            throw new AgentRuntimeException("Failed to convert Properties to AgentRuntimeSchema", e);
+        }
+    }
+
+    /**
+     * Properties are unordered, entries are ordered by index and then by name.
+     */
+    private static AgentEnvTable toEnvTable(final List<EnvProperty> envs) {
+
+        envs.sort(Comparator.comparingInt(EnvProperty::index).thenComparing(EnvProperty::name));
+        AgentEnvTable.Builder builder = AgentEnvTable.builder();
+        for (EnvProperty env : envs) {
+            builder.put(env.name(), env.value());
         }
+        return builder.build();
+    }
+
+    private record EnvProperty(int index, String name, String value) {
     }
 
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+/**
+ * Agent Runtime Schema Convertor for precompiled snapshots, see {@link AgentRuntimeSnapshot}.
+ * Reads the binary form directly, no text parser is loaded.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class SnapshotAgentRuntimeSchemaConvertor extends AbstractAgentRuntimeSchemaConvertor {
+
+    public SnapshotAgentRuntimeSchemaConvertor(final String resourcePath) {
+        super(AgentRuntimeSchemaSource.mapped(Paths.get(resourcePath)));
+    }
+
+    public SnapshotAgentRuntimeSchemaConvertor(final AgentRuntimeSchemaSource source) {
+        super(source);
+    }
+
+    @Override
+    public AgentRuntimeSchema doConvert(final ByteBuffer content) {
+
+        return AgentRuntimeSnapshot.read(content).getSchema();
+    }
+
+}
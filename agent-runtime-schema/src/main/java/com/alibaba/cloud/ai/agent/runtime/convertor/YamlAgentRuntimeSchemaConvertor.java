@@ -20,8 +20,15 @@
 package com.alibaba.cloud.ai.agent.runtime.convertor;
 
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 /**
  * Agent Runtime Schema Convertor for YAML format.
  *
@@ -30,20 +37,25 @@ import org.yaml.snakeyaml.Yaml;
  */
 public final class YamlAgentRuntimeSchemaConvertor extends AbstractAgentRuntimeSchemaConvertor {
 
-    public YamlAgentRuntimeSchemaConvertor(String resourcePath) {
+    public YamlAgentRuntimeSchemaConvertor(final String resourcePath) {
         super(resourcePath);
     }
-    
+
+    public YamlAgentRuntimeSchemaConvertor(final AgentRuntimeSchemaSource source) {
+        super(source);
+    }
+
     @Override
-    public AgentRuntimeSchema doConvert() {
+    public AgentRuntimeSchema doConvert(final ByteBuffer content) {
 
-        try {
+        try (Reader reader = new InputStreamReader(AgentRuntimeSchemaSource.openStream(content), StandardCharsets.UTF_8)) {
 
-            Yaml yaml = new Yaml();
+            // Yaml is not thread-safe, create one per conversion.
+            Map<?, ?> values = new Yaml().load(reader);
 
-            return yaml.loadAs(this.fileReader, AgentRuntimeSchema.class);
+            return AgentRuntimeSchemaMapper.toSchema(values);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to convert YAML to AgentRuntimeSchema", e);
+            throw new AgentRuntimeException("Failed to convert YAML to AgentRuntimeSchema", e);
         }
     }
 }
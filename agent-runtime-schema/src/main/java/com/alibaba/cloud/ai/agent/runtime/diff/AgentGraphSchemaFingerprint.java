@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.diff;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Structural fingerprint of a graph schema.
+ *
+ * <p>The schema is parsed as YAML (JSON included) and hashed in a canonical form with sorted
+ * map keys, so formatting, comments and key order do not count as a change. Content that does
+ * not parse is hashed as raw bytes.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentGraphSchemaFingerprint {
+
+    private AgentGraphSchemaFingerprint() {
+    }
+
+    /**
+     * Fingerprint of the graph schema content.
+     *
+     * @param content graph schema bytes, the buffer position is not changed
+     * @return hex encoded SHA-256 of the canonical form
+     */
+    public static String of(final ByteBuffer content) {
+
+        MessageDigest md = sha256();
+        try (Reader reader = new InputStreamReader(AgentRuntimeSchemaSource.openStream(content), StandardCharsets.UTF_8)) {
+            StringBuilder canonical = new StringBuilder(content.remaining());
+            for (Object document : new Yaml().loadAll(reader)) {
+                canonicalize(document, canonical);
+                canonical.append('\n');
+            }
+            md.update(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (YAMLException | IOException e) {
+            md.reset();
+            md.update(content.duplicate());
+        }
+
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static void canonicalize(final Object node, final StringBuilder out) {
+
+        if (node instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+            out.append('{');
+            sorted.forEach((k, v) -> {
+                out.append(k.length()).append(':').append(k).append('=');
+                canonicalize(v, out);
+                out.append(',');
+            });
+            out.append('}');
+        } else if (node instanceof List<?> list) {
+            out.append('[');
+            for (Object item : list) {
+                canonicalize(item, out);
+                out.append(',');
+            }
+            out.append(']');
+        } else if (Objects.isNull(node)) {
+            out.append('~');
+        } else {
+            String value = String.valueOf(node);
+            out.append(node.getClass().getSimpleName().charAt(0)).append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static MessageDigest sha256() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AgentRuntimeException(e);
+        }
+    }
+
+}
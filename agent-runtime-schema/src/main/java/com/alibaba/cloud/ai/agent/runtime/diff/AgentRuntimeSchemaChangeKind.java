@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.diff;
+
+import com.alibaba.cloud.ai.agent.runtime.common.enums.IEnum;
+
+/**
+ * Kind of a change between two agent runtime schema versions, declared from the cheapest to
+ * the most expensive update.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public enum AgentRuntimeSchemaChangeKind implements IEnum {
+
+    NONE("None", "Nothing changed."),
+    METADATA("Metadata", "Version, description or a graph schema reference with unchanged content, swap the config only."),
+    ENV("Env", "Env values changed, swap the values without recompiling the graph or reinstantiating the agent."),
+    GRAPH_TOPOLOGY("GraphTopology", "The graph schema changed, recompile the graph."),
+    NAME("Name", "The agent name changed, rebuild the agent and move it to the new name in every name-keyed registry."),
+    FRAMEWORK("Framework", "Framework or loader type switched, reload the agent from scratch.");
+
+    private final String name;
+
+    private final String desc;
+
+    AgentRuntimeSchemaChangeKind(final String name, final String desc) {
+        this.name = name;
+        this.desc = desc;
+    }
+
+    @Override
+    public String getName() {
+
+        return this.name;
+    }
+
+    @Override
+    public String getDesc() {
+
+        return this.desc;
+    }
+
+    /**
+     * Whether applying a change of this kind needs the agent to be rebuilt.
+     *
+     * @return true for graph topology, name and framework changes
+     */
+    public boolean requiresReload() {
+
+        return this.compareTo(GRAPH_TOPOLOGY) >= 0;
+    }
+
+}
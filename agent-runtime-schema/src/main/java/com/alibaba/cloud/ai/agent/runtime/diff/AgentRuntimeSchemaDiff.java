@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.diff;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural diff between two versions of an agent runtime schema and its graph schema.
+ *
+ * <p>Every changed field is classified by {@link AgentRuntimeSchemaChangeKind}, the diff as a
+ * whole is as expensive as its most expensive change. Callers apply the cheapest update that
+ * covers {@link #getKind()}, e.g. an env-only diff swaps env values in place.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaDiff {
+
+    private static final AgentRuntimeSchemaDiff EMPTY = new AgentRuntimeSchemaDiff(List.of(), Map.of());
+
+    private final List<Change> changes;
+
+    private final Map<String, String> envChanges;
+
+    private final AgentRuntimeSchemaChangeKind kind;
+
+    private AgentRuntimeSchemaDiff(final List<Change> changes, final Map<String, String> envChanges) {
+
+        this.changes = changes;
+        this.envChanges = envChanges;
+        AgentRuntimeSchemaChangeKind max = AgentRuntimeSchemaChangeKind.NONE;
+        for (Change change : changes) {
+            if (change.kind().compareTo(max) > 0) {
+                max = change.kind();
+            }
+        }
+        this.kind = max;
+    }
+
+    /**
+     * Diff two schemas without graph content, a changed graph schema reference counts as a topology change.
+     *
+     * @param previous the schema in use
+     * @param next     the new schema
+     * @return {@link AgentRuntimeSchemaDiff}
+     */
+    public static AgentRuntimeSchemaDiff between(final AgentRuntimeSchema previous, final AgentRuntimeSchema next) {
+
+        return between(previous, null, next, null);
+    }
+
+    /**
+     * Diff two schemas together with the fingerprints of their graph schemas, see {@link AgentGraphSchemaFingerprint}.
+     * A moved graph schema with unchanged content only changes metadata. When either fingerprint is unknown
+     * the graph schema reference is compared instead.
+     *
+     * @param previous         the schema in use
+     * @param previousGraph    fingerprint of the graph schema in use, may be null
+     * @param next             the new schema
+     * @param nextGraph        fingerprint of the new graph schema, may be null
+     * @return {@link AgentRuntimeSchemaDiff}
+     */
+    public static AgentRuntimeSchemaDiff between(final AgentRuntimeSchema previous, final String previousGraph,
+                                                 final AgentRuntimeSchema next, final String nextGraph) {
+
+        List<Change> changes = new ArrayList<>(4);
+        compare(changes, "name", previous.getName(), next.getName(), AgentRuntimeSchemaChangeKind.NAME);
+        compare(changes, "version", previous.getVersion(), next.getVersion(), AgentRuntimeSchemaChangeKind.METADATA);
+        compare(changes, "description", previous.getDescription(), next.getDescription(), AgentRuntimeSchemaChangeKind.METADATA);
+        compare(changes, "framework", previous.getFramework(), next.getFramework(), AgentRuntimeSchemaChangeKind.FRAMEWORK);
+        compare(changes, "types", previous.getTypes(), next.getTypes(), AgentRuntimeSchemaChangeKind.FRAMEWORK);
+
+        boolean graphKnown = Objects.nonNull(previousGraph) && Objects.nonNull(nextGraph);
+        compare(changes, "schema", previous.getSchema(), next.getSchema(),
+                graphKnown ? AgentRuntimeSchemaChangeKind.METADATA : AgentRuntimeSchemaChangeKind.GRAPH_TOPOLOGY);
+        if (graphKnown) {
+            compare(changes, "graph", previousGraph, nextGraph, AgentRuntimeSchemaChangeKind.GRAPH_TOPOLOGY);
+        }
+
+        Map<String, String> envChanges = diffEnvs(changes, previous.getEnvs(), next.getEnvs());
+        if (changes.isEmpty()) {
+            return EMPTY;
+        }
+
+        return new AgentRuntimeSchemaDiff(Collections.unmodifiableList(changes), envChanges);
+    }
+
+    /**
+     * The most expensive change.
+     *
+     * @return {@link AgentRuntimeSchemaChangeKind#NONE} if nothing changed
+     */
+    public AgentRuntimeSchemaChangeKind getKind() {
+
+        return kind;
+    }
+
+    /**
+     * All kinds present in this diff.
+     *
+     * @return change kinds
+     */
+    public Set<AgentRuntimeSchemaChangeKind> getKinds() {
+
+        Set<AgentRuntimeSchemaChangeKind> kinds = EnumSet.noneOf(AgentRuntimeSchemaChangeKind.class);
+        for (Change change : changes) {
+            kinds.add(change.kind());
+        }
+        return kinds;
+    }
+
+    public List<Change> getChanges() {
+
+        return changes;
+    }
+
+    /**
+     * Env variables to set, a null value marks a removed variable.
+     *
+     * @return changed env values by name
+     */
+    public Map<String, String> getEnvChanges() {
+
+        return envChanges;
+    }
+
+    public boolean isEmpty() {
+
+        return changes.isEmpty();
+    }
+
+    /**
+     * Whether the agent has to be rebuilt to apply this diff.
+     *
+     * @return true for graph topology, name and framework changes
+     */
+    public boolean requiresReload() {
+
+        return kind.requiresReload();
+    }
+
+    @Override
+    public String toString() {
+
+        return kind + " " + changes;
+    }
+
+    private static void compare(final List<Change> changes, final String field, final Object previous, final Object next,
+                                final AgentRuntimeSchemaChangeKind kind) {
+
+        if (!Objects.equals(previous, next)) {
+            changes.add(new Change(field, kind, Objects.toString(previous, null), Objects.toString(next, null)));
+        }
+    }
+
+    private static Map<String, String> diffEnvs(final List<Change> changes, final AgentEnvTable previous, final AgentEnvTable next) {
+
+        AgentEnvTable before = Objects.isNull(previous) ? AgentEnvTable.EMPTY : previous;
+        AgentEnvTable after = Objects.isNull(next) ? AgentEnvTable.EMPTY : next;
+        if (before.equals(after)) {
+            return Map.of();
+        }
+
+        Map<String, String> envChanges = new LinkedHashMap<>();
+        for (int i = 0; i < after.size(); i++) {
+            String key = after.key(i);
+            String value = before.get(key);
+            if (!after.value(i).equals(value)) {
+                changes.add(new Change("envs." + key, AgentRuntimeSchemaChangeKind.ENV, value, after.value(i)));
+                envChanges.put(key, after.value(i));
+            }
+        }
+        for (int i = 0; i < before.size(); i++) {
+            String key = before.key(i);
+            if (!after.containsKey(key)) {
+                changes.add(new Change("envs." + key, AgentRuntimeSchemaChangeKind.ENV, before.value(i), null));
+                envChanges.put(key, null);
+            }
+        }
+
+        return Collections.unmodifiableMap(envChanges);
+    }
+
+    /**
+     * A changed field.
+     *
+     * @param field    field name, env variables are named {@code envs.<NAME>}
+     * @param kind     kind of the change
+     * @param previous previous value, null if added
+     * @param next     new value, null if removed
+     */
+    public record Change(String field, AgentRuntimeSchemaChangeKind kind, String previous, String next) {
+    }
+
+}
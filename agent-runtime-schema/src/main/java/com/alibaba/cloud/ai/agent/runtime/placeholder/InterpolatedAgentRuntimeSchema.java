@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.placeholder;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * Lazily interpolated view of an {@link AgentRuntimeSchema}.
+ *
+ * <p>The {@code schema} value and every env value are resolved on first access and memoized
+ * per slot, values without a placeholder cost a single scan. Each resolution records the
+ * source keys it consulted, so {@link #invalidate(String, String)} only drops the values that
+ * depend on a changed key. Thread-safe: a value invalidated while it is being resolved is
+ * returned to the caller but not memoized.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class InterpolatedAgentRuntimeSchema {
+
+    private static final int SCHEMA_SLOT = 0;
+
+    private static final Object UNRESOLVED = new Object();
+
+    private final AgentRuntimeSchema schema;
+
+    private final AgentEnvTable envs;
+
+    private final PlaceholderResolver resolver;
+
+    /**
+     * Resolved value per slot, or an unresolved marker. Slot 0 is {@code schema}, slot {@code i + 1} is env {@code i}.
+     */
+    private final AtomicReferenceArray<Object> resolved;
+
+    /**
+     * Slots by {@code source:key} they were resolved from.
+     */
+    private final Map<String, Set<Integer>> dependents = new ConcurrentHashMap<>();
+
+    public InterpolatedAgentRuntimeSchema(final AgentRuntimeSchema schema, final PlaceholderResolver resolver) {
+
+        this.schema = schema;
+        this.envs = Objects.isNull(schema.getEnvs()) ? AgentEnvTable.EMPTY : schema.getEnvs();
+        this.resolver = resolver;
+        this.resolved = new AtomicReferenceArray<>(envs.size() + 1);
+        for (int i = 0; i < resolved.length(); i++) {
+            resolved.set(i, UNRESOLVED);
+        }
+    }
+
+    /**
+     * The schema as parsed, placeholders included.
+     *
+     * @return {@link AgentRuntimeSchema}
+     */
+    public AgentRuntimeSchema getRaw() {
+
+        return schema;
+    }
+
+    /**
+     * The resolved agent schema, java class or classpath.
+     *
+     * @return the resolved value
+     */
+    public String getSchema() {
+
+        return slot(SCHEMA_SLOT);
+    }
+
+    /**
+     * The resolved value of an env variable.
+     *
+     * @param key variable name
+     * @return the resolved value, null if the variable is not defined
+     */
+    public String getEnv(final String key) {
+
+        int idx = envs.indexOf(key);
+        return idx < 0 ? null : slot(idx + 1);
+    }
+
+    /**
+     * All env variables resolved.
+     *
+     * @return resolved env table
+     */
+    public AgentEnvTable getEnvs() {
+
+        AgentEnvTable.Builder builder = AgentEnvTable.builder();
+        for (int i = 0; i < envs.size(); i++) {
+            builder.put(envs.key(i), slot(i + 1));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A copy of the schema with all placeholders resolved.
+     *
+     * @return resolved {@link AgentRuntimeSchema}
+     */
+    public AgentRuntimeSchema resolve() {
+
+        AgentRuntimeSchema copy = schema.copy();
+        copy.setSchema(getSchema());
+        if (Objects.nonNull(schema.getEnvs())) {
+            copy.setEnvs(getEnvs());
+        }
+        return copy;
+    }
+
+    /**
+     * Keys of a source the memoized values were resolved from, values not resolved yet are not covered.
+     *
+     * @param source source name, e.g. {@link PlaceholderResolver#FILE}
+     * @return source keys, e.g. the {@code ${file:...}} paths
+     */
+    public Set<String> getDependencies(final String source) {
+
+        String prefix = source + ':';
+        return dependents.keySet().stream()
+                .filter(dependency -> dependency.startsWith(prefix))
+                .map(dependency -> dependency.substring(prefix.length()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Drop the memoized values that were resolved from the given source key.
+     *
+     * @param source source name, e.g. {@link PlaceholderResolver#ENV}
+     * @param key    source key, e.g. {@code JAVA_HOME}
+     * @return number of dropped values
+     */
+    public int invalidate(final String source, final String key) {
+
+        Set<Integer> slots = dependents.remove(source + ':' + key);
+        if (Objects.isNull(slots)) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int slot : slots) {
+            // a fresh marker makes a concurrent resolution of this slot fail to memoize.
+            if (resolved.getAndSet(slot, new Object()) instanceof String) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drop the memoized values that were resolved from any key of the given source.
+     *
+     * @param source source name, e.g. {@link PlaceholderResolver#FILE}
+     * @return number of dropped values
+     */
+    public int invalidate(final String source) {
+
+        String prefix = source + ':';
+        int count = 0;
+        for (String dependency : dependents.keySet()) {
+            if (dependency.startsWith(prefix)) {
+                count += invalidate(source, dependency.substring(prefix.length()));
+            }
+        }
+        return count;
+    }
+
+    private String slot(final int slot) {
+
+        Object current = resolved.get(slot);
+        if (current instanceof String value) {
+            return value;
+        }
+
+        String raw = slot == SCHEMA_SLOT ? schema.getSchema() : envs.value(slot - 1);
+        if (Objects.isNull(raw)) {
+            return null;
+        }
+
+        String value = PlaceholderResolver.hasPlaceholder(raw)
+                ? resolver.resolve(raw, (source, key) -> dependents.computeIfAbsent(source + ':' + key, k -> ConcurrentHashMap.newKeySet()).add(slot))
+                : raw;
+        resolved.compareAndSet(slot, current, value);
+        return value;
+    }
+
+}
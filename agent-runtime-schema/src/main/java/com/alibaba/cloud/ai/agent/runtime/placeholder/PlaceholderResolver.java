@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.placeholder;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Resolves {@code ${...}} placeholders in runtime config values.
+ *
+ * <p>Supported forms:
+ * <ul>
+ *     <li>{@code ${NAME}} or {@code ${env:NAME}}: environment variable.</li>
+ *     <li>{@code ${sys:name}}: system property.</li>
+ *     <li>{@code ${file:path}}: file content without trailing whitespace, relative paths are resolved against the config directory.</li>
+ *     <li>{@code ${NAME:-default}}: default used when the source does not define the key, the default may hold placeholders itself.</li>
+ *     <li>{@code $${...}}: the literal text {@code ${...}}.</li>
+ * </ul>
+ * Resolved values are never interpolated again.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class PlaceholderResolver {
+
+    /**
+     * Environment variable source, also used when a placeholder has no prefix.
+     */
+    public static final String ENV = "env";
+
+    /**
+     * System property source.
+     */
+    public static final String SYS = "sys";
+
+    /**
+     * File content source.
+     */
+    public static final String FILE = "file";
+
+    private static final String PREFIX = "${";
+
+    private static final String DEFAULT_SEPARATOR = ":-";
+
+    private static final int MAX_DEPTH = 8;
+
+    private static final BiConsumer<String, String> NO_DEPENDENCIES = (source, key) -> {
+    };
+
+    private final Map<String, IPlaceholderSource> sources;
+
+    public PlaceholderResolver(final Map<String, IPlaceholderSource> sources) {
+
+        if (!sources.containsKey(ENV)) {
+            throw new IllegalArgumentException("Placeholder sources must define the '" + ENV + "' source");
+        }
+        this.sources = Map.copyOf(sources);
+    }
+
+    /**
+     * Resolver over the process environment, system properties and files below the given directory.
+     *
+     * @param baseDir directory relative {@code ${file:...}} paths are resolved against
+     * @return {@link PlaceholderResolver}
+     */
+    public static PlaceholderResolver defaults(final Path baseDir) {
+
+        return new PlaceholderResolver(Map.of(
+                ENV, System::getenv,
+                SYS, System::getProperty,
+                FILE, files(baseDir)
+        ));
+    }
+
+    /**
+     * Source reading file content without trailing whitespace, a missing file is undefined.
+     *
+     * @param baseDir directory relative paths are resolved against
+     * @return {@link IPlaceholderSource}
+     */
+    public static IPlaceholderSource files(final Path baseDir) {
+
+        return key -> readFile(baseDir.resolve(key));
+    }
+
+    /**
+     * Whether the value contains a placeholder, values without one are used as is.
+     *
+     * @param value config value
+     * @return true if the value needs to be resolved
+     */
+    public static boolean hasPlaceholder(final String value) {
+
+        return Objects.nonNull(value) && value.contains(PREFIX);
+    }
+
+    /**
+     * Resolve all placeholders of the value.
+     *
+     * @param value config value
+     * @return the resolved value
+     */
+    public String resolve(final String value) {
+
+        return resolve(value, NO_DEPENDENCIES);
+    }
+
+    /**
+     * Resolve all placeholders of the value and report every source key that was consulted.
+     *
+     * @param value        config value
+     * @param dependencies receives the source name and key of each lookup, defaults included
+     * @return the resolved value
+     * @throws AgentRuntimeException if a placeholder is malformed or undefined without a default
+     */
+    public String resolve(final String value, final BiConsumer<String, String> dependencies) {
+
+        return resolve(value, dependencies, 0);
+    }
+
+    private String resolve(final String value, final BiConsumer<String, String> dependencies, final int depth) {
+
+        if (!hasPlaceholder(value)) {
+            return value;
+        }
+        if (depth > MAX_DEPTH) {
+            throw new AgentRuntimeException("Placeholder nesting too deep: " + value);
+        }
+
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        int pos = 0;
+        int start = value.indexOf(PREFIX);
+        while (start >= 0) {
+            if (start > 0 && value.charAt(start - 1) == '$') {
+                sb.append(value, pos, start - 1).append(PREFIX);
+                pos = start + PREFIX.length();
+                start = value.indexOf(PREFIX, pos);
+                continue;
+            }
+
+            int end = closingBrace(value, start + PREFIX.length());
+            if (end < 0) {
+                throw new AgentRuntimeException("Unclosed placeholder in: " + value);
+            }
+            sb.append(value, pos, start).append(resolvePlaceholder(value.substring(start + PREFIX.length(), end), dependencies, depth));
+            pos = end + 1;
+            start = value.indexOf(PREFIX, pos);
+        }
+
+        return sb.append(value, pos, value.length()).toString();
+    }
+
+    private String resolvePlaceholder(final String body, final BiConsumer<String, String> dependencies, final int depth) {
+
+        int separator = topLevelIndexOf(body, DEFAULT_SEPARATOR);
+        String expression = separator < 0 ? body : body.substring(0, separator);
+
+        String sourceName = ENV;
+        String key = expression;
+        int colon = expression.indexOf(':');
+        if (colon > 0 && sources.containsKey(expression.substring(0, colon))) {
+            sourceName = expression.substring(0, colon);
+            key = expression.substring(colon + 1);
+        }
+        if (key.isEmpty()) {
+            throw new AgentRuntimeException("Empty placeholder: ${" + body + "}");
+        }
+
+        dependencies.accept(sourceName, key);
+        String resolved = sources.get(sourceName).resolve(key);
+        if (Objects.nonNull(resolved)) {
+            return resolved;
+        }
+        if (separator >= 0) {
+            return resolve(body.substring(separator + DEFAULT_SEPARATOR.length()), dependencies, depth + 1);
+        }
+
+        throw new AgentRuntimeException("Unresolvable placeholder: ${" + body + "}");
+    }
+
+    /**
+     * Index of the brace closing the placeholder opened right before {@code from}, nested placeholders are skipped.
+     */
+    private static int closingBrace(final String value, final int from) {
+
+        int depth = 1;
+        int i = from;
+        while (i < value.length()) {
+            if (value.startsWith(PREFIX, i)) {
+                depth++;
+                i += PREFIX.length();
+                continue;
+            }
+            if (value.charAt(i) == '}') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int topLevelIndexOf(final String body, final String token) {
+
+        int depth = 0;
+        int i = 0;
+        while (i < body.length()) {
+            if (body.startsWith(PREFIX, i)) {
+                depth++;
+                i += PREFIX.length();
+                continue;
+            }
+            if (body.charAt(i) == '}') {
+                depth--;
+            } else if (depth == 0 && body.startsWith(token, i)) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static String readFile(final Path path) {
+
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8).stripTrailing();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read placeholder file: " + path, e);
+        }
+    }
+
+}
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.registry;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.diff.AgentRuntimeSchemaDiff;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versioned registry of agent runtime schemas, keyed by agent name.
+ *
+ * <p>The whole registry is one immutable state object behind an {@link AtomicReference}.
+ * Reads are a single volatile load and never lock; {@link #publish(AgentRuntimeSchema)},
+ * {@link #rename(String, AgentRuntimeSchema)}, {@link #rollback(String)} and {@link #remove(String)}
+ * copy the state, apply the change and swap it in with a compare-and-set, retrying on contention.
+ * Writes are expected to be rare compared to reads, so the copy is cheap in aggregate.
+ *
+ * <p>Schemas are frozen on publication, see {@link AgentRuntimeSchema#freeze()}, so a reader can
+ * never observe a half-applied update. Up to {@code maxHistory} revisions are kept per agent,
+ * older ones are dropped first, the active revision is never dropped.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSchemaRegistry {
+
+    /**
+     * Default number of revisions kept per agent, can be overridden by the system property below.
+     */
+    public static final int DEFAULT_MAX_HISTORY = 8;
+
+    /**
+     * System property to override the history size of the shared registry.
+     */
+    public static final String MAX_HISTORY_PROPERTY = "agent.runtime.schema.registry.max-history";
+
+    private static final AgentRuntimeSchemaRegistry INSTANCE = new AgentRuntimeSchemaRegistry(
+            Integer.getInteger(MAX_HISTORY_PROPERTY, DEFAULT_MAX_HISTORY));
+
+    private final int maxHistory;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.EMPTY);
+
+    public AgentRuntimeSchemaRegistry(final int maxHistory) {
+
+        if (maxHistory <= 0) {
+            throw new IllegalArgumentException("Registry max history must be positive: " + maxHistory);
+        }
+        this.maxHistory = maxHistory;
+    }
+
+    /**
+     * Get the shared registry instance.
+     *
+     * @return the process-wide registry
+     */
+    public static AgentRuntimeSchemaRegistry getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Publish a schema as the active revision of its agent. The registry keeps a frozen copy,
+     * the given schema is left untouched unless it is already frozen. Publishing a schema that
+     * does not differ from the active one returns the active revision.
+     *
+     * @param schema the schema, must have a name
+     * @return the active revision after publication
+     */
+    public AgentRuntimeSchemaRevision publish(final AgentRuntimeSchema schema) {
+
+        String name = schema.getName();
+        if (Objects.isNull(name) || name.isEmpty()) {
+            throw new IllegalArgumentException("Agent runtime schema without a name can not be published");
+        }
+        AgentRuntimeSchema frozen = schema.isFrozen() ? schema : schema.copy().freeze();
+
+        while (true) {
+            State current = state.get();
+            History history = current.agents().get(name);
+            if (Objects.nonNull(history) && AgentRuntimeSchemaDiff.between(history.activeSchema(), frozen).isEmpty()) {
+                return history.activeRevision();
+            }
+
+            AgentRuntimeSchemaRevision revision = new AgentRuntimeSchemaRevision(frozen, current.revision() + 1, Instant.now());
+            History next = Objects.isNull(history) ? History.of(revision) : history.append(revision, maxHistory);
+            if (state.compareAndSet(current, current.with(name, next, revision.revision()))) {
+                return revision;
+            }
+        }
+    }
+
+    /**
+     * Publish the schema of a renamed agent. In one atomic step the agent is removed under its
+     * previous name and the schema becomes the active revision under its new name, so readers see
+     * the agent under exactly one of the two names. The history of the previous name is dropped,
+     * its revisions carry the old name and can not be rolled back to under the new one.
+     *
+     * @param previousName the name the agent was published under
+     * @param schema       the schema with the new name
+     * @return the active revision under the new name
+     */
+    public AgentRuntimeSchemaRevision rename(final String previousName, final AgentRuntimeSchema schema) {
+
+        String name = schema.getName();
+        if (Objects.isNull(name) || name.isEmpty()) {
+            throw new IllegalArgumentException("Agent runtime schema without a name can not be published");
+        }
+        if (name.equals(previousName)) {
+            return publish(schema);
+        }
+        AgentRuntimeSchema frozen = schema.isFrozen() ? schema : schema.copy().freeze();
+
+        while (true) {
+            State current = state.get();
+            History history = current.agents().get(name);
+            AgentRuntimeSchemaRevision revision = new AgentRuntimeSchemaRevision(frozen, current.revision() + 1, Instant.now());
+            History next = Objects.isNull(history) ? History.of(revision) : history.append(revision, maxHistory);
+            if (state.compareAndSet(current, current.without(previousName).with(name, next, revision.revision()))) {
+                return revision;
+            }
+        }
+    }
+
+    /**
+     * Active schema of an agent.
+     *
+     * @param name agent name
+     * @return the frozen schema, empty if the agent is not registered
+     */
+    public Optional<AgentRuntimeSchema> get(final String name) {
+
+        History history = state.get().agents().get(name);
+        return Objects.isNull(history) ? Optional.empty() : Optional.of(history.activeSchema());
+    }
+
+    /**
+     * Latest retained schema of an agent with the given version, active or not.
+     *
+     * @param name    agent name
+     * @param version agent version
+     * @return the frozen schema, empty if no such version is retained
+     */
+    public Optional<AgentRuntimeSchema> get(final String name, final String version) {
+
+        History history = state.get().agents().get(name);
+        if (Objects.isNull(history)) {
+            return Optional.empty();
+        }
+        int idx = history.lastIndexOf(version);
+        return idx == -1 ? Optional.empty() : Optional.of(history.revisions().get(idx).schema());
+    }
+
+    /**
+     * Active revision of an agent.
+     *
+     * @param name agent name
+     * @return {@link AgentRuntimeSchemaRevision}, empty if the agent is not registered
+     */
+    public Optional<AgentRuntimeSchemaRevision> getRevision(final String name) {
+
+        History history = state.get().agents().get(name);
+        return Objects.isNull(history) ? Optional.empty() : Optional.of(history.activeRevision());
+    }
+
+    /**
+     * Retained revisions of an agent, oldest first.
+     *
+     * @param name agent name
+     * @return the revisions, empty if the agent is not registered
+     */
+    public List<AgentRuntimeSchemaRevision> history(final String name) {
+
+        History history = state.get().agents().get(name);
+        return Objects.isNull(history) ? List.of() : history.revisions();
+    }
+
+    /**
+     * Names of all registered agents, a snapshot that does not follow later changes.
+     *
+     * @return agent names
+     */
+    public Set<String> names() {
+
+        return state.get().agents().keySet();
+    }
+
+    /**
+     * Number of registered agents.
+     *
+     * @return agent count
+     */
+    public int size() {
+
+        return state.get().agents().size();
+    }
+
+    /**
+     * Make the revision before the active one active again.
+     *
+     * @param name agent name
+     * @return the now active revision
+     */
+    public AgentRuntimeSchemaRevision rollback(final String name) {
+
+        return activate(name, null);
+    }
+
+    /**
+     * Make the latest retained revision with the given version active again.
+     *
+     * @param name    agent name
+     * @param version agent version to roll back to
+     * @return the now active revision
+     */
+    public AgentRuntimeSchemaRevision rollback(final String name, final String version) {
+
+        Objects.requireNonNull(version, "version");
+        return activate(name, version);
+    }
+
+    /**
+     * Remove an agent and its history.
+     *
+     * @param name agent name
+     * @return the revision that was active, empty if the agent was not registered
+     */
+    public Optional<AgentRuntimeSchemaRevision> remove(final String name) {
+
+        while (true) {
+            State current = state.get();
+            History history = current.agents().get(name);
+            if (Objects.isNull(history)) {
+                return Optional.empty();
+            }
+            if (state.compareAndSet(current, current.without(name))) {
+                return Optional.of(history.activeRevision());
+            }
+        }
+    }
+
+    /**
+     * Activate the revision before the active one, or the latest one with the given version.
+     */
+    private AgentRuntimeSchemaRevision activate(final String name, final String version) {
+
+        while (true) {
+            State current = state.get();
+            History history = current.agents().get(name);
+            if (Objects.isNull(history)) {
+                throw new AgentRuntimeException("Agent is not registered: " + name);
+            }
+
+            int idx = Objects.isNull(version) ? history.activeIndex() - 1 : history.lastIndexOf(version);
+            if (idx < 0) {
+                throw new AgentRuntimeException(Objects.isNull(version)
+                        ? "No earlier revision of agent " + name + " to roll back to"
+                        : "No retained revision of agent " + name + " with version: " + version);
+            }
+            if (idx == history.activeIndex()) {
+                return history.activeRevision();
+            }
+
+            History next = new History(history.revisions(), idx);
+            if (state.compareAndSet(current, current.with(name, next, current.revision()))) {
+                return next.activeRevision();
+            }
+        }
+    }
+
+    /**
+     * Immutable registry state.
+     *
+     * @param agents   history by agent name, unmodifiable
+     * @param revision last assigned revision number
+     */
+    private record State(Map<String, History> agents, long revision) {
+
+        static final State EMPTY = new State(Map.of(), 0L);
+
+        State with(final String name, final History history, final long nextRevision) {
+
+            Map<String, History> copy = new HashMap<>(agents);
+            copy.put(name, history);
+            return new State(Collections.unmodifiableMap(copy), nextRevision);
+        }
+
+        State without(final String name) {
+
+            Map<String, History> copy = new HashMap<>(agents);
+            copy.remove(name);
+            return new State(Collections.unmodifiableMap(copy), revision);
+        }
+    }
+
+    /**
+     * Immutable revision history of one agent.
+     *
+     * @param revisions   retained revisions, oldest first
+     * @param activeIndex index of the active revision
+     */
+    private record History(List<AgentRuntimeSchemaRevision> revisions, int activeIndex) {
+
+        static History of(final AgentRuntimeSchemaRevision revision) {
+
+            return new History(List.of(revision), 0);
+        }
+
+        AgentRuntimeSchemaRevision activeRevision() {
+
+            return revisions.get(activeIndex);
+        }
+
+        AgentRuntimeSchema activeSchema() {
+
+            return revisions.get(activeIndex).schema();
+        }
+
+        History append(final AgentRuntimeSchemaRevision revision, final int maxHistory) {
+
+            List<AgentRuntimeSchemaRevision> next = new ArrayList<>(revisions.size() + 1);
+            next.addAll(revisions);
+            next.add(revision);
+            // the new revision is active and last, trimming from the front never drops it.
+            int from = Math.max(0, next.size() - maxHistory);
+            List<AgentRuntimeSchemaRevision> retained = List.copyOf(next.subList(from, next.size()));
+
+            return new History(retained, retained.size() - 1);
+        }
+
+        int lastIndexOf(final String version) {
+
+            for (int i = revisions.size() - 1; i >= 0; i--) {
+                if (Objects.equals(version, revisions.get(i).version())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+}
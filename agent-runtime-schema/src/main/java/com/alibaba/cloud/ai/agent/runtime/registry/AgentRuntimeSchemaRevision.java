@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.registry;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+
+import java.time.Instant;
+
+/**
+ * One published version of an agent runtime schema.
+ *
+ * @param schema      the frozen schema
+ * @param revision    registry-wide publication sequence number, increases with every publication
+ * @param publishedAt publication time
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public record AgentRuntimeSchemaRevision(AgentRuntimeSchema schema, long revision, Instant publishedAt) {
+
+    /**
+     * Agent name of the schema.
+     *
+     * @return the agent name
+     */
+    public String name() {
+
+        return schema.getName();
+    }
+
+    /**
+     * Agent version of the schema.
+     *
+     * @return the agent version
+     */
+    public String version() {
+
+        return schema.getVersion();
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.snapshot;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Precompiled binary form of an agent runtime config and its graph schema.
+ *
+ * <p>Snapshots are produced by {@link AgentRuntimeSnapshotCompiler} and read back here
+ * with plain buffer reads, no JSON or YAML parser is involved. Layout, big-endian:
+ * <pre>
+ * magic          4 bytes  "ARSN"
+ * format version u16
+ * flags          u16      bit 0: graph schema embedded
+ * name, version, description, framework, types, schema   string
+ * envs           i32 count (-1 for null), then count key/value string pairs
+ * graph schema   only if flag bit 0 is set: source string (the graph schema file, relative to the
+ *                config directory when inside it), source modified time i64 millis, i32 length then bytes
+ * checksum       i32 CRC32 of all preceding bytes
+ * </pre>
+ * Strings are an i32 byte length ({@code -1} for null) followed by UTF-8 bytes.
+ *
+ * <p>The source and modified time of an embedded graph schema let a loader tell whether the graph
+ * schema file changed since the snapshot was compiled, see {@link #isGraphSourceUnchanged(Path)}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSnapshot {
+
+    /**
+     * Snapshot file extension.
+     */
+    public static final String EXTENSION = "snapshot";
+
+    /**
+     * Snapshot file name looked up next to a text runtime config.
+     */
+    public static final String FILE_NAME = "runtime.config." + EXTENSION;
+
+    /**
+     * Snapshot magic, "ARSN".
+     */
+    static final int MAGIC = 0x4152534E;
+
+    /**
+     * Current format version, readers reject any other version.
+     */
+    static final short FORMAT_VERSION = 3;
+
+    static final short FLAG_GRAPH_SCHEMA = 0x1;
+
+    private static final System.Logger LOGGER = System.getLogger(AgentRuntimeSnapshot.class.getName());
+
+    private final AgentRuntimeSchema schema;
+
+    private final ByteBuffer graphSchema;
+
+    private final String graphSource;
+
+    private final long graphModified;
+
+    private AgentRuntimeSnapshot(final AgentRuntimeSchema schema, final ByteBuffer graphSchema, final String graphSource, final long graphModified) {
+
+        this.schema = schema;
+        this.graphSchema = graphSchema;
+        this.graphSource = graphSource;
+        this.graphModified = graphModified;
+    }
+
+    /**
+     * The snapshot to use instead of a runtime config: the config itself when it is a snapshot, or the
+     * snapshot next to a text config when it is not older than it and the graph schema file it embeds
+     * is unchanged. A stale or unreadable snapshot next to a text config is ignored, the text config
+     * is read instead.
+     *
+     * @param config config file path
+     * @return {@link AgentRuntimeSnapshot}, empty to read the text config
+     */
+    public static Optional<AgentRuntimeSnapshot> resolve(final Path config) {
+
+        if (config.getFileName().toString().endsWith("." + EXTENSION)) {
+            return Optional.of(open(config));
+        }
+
+        Path snapshot = config.resolveSibling(FILE_NAME);
+        try {
+            if (!Files.isRegularFile(snapshot)
+                    || Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(config)) < 0) {
+                return Optional.empty();
+            }
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to check agent runtime snapshot: " + snapshot, e);
+        }
+
+        try {
+            AgentRuntimeSnapshot runtimeSnapshot = open(snapshot);
+            return runtimeSnapshot.isGraphSourceUnchanged(config.toAbsolutePath().getParent()) ? Optional.of(runtimeSnapshot) : Optional.empty();
+        } catch (AgentRuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Ignoring agent runtime snapshot " + snapshot + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Memory-map and read a snapshot file, the channel is closed right after mapping.
+     *
+     * @param path snapshot file path
+     * @return {@link AgentRuntimeSnapshot}
+     */
+    public static AgentRuntimeSnapshot open(final Path path) {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to open agent runtime snapshot: " + path, e);
+        }
+    }
+
+    /**
+     * Read a snapshot from its binary form. The embedded graph schema is a view of the given buffer, not a copy.
+     *
+     * @param content snapshot bytes
+     * @return {@link AgentRuntimeSnapshot}
+     */
+    public static AgentRuntimeSnapshot read(final ByteBuffer content) {
+
+        ByteBuffer buf = content.slice().order(ByteOrder.BIG_ENDIAN);
+        try {
+            verifyChecksum(buf);
+
+            if (buf.getInt() != MAGIC) {
+                throw new AgentRuntimeException("Not an agent runtime snapshot");
+            }
+            short version = buf.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new AgentRuntimeException("Unsupported agent runtime snapshot version: " + version + ", expected: " + FORMAT_VERSION);
+            }
+            final short flags = buf.getShort();
+
+            AgentRuntimeSchema schema = new AgentRuntimeSchema();
+            schema.setName(readString(buf));
+            schema.setVersion(readString(buf));
+            schema.setDescription(readString(buf));
+            String framework = readString(buf);
+            schema.setFramework(Objects.isNull(framework) ? null : AgentFramework.valueOf(framework));
+            String types = readString(buf);
+            schema.setTypes(Objects.isNull(types) ? null : LoaderType.valueOf(types));
+            schema.setSchema(readString(buf));
+            schema.setEnvs(readEnvs(buf));
+
+            ByteBuffer graphSchema = null;
+            String graphSource = null;
+            long graphModified = 0;
+            if ((flags & FLAG_GRAPH_SCHEMA) != 0) {
+                graphSource = readString(buf);
+                graphModified = buf.getLong();
+                int length = buf.getInt();
+                graphSchema = buf.slice(buf.position(), length).asReadOnlyBuffer();
+                buf.position(buf.position() + length);
+            }
+
+            return new AgentRuntimeSnapshot(schema, graphSchema, graphSource, graphModified);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new AgentRuntimeException("Corrupted agent runtime snapshot", e);
+        }
+    }
+
+    /**
+     * The materialized runtime schema.
+     *
+     * @return {@link AgentRuntimeSchema}
+     */
+    public AgentRuntimeSchema getSchema() {
+
+        return schema;
+    }
+
+    /**
+     * Content of the graph schema file referenced by the runtime config, if it was embedded at compile time.
+     *
+     * @return read-only graph schema bytes
+     */
+    public Optional<ByteBuffer> getGraphSchema() {
+
+        return Optional.ofNullable(graphSchema).map(ByteBuffer::duplicate);
+    }
+
+    /**
+     * The graph schema file the embedded graph schema was compiled from.
+     *
+     * @param configDir directory of the runtime config, relative sources are resolved against it
+     * @return graph schema file, empty if no graph schema was embedded
+     */
+    public Optional<Path> getGraphSource(final Path configDir) {
+
+        return Optional.ofNullable(graphSource).map(configDir::resolve);
+    }
+
+    /**
+     * Whether the graph schema file still has the modified time it had at compile time, true if no graph schema was embedded.
+     *
+     * @param configDir directory of the runtime config
+     * @return false if the graph schema file changed or is gone
+     */
+    public boolean isGraphSourceUnchanged(final Path configDir) {
+
+        Optional<Path> source = getGraphSource(configDir);
+        if (source.isEmpty()) {
+            return true;
+        }
+        try {
+            return Files.getLastModifiedTime(source.get()).toMillis() == graphModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void verifyChecksum(final ByteBuffer buf) {
+
+        int end = buf.limit() - Integer.BYTES;
+        if (end < 0) {
+            throw new AgentRuntimeException("Corrupted agent runtime snapshot: too short");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.duplicate().limit(end));
+        if ((int) crc.getValue() != buf.getInt(end)) {
+            throw new AgentRuntimeException("Corrupted agent runtime snapshot: checksum mismatch");
+        }
+        buf.limit(end);
+    }
+
+    private static AgentEnvTable readEnvs(final ByteBuffer buf) {
+
+        int count = buf.getInt();
+        if (count < 0) {
+            return null;
+        }
+
+        AgentEnvTable.Builder envs = AgentEnvTable.builder();
+        for (int i = 0; i < count; i++) {
+            envs.put(readString(buf), readString(buf));
+        }
+
+        return envs.build();
+    }
+
+    private static String readString(final ByteBuffer buf) {
+
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (buf.hasArray()) {
+            String value = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+            buf.position(buf.position() + length);
+            return value;
+        }
+
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
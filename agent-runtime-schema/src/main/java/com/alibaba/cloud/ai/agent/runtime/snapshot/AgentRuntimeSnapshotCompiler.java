@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.snapshot;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AbstractAgentRuntimeSchemaConvertor;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AgentRuntimeSchemaSource;
+import com.alibaba.cloud.ai.agent.runtime.placeholder.PlaceholderResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compiles a text runtime config ({@code runtime.config.json|yaml|yml|properties}) and the
+ * graph schema it references into an {@link AgentRuntimeSnapshot}.
+ *
+ * <p>Usage: {@code AgentRuntimeSnapshotCompiler <runtime.config.*> [output]}, the output
+ * defaults to {@code runtime.config.snapshot} next to the config file, the name the loader looks
+ * up. The graph schema file and its modified time are recorded so that the loader ignores the
+ * snapshot once the graph schema changes.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+public final class AgentRuntimeSnapshotCompiler {
+
+    private AgentRuntimeSnapshotCompiler() {
+    }
+
+    public static void main(final String[] args) {
+
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: AgentRuntimeSnapshotCompiler <runtime.config.*> [output]");
+        }
+
+        Path config = Paths.get(args[0]);
+        compile(config, args.length == 2 ? Paths.get(args[1]) : defaultOutput(config));
+    }
+
+    /**
+     * Compile the config into a snapshot file, the file is replaced atomically.
+     *
+     * @param config runtime config file
+     * @param output snapshot file
+     * @return the snapshot file
+     */
+    public static Path compile(final Path config, final Path output) {
+
+        byte[] snapshot = compile(config);
+        try {
+            Path dir = output.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(dir, output.getFileName().toString(), ".tmp");
+            Files.write(tmp, snapshot);
+            return Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to write agent runtime snapshot: " + output, e);
+        }
+    }
+
+    /**
+     * Compile the config into the snapshot binary form.
+     *
+     * @param config runtime config file
+     * @return snapshot bytes
+     */
+    public static byte[] compile(final Path config) {
+
+        AgentRuntimeSchema schema = AbstractAgentRuntimeSchemaConvertor.createConvertor(AgentRuntimeSchemaSource.of(config)).convert();
+        GraphSchema graphSchema = readGraphSchema(config, schema);
+
+        return write(schema, graphSchema);
+    }
+
+    /**
+     * The {@link AgentRuntimeSnapshot#FILE_NAME} snapshot file next to the given config, whatever the config file is named.
+     *
+     * @param config runtime config file
+     * @return snapshot file path
+     */
+    public static Path defaultOutput(final Path config) {
+
+        return config.toAbsolutePath().resolveSibling(AgentRuntimeSnapshot.FILE_NAME);
+    }
+
+    static byte[] write(final AgentRuntimeSchema schema, final GraphSchema graphSchema) {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + (Objects.isNull(graphSchema) ? 0 : graphSchema.content().length));
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(bytes, crc))) {
+            out.writeInt(AgentRuntimeSnapshot.MAGIC);
+            out.writeShort(AgentRuntimeSnapshot.FORMAT_VERSION);
+            out.writeShort(Objects.isNull(graphSchema) ? 0 : AgentRuntimeSnapshot.FLAG_GRAPH_SCHEMA);
+
+            writeString(out, schema.getName());
+            writeString(out, schema.getVersion());
+            writeString(out, schema.getDescription());
+            writeString(out, Objects.isNull(schema.getFramework()) ? null : schema.getFramework().name());
+            writeString(out, Objects.isNull(schema.getTypes()) ? null : schema.getTypes().name());
+            writeString(out, schema.getSchema());
+            writeEnvs(out, schema.getEnvs());
+
+            if (Objects.nonNull(graphSchema)) {
+                writeString(out, graphSchema.source());
+                out.writeLong(graphSchema.modified());
+                out.writeInt(graphSchema.content().length);
+                out.write(graphSchema.content());
+            }
+            out.flush();
+
+            // the checksum itself bypasses the checked stream.
+            new DataOutputStream(bytes).writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to write agent runtime snapshot", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Only YAML agents reference a graph schema file, SPI and classpath agents name a class.
+     * Placeholders in the reference are resolved at compile time, a relative reference is
+     * resolved against the config directory.
+     */
+    private static GraphSchema readGraphSchema(final Path config, final AgentRuntimeSchema schema) {
+
+        if (schema.getTypes() != LoaderType.YAML || Objects.isNull(schema.getSchema()) || schema.getSchema().isEmpty()) {
+            return null;
+        }
+
+        Path dir = config.toAbsolutePath().getParent();
+        Path graph = dir.resolve(PlaceholderResolver.defaults(dir).resolve(schema.getSchema())).normalize();
+        try {
+            // taken before the read, a write in between leaves the snapshot stale rather than wrongly fresh.
+            long modified = Files.getLastModifiedTime(graph).toMillis();
+            String source = graph.startsWith(dir) ? dir.relativize(graph).toString() : graph.toString();
+            return new GraphSchema(source, modified, Files.readAllBytes(graph));
+        } catch (IOException e) {
+            throw new AgentRuntimeException("Failed to read graph schema referenced by " + config + ": " + graph, e);
+        }
+    }
+
+    private static void writeEnvs(final DataOutputStream out, final AgentEnvTable envs) throws IOException {
+
+        if (Objects.isNull(envs)) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(envs.size());
+        for (int i = 0; i < envs.size(); i++) {
+            writeString(out, envs.key(i));
+            writeString(out, envs.value(i));
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * A graph schema to embed.
+     *
+     * @param source   graph schema file, relative to the config directory when inside it
+     * @param modified modified time of the file in millis, read before its content
+     * @param content  file content
+     */
+    record GraphSchema(String source, long modified, byte[] content) {
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class AgentEnvTableTest {
+
+    @Test
+    void testLookupAndOrder() {
+
+        AgentEnvTable.Builder builder = AgentEnvTable.builder();
+        for (int i = 0; i < 100; i++) {
+            builder.put("VAR_" + i, "value-" + i);
+        }
+        AgentEnvTable envs = builder.build();
+
+        Assertions.assertEquals(100, envs.size());
+        Assertions.assertEquals("VAR_0", envs.key(0));
+        Assertions.assertEquals("value-99", envs.value(99));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals("value-" + i, envs.get("VAR_" + i));
+        }
+        Assertions.assertNull(envs.get("MISSING"));
+        Assertions.assertFalse(envs.containsKey("MISSING"));
+        Assertions.assertSame("VAR_42", envs.key(42), "keys must be interned");
+    }
+
+    @Test
+    void testDuplicateKeyIsRejected() {
+
+        AgentEnvTable.Builder builder = AgentEnvTable.builder().put("AGENT_MODE", "a").put("AGENT_MODE", "b");
+
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AgentEnvTable.builder().put("AGENT_MODE", null));
+    }
+
+    @Test
+    void testMapViewAndProcessBuilder() {
+
+        Map<String, String> source = new LinkedHashMap<>();
+        source.put("JAVA_HOME", "/usr/lib/jvm/java-17");
+        source.put("AGENT_MODE", "test");
+        AgentEnvTable envs = AgentEnvTable.of(source);
+
+        Assertions.assertEquals(source, envs.asMap());
+        Assertions.assertEquals(List.copyOf(source.keySet()), List.copyOf(envs.asMap().keySet()));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> envs.asMap().put("X", "y"));
+
+        ProcessBuilder processBuilder = envs.applyTo(new ProcessBuilder("true"));
+        Assertions.assertEquals("test", processBuilder.environment().get("AGENT_MODE"));
+        Assertions.assertSame(AgentEnvTable.EMPTY, AgentEnvTable.of(Map.of()));
+    }
+
+    @Test
+    void testSerializable() throws IOException, ClassNotFoundException {
+
+        AgentEnvTable envs = AgentEnvTable.builder().put("JAVA_HOME", "/usr/lib/jvm/java-17").build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(envs);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            AgentEnvTable read = (AgentEnvTable) in.readObject();
+            Assertions.assertEquals(envs, read);
+            Assertions.assertSame("JAVA_HOME", read.key(0));
+        }
+    }
+
+}
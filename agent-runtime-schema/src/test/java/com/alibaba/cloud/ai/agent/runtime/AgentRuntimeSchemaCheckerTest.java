@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime;
+
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class AgentRuntimeSchemaCheckerTest {
+
+    private final AgentRuntimeSchemaChecker checker = new AgentRuntimeSchemaChecker();
+
+    private static AgentRuntimeSchema validSchema() {
+
+        return AgentRuntimeSchema.builder()
+                .name("MyAgent")
+                .version("1.0.0")
+                .framework(AgentFramework.SPRING_AI_ALIBABA_GRAPH)
+                .types(LoaderType.YAML)
+                .schema("saa-graph.yaml")
+                .envs(AgentEnvTable.builder().put("JAVA_HOME", "/usr/lib/jvm/java-17").put("AGENT_MODE", "test").build())
+                .build();
+    }
+
+    @Test
+    void testValidSchema() {
+
+        AgentRuntimeSchemaCheckResult result = checker.check(validSchema(), AgentRuntimeSchemaCheckMode.COLLECT_ALL);
+
+        Assertions.assertTrue(checker.check(validSchema()));
+        Assertions.assertTrue(result.isValid());
+        Assertions.assertSame(AgentRuntimeSchemaCheckResult.valid(), result);
+    }
+
+    @Test
+    void testFailFastStopsAtFirstViolation() {
+
+        AgentRuntimeSchema schema = validSchema();
+        schema.setName("bad name");
+        schema.setFramework(null);
+
+        AgentRuntimeSchemaCheckResult result = checker.check(schema, AgentRuntimeSchemaCheckMode.FAIL_FAST);
+
+        Assertions.assertFalse(checker.check(schema));
+        Assertions.assertEquals(1, result.getDiagnostics().size());
+        Assertions.assertEquals("name.invalid", result.getDiagnostics().get(0).code());
+        Assertions.assertThrows(AgentRuntimeException.class, result::throwIfInvalid);
+    }
+
+    @Test
+    void testCollectAllReportsEveryViolation() {
+
+        AgentEnvTable envs = AgentEnvTable.of(Map.of("1_INVALID", "x"));
+
+        AgentRuntimeSchemaCheckResult result = checker.check(AgentRuntimeSchema.builder().envs(envs).build(), AgentRuntimeSchemaCheckMode.COLLECT_ALL);
+
+        Assertions.assertEquals(
+                List.of("name.required", "version.required", "framework.required", "types.required", "schema.required", "envs.key.invalid"),
+                result.getDiagnostics().stream().map(AgentRuntimeSchemaDiagnostic::code).toList());
+        Assertions.assertEquals("envs.1_INVALID", result.getDiagnostics().get(5).field());
+    }
+
+    @Test
+    void testCustomRules() {
+
+        AgentRuntimeSchemaChecker custom = new AgentRuntimeSchemaChecker(List.of(
+                schema -> schema.getVersion().startsWith("0.") ? new AgentRuntimeSchemaDiagnostic("version", "version.unstable", "unstable version") : null));
+        AgentRuntimeSchema schema = validSchema();
+        schema.setVersion("0.1.0");
+
+        Assertions.assertFalse(custom.check(schema));
+        Assertions.assertFalse(checker.check(null));
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshot;
+import com.alibaba.cloud.ai.agent.runtime.snapshot.AgentRuntimeSnapshotCompiler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class AgentRuntimeSchemaBulkConvertorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path writeJson(final String dir, final String name) throws IOException {
+
+        return writeJson(dir, name, "1.0.0");
+    }
+
+    private Path writeJson(final String dir, final String name, final String version) throws IOException {
+
+        Path agentDir = Files.createDirectories(tempDir.resolve(dir));
+        return Files.writeString(agentDir.resolve("runtime.config.json"),
+                "{\"name\": \"" + name + "\", \"version\": \"" + version + "\", \"framework\": \"SPRING_AI_ALIBABA_GRAPH\", \"types\": \"YAML\"}");
+    }
+
+    @Test
+    void testFleetIsConvertedInParallel() throws IOException {
+
+        for (int i = 0; i < 64; i++) {
+            writeJson("fleet/agent-" + i, "agent-" + i);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AgentRuntimeSchemaBulkConvertor.Result result = AgentRuntimeSchemaBulkConvertor.convertAll(tempDir, pool);
+
+            Assertions.assertTrue(result.isSuccessful(), () -> result.errors().toString());
+            Assertions.assertEquals(64, result.schemas().size());
+            Assertions.assertEquals("1.0.0", result.schemas().get("agent-42").getVersion());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testErrorsAreReportedPerFile() throws IOException {
+
+        writeJson("a", "agent-a");
+        writeJson("b", "agent-a");
+        final Path broken = Files.writeString(Files.createDirectories(tempDir.resolve("c")).resolve("runtime.config.json"), "{ not json");
+        writeJson("d", "agent-d");
+        Files.writeString(tempDir.resolve("d").resolve("runtime.config.properties"), "name=agent-d");
+
+        AgentRuntimeSchemaBulkConvertor.Result result = AgentRuntimeSchemaBulkConvertor.convertAll(tempDir);
+
+        Assertions.assertEquals(List.of("agent-a"), List.copyOf(result.schemas().keySet()));
+        Assertions.assertEquals(3, result.errors().size());
+        Assertions.assertTrue(result.errors().get(tempDir.resolve("b").resolve("runtime.config.json")).getMessage().contains("Duplicate agent name"));
+        Assertions.assertTrue(result.errors().containsKey(broken));
+        Assertions.assertTrue(result.errors().get(tempDir.resolve("d")).getMessage().contains("Multiple runtime config files"));
+    }
+
+    @Test
+    void testSnapshotIsSelectedLikeTheLoaderSelectsIt() throws IOException {
+
+        Path fresh = writeJson("fresh", "agent-fresh", "1.0.0");
+        AgentRuntimeSnapshotCompiler.compile(fresh, AgentRuntimeSnapshotCompiler.defaultOutput(fresh));
+        writeJson("fresh", "agent-fresh", "2.0.0");
+        Files.setLastModifiedTime(fresh, FileTime.fromMillis(Files.getLastModifiedTime(fresh.resolveSibling(AgentRuntimeSnapshot.FILE_NAME)).toMillis() - 1000));
+
+        Path corrupt = writeJson("corrupt", "agent-corrupt", "1.0.0");
+        Path broken = Files.write(corrupt.resolveSibling(AgentRuntimeSnapshot.FILE_NAME), new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(broken, FileTime.fromMillis(Files.getLastModifiedTime(corrupt).toMillis() + 1000));
+
+        AgentRuntimeSchemaBulkConvertor.Result result = AgentRuntimeSchemaBulkConvertor.convertAll(tempDir);
+
+        Assertions.assertTrue(result.isSuccessful(), () -> result.errors().toString());
+        Assertions.assertEquals("1.0.0", result.schemas().get("agent-fresh").getVersion());
+        // a corrupt snapshot falls back to the text config instead of failing the agent.
+        Assertions.assertEquals("1.0.0", result.schemas().get("agent-corrupt").getVersion());
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class AgentRuntimeSchemaCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private final Function<ByteBuffer, AgentRuntimeSchema> parser = content -> {
+        parsed.incrementAndGet();
+        return AgentRuntimeSchema.builder().name(StandardCharsets.UTF_8.decode(content).toString()).build();
+    };
+
+    private AgentRuntimeSchemaSource write(final String fileName, final String content) throws IOException {
+
+        return AgentRuntimeSchemaSource.of(Files.writeString(tempDir.resolve(fileName), content));
+    }
+
+    @Test
+    void testUnchangedFileIsParsedOnce() throws IOException {
+
+        AgentRuntimeSchemaCache cache = new AgentRuntimeSchemaCache(8);
+        AgentRuntimeSchemaSource config = write("runtime.config.json", "agent-a");
+
+        AgentRuntimeSchema first = cache.get(config, parser);
+        AgentRuntimeSchema second = cache.get(config, parser);
+
+        Assertions.assertEquals(1, parsed.get());
+        Assertions.assertEquals("agent-a", second.getName());
+        Assertions.assertNotSame(first, second, "cached schema must be handed out as a copy");
+        Assertions.assertEquals(1, cache.stats().hits());
+        Assertions.assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void testChangedContentIsParsedAgain() throws IOException {
+
+        AgentRuntimeSchemaCache cache = new AgentRuntimeSchemaCache(8);
+        AgentRuntimeSchemaSource config = write("runtime.config.json", "agent-a");
+        cache.get(config, parser);
+
+        write("runtime.config.json", "agent-b");
+
+        Assertions.assertEquals("agent-b", cache.get(config, parser).getName());
+        Assertions.assertEquals(2, parsed.get());
+        Assertions.assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+
+        AgentRuntimeSchemaCache cache = new AgentRuntimeSchemaCache(2);
+        AgentRuntimeSchemaSource a = write("a.json", "a");
+        AgentRuntimeSchemaSource b = write("b.json", "b");
+        AgentRuntimeSchemaSource c = write("c.json", "c");
+
+        cache.get(a, parser);
+        cache.get(b, parser);
+        cache.get(a, parser);
+        cache.get(c, parser);
+
+        Assertions.assertEquals(1, cache.stats().evictions());
+        Assertions.assertEquals(2, cache.stats().size());
+
+        cache.get(a, parser);
+        Assertions.assertEquals(3, parsed.get(), "a was recently used and must still be cached");
+        cache.get(b, parser);
+        Assertions.assertEquals(4, parsed.get(), "b was the eldest entry and must have been evicted");
+    }
+
+    @Test
+    void testInMemorySourceIsKeyedByContent() {
+
+        AgentRuntimeSchemaCache cache = new AgentRuntimeSchemaCache(8);
+
+        cache.get(AgentRuntimeSchemaSource.of("runtime.config.json", ByteBuffer.wrap("a".getBytes(StandardCharsets.UTF_8))), parser);
+        cache.get(AgentRuntimeSchemaSource.of("runtime.config.json", ByteBuffer.wrap("a".getBytes(StandardCharsets.UTF_8))), parser);
+        cache.get(AgentRuntimeSchemaSource.of("runtime.config.json", ByteBuffer.wrap("b".getBytes(StandardCharsets.UTF_8))), parser);
+
+        Assertions.assertEquals(2, parsed.get());
+        Assertions.assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void testConvertorServesFromSharedCache() throws IOException {
+
+        Path config = Files.writeString(tempDir.resolve("runtime.config.json"), """
+                {"name": "CachedAgent", "version": "1.0.0", "framework": "SPRING_AI_ALIBABA_GRAPH", "types": "YAML"}
+                """);
+        AgentRuntimeSchemaCache.Stats before = AgentRuntimeSchemaCache.getInstance().stats();
+
+        AbstractAgentRuntimeSchemaConvertor.createConvertor(config.toString()).convert();
+        AgentRuntimeSchema schema = AbstractAgentRuntimeSchemaConvertor.createConvertor(config.toString()).convert();
+
+        AgentRuntimeSchemaCache.Stats after = AgentRuntimeSchemaCache.getInstance().stats();
+        Assertions.assertEquals("CachedAgent", schema.getName());
+        Assertions.assertEquals(1, after.misses() - before.misses());
+        Assertions.assertEquals(1, after.hits() - before.hits());
+    }
+
+}
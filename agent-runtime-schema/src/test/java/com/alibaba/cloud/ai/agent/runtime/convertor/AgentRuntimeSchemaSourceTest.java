@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.convertor;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class AgentRuntimeSchemaSourceTest {
+
+    private static final String YAML = """
+            name: SourceAgent
+            version: "1.0.0"
+            description: "Agent über UTF-8"
+            framework: "Spring AI Alibaba Graph"
+            types: YAML
+            schema: saa-graph.yaml
+            envs:
+              - AGENT_MODE: "test"
+            """;
+
+    private static final String JSON = """
+            {"name": "SourceAgent", "version": "1.0.0", "description": "Agent über UTF-8",
+             "framework": "SPRING_AI_ALIBABA_GRAPH", "types": "YAML", "schema": "saa-graph.yaml",
+             "envs": [{"AGENT_MODE": "test"}]}
+            """;
+
+    private static final String PROPERTIES = """
+            name=SourceAgent
+            version=1.0.0
+            description=Agent über UTF-8
+            framework=Spring AI Alibaba Graph
+            types=YAML
+            schema=saa-graph.yaml
+            envs.0.AGENT_MODE=test
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    private static void assertSchema(final AgentRuntimeSchema schema) {
+
+        Assertions.assertEquals("SourceAgent", schema.getName());
+        Assertions.assertEquals("Agent über UTF-8", schema.getDescription());
+        Assertions.assertEquals(AgentFramework.SPRING_AI_ALIBABA_GRAPH, schema.getFramework());
+        Assertions.assertEquals(LoaderType.YAML, schema.getTypes());
+        Assertions.assertEquals("saa-graph.yaml", schema.getSchema());
+        Assertions.assertEquals("test", schema.getEnvs().get("AGENT_MODE"));
+    }
+
+    @Test
+    void testPathAndMappedSources() throws IOException {
+
+        for (String[] config : new String[][] {{"runtime.config.yaml", YAML}, {"runtime.config.json", JSON}, {"runtime.config.properties", PROPERTIES}}) {
+            Path path = Files.writeString(tempDir.resolve(config[0]), config[1], StandardCharsets.UTF_8);
+
+            assertSchema(AbstractAgentRuntimeSchemaConvertor.createConvertor(AgentRuntimeSchemaSource.of(path)).convert());
+            assertSchema(AbstractAgentRuntimeSchemaConvertor.createConvertor(AgentRuntimeSchemaSource.mapped(path)).convert());
+        }
+    }
+
+    @Test
+    void testByteBufferSources() {
+
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        assertSchema(AbstractAgentRuntimeSchemaConvertor.createConvertor(AgentRuntimeSchemaSource.of("runtime.config.json", ByteBuffer.wrap(bytes))).convert());
+        assertSchema(AbstractAgentRuntimeSchemaConvertor.createConvertor(AgentRuntimeSchemaSource.of("runtime.config.json", direct)).convert());
+    }
+
+    @Test
+    void testInputStreamSourceIsClosed() {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayInputStream stream = new ByteArrayInputStream(PROPERTIES.getBytes(StandardCharsets.UTF_8)) {
+
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        AgentRuntimeSchemaSource source = AgentRuntimeSchemaSource.of("runtime.config.properties", stream);
+
+        Assertions.assertTrue(closed.get());
+        assertSchema(new PropertiesAgentRuntimeSchemaConvertor(source).convert());
+    }
+
+    @Test
+    void testConvertorIsReusableAcrossSources() {
+
+        IAgentRuntimeSchemaConvertor convertor = new YamlAgentRuntimeSchemaConvertor(
+                AgentRuntimeSchemaSource.of("runtime.config.yaml", ByteBuffer.wrap(YAML.getBytes(StandardCharsets.UTF_8))));
+        AgentRuntimeSchema other = convertor.convert(AgentRuntimeSchemaSource.of("agent-b.yaml",
+                ByteBuffer.wrap(YAML.replace("SourceAgent", "OtherAgent").getBytes(StandardCharsets.UTF_8))));
+
+        assertSchema(convertor.convert());
+        Assertions.assertEquals("OtherAgent", other.getName());
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.alibaba.cloud.ai.agent.runtime.convertor.convertot;
 
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
 import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
 import com.alibaba.cloud.ai.agent.runtime.convertor.AbstractAgentRuntimeSchemaConvertor;
 import com.alibaba.cloud.ai.agent.runtime.convertor.IAgentRuntimeSchemaConvertor;
@@ -7,8 +8,6 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.net.URL;
-import java.util.List;
-import java.util.Map;
 
 class AgentRuntimeSchemaConvertorTest {
 
@@ -30,10 +29,11 @@ class AgentRuntimeSchemaConvertorTest {
         Assertions.assertEquals("MyAgent", schema.getName());
         Assertions.assertEquals("1.0.0", schema.getVersion());
         Assertions.assertEquals("A demo agent for testing.", schema.getDescription());
-        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework());
-        List<Map<String, String>> envs = schema.getEnvs();
-        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get(0).get("JAVA_HOME"));
-        Assertions.assertEquals("test", envs.get(1).get("AGENT_MODE"));
+        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework().getName());
+        AgentEnvTable envs = schema.getEnvs();
+        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get("JAVA_HOME"));
+        Assertions.assertEquals("test", envs.get("AGENT_MODE"));
+        Assertions.assertEquals("JAVA_HOME", envs.key(0));
     }
 
     @Test
@@ -46,10 +46,11 @@ class AgentRuntimeSchemaConvertorTest {
         Assertions.assertEquals("MyAgent", schema.getName());
         Assertions.assertEquals("1.0.0", schema.getVersion());
         Assertions.assertEquals("A demo agent for testing.", schema.getDescription());
-        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework());
-        List<Map<String, String>> envs = schema.getEnvs();
-        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get(0).get("JAVA_HOME"));
-        Assertions.assertEquals("test", envs.get(1).get("AGENT_MODE"));
+        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework().getName());
+        AgentEnvTable envs = schema.getEnvs();
+        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get("JAVA_HOME"));
+        Assertions.assertEquals("test", envs.get("AGENT_MODE"));
+        Assertions.assertEquals("JAVA_HOME", envs.key(0));
     }
 
     @Test
@@ -62,9 +63,10 @@ class AgentRuntimeSchemaConvertorTest {
         Assertions.assertEquals("MyAgent", schema.getName());
         Assertions.assertEquals("1.0.0", schema.getVersion());
         Assertions.assertEquals("A demo agent for testing.", schema.getDescription());
-        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework());
-        List<Map<String, String>> envs = schema.getEnvs();
-        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get(0).get("JAVA_HOME"));
-        Assertions.assertEquals("test", envs.get(1).get("AGENT_MODE"));
+        Assertions.assertEquals("Spring AI Alibaba Graph", schema.getFramework().getName());
+        AgentEnvTable envs = schema.getEnvs();
+        Assertions.assertEquals("/usr/lib/jvm/java-17", envs.get("JAVA_HOME"));
+        Assertions.assertEquals("test", envs.get("AGENT_MODE"));
+        Assertions.assertEquals("JAVA_HOME", envs.key(0));
     }
 }
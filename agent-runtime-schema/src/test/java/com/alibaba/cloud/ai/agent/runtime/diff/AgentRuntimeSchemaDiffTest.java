@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.diff;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+class AgentRuntimeSchemaDiffTest {
+
+    private static AgentRuntimeSchema schema() {
+
+        return AgentRuntimeSchema.builder()
+                .name("MyAgent")
+                .version("1.0.0")
+                .framework(AgentFramework.SPRING_AI_ALIBABA_GRAPH)
+                .types(LoaderType.YAML)
+                .schema("saa-graph.yaml")
+                .envs(AgentEnvTable.builder().put("AGENT_MODE", "test").put("JAVA_HOME", "/usr/lib/jvm/java-17").build())
+                .build();
+    }
+
+    private static String fingerprint(final String graph) {
+
+        return AgentGraphSchemaFingerprint.of(ByteBuffer.wrap(graph.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testUnchangedSchema() {
+
+        AgentRuntimeSchemaDiff diff = AgentRuntimeSchemaDiff.between(schema(), schema());
+
+        Assertions.assertTrue(diff.isEmpty());
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.NONE, diff.getKind());
+    }
+
+    @Test
+    void testEnvOnlyChange() {
+
+        AgentRuntimeSchema next = schema();
+        next.setEnvs(AgentEnvTable.builder().put("AGENT_MODE", "prod").put("AGENT_REGION", "cn").build());
+
+        AgentRuntimeSchemaDiff diff = AgentRuntimeSchemaDiff.between(schema(), next);
+
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.ENV, diff.getKind());
+        Assertions.assertFalse(diff.requiresReload());
+        Assertions.assertEquals("prod", diff.getEnvChanges().get("AGENT_MODE"));
+        Assertions.assertEquals("cn", diff.getEnvChanges().get("AGENT_REGION"));
+        Assertions.assertTrue(diff.getEnvChanges().containsKey("JAVA_HOME"));
+        Assertions.assertNull(diff.getEnvChanges().get("JAVA_HOME"));
+    }
+
+    @Test
+    void testGraphChangesAreStructural() {
+
+        String graph = "nodes:\n  - id: a\n  - id: b\nedges: [{from: a, to: b}]\n";
+        String reformatted = "# comment\nedges:\n  - {to: b, from: a}\nnodes: [{id: a}, {id: b}]\n";
+        String rewired = "nodes:\n  - id: a\n  - id: b\nedges: [{from: b, to: a}]\n";
+        AgentRuntimeSchema moved = schema();
+        moved.setSchema("graphs/saa-graph.yaml");
+        moved.setVersion("1.0.1");
+
+        AgentRuntimeSchemaDiff formatting = AgentRuntimeSchemaDiff.between(schema(), fingerprint(graph), moved, fingerprint(reformatted));
+        AgentRuntimeSchemaDiff topology = AgentRuntimeSchemaDiff.between(schema(), fingerprint(graph), schema(), fingerprint(rewired));
+
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.METADATA, formatting.getKind());
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.GRAPH_TOPOLOGY, topology.getKind());
+        Assertions.assertTrue(topology.requiresReload());
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.GRAPH_TOPOLOGY, AgentRuntimeSchemaDiff.between(schema(), moved).getKind(),
+                "without graph content a moved graph schema must be treated as a topology change");
+    }
+
+    @Test
+    void testNameChangeRequiresReload() {
+
+        AgentRuntimeSchema next = schema();
+        next.setName("OtherAgent");
+
+        AgentRuntimeSchemaDiff diff = AgentRuntimeSchemaDiff.between(schema(), next);
+
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.NAME, diff.getKind());
+        Assertions.assertTrue(diff.requiresReload());
+    }
+
+    @Test
+    void testFrameworkSwitchDominates() {
+
+        AgentRuntimeSchema next = schema();
+        next.setFramework(AgentFramework.LANGGRAPH4J);
+        next.setDescription("switched");
+        next.setEnvs(AgentEnvTable.EMPTY);
+
+        AgentRuntimeSchemaDiff diff = AgentRuntimeSchemaDiff.between(schema(), next);
+
+        Assertions.assertEquals(AgentRuntimeSchemaChangeKind.FRAMEWORK, diff.getKind());
+        Assertions.assertEquals(EnumSet.of(AgentRuntimeSchemaChangeKind.METADATA, AgentRuntimeSchemaChangeKind.ENV, AgentRuntimeSchemaChangeKind.FRAMEWORK),
+                diff.getKinds());
+    }
+
+}
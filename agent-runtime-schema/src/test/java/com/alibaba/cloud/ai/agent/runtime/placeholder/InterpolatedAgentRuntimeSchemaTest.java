@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.placeholder;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class InterpolatedAgentRuntimeSchemaTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final Map<String, String> env = new HashMap<>();
+
+    private final Map<String, String> sys = new HashMap<>();
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private PlaceholderResolver resolver() {
+
+        return new PlaceholderResolver(Map.of(
+                PlaceholderResolver.ENV, key -> {
+                    lookups.incrementAndGet();
+                    return env.get(key);
+                },
+                PlaceholderResolver.SYS, sys::get,
+                PlaceholderResolver.FILE, PlaceholderResolver.files(tempDir)));
+    }
+
+    @Test
+    void testResolverForms() throws IOException {
+
+        env.put("HOME", "/home/agent");
+        sys.put("agent.region", "cn");
+        Files.writeString(tempDir.resolve("token"), "secret\n");
+        PlaceholderResolver resolver = resolver();
+
+        Assertions.assertEquals("/home/agent/graph.yaml", resolver.resolve("${HOME}/graph.yaml"));
+        Assertions.assertEquals("/home/agent", resolver.resolve("${env:HOME}"));
+        Assertions.assertEquals("cn-1", resolver.resolve("${sys:agent.region}-1"));
+        Assertions.assertEquals("secret", resolver.resolve("${file:token}"));
+        Assertions.assertEquals("fallback", resolver.resolve("${MISSING:-fallback}"));
+        Assertions.assertEquals("/home/agent/x", resolver.resolve("${MISSING:-${HOME}/x}"));
+        Assertions.assertEquals("${HOME}", resolver.resolve("$${HOME}"));
+        Assertions.assertEquals("plain", resolver.resolve("plain"));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> resolver.resolve("${MISSING}"));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> resolver.resolve("${HOME"));
+    }
+
+    @Test
+    void testValuesAreResolvedLazilyAndMemoized() {
+
+        env.put("HOME", "/home/agent");
+        env.put("MODE", "test");
+        AgentRuntimeSchema schema = AgentRuntimeSchema.builder()
+                .schema("${HOME}/saa-graph.yaml")
+                .envs(AgentEnvTable.builder().put("AGENT_MODE", "${MODE}").put("AGENT_HOME", "${HOME}").put("STATIC", "value").build())
+                .build();
+
+        InterpolatedAgentRuntimeSchema interpolated = new InterpolatedAgentRuntimeSchema(schema, resolver());
+        Assertions.assertEquals(0, lookups.get());
+
+        Assertions.assertEquals("test", interpolated.getEnv("AGENT_MODE"));
+        Assertions.assertEquals("test", interpolated.getEnv("AGENT_MODE"));
+        Assertions.assertEquals(1, lookups.get());
+
+        Assertions.assertEquals("/home/agent/saa-graph.yaml", interpolated.resolve().getSchema());
+        Assertions.assertEquals("value", interpolated.getEnv("STATIC"));
+        Assertions.assertEquals("${HOME}/saa-graph.yaml", schema.getSchema(), "the parsed schema must not change");
+    }
+
+    @Test
+    void testInvalidateOnlyAffectedEntries() {
+
+        env.put("HOME", "/home/agent");
+        env.put("MODE", "test");
+        AgentRuntimeSchema schema = AgentRuntimeSchema.builder()
+                .schema("${HOME}/saa-graph.yaml")
+                .envs(AgentEnvTable.builder().put("AGENT_MODE", "${MODE}").put("AGENT_HOME", "${HOME}").build())
+                .build();
+        InterpolatedAgentRuntimeSchema interpolated = new InterpolatedAgentRuntimeSchema(schema, resolver());
+        interpolated.getEnvs();
+        interpolated.getSchema();
+        Assertions.assertEquals(Set.of("HOME", "MODE"), interpolated.getDependencies(PlaceholderResolver.ENV));
+        Assertions.assertEquals(Set.of(), interpolated.getDependencies(PlaceholderResolver.FILE));
+
+        env.put("HOME", "/srv/agent");
+        Assertions.assertEquals(2, interpolated.invalidate(PlaceholderResolver.ENV, "HOME"));
+        int before = lookups.get();
+
+        Assertions.assertEquals("/srv/agent", interpolated.getEnv("AGENT_HOME"));
+        Assertions.assertEquals("/srv/agent/saa-graph.yaml", interpolated.getSchema());
+        Assertions.assertEquals("test", interpolated.getEnv("AGENT_MODE"));
+        Assertions.assertEquals(before + 2, lookups.get(), "AGENT_MODE must still be memoized");
+        Assertions.assertEquals(0, interpolated.invalidate(PlaceholderResolver.SYS));
+    }
+
+}
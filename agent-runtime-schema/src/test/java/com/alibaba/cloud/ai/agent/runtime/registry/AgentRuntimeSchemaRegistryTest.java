@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.alibaba.cloud.ai.agent.runtime.registry;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentEnvTable;
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class AgentRuntimeSchemaRegistryTest {
+
+    private static AgentRuntimeSchema schema(final String name, final String version, final String mode) {
+
+        return AgentRuntimeSchema.builder()
+                .name(name)
+                .version(version)
+                .framework(AgentFramework.SPRING_AI_ALIBABA_GRAPH)
+                .types(LoaderType.YAML)
+                .schema("saa-graph.yaml")
+                .envs(AgentEnvTable.builder().put("AGENT_MODE", mode).put("AGENT_VERSION", version).build())
+                .build();
+    }
+
+    @Test
+    void testPublishedSchemaIsFrozenCopy() {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(4);
+        AgentRuntimeSchema schema = schema("MyAgent", "1.0.0", "test");
+
+        AgentRuntimeSchemaRevision revision = registry.publish(schema);
+
+        Assertions.assertNotSame(schema, revision.schema());
+        Assertions.assertFalse(schema.isFrozen());
+        Assertions.assertTrue(revision.schema().isFrozen());
+        Assertions.assertThrows(IllegalStateException.class, () -> revision.schema().setVersion("2.0.0"));
+        Assertions.assertFalse(revision.schema().copy().isFrozen());
+
+        schema.setVersion("2.0.0");
+        Assertions.assertEquals("1.0.0", registry.get("MyAgent").orElseThrow().getVersion());
+    }
+
+    @Test
+    void testUnchangedSchemaIsNotRepublished() {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(4);
+
+        AgentRuntimeSchemaRevision first = registry.publish(schema("MyAgent", "1.0.0", "test"));
+        AgentRuntimeSchemaRevision second = registry.publish(schema("MyAgent", "1.0.0", "test"));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, registry.history("MyAgent").size());
+    }
+
+    @Test
+    void testHistoryAndRollback() {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(3);
+        for (int i = 1; i <= 4; i++) {
+            registry.publish(schema("MyAgent", i + ".0.0", "test"));
+        }
+
+        List<AgentRuntimeSchemaRevision> history = registry.history("MyAgent");
+        Assertions.assertEquals(List.of("2.0.0", "3.0.0", "4.0.0"), history.stream().map(AgentRuntimeSchemaRevision::version).toList());
+        Assertions.assertTrue(history.get(0).revision() < history.get(2).revision());
+        Assertions.assertTrue(registry.get("MyAgent", "1.0.0").isEmpty());
+        Assertions.assertEquals("3.0.0", registry.get("MyAgent", "3.0.0").orElseThrow().getVersion());
+
+        Assertions.assertEquals("3.0.0", registry.rollback("MyAgent").version());
+        Assertions.assertEquals("3.0.0", registry.get("MyAgent").orElseThrow().getVersion());
+        Assertions.assertEquals("2.0.0", registry.rollback("MyAgent", "2.0.0").version());
+        Assertions.assertThrows(AgentRuntimeException.class, () -> registry.rollback("MyAgent"));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> registry.rollback("MyAgent", "1.0.0"));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> registry.rollback("OtherAgent"));
+
+        // a publication after a rollback is appended and becomes active.
+        registry.publish(schema("MyAgent", "5.0.0", "test"));
+        Assertions.assertEquals("5.0.0", registry.get("MyAgent").orElseThrow().getVersion());
+        Assertions.assertEquals(List.of("3.0.0", "4.0.0", "5.0.0"),
+                registry.history("MyAgent").stream().map(AgentRuntimeSchemaRevision::version).toList());
+    }
+
+    @Test
+    void testAgentsAreIndependent() {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(4);
+        registry.publish(schema("AgentA", "1.0.0", "test"));
+        registry.publish(schema("AgentB", "1.0.0", "test"));
+
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertEquals("AgentA", registry.remove("AgentA").orElseThrow().name());
+        Assertions.assertTrue(registry.remove("AgentA").isEmpty());
+        Assertions.assertEquals(Set.of("AgentB"), registry.names());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.publish(new AgentRuntimeSchema()));
+    }
+
+    @Test
+    void testRenameMovesTheAgent() {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(4);
+        registry.publish(schema("MyAgent", "1.0.0", "test"));
+        registry.publish(schema("MyAgent", "1.0.1", "test"));
+
+        AgentRuntimeSchemaRevision renamed = registry.rename("MyAgent", schema("NewAgent", "1.0.2", "test"));
+
+        Assertions.assertEquals(Set.of("NewAgent"), registry.names());
+        Assertions.assertEquals(renamed, registry.getRevision("NewAgent").orElseThrow());
+        Assertions.assertEquals(1, registry.history("NewAgent").size());
+        Assertions.assertTrue(registry.get("MyAgent").isEmpty());
+        Assertions.assertThrows(AgentRuntimeException.class, () -> registry.rollback("NewAgent"));
+    }
+
+    @Test
+    void testReadersNeverSeeTornUpdates() throws Exception {
+
+        AgentRuntimeSchemaRegistry registry = new AgentRuntimeSchemaRegistry(2);
+        registry.publish(schema("MyAgent", "0", "mode-0"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                for (int i = 1; i <= 2_000; i++) {
+                    registry.publish(schema("MyAgent", String.valueOf(i), "mode-" + i));
+                }
+                done.set(true);
+                return null;
+            });
+
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    int reads = 0;
+                    while (!done.get()) {
+                        AgentRuntimeSchema current = registry.get("MyAgent").orElseThrow();
+                        // version and env are published together or not at all.
+                        Assertions.assertEquals("mode-" + current.getVersion(), current.getEnvs().get("AGENT_MODE"));
+                        Assertions.assertEquals(current.getVersion(), current.getEnvs().get("AGENT_VERSION"));
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+
+            start.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals("2000", registry.get("MyAgent").orElseThrow().getVersion());
+        Assertions.assertEquals(2, registry.history("MyAgent").size());
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.runtime.snapshot;
+
+import com.alibaba.cloud.ai.agent.runtime.AgentFramework;
+import com.alibaba.cloud.ai.agent.runtime.AgentRuntimeSchema;
+import com.alibaba.cloud.ai.agent.runtime.LoaderType;
+import com.alibaba.cloud.ai.agent.runtime.common.AgentRuntimeException;
+import com.alibaba.cloud.ai.agent.runtime.convertor.AbstractAgentRuntimeSchemaConvertor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+class AgentRuntimeSnapshotTest {
+
+    private static final String GRAPH = """
+            nodes:
+              - id: start
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path writeConfig() throws IOException {
+
+        Files.writeString(tempDir.resolve("saa-graph.yaml"), GRAPH);
+        return Files.writeString(tempDir.resolve("runtime.config.yaml"), """
+                name: SnapshotAgent
+                version: "1.0.0"
+                description: "Snapshot über UTF-8"
+                framework: "Spring AI Alibaba Graph"
+                types: YAML
+                schema: saa-graph.yaml
+                envs:
+                  - AGENT_MODE: "test"
+                    AGENT_REGION: "cn"
+                """);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+
+        Path config = writeConfig();
+        Path output = AgentRuntimeSnapshotCompiler.compile(config, AgentRuntimeSnapshotCompiler.defaultOutput(config));
+
+        Assertions.assertEquals(tempDir.resolve("runtime.config.snapshot"), output);
+
+        AgentRuntimeSnapshot snapshot = AgentRuntimeSnapshot.open(output);
+        AgentRuntimeSchema schema = snapshot.getSchema();
+        Assertions.assertEquals("SnapshotAgent", schema.getName());
+        Assertions.assertEquals("Snapshot über UTF-8", schema.getDescription());
+        Assertions.assertEquals(AgentFramework.SPRING_AI_ALIBABA_GRAPH, schema.getFramework());
+        Assertions.assertEquals(LoaderType.YAML, schema.getTypes());
+        Assertions.assertEquals("cn", schema.getEnvs().get("AGENT_REGION"));
+
+        ByteBuffer graph = snapshot.getGraphSchema().orElseThrow();
+        Assertions.assertEquals(GRAPH, StandardCharsets.UTF_8.decode(graph).toString());
+    }
+
+    @Test
+    void testConvertorReadsSnapshot() throws IOException {
+
+        Path config = writeConfig();
+        Path output = AgentRuntimeSnapshotCompiler.compile(config, AgentRuntimeSnapshotCompiler.defaultOutput(config));
+
+        AgentRuntimeSchema fromText = AbstractAgentRuntimeSchemaConvertor.createConvertor(config.toString()).convert();
+        AgentRuntimeSchema fromSnapshot = AbstractAgentRuntimeSchemaConvertor.createConvertor(output.toString()).convert();
+
+        Assertions.assertEquals(fromText.getName(), fromSnapshot.getName());
+        Assertions.assertEquals(fromText.getSchema(), fromSnapshot.getSchema());
+        Assertions.assertEquals(fromText.getEnvs(), fromSnapshot.getEnvs());
+    }
+
+    @Test
+    void testGraphSourceChangeIsDetected() throws IOException {
+
+        Path config = writeConfig();
+        AgentRuntimeSnapshot snapshot = AgentRuntimeSnapshot.open(AgentRuntimeSnapshotCompiler.compile(config, AgentRuntimeSnapshotCompiler.defaultOutput(config)));
+
+        Assertions.assertEquals(tempDir.resolve("saa-graph.yaml"), snapshot.getGraphSource(tempDir).orElseThrow());
+        Assertions.assertTrue(snapshot.isGraphSourceUnchanged(tempDir));
+
+        Path graph = tempDir.resolve("saa-graph.yaml");
+        Files.setLastModifiedTime(graph, FileTime.fromMillis(Files.getLastModifiedTime(graph).toMillis() + 1_000));
+        Assertions.assertFalse(snapshot.isGraphSourceUnchanged(tempDir));
+
+        Files.delete(graph);
+        Assertions.assertFalse(snapshot.isGraphSourceUnchanged(tempDir));
+    }
+
+    @Test
+    void testDefaultOutputIsTheNameTheLoaderLooksUp() {
+
+        Assertions.assertEquals(tempDir.resolve(AgentRuntimeSnapshot.FILE_NAME), AgentRuntimeSnapshotCompiler.defaultOutput(tempDir.resolve("agent.yaml")));
+    }
+
+    @Test
+    void testCorruptedSnapshotIsRejected() throws IOException {
+
+        byte[] bytes = AgentRuntimeSnapshotCompiler.compile(writeConfig());
+        bytes[bytes.length / 2] ^= 0x1;
+
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentRuntimeSnapshot.read(ByteBuffer.wrap(bytes)));
+        Assertions.assertThrows(AgentRuntimeException.class, () -> AgentRuntimeSnapshot.read(ByteBuffer.wrap(new byte[2])));
+    }
+
+}